@@ -14,4 +14,8 @@ public class MembershipProperties {
   private int gracePeriodDays = 7;
 
   private int cancellationDeadlineHours = 1;
+
+  private int waitlistOfferHoldMinutes = 30;
+
+  private int importBatchSize = 500;
 }
@@ -3,8 +3,11 @@ package com.example.gym_management.controller;
 import com.example.gym_management.dto.AuthResponse;
 import com.example.gym_management.dto.LoginRequest;
 import com.example.gym_management.dto.RefreshTokenRequest;
+import com.example.gym_management.entity.RevokedToken.RevocationReason;
 import com.example.gym_management.security.CustomUserDetails;
+import com.example.gym_management.security.JwtClaims;
 import com.example.gym_management.security.JwtUtils;
+import com.example.gym_management.service.TokenRevocationService;
 import com.example.gym_management.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +17,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,6 +25,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -33,6 +39,7 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
 
     @PostMapping("/login")
     @Operation(summary = "Authenticate user", description = "Authenticates a user with username and password, returning JWT access and refresh tokens")
@@ -53,8 +60,9 @@ public class AuthController {
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
-        String accessToken = jwtUtils.generateAccessToken(userDetails.getUsername());
-        String refreshToken = jwtUtils.generateRefreshToken(userDetails.getUsername());
+        String familyId = jwtUtils.newTokenFamily();
+        String accessToken = jwtUtils.generateAccessToken(userDetails, familyId);
+        String refreshToken = jwtUtils.generateRefreshToken(userDetails.getUsername(), familyId);
 
         AuthResponse response = new AuthResponse(
                 accessToken,
@@ -69,7 +77,7 @@ public class AuthController {
     }
 
     @PostMapping("/refresh")
-    @Operation(summary = "Refresh access token", description = "Generates a new access token using a valid refresh token")
+    @Operation(summary = "Refresh access token", description = "Exchanges a refresh token for a new access and refresh token. Each refresh token can be used once; reusing one revokes every token of its login session.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Token refreshed successfully",
                     content = @Content(schema = @Schema(implementation = AuthResponse.class))),
@@ -79,15 +87,21 @@ public class AuthController {
     public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
         String refreshToken = request.getRefreshToken();
 
-        if (!jwtUtils.validateToken(refreshToken) || !jwtUtils.isRefreshToken(refreshToken)) {
-            throw new IllegalArgumentException("Invalid refresh token");
-        }
+        JwtClaims claims = jwtUtils.verifyAndExtract(refreshToken)
+                .filter(JwtClaims::isRefreshToken)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
 
-        String username = jwtUtils.getUsernameFromToken(refreshToken);
+        String familyId = claims.familyId() != null ? claims.familyId() : jwtUtils.newTokenFamily();
+        tokenRevocationService.consumeRefreshToken(claims, refreshWindowEnd());
+
+        String username = claims.username();
         CustomUserDetails userDetails = (CustomUserDetails) userService.loadUserByUsername(username);
+        if (!userDetails.isEnabled()) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
 
-        String newAccessToken = jwtUtils.generateAccessToken(username);
-        String newRefreshToken = jwtUtils.generateRefreshToken(username);
+        String newAccessToken = jwtUtils.generateAccessToken(userDetails, familyId);
+        String newRefreshToken = jwtUtils.generateRefreshToken(username, familyId);
 
         AuthResponse response = new AuthResponse(
                 newAccessToken,
@@ -102,12 +116,19 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    @Operation(summary = "Logout user", description = "Clears the security context and logs out the current user")
+    @Operation(summary = "Logout user", description = "Revokes the presented access token and every token of its login session, including the refresh token")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully logged out"),
             @ApiResponse(responseCode = "401", description = "Not authenticated", content = @Content)
     })
-    public ResponseEntity<Map<String, String>> logout() {
+    public ResponseEntity<Map<String, String>> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            jwtUtils.verifyAndExtract(authorization.substring(7)).ifPresent(claims -> {
+                tokenRevocationService.revokeToken(claims, RevocationReason.LOGOUT);
+                tokenRevocationService.revokeFamily(claims.familyId(), RevocationReason.LOGOUT, refreshWindowEnd());
+            });
+        }
         SecurityContextHolder.clearContext();
 
         Map<String, String> response = new HashMap<>();
@@ -133,4 +154,12 @@ public class AuthController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Latest expiry of any refresh token issued so far, and therefore of any
+     * token in a family that is being revoked now.
+     */
+    private LocalDateTime refreshWindowEnd() {
+        return LocalDateTime.now().plus(Duration.ofMillis(jwtUtils.getRefreshExpirationMs()));
+    }
 }
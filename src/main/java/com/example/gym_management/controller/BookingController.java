@@ -2,7 +2,9 @@ package com.example.gym_management.controller;
 
 import com.example.gym_management.dto.BookingConflictResponse;
 import com.example.gym_management.dto.BookingDTOs.BookingEligibility;
+import com.example.gym_management.dto.BookingDTOs.BookingView;
 import com.example.gym_management.dto.BookingDTOs.ClassAvailability;
+import com.example.gym_management.dto.CursorPage;
 import com.example.gym_management.dto.BookingRequest;
 import com.example.gym_management.dto.BookingResponse;
 import com.example.gym_management.entity.Booking.BookingStatus;
@@ -83,13 +85,17 @@ public class BookingController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all bookings", description = "Retrieves all bookings in the system.")
+    @Operation(summary = "Get all bookings", description = "Retrieves one page of bookings ordered by id. Pass nextCursor from the previous page to continue.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Bookings retrieved successfully",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookingResponse.class))))
+            @ApiResponse(responseCode = "200", description = "Bookings retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
     })
-    public ResponseEntity<List<BookingResponse>> getAllBookings() {
-        List<BookingResponse> response = bookingService.getAllBookings();
+    public ResponseEntity<CursorPage<BookingResponse>> getAllBookings(
+            @Parameter(description = "Response shape: FULL embeds the scheduled class, COMPACT returns flat class fields only")
+            @RequestParam(defaultValue = "FULL") BookingView view,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 200)") @RequestParam(required = false) Integer size) {
+        CursorPage<BookingResponse> response = bookingService.getAllBookings(view, cursor, size);
         return ResponseEntity.ok(response);
     }
 
@@ -146,8 +152,10 @@ public class BookingController {
             @ApiResponse(responseCode = "404", description = "Member not found", content = @Content)
     })
     public ResponseEntity<List<BookingResponse>> getBookingsByMember(
-            @Parameter(description = "Member ID", required = true) @PathVariable Long memberId) {
-        List<BookingResponse> response = bookingService.getBookingsByMember(memberId);
+            @Parameter(description = "Member ID", required = true) @PathVariable Long memberId,
+            @Parameter(description = "Response shape: FULL embeds the scheduled class, COMPACT returns flat class fields only")
+            @RequestParam(defaultValue = "FULL") BookingView view) {
+        List<BookingResponse> response = bookingService.getBookingsByMember(memberId, view);
         return ResponseEntity.ok(response);
     }
 
@@ -159,8 +167,10 @@ public class BookingController {
             @ApiResponse(responseCode = "404", description = "Member not found", content = @Content)
     })
     public ResponseEntity<List<BookingResponse>> getActiveBookingsByMember(
-            @Parameter(description = "Member ID", required = true) @PathVariable Long memberId) {
-        List<BookingResponse> response = bookingService.getActiveBookingsByMember(memberId);
+            @Parameter(description = "Member ID", required = true) @PathVariable Long memberId,
+            @Parameter(description = "Response shape: FULL embeds the scheduled class, COMPACT returns flat class fields only")
+            @RequestParam(defaultValue = "FULL") BookingView view) {
+        List<BookingResponse> response = bookingService.getActiveBookingsByMember(memberId, view);
         return ResponseEntity.ok(response);
     }
 
@@ -172,8 +182,10 @@ public class BookingController {
             @ApiResponse(responseCode = "404", description = "Member not found", content = @Content)
     })
     public ResponseEntity<List<BookingResponse>> getUpcomingBookingsByMember(
-            @Parameter(description = "Member ID", required = true) @PathVariable Long memberId) {
-        List<BookingResponse> response = bookingService.getUpcomingBookingsByMember(memberId);
+            @Parameter(description = "Member ID", required = true) @PathVariable Long memberId,
+            @Parameter(description = "Response shape: FULL embeds the scheduled class, COMPACT returns flat class fields only")
+            @RequestParam(defaultValue = "FULL") BookingView view) {
+        List<BookingResponse> response = bookingService.getUpcomingBookingsByMember(memberId, view);
         return ResponseEntity.ok(response);
     }
 
@@ -185,8 +197,10 @@ public class BookingController {
             @ApiResponse(responseCode = "404", description = "Member not found", content = @Content)
     })
     public ResponseEntity<List<BookingResponse>> getPastBookingsByMember(
-            @Parameter(description = "Member ID", required = true) @PathVariable Long memberId) {
-        List<BookingResponse> response = bookingService.getPastBookingsByMember(memberId);
+            @Parameter(description = "Member ID", required = true) @PathVariable Long memberId,
+            @Parameter(description = "Response shape: FULL embeds the scheduled class, COMPACT returns flat class fields only")
+            @RequestParam(defaultValue = "FULL") BookingView view) {
+        List<BookingResponse> response = bookingService.getPastBookingsByMember(memberId, view);
         return ResponseEntity.ok(response);
     }
 
@@ -198,35 +212,45 @@ public class BookingController {
             @ApiResponse(responseCode = "404", description = "Scheduled class not found", content = @Content)
     })
     public ResponseEntity<List<BookingResponse>> getBookingsByScheduledClass(
-            @Parameter(description = "Scheduled Class ID", required = true) @PathVariable Long scheduledClassId) {
-        List<BookingResponse> response = bookingService.getBookingsByScheduledClass(scheduledClassId);
+            @Parameter(description = "Scheduled Class ID", required = true) @PathVariable Long scheduledClassId,
+            @Parameter(description = "Response shape: FULL embeds the scheduled class, COMPACT returns flat class fields only")
+            @RequestParam(defaultValue = "FULL") BookingView view) {
+        List<BookingResponse> response = bookingService.getBookingsByScheduledClass(scheduledClassId, view);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/status/{status}")
-    @Operation(summary = "Get bookings by status", description = "Retrieves all bookings with a specific status.")
+    @Operation(summary = "Get bookings by status", description = "Retrieves one page of bookings with a specific status, ordered by id.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Bookings retrieved successfully",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookingResponse.class))))
+            @ApiResponse(responseCode = "200", description = "Bookings retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
     })
-    public ResponseEntity<List<BookingResponse>> getBookingsByStatus(
-            @Parameter(description = "Booking status (ENROLLED, CANCELLED, COMPLETED)", required = true) @PathVariable BookingStatus status) {
-        List<BookingResponse> response = bookingService.getBookingsByStatus(status);
+    public ResponseEntity<CursorPage<BookingResponse>> getBookingsByStatus(
+            @Parameter(description = "Booking status (ENROLLED, CANCELLED, COMPLETED)", required = true) @PathVariable BookingStatus status,
+            @Parameter(description = "Response shape: FULL embeds the scheduled class, COMPACT returns flat class fields only")
+            @RequestParam(defaultValue = "FULL") BookingView view,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 200)") @RequestParam(required = false) Integer size) {
+        CursorPage<BookingResponse> response = bookingService.getBookingsByStatus(status, view, cursor, size);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/date-range")
-    @Operation(summary = "Get bookings by date range", description = "Retrieves all bookings within a specified date range.")
+    @Operation(summary = "Get bookings by date range", description = "Retrieves one page of bookings within a specified date range, ordered by class start time.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Bookings retrieved successfully",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookingResponse.class))))
+            @ApiResponse(responseCode = "200", description = "Bookings retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range, cursor or page size", content = @Content)
     })
-    public ResponseEntity<List<BookingResponse>> getBookingsByDateRange(
+    public ResponseEntity<CursorPage<BookingResponse>> getBookingsByDateRange(
             @Parameter(description = "Start date-time (ISO format)", required = true)
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @Parameter(description = "End date-time (ISO format)", required = true)
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<BookingResponse> response = bookingService.getBookingsByDateRange(startDate, endDate);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Response shape: FULL embeds the scheduled class, COMPACT returns flat class fields only")
+            @RequestParam(defaultValue = "FULL") BookingView view,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 200)") @RequestParam(required = false) Integer size) {
+        CursorPage<BookingResponse> response = bookingService.getBookingsByDateRange(startDate, endDate, view, cursor, size);
         return ResponseEntity.ok(response);
     }
 
@@ -1,8 +1,13 @@
 package com.example.gym_management.controller;
 
+import com.example.gym_management.dto.CursorPage;
+import com.example.gym_management.dto.MemberImportResponse;
+import com.example.gym_management.dto.MemberOverviewResponse;
 import com.example.gym_management.dto.MemberRequest;
 import com.example.gym_management.dto.MemberResponse;
 import com.example.gym_management.entity.Member;
+import com.example.gym_management.service.MemberImportService;
+import com.example.gym_management.service.MemberOverviewService;
 import com.example.gym_management.service.MemberService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,6 +24,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -28,6 +38,8 @@ import java.util.List;
 public class MemberController {
 
     private final MemberService memberService;
+    private final MemberOverviewService memberOverviewService;
+    private final MemberImportService memberImportService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
@@ -44,6 +56,28 @@ public class MemberController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Import members from CSV",
+            description = "Creates members from a UTF-8 CSV file whose header names the columns: firstName, "
+                    + "lastName, email, membershipPlanId. Rows that are invalid or whose email already exists are "
+                    + "skipped and reported. If the upload fails part way, send the same file again with the "
+                    + "returned jobId to continue after the last imported batch. Requires ADMIN or MANAGER role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Members imported",
+                    content = @Content(schema = @Schema(implementation = MemberImportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid file or unknown job id", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Import already completed, still running, or stopped "
+                    + "part way", content = @Content)
+    })
+    public ResponseEntity<MemberImportResponse> importMembers(
+            @Parameter(description = "Job id of an unfinished import to resume") @RequestParam(required = false) String jobId,
+            InputStream body) {
+        Reader csv = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return ResponseEntity.ok(memberImportService.importCsv(csv, jobId));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get member by ID", description = "Retrieves a member by their unique identifier.")
     @ApiResponses(value = {
@@ -57,14 +91,29 @@ public class MemberController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/overview")
+    @Operation(summary = "Get member overview", description = "Retrieves the member with their membership status, upcoming bookings, total paid and active waitlists in one response. Sections that cannot be loaded within two seconds are null and listed in unavailable.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Overview retrieved",
+                    content = @Content(schema = @Schema(implementation = MemberOverviewResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Member not found", content = @Content)
+    })
+    public ResponseEntity<MemberOverviewResponse> getMemberOverview(
+            @Parameter(description = "Member ID", required = true) @PathVariable Long id) {
+        MemberOverviewResponse response = memberOverviewService.getOverview(id);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
-    @Operation(summary = "Get all members", description = "Retrieves all gym members.")
+    @Operation(summary = "Get all members", description = "Retrieves one page of gym members ordered by id. Pass nextCursor from the previous page to continue.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Members retrieved successfully",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = MemberResponse.class))))
+            @ApiResponse(responseCode = "200", description = "Members retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
     })
-    public ResponseEntity<List<MemberResponse>> getAllMembers() {
-        List<MemberResponse> response = memberService.getAllMembers();
+    public ResponseEntity<CursorPage<MemberResponse>> getAllMembers(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 200)") @RequestParam(required = false) Integer size) {
+        CursorPage<MemberResponse> response = memberService.getAllMembers(cursor, size);
         return ResponseEntity.ok(response);
     }
 
@@ -100,14 +149,16 @@ public class MemberController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search members by name", description = "Searches for members by their first or last name.")
+    @Operation(summary = "Search members by name", description = "Searches members whose first name, last name or email contains every word of the query; words of one or two letters match the start of a word. Best matches first.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Search results retrieved",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = MemberResponse.class))))
     })
     public ResponseEntity<List<MemberResponse>> searchMembersByName(
-            @Parameter(description = "Name to search for", required = true) @RequestParam String name) {
-        List<MemberResponse> response = memberService.searchMembersByName(name);
+            @Parameter(description = "Name or email to search for", required = true) @RequestParam String name,
+            @Parameter(description = "Maximum number of results, 1 to 100; 20 if not given")
+            @RequestParam(required = false) Integer limit) {
+        List<MemberResponse> response = memberService.searchMembersByName(name, limit);
         return ResponseEntity.ok(response);
     }
 
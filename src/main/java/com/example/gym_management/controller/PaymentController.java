@@ -1,5 +1,6 @@
 package com.example.gym_management.controller;
 
+import com.example.gym_management.dto.CursorPage;
 import com.example.gym_management.dto.PaymentRequest;
 import com.example.gym_management.dto.PaymentResponse;
 import com.example.gym_management.entity.Payment.PaymentStatus;
@@ -61,13 +62,15 @@ public class PaymentController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all payments", description = "Retrieves all payments in the system.")
+    @Operation(summary = "Get all payments", description = "Retrieves one page of payments ordered by id. Pass nextCursor from the previous page to continue.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Payments retrieved successfully",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = PaymentResponse.class))))
+            @ApiResponse(responseCode = "200", description = "Payments retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
     })
-    public ResponseEntity<List<PaymentResponse>> getAllPayments() {
-        List<PaymentResponse> payments = paymentService.getAllPayments();
+    public ResponseEntity<CursorPage<PaymentResponse>> getAllPayments(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 200)") @RequestParam(required = false) Integer size) {
+        CursorPage<PaymentResponse> payments = paymentService.getAllPayments(cursor, size);
         return ResponseEntity.ok(payments);
     }
 
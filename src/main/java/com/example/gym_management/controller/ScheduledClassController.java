@@ -1,8 +1,18 @@
 package com.example.gym_management.controller;
 
+import com.example.gym_management.dto.CursorPage;
 import com.example.gym_management.dto.ScheduledClassRequest;
 import com.example.gym_management.dto.ScheduledClassResponse;
+import com.example.gym_management.dto.TimetableProposal;
+import com.example.gym_management.dto.TimetableRequest;
+import com.example.gym_management.dto.TimetableResponse;
+import com.example.gym_management.dto.TimetableSolveRequest;
+import com.example.gym_management.dto.TrainerReassignmentRequest;
+import com.example.gym_management.dto.TrainerReassignmentResponse;
 import com.example.gym_management.service.ScheduledClassService;
+import com.example.gym_management.service.SubstituteTrainerService;
+import com.example.gym_management.service.TimetableService;
+import com.example.gym_management.service.TimetableSolverService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -28,6 +38,9 @@ import java.util.List;
 public class ScheduledClassController {
 
   private final ScheduledClassService scheduledClassService;
+  private final TimetableService timetableService;
+  private final TimetableSolverService timetableSolverService;
+  private final SubstituteTrainerService substituteTrainerService;
 
   @PostMapping
   @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
@@ -44,6 +57,47 @@ public class ScheduledClassController {
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
 
+  @PostMapping("/timetable")
+  @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+  @Operation(summary = "Publish a timetable", description = "Expands weekly recurrence rules into classes, creates every occurrence without a conflict and reports the others. Requires ADMIN or MANAGER role.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Timetable processed; see conflicts for rejected occurrences", content = @Content(schema = @Schema(implementation = TimetableResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Invalid rules, or a class type, trainer, or room not found", content = @Content),
+      @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
+  })
+  public ResponseEntity<TimetableResponse> publishTimetable(@Valid @RequestBody TimetableRequest request) {
+    TimetableResponse response = timetableService.publishTimetable(request);
+    return ResponseEntity.ok(response);
+  }
+
+  @PostMapping("/timetable/solve")
+  @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+  @Operation(summary = "Propose a timetable", description = "Assigns a trainer, room and time to every requested weekly session, respecting availability, time off, opening hours, qualifications and room capacity. Nothing is scheduled. Requires ADMIN or MANAGER role.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Proposal computed; see unplaced for sessions that did not fit", content = @Content(schema = @Schema(implementation = TimetableProposal.class))),
+      @ApiResponse(responseCode = "400", description = "Invalid demand, or a gym or class type not found", content = @Content),
+      @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
+  })
+  public ResponseEntity<TimetableProposal> solveTimetable(@Valid @RequestBody TimetableSolveRequest request) {
+    TimetableProposal proposal = timetableSolverService.solve(request);
+    return ResponseEntity.ok(proposal);
+  }
+
+  @PostMapping("/reassign-trainers")
+  @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+  @Operation(summary = "Reassign trainers", description = "Moves classes to new trainers all together, or none if any trainer is from another gym, unqualified, unavailable or busy. Requires ADMIN or MANAGER role.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Classes reassigned", content = @Content(schema = @Schema(implementation = TrainerReassignmentResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Invalid request, or a class or trainer not found", content = @Content),
+      @ApiResponse(responseCode = "403", description = "Access denied", content = @Content),
+      @ApiResponse(responseCode = "409", description = "At least one reassignment is not possible; nothing was changed", content = @Content)
+  })
+  public ResponseEntity<TrainerReassignmentResponse> reassignTrainers(
+      @Valid @RequestBody TrainerReassignmentRequest request) {
+    TrainerReassignmentResponse response = substituteTrainerService.reassignTrainers(request);
+    return ResponseEntity.ok(response);
+  }
+
   @GetMapping("/{id}")
   @Operation(summary = "Get scheduled class by ID", description = "Retrieves a scheduled class by its unique identifier.")
   @ApiResponses(value = {
@@ -58,38 +112,53 @@ public class ScheduledClassController {
 
   @GetMapping
   @PreAuthorize("hasRole('ADMIN')")
-  public ResponseEntity<List<ScheduledClassResponse>> getAllScheduledClasses() {
-    List<ScheduledClassResponse> responses = scheduledClassService.getAllScheduledClasses();
+  public ResponseEntity<CursorPage<ScheduledClassResponse>> getAllScheduledClasses(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    CursorPage<ScheduledClassResponse> responses = scheduledClassService.getAllScheduledClasses(cursor, size);
     return ResponseEntity.ok(responses);
   }
 
   @GetMapping("/gym/{gymId}")
-  public ResponseEntity<List<ScheduledClassResponse>> getScheduledClassesByGymId(@PathVariable Long gymId) {
-    List<ScheduledClassResponse> responses = scheduledClassService.getScheduledClassesByGymId(gymId);
+  public ResponseEntity<CursorPage<ScheduledClassResponse>> getScheduledClassesByGymId(
+      @PathVariable Long gymId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    CursorPage<ScheduledClassResponse> responses = scheduledClassService.getScheduledClassesByGymId(gymId, cursor, size);
     return ResponseEntity.ok(responses);
   }
 
   @GetMapping("/upcoming")
-  public ResponseEntity<List<ScheduledClassResponse>> getUpcomingClasses() {
-    List<ScheduledClassResponse> responses = scheduledClassService.getUpcomingClasses();
+  public ResponseEntity<CursorPage<ScheduledClassResponse>> getUpcomingClasses(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    CursorPage<ScheduledClassResponse> responses = scheduledClassService.getUpcomingClasses(cursor, size);
     return ResponseEntity.ok(responses);
   }
 
   @GetMapping("/gym/{gymId}/upcoming")
-  public ResponseEntity<List<ScheduledClassResponse>> getUpcomingClassesByGymId(@PathVariable Long gymId) {
-    List<ScheduledClassResponse> responses = scheduledClassService.getUpcomingClassesByGymId(gymId);
+  public ResponseEntity<CursorPage<ScheduledClassResponse>> getUpcomingClassesByGymId(
+      @PathVariable Long gymId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    CursorPage<ScheduledClassResponse> responses = scheduledClassService.getUpcomingClassesByGymId(gymId, cursor, size);
     return ResponseEntity.ok(responses);
   }
 
   @GetMapping("/available")
-  public ResponseEntity<List<ScheduledClassResponse>> getAvailableClasses() {
-    List<ScheduledClassResponse> responses = scheduledClassService.getAvailableClasses();
+  public ResponseEntity<CursorPage<ScheduledClassResponse>> getAvailableClasses(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    CursorPage<ScheduledClassResponse> responses = scheduledClassService.getAvailableClasses(cursor, size);
     return ResponseEntity.ok(responses);
   }
 
   @GetMapping("/gym/{gymId}/available")
-  public ResponseEntity<List<ScheduledClassResponse>> getAvailableClassesByGymId(@PathVariable Long gymId) {
-    List<ScheduledClassResponse> responses = scheduledClassService.getAvailableClassesByGymId(gymId);
+  public ResponseEntity<CursorPage<ScheduledClassResponse>> getAvailableClassesByGymId(
+      @PathVariable Long gymId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    CursorPage<ScheduledClassResponse> responses = scheduledClassService.getAvailableClassesByGymId(gymId, cursor, size);
     return ResponseEntity.ok(responses);
   }
 
@@ -136,20 +205,42 @@ public class ScheduledClassController {
   }
 
   @GetMapping("/by-date-range")
-  public ResponseEntity<List<ScheduledClassResponse>> getClassesByDateRange(
+  public ResponseEntity<CursorPage<ScheduledClassResponse>> getClassesByDateRange(
       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-    List<ScheduledClassResponse> responses = scheduledClassService.getClassesByDateRange(startDate, endDate);
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    CursorPage<ScheduledClassResponse> responses = scheduledClassService.getClassesByDateRange(startDate, endDate,
+        cursor, size);
     return ResponseEntity.ok(responses);
   }
 
   @GetMapping("/gym/{gymId}/by-date-range")
-  public ResponseEntity<List<ScheduledClassResponse>> getClassesByDateRangeAndGymId(
+  public ResponseEntity<CursorPage<ScheduledClassResponse>> getClassesByDateRangeAndGymId(
       @PathVariable Long gymId,
       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-    List<ScheduledClassResponse> responses = scheduledClassService.getClassesByDateRangeAndGymId(gymId, startDate,
-        endDate);
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    CursorPage<ScheduledClassResponse> responses = scheduledClassService.getClassesByDateRangeAndGymId(gymId, startDate,
+        endDate, cursor, size);
+    return ResponseEntity.ok(responses);
+  }
+
+  @GetMapping("/conflicts")
+  @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+  @Operation(summary = "Find conflicting classes", description = "Lists the classes of the given trainers and rooms that overlap a time window. Requires ADMIN or MANAGER role.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Overlapping classes retrieved successfully"),
+      @ApiResponse(responseCode = "400", description = "Invalid window, or no trainer or room given", content = @Content),
+      @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
+  })
+  public ResponseEntity<List<ScheduledClassResponse>> findConflicts(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(required = false, defaultValue = "") List<Long> trainerIds,
+      @RequestParam(required = false, defaultValue = "") List<Long> roomIds) {
+    List<ScheduledClassResponse> responses = scheduledClassService.findConflicts(from, to, trainerIds, roomIds);
     return ResponseEntity.ok(responses);
   }
 
@@ -1,6 +1,8 @@
 package com.example.gym_management.controller;
 
 import com.example.gym_management.dto.*;
+import com.example.gym_management.service.SubstituteTrainerService;
+import com.example.gym_management.service.TimeOffImportService;
 import com.example.gym_management.service.TrainerAvailabilityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,11 +16,18 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 
@@ -29,6 +38,8 @@ import java.util.List;
 public class TrainerAvailabilityController {
 
     private final TrainerAvailabilityService trainerAvailabilityService;
+    private final SubstituteTrainerService substituteTrainerService;
+    private final TimeOffImportService timeOffImportService;
 
     @GetMapping("/{id}/availability")
     @Operation(summary = "Get trainer availability", description = "Retrieves all availability slots for a specific trainer.")
@@ -135,13 +146,14 @@ public class TrainerAvailabilityController {
 
     @PostMapping("/{id}/time-off")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    @Operation(summary = "Create time-off", description = "Creates a new time-off record for a trainer. Requires ADMIN or MANAGER role.")
+    @Operation(summary = "Create time-off", description = "Creates a new time-off record for a trainer, from one day up to a range of days that may start or end at noon. Classes already scheduled in it keep the trainer; see the impact analysis for substitutes. Requires ADMIN or MANAGER role.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Time-off created successfully",
                     content = @Content(schema = @Schema(implementation = TrainerTimeOffResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content),
             @ApiResponse(responseCode = "403", description = "Access denied", content = @Content),
-            @ApiResponse(responseCode = "404", description = "Trainer not found", content = @Content)
+            @ApiResponse(responseCode = "404", description = "Trainer not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Overlaps existing time off", content = @Content)
     })
     public ResponseEntity<TrainerTimeOffResponse> createTimeOff(
             @Parameter(description = "Trainer ID", required = true) @PathVariable Long id,
@@ -150,6 +162,61 @@ public class TrainerAvailabilityController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/time-off/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Import time off",
+            description = "Imports a holiday calendar or gym closures. Each entry names a trainer, or a gym to give "
+                    + "all its trainers the time off. Nothing is stored if any entry is invalid; entries already "
+                    + "stored with the same dates are skipped. Requires ADMIN or MANAGER role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Time off imported successfully",
+                    content = @Content(schema = @Schema(implementation = TimeOffImportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid entries, listed in the message", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
+    })
+    public ResponseEntity<TimeOffImportResponse> importTimeOff(@Valid @RequestBody TimeOffImportRequest request) {
+        return ResponseEntity.ok(timeOffImportService.importTimeOff(request));
+    }
+
+    @PostMapping(value = "/time-off/import", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Import time off from CSV",
+            description = "Same as the JSON import, from a UTF-8 CSV file whose header names the columns: trainerId, "
+                    + "gymId, startDate, endDate, startsAtNoon, endsAtNoon, reason. Requires ADMIN or MANAGER role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Time off imported successfully",
+                    content = @Content(schema = @Schema(implementation = TimeOffImportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid file or rows, listed in the message",
+                    content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
+    })
+    public ResponseEntity<TimeOffImportResponse> importTimeOffCsv(InputStream body) {
+        Reader csv = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return ResponseEntity.ok(timeOffImportService.importCsv(csv));
+    }
+
+    @GetMapping("/{id}/time-off/impact")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Analyse time-off impact",
+            description = "Lists the upcoming classes the trainer teaches between the dates, each with ranked substitutes "
+                    + "from the same gym who are qualified, available and free. Requires ADMIN or MANAGER role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Impact analysed successfully",
+                    content = @Content(schema = @Schema(implementation = TimeOffImpactResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid dates or trainer not found", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
+    })
+    public ResponseEntity<TimeOffImpactResponse> analyzeTimeOffImpact(
+            @Parameter(description = "Trainer ID", required = true) @PathVariable Long id,
+            @Parameter(description = "First day off (ISO format)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Last day off (ISO format); defaults to the first")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        TimeOffImpactResponse impact = substituteTrainerService.analyzeTimeOff(
+                id, startDate, endDate != null ? endDate : startDate);
+        return ResponseEntity.ok(impact);
+    }
+
     @DeleteMapping("/{id}/time-off/{timeOffId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     @Operation(summary = "Delete time-off", description = "Deletes a time-off record. Requires ADMIN or MANAGER role.")
@@ -179,4 +246,28 @@ public class TrainerAvailabilityController {
         List<AvailableTrainerDTO> availableTrainers = trainerAvailabilityService.findAvailableTrainers(date, time);
         return ResponseEntity.ok(availableTrainers);
     }
+
+    @GetMapping("/gym/{gymId}/available")
+    @Operation(summary = "Find trainers for a class",
+            description = "Finds trainers of a gym qualified for a class type who are free for a whole class within "
+                    + "the window: available, not on time off and not teaching another class. The duration defaults "
+                    + "to the class type's. Ranked by earliest possible start, then by fewest classes in the window.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching trainers retrieved successfully",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TrainerMatch.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid window, gym or class type", content = @Content)
+    })
+    public ResponseEntity<List<TrainerMatch>> findAvailableTrainersForClass(
+            @Parameter(description = "Gym ID", required = true) @PathVariable Long gymId,
+            @Parameter(description = "Class type ID", required = true) @RequestParam Long classTypeId,
+            @Parameter(description = "Start of the search window (ISO format)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the search window (ISO format)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Class duration in minutes")
+            @RequestParam(required = false) Integer durationMinutes) {
+        List<TrainerMatch> trainers = trainerAvailabilityService.findAvailableTrainers(
+                gymId, classTypeId, from, to, durationMinutes);
+        return ResponseEntity.ok(trainers);
+    }
 }
@@ -75,22 +75,25 @@ public class TrainerController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search trainers by name", description = "Searches for trainers by their first or last name.")
+    @Operation(summary = "Search trainers by name", description = "Searches trainers whose first or last name contains every word of the query; words of one or two letters match the start of a name. Best matches first.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Search results retrieved",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = TrainerResponse.class))))
     })
     public ResponseEntity<List<TrainerResponse>> searchTrainersByName(
-            @Parameter(description = "Name to search for", required = true) @RequestParam String name) {
-        List<TrainerResponse> trainers = trainerService.searchTrainersByName(name);
+            @Parameter(description = "Name to search for", required = true) @RequestParam String name,
+            @Parameter(description = "Maximum number of results, 1 to 100; 20 if not given")
+            @RequestParam(required = false) Integer limit) {
+        List<TrainerResponse> trainers = trainerService.searchTrainersByName(name, limit);
         return ResponseEntity.ok(trainers);
     }
 
     @GetMapping("/gym/{gymId}/search")
     public ResponseEntity<List<TrainerResponse>> searchTrainersByNameAndGymId(
             @PathVariable Long gymId,
-            @RequestParam String name) {
-        List<TrainerResponse> trainers = trainerService.searchTrainersByNameAndGymId(name, gymId);
+            @RequestParam String name,
+            @RequestParam(required = false) Integer limit) {
+        List<TrainerResponse> trainers = trainerService.searchTrainersByNameAndGymId(name, gymId, limit);
         return ResponseEntity.ok(trainers);
     }
 
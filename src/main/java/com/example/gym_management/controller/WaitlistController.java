@@ -1,8 +1,10 @@
 package com.example.gym_management.controller;
 
+import com.example.gym_management.dto.WaitlistExpiryStatsResponse;
 import com.example.gym_management.dto.WaitlistPositionResponse;
 import com.example.gym_management.dto.WaitlistRequest;
 import com.example.gym_management.dto.WaitlistResponse;
+import com.example.gym_management.service.WaitlistExpiryScheduler;
 import com.example.gym_management.service.WaitlistService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -29,6 +31,7 @@ import java.util.Map;
 public class WaitlistController {
 
     private final WaitlistService waitlistService;
+    private final WaitlistExpiryScheduler waitlistExpiryScheduler;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
@@ -62,6 +65,40 @@ public class WaitlistController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/{id}/accept")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    @Operation(summary = "Accept a waitlist offer",
+               description = "Books the seat held for an offered waitlist entry. Requires ADMIN, MANAGER, or EMPLOYEE role.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Offer accepted and booking created",
+            content = @Content(schema = @Schema(implementation = WaitlistResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Waitlist entry not found", content = @Content),
+        @ApiResponse(responseCode = "409", description = "No open offer, or the hold has expired", content = @Content)
+    })
+    public ResponseEntity<WaitlistResponse> acceptOffer(
+            @Parameter(description = "Waitlist entry ID", required = true) @PathVariable Long id) {
+        WaitlistResponse response = waitlistService.acceptOffer(id);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{id}/decline")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    @Operation(summary = "Decline a waitlist offer",
+               description = "Releases the seat held for an offered waitlist entry and offers it to the next member. Requires ADMIN, MANAGER, or EMPLOYEE role.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Offer declined",
+            content = @Content(schema = @Schema(implementation = WaitlistResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Waitlist entry not found", content = @Content),
+        @ApiResponse(responseCode = "409", description = "No open offer", content = @Content)
+    })
+    public ResponseEntity<WaitlistResponse> declineOffer(
+            @Parameter(description = "Waitlist entry ID", required = true) @PathVariable Long id) {
+        WaitlistResponse response = waitlistService.declineOffer(id);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}/position")
     @Operation(summary = "Get waitlist position",
                description = "Gets member's position in the waitlist queue.")
@@ -104,6 +141,20 @@ public class WaitlistController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/member/{memberId}/positions")
+    @Operation(summary = "Get member's waitlist positions",
+               description = "Gets the queue position of every active waitlist entry of a member in one call.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Positions retrieved successfully",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = WaitlistPositionResponse.class)))),
+        @ApiResponse(responseCode = "404", description = "Member not found", content = @Content)
+    })
+    public ResponseEntity<List<WaitlistPositionResponse>> getMemberWaitlistPositions(
+            @Parameter(description = "Member ID", required = true) @PathVariable Long memberId) {
+        List<WaitlistPositionResponse> response = waitlistService.getMemberWaitlistPositions(memberId);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/expire")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     @Operation(summary = "Expire old waitlist entries",
@@ -113,9 +164,22 @@ public class WaitlistController {
         @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
     })
     public ResponseEntity<Map<String, Object>> expireWaitlistEntries() {
-        int expiredCount = waitlistService.expireWaitlistEntries();
+        int expiredCount = waitlistExpiryScheduler.sweep();
         return ResponseEntity.ok(Map.of(
             "expiredCount", expiredCount,
             "message", "Successfully expired " + expiredCount + " waitlist entry(ies)"));
     }
+
+    @GetMapping("/expiry-stats")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Get waitlist expiry counters",
+               description = "Expired-entry counters and fallback sweep lag of this instance. Requires ADMIN or MANAGER role.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Counters retrieved successfully",
+            content = @Content(schema = @Schema(implementation = WaitlistExpiryStatsResponse.class))),
+        @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
+    })
+    public ResponseEntity<WaitlistExpiryStatsResponse> getExpiryStats() {
+        return ResponseEntity.ok(waitlistExpiryScheduler.getStats());
+    }
 }
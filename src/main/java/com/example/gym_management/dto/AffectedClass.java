@@ -0,0 +1,18 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "A class the absent trainer is scheduled to teach, with ranked substitutes")
+public record AffectedClass(
+        Long scheduledClassId,
+        Long gymId,
+        Long classTypeId,
+        String classTypeName,
+        LocalDateTime startTime,
+        Integer durationMinutes,
+        @Schema(description = "Qualified, available and free trainers of the same gym, least busy first")
+        List<SubstituteCandidate> substitutes) {
+}
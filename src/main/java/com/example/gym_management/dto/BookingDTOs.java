@@ -9,6 +9,12 @@ public final class BookingDTOs {
     private BookingDTOs() {
     }
 
+    @Schema(description = "Booking response shape: COMPACT omits the embedded scheduled class")
+    public enum BookingView {
+        COMPACT,
+        FULL
+    }
+
     @Schema(description = "Class availability information")
     public record ClassAvailability(
             Long scheduledClassId,
@@ -25,4 +25,10 @@ public class BookingResponse {
     private String className;
     private String trainerName;
     private String roomName;
+
+    @Schema(description = "Members currently enrolled in the booked class")
+    private Integer enrolledCount;
+
+    @Schema(description = "Room capacity of the booked class")
+    private Integer classCapacity;
 }
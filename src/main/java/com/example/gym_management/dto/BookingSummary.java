@@ -0,0 +1,27 @@
+package com.example.gym_management.dto;
+
+import com.example.gym_management.entity.Booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row selected by the booking projection queries in BookingRepository.
+ * One JOINed query yields everything a compact BookingResponse shows, so
+ * listing bookings never initializes Member or ScheduledClass entities.
+ */
+public record BookingSummary(
+        Long id,
+        BookingStatus status,
+        Long memberId,
+        String memberFirstName,
+        String memberLastName,
+        String memberEmail,
+        Long scheduledClassId,
+        LocalDateTime classStartTime,
+        String className,
+        String trainerFirstName,
+        String trainerLastName,
+        String roomName,
+        Integer enrolledCount,
+        Integer roomCapacity) {
+}
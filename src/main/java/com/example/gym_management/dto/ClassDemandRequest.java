@@ -0,0 +1,36 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "How many classes of one type a gym needs each week")
+public class ClassDemandRequest {
+
+    @NotNull(message = "Gym ID is required")
+    private Long gymId;
+
+    @NotNull(message = "Class type ID is required")
+    private Long classTypeId;
+
+    @NotNull(message = "Sessions per week is required")
+    @Min(value = 1, message = "Sessions per week must be at least 1")
+    @Max(value = 500, message = "Sessions per week cannot exceed 500")
+    private Integer sessionsPerWeek;
+
+    @Schema(description = "Smallest room capacity the class needs; any room if not given")
+    @Min(value = 1, message = "Minimum capacity must be at least 1")
+    private Integer minCapacity;
+
+    @Schema(description = "Class length in minutes; the class type's duration if not given")
+    @Min(value = 5, message = "Duration must be at least 5 minutes")
+    @Max(value = 1440, message = "Duration cannot exceed 24 hours")
+    private Integer durationMinutes;
+}
@@ -18,4 +18,9 @@ public class ClassTypeRequest {
 
     @Size(max = 1000, message = "Description cannot exceed 1000 characters")
     private String description;
+
+    @Schema(description = "Default class length in minutes; 60 if not given")
+    @Min(value = 5, message = "Duration must be at least 5 minutes")
+    @Max(value = 1440, message = "Duration cannot exceed 24 hours")
+    private Integer durationMinutes;
 }
@@ -14,6 +14,7 @@ public class ClassTypeResponse {
     private Long id;
     private String name;
     private String description;
+    private Integer durationMinutes;
 
     @Schema(description = "Number of scheduled classes of this type")
     private Integer scheduledClassCount;
@@ -0,0 +1,39 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of a keyset-paginated listing")
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    @Schema(description = "Opaque cursor for the next page; null on the last page")
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    public static <E, R> CursorPage<R> of(Slice<E> slice, Function<E, R> mapper,
+                                          Function<E, PageCursor> cursorOf) {
+        List<E> content = slice.getContent();
+        List<R> items = content.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (slice.hasNext() && !content.isEmpty()) {
+            nextCursor = cursorOf.apply(content.get(content.size() - 1)).encode();
+        }
+        return new CursorPage<>(items, nextCursor, nextCursor != null);
+    }
+}
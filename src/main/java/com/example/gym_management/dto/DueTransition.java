@@ -0,0 +1,13 @@
+package com.example.gym_management.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A member's next scheduled membership status change, selected in due order
+ * by the transition queries in MemberRepository to load the in-memory
+ * transition queue without loading Member entities.
+ */
+public record DueTransition(
+        Long memberId,
+        LocalDateTime dueAt) {
+}
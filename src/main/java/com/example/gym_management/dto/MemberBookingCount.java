@@ -0,0 +1,11 @@
+package com.example.gym_management.dto;
+
+/**
+ * How many bookings of one status a member has, selected per member by the
+ * grouped count query in BookingRepository so member listings can show
+ * booking counts without loading the bookings.
+ */
+public record MemberBookingCount(
+        Long memberId,
+        Long count) {
+}
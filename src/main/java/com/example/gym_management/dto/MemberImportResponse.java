@@ -0,0 +1,28 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of one upload of a member import")
+public record MemberImportResponse(
+        @Schema(description = "Id of the import; upload the same file again with it to resume after a failure")
+        String jobId,
+        @Schema(description = "Rows skipped because an earlier upload of this import already processed them")
+        long resumedAfterRow,
+        @Schema(description = "Members created by this upload")
+        int imported,
+        @Schema(description = "Rows skipped because a member with the email already exists")
+        int duplicates,
+        @Schema(description = "Rows skipped because they are invalid")
+        int failed,
+        @Schema(description = "The duplicate and invalid rows, up to 1000")
+        List<RowError> errors) {
+
+    public record RowError(
+            @Schema(description = "Line of the file the row starts on")
+            int line,
+            String email,
+            String message) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Member details, upcoming bookings, payments and waitlists in one response")
+public class MemberOverviewResponse {
+
+    @Schema(description = "Member details and membership status")
+    private MemberResponse member;
+
+    @Schema(description = "Upcoming bookings, in compact form")
+    private List<BookingResponse> upcomingBookings;
+
+    @Schema(description = "Total of the member's completed payments")
+    private BigDecimal totalPaid;
+
+    @Schema(description = "Waitlist entries still waiting or holding an offered seat")
+    private List<WaitlistResponse> activeWaitlists;
+
+    @Schema(description = "Sections that failed or did not load within the time budget; they are null")
+    private List<String> unavailable;
+}
@@ -0,0 +1,63 @@
+package com.example.gym_management.dto;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last row of a page: the sort key (null when the
+ * listing is ordered by id alone) and the id as tie-breaker. Clients only see
+ * the opaque Base64 form produced by {@link #encode()}.
+ */
+public record PageCursor(LocalDateTime sortKey, Long id) {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String SEPARATOR = "|";
+
+    public static PageCursor ofId(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    /**
+     * Decodes a client cursor, or returns the position before the first row
+     * ({@code startKey}, id 0) when no cursor was sent.
+     */
+    public static PageCursor decode(String token, LocalDateTime startKey) {
+        if (token == null || token.isBlank()) {
+            return new PageCursor(startKey, 0L);
+        }
+        PageCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            String key = raw.substring(0, separator);
+            cursor = new PageCursor(key.isEmpty() ? null : LocalDateTime.parse(key),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        if ((cursor.sortKey() == null) != (startKey == null)) {
+            throw new IllegalArgumentException("Page cursor does not belong to this listing");
+        }
+        return cursor;
+    }
+
+    public static Pageable pageRequest(Integer size) {
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, pageSize);
+    }
+
+    public String encode() {
+        String raw = (sortKey != null ? sortKey.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+
+@Schema(description = "A class placed by the timetable solver")
+public record ProposedClass(
+        Long gymId,
+        Long classTypeId,
+        Long trainerId,
+        Long roomId,
+        DayOfWeek dayOfWeek,
+        LocalDateTime startTime,
+        Integer durationMinutes) {
+}
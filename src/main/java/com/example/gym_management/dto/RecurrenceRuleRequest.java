@@ -0,0 +1,47 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A class repeating every week on one weekday between two dates")
+public class RecurrenceRuleRequest {
+
+    @NotNull(message = "Class type ID is required")
+    private Long classTypeId;
+
+    @NotNull(message = "Trainer ID is required")
+    private Long trainerId;
+
+    @NotNull(message = "Room ID is required")
+    private Long roomId;
+
+    @NotNull(message = "Day of week is required")
+    private DayOfWeek dayOfWeek;
+
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+
+    @Schema(description = "Class length in minutes; the class type's duration if not given")
+    @Min(value = 5, message = "Duration must be at least 5 minutes")
+    @Max(value = 1440, message = "Duration cannot exceed 24 hours")
+    private Integer durationMinutes;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @Schema(description = "Last date a class may fall on, inclusive")
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+}
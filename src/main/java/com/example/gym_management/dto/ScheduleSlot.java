@@ -0,0 +1,20 @@
+package com.example.gym_management.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * When and with whom a scheduled class runs, selected by the slot queries in
+ * ScheduledClassRepository to build conflict indexes without loading
+ * ScheduledClass entities.
+ */
+public record ScheduleSlot(
+        Long scheduledClassId,
+        Long trainerId,
+        Long roomId,
+        LocalDateTime startTime,
+        Integer durationMinutes) {
+
+    public LocalDateTime endTime() {
+        return startTime.plusMinutes(durationMinutes);
+    }
+}
@@ -19,10 +19,15 @@ public class ScheduledClassResponse {
     private TrainerDTO trainer;
     private RoomDTO room;
     private LocalDateTime startTime;
+    private Integer durationMinutes;
+    private LocalDateTime endTime;
 
     @Schema(description = "Current number of bookings")
     private Integer bookingCount;
 
     @Schema(description = "Remaining spots for booking")
     private Integer availableSpots;
+
+    @Schema(description = "Members currently waiting for a spot")
+    private Integer waitlistCount;
 }
@@ -0,0 +1,15 @@
+package com.example.gym_management.dto;
+
+/**
+ * The searchable fields of a member or trainer, selected by the search entry
+ * queries in MemberRepository and TrainerRepository to build the in-memory
+ * name search index without loading entities. Members have no gym and
+ * trainers no email.
+ */
+public record SearchEntry(
+        Long id,
+        Long gymId,
+        String firstName,
+        String lastName,
+        String email) {
+}
@@ -0,0 +1,12 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Trainer who could take over a class")
+public record SubstituteCandidate(
+        Long trainerId,
+        String firstName,
+        String lastName,
+        @Schema(description = "Classes the trainer already teaches in the analysed period")
+        int classesInPeriod) {
+}
@@ -0,0 +1,21 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Upcoming classes a trainer's time off would leave uncovered")
+public class TimeOffImpactResponse {
+
+    private Long trainerId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<AffectedClass> affectedClasses;
+}
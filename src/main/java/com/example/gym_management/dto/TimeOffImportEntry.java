@@ -0,0 +1,35 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Time off of one trainer, or of every trainer of a gym for a closure")
+public class TimeOffImportEntry {
+
+    @Schema(description = "Trainer taking the time off; leave empty for a gym-wide closure")
+    private Long trainerId;
+
+    @Schema(description = "Gym closing; every trainer of the gym gets the time off")
+    private Long gymId;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @Schema(description = "Last day off; defaults to the start date")
+    private LocalDate endDate;
+
+    private boolean startsAtNoon;
+    private boolean endsAtNoon;
+
+    @Size(max = 255, message = "Reason cannot exceed 255 characters")
+    private String reason;
+}
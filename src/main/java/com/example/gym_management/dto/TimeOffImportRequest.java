@@ -0,0 +1,22 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Holiday calendar or gym closures to import")
+public class TimeOffImportRequest {
+
+    @NotEmpty(message = "At least one entry is required")
+    @Size(max = 10000, message = "Cannot import more than 10000 entries at once")
+    private List<@Valid TimeOffImportEntry> entries;
+}
@@ -0,0 +1,13 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of a time-off import")
+public record TimeOffImportResponse(
+        @Schema(description = "Time-off records created")
+        int imported,
+        @Schema(description = "Records that already existed with the same dates")
+        int skipped,
+        @Schema(description = "Trainers whose time off changed")
+        int trainers) {
+}
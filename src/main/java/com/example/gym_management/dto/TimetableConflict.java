@@ -0,0 +1,15 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "An occurrence of a recurrence rule that could not be scheduled")
+public record TimetableConflict(
+        @Schema(description = "Position of the rule in the request, from 0")
+        int ruleIndex,
+        LocalDateTime startTime,
+        @Schema(description = "Every reason the occurrence was rejected")
+        List<String> reasons) {
+}
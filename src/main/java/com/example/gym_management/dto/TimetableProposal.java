@@ -0,0 +1,32 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Conflict-free timetable proposed for a week; nothing is scheduled until it is published")
+public class TimetableProposal {
+
+    private LocalDate weekStart;
+
+    @Schema(description = "Whether every requested session was placed")
+    private boolean complete;
+
+    private List<ProposedClass> classes;
+
+    @Schema(description = "Demands with sessions the solver could not place")
+    private List<UnplacedDemand> unplaced;
+
+    private Long searchMillis;
+
+    @Schema(description = "Sessions of a demand left without a trainer, room or slot")
+    public record UnplacedDemand(Long gymId, Long classTypeId, Integer missingSessions) {
+    }
+}
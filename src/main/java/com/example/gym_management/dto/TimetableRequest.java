@@ -0,0 +1,29 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Recurring classes to publish for one gym")
+public class TimetableRequest {
+
+    @NotNull(message = "Gym ID is required")
+    private Long gymId;
+
+    @NotEmpty(message = "At least one recurrence rule is required")
+    @Size(max = 500, message = "A timetable cannot have more than 500 rules")
+    private List<@Valid RecurrenceRuleRequest> rules;
+
+    @Schema(description = "Only report conflicts, without creating any class")
+    private boolean dryRun;
+}
@@ -0,0 +1,27 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of publishing a timetable")
+public class TimetableResponse {
+
+    private Long gymId;
+
+    @Schema(description = "Occurrences the rules expanded to")
+    private Integer occurrences;
+
+    @Schema(description = "Classes created; zero for a dry run")
+    private Integer created;
+
+    private List<Long> createdClassIds;
+
+    private List<TimetableConflict> conflicts;
+}
@@ -0,0 +1,33 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Weekly class demand to build a timetable for")
+public class TimetableSolveRequest {
+
+    @Schema(description = "Monday of the week to plan; its time off and existing classes are respected")
+    @NotNull(message = "Week start is required")
+    private LocalDate weekStart;
+
+    @NotEmpty(message = "At least one demand is required")
+    private List<@Valid ClassDemandRequest> demands;
+
+    @Schema(description = "How long the search may run, in milliseconds; 5000 if not given")
+    @Min(value = 100, message = "Time budget must be at least 100 ms")
+    @Max(value = 60000, message = "Time budget cannot exceed 60 seconds")
+    private Integer timeBudgetMillis;
+}
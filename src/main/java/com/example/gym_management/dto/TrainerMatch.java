@@ -0,0 +1,28 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Trainer who can teach a class within a search window")
+public class TrainerMatch {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+
+    @Schema(description = "Earliest start in the window at which the trainer is free for the whole class")
+    private LocalDateTime earliestStart;
+
+    @Schema(description = "Classes the trainer already teaches in the window")
+    private Integer classesInWindow;
+
+    private List<ClassTypeDTO> classTypes;
+}
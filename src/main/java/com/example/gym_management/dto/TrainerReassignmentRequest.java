@@ -0,0 +1,30 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "New trainers for scheduled classes, applied all together or not at all")
+public class TrainerReassignmentRequest {
+
+    @NotEmpty(message = "At least one assignment is required")
+    @Size(max = 500, message = "Cannot reassign more than 500 classes at once")
+    private List<@Valid Assignment> assignments;
+
+    public record Assignment(
+            @NotNull(message = "Scheduled class ID is required")
+            Long scheduledClassId,
+            @NotNull(message = "Trainer ID is required")
+            Long trainerId) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Classes whose trainer was changed")
+public record TrainerReassignmentResponse(
+        int reassigned,
+        List<Long> scheduledClassIds) {
+}
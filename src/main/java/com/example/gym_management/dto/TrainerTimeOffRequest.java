@@ -16,8 +16,18 @@ import java.time.LocalDate;
 public class TrainerTimeOffRequest {
 
     @NotNull(message = "Date is required")
+    @Schema(description = "First day off")
     private LocalDate date;
 
+    @Schema(description = "Last day off; defaults to the first")
+    private LocalDate endDate;
+
+    @Schema(description = "Only the afternoon of the first day is off")
+    private boolean startsAtNoon;
+
+    @Schema(description = "Only the morning of the last day is off")
+    private boolean endsAtNoon;
+
     @Size(max = 255, message = "Reason cannot exceed 255 characters")
     private String reason;
 }
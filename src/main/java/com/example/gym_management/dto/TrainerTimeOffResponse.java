@@ -16,6 +16,14 @@ public class TrainerTimeOffResponse {
     private Long id;
     private Long trainerId;
     private String trainerName;
+
+    @Schema(description = "First day off")
     private LocalDate date;
+
+    @Schema(description = "Last day off")
+    private LocalDate endDate;
+
+    private boolean startsAtNoon;
+    private boolean endsAtNoon;
     private String reason;
 }
@@ -0,0 +1,32 @@
+package com.example.gym_management.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Waitlist expiry counters of this instance since startup")
+public class WaitlistExpiryStatsResponse {
+
+    @Schema(description = "Classes with a pending expiry timer")
+    private Integer armedClasses;
+
+    @Schema(description = "Entries expired by class start timers")
+    private Long expiredByTimer;
+
+    @Schema(description = "Entries expired by the fallback sweep")
+    private Long expiredBySweep;
+
+    private LocalDateTime lastSweepAt;
+
+    @Schema(description = "Started classes the last sweep found with entries still waiting")
+    private Integer lastSweepMissedClasses;
+
+    @Schema(description = "How long after its start the most overdue of those classes was swept, in seconds")
+    private Long lastSweepMaxLagSeconds;
+}
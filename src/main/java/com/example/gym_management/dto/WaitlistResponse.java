@@ -21,6 +21,9 @@ public class WaitlistResponse {
     private LocalDateTime joinedAt;
     private LocalDateTime notifiedAt;
 
+    @Schema(description = "When the seat held for an offered entry is released")
+    private LocalDateTime offerExpiresAt;
+
     @Schema(description = "When the class starts")
     private LocalDateTime classStartTime;
 
@@ -0,0 +1,91 @@
+package com.example.gym_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One execution of a background batch job, such as a data migration or a
+ * member import. The (job name, run key) pair is unique, so only
+ * one instance in the cluster can create a run; the instance that owns it
+ * renews {@code heartbeatAt} after every chunk, and a run whose heartbeat has
+ * gone stale can be taken over and resumed from its steps' checkpoints.
+ */
+@Entity
+@Table(name = "batch_job_runs",
+    indexes = {
+        @Index(name = "idx_batch_job_run_status", columnList = "job_name, status")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_batch_job_run_key", columnNames = {"job_name", "run_key"})
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchJobRun {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "job_name", nullable = false, length = 100)
+  private String jobName;
+
+  @Column(name = "run_key", nullable = false, length = 100)
+  private String runKey;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private Status status;
+
+  @Column(length = 36)
+  private String owner;
+
+  @Column(name = "started_at", nullable = false)
+  private LocalDateTime startedAt;
+
+  @Column(name = "heartbeat_at", nullable = false)
+  private LocalDateTime heartbeatAt;
+
+  @Column(name = "finished_at")
+  private LocalDateTime finishedAt;
+
+  @Column(name = "rows_affected", nullable = false)
+  private long rowsAffected;
+
+  @Column(name = "chunk_count", nullable = false)
+  private int chunkCount;
+
+  @Column(name = "last_error", length = 500)
+  private String lastError;
+
+  @OneToMany(mappedBy = "run", cascade = CascadeType.ALL)
+  @OrderBy("id")
+  private List<BatchJobStep> steps = new ArrayList<>();
+
+  public BatchJobRun(String jobName, String runKey, String owner) {
+    this.jobName = jobName;
+    this.runKey = runKey;
+    this.owner = owner;
+    this.status = Status.RUNNING;
+    this.startedAt = LocalDateTime.now();
+    this.heartbeatAt = this.startedAt;
+  }
+
+  public void addStep(BatchJobStep step) {
+    step.setRun(this);
+    steps.add(step);
+  }
+
+  public enum Status {
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.gym_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable slice of a {@link BatchJobRun}: one phase of the job over one
+ * id range. {@code lastId} is the keyset checkpoint, committed together with
+ * each chunk, so a resumed run continues after the last committed row. The
+ * chunk counters are the per-chunk timing that the job history reports.
+ */
+@Entity
+@Table(name = "batch_job_steps",
+    indexes = {
+        @Index(name = "idx_batch_job_step_run", columnList = "run_id")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchJobStep {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "run_id", nullable = false)
+  private BatchJobRun run;
+
+  @Column(name = "step_name", nullable = false, length = 100)
+  private String stepName;
+
+  @Column(name = "partition_no", nullable = false)
+  private int partitionNo;
+
+  @Column(name = "last_id", nullable = false)
+  private long lastId;
+
+  @Column(name = "upper_id", nullable = false)
+  private long upperId;
+
+  @Column(nullable = false)
+  private boolean completed;
+
+  @Column(name = "rows_affected", nullable = false)
+  private long rowsAffected;
+
+  @Column(name = "chunk_count", nullable = false)
+  private int chunkCount;
+
+  @Column(name = "total_chunk_millis", nullable = false)
+  private long totalChunkMillis;
+
+  @Column(name = "max_chunk_millis", nullable = false)
+  private long maxChunkMillis;
+
+  @Column(name = "finished_at")
+  private LocalDateTime finishedAt;
+
+  public BatchJobStep(String stepName, int partitionNo, long lastId, long upperId) {
+    this.stepName = stepName;
+    this.partitionNo = partitionNo;
+    this.lastId = lastId;
+    this.upperId = upperId;
+  }
+
+  public void recordChunk(int rows, Long chunkLastId, long millis) {
+    if (chunkLastId != null) {
+      lastId = chunkLastId;
+    }
+    rowsAffected += rows;
+    chunkCount++;
+    totalChunkMillis += millis;
+    maxChunkMillis = Math.max(maxChunkMillis, millis);
+  }
+
+  public void complete() {
+    completed = true;
+    finishedAt = LocalDateTime.now();
+  }
+}
@@ -7,7 +7,11 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings",
+    indexes = {
+        @Index(name = "idx_booking_member_status", columnList = "member_id, status")
+    }
+)
 @Getter
 @Setter
 @NoArgsConstructor
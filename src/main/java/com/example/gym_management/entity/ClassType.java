@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.List;
@@ -28,6 +29,13 @@ public class ClassType {
   @Column(columnDefinition = "TEXT")
   private String description;
 
+  /**
+   * Default length of a class of this type; a scheduled class may override it.
+   */
+  @ColumnDefault("60")
+  @Column(name = "duration_minutes", nullable = false)
+  private Integer durationMinutes = 60;
+
   @OneToMany(mappedBy = "classType", cascade = CascadeType.ALL)
   private List<ScheduledClass> scheduledClasses;
 
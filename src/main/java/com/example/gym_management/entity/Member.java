@@ -19,7 +19,9 @@ import java.util.List;
 @Table(name = "members",
     indexes = {
         @Index(name = "idx_member_status", columnList = "membership_status"),
-        @Index(name = "idx_member_end_date", columnList = "membership_end_date")
+        @Index(name = "idx_member_end_date", columnList = "membership_end_date"),
+        @Index(name = "idx_member_status_id", columnList = "membership_status, id"),
+        @Index(name = "idx_member_next_transition", columnList = "next_transition_at, id")
     }
 )
 @EntityListeners(AuditingEntityListener.class)
@@ -56,6 +58,13 @@ public class Member {
   @Column(name = "membership_status", length = 20)
   private MembershipStatus membershipStatus;
 
+  /**
+   * When the status next changes by date alone; null when it never will.
+   * Indexed, so the members due next can be read in order.
+   */
+  @Column(name = "next_transition_at")
+  private LocalDateTime nextTransitionAt;
+
   @OneToMany(mappedBy = "member", cascade = CascadeType.ALL)
   private List<Booking> bookings;
 
@@ -100,6 +109,42 @@ public class Member {
     return membershipStatus == MembershipStatus.ACTIVE;
   }
 
+  public void scheduleNextTransition(int gracePeriodDays) {
+    nextTransitionAt = nextTransitionTime(membershipStatus, membershipEndDate, gracePeriodDays);
+  }
+
+  /**
+   * When a membership in {@code status} ending on {@code endDate} next moves
+   * on by date alone: ACTIVE becomes GRACE_PERIOD at the start of the day
+   * after the end date, and GRACE_PERIOD becomes EXPIRED at the start of the
+   * day after the grace period. Null for other statuses or without an end date.
+   */
+  public static LocalDateTime nextTransitionTime(MembershipStatus status, LocalDate endDate, int gracePeriodDays) {
+    if (status == null || endDate == null) {
+      return null;
+    }
+    return switch (status) {
+      case ACTIVE -> endDate.plusDays(1).atStartOfDay();
+      case GRACE_PERIOD -> endDate.plusDays(gracePeriodDays + 1L).atStartOfDay();
+      default -> null;
+    };
+  }
+
+  /**
+   * The status a membership in {@code status} has reached at {@code time},
+   * after every transition due by then, so a long-lapsed ACTIVE membership
+   * goes straight to EXPIRED.
+   */
+  public static MembershipStatus statusAt(MembershipStatus status, LocalDate endDate, int gracePeriodDays,
+                                          LocalDateTime time) {
+    LocalDateTime due = nextTransitionTime(status, endDate, gracePeriodDays);
+    while (due != null && !due.isAfter(time)) {
+      status = status == MembershipStatus.ACTIVE ? MembershipStatus.GRACE_PERIOD : MembershipStatus.EXPIRED;
+      due = nextTransitionTime(status, endDate, gracePeriodDays);
+    }
+    return status;
+  }
+
   public enum MembershipStatus {
     PENDING, ACTIVE, GRACE_PERIOD, EXPIRED, SUSPENDED, CANCELLED
   }
@@ -0,0 +1,92 @@
+package com.example.gym_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denylist entry for a JWT id (jti) or a whole token family (every access and
+ * refresh token issued from one login). Rows are only needed until the
+ * revoked tokens would have expired anyway and are pruned after that.
+ */
+@Entity
+@Table(name = "revoked_tokens",
+    indexes = {
+        @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_revoked_token_revoked_at", columnList = "revoked_at")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class RevokedToken implements Persistable<String> {
+
+  @Id
+  @Column(name = "token_id", length = 36)
+  private String tokenId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private RevocationKind kind;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private RevocationReason reason;
+
+  @Column(name = "family_id", length = 36)
+  private String familyId;
+
+  @Column(name = "expires_at", nullable = false)
+  private LocalDateTime expiresAt;
+
+  @Column(name = "revoked_at", nullable = false)
+  private LocalDateTime revokedAt;
+
+  @Transient
+  private boolean isNew = true;
+
+  public RevokedToken(String tokenId, RevocationKind kind, RevocationReason reason, String familyId,
+                      LocalDateTime expiresAt) {
+    this.tokenId = tokenId;
+    this.kind = kind;
+    this.reason = reason;
+    this.familyId = familyId;
+    this.expiresAt = expiresAt;
+    this.revokedAt = LocalDateTime.now();
+  }
+
+  @Override
+  public String getId() {
+    return tokenId;
+  }
+
+  /**
+   * Always inserted, never merged: a second revocation of the same id fails
+   * on the primary key, which is what refresh-token reuse detection relies on.
+   */
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
+  public enum RevocationKind {
+    TOKEN,
+    FAMILY
+  }
+
+  public enum RevocationReason {
+    LOGOUT,
+    ROTATED,
+    REUSE_DETECTED
+  }
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -36,6 +37,16 @@ public class Room {
   @OneToMany(mappedBy = "room", cascade = CascadeType.ALL)
   private List<ScheduledClass> scheduledClasses;
 
+  /**
+   * Bumped by every change to this room's scheduled classes, through a bulk
+   * update that also locks the row until the change commits. Lets
+   * ScheduleConflictIndex tell whether its copy of the schedule is current.
+   * Not updatable, so saving a stale copy of the entity cannot roll it back.
+   */
+  @ColumnDefault("0")
+  @Column(name = "schedule_version", nullable = false, updatable = false)
+  private Long scheduleVersion = 0L;
+
   public Room(Gym gym, String roomName, Integer capacity, Boolean hasEquipment) {
     this.gym = gym;
     this.roomName = roomName;
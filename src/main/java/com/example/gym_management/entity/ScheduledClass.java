@@ -5,12 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "scheduled_classes")
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -40,6 +43,33 @@ public class ScheduledClass {
   @Column(name = "start_time", nullable = false)
   private LocalDateTime startTime;
 
+  @ColumnDefault("60")
+  @Column(name = "duration_minutes", nullable = false)
+  private Integer durationMinutes = 60;
+
+  /**
+   * Seats held by ENROLLED bookings and the number of WAITING waitlist entries.
+   * Both are denormalized counters that are only ever changed through the
+   * bulk updates in {@link com.example.gym_management.repository.ScheduledClassRepository},
+   * never through the entity, so a stale in-memory value is never flushed back.
+   */
+  @ColumnDefault("0")
+  @Column(name = "enrolled_count", nullable = false)
+  private Integer enrolledCount = 0;
+
+  @ColumnDefault("0")
+  @Column(name = "waitlist_count", nullable = false)
+  private Integer waitlistCount = 0;
+
+  /**
+   * Last queue sequence handed to a waitlist entry of this class. Like the
+   * counters above it only moves through a bulk update, which also serializes
+   * concurrent joins on this row.
+   */
+  @ColumnDefault("0")
+  @Column(name = "waitlist_sequence", nullable = false)
+  private Long waitlistSequence = 0L;
+
   @OneToMany(mappedBy = "scheduledClass", cascade = CascadeType.ALL)
   private List<Booking> bookings;
 
@@ -57,4 +87,8 @@ public class ScheduledClass {
     this.room = room;
     this.startTime = startTime;
   }
+
+  public LocalDateTime getEndTime() {
+    return startTime != null ? startTime.plusMinutes(durationMinutes) : null;
+  }
 }
@@ -5,9 +5,17 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 
+/**
+ * Time off from {@link #getStartsAt()} to {@link #getEndsAt()}: whole days
+ * from {@code startDate} to {@code endDate}, except that a half day starts
+ * at noon on the first day or ends at noon on the last.
+ */
 @Entity
 @Table(name = "trainer_time_off")
 @Getter
@@ -24,15 +32,58 @@ public class TrainerTimeOff {
   @JoinColumn(name = "trainer_id", nullable = false)
   private Trainer trainer;
 
+  // Keeps the column of the single-day rows it replaces.
   @Column(name = "date", nullable = false)
-  private LocalDate date;
+  private LocalDate startDate;
+
+  /**
+   * Last day off; null on rows from before ranges, which cover one day.
+   */
+  @Column(name = "end_date")
+  private LocalDate endDate;
+
+  @ColumnDefault("false")
+  @Column(name = "starts_at_noon", nullable = false)
+  private boolean startsAtNoon;
+
+  @ColumnDefault("false")
+  @Column(name = "ends_at_noon", nullable = false)
+  private boolean endsAtNoon;
 
   @Column(name = "reason", length = 255)
   private String reason;
 
   public TrainerTimeOff(Trainer trainer, LocalDate date, String reason) {
+    this(trainer, date, date, false, false, reason);
+  }
+
+  public TrainerTimeOff(Trainer trainer, LocalDate startDate, LocalDate endDate, boolean startsAtNoon,
+                        boolean endsAtNoon, String reason) {
     this.trainer = trainer;
-    this.date = date;
+    this.startDate = startDate;
+    this.endDate = endDate;
+    this.startsAtNoon = startsAtNoon;
+    this.endsAtNoon = endsAtNoon;
     this.reason = reason;
   }
+
+  public LocalDate getEndDate() {
+    return endDate != null ? endDate : startDate;
+  }
+
+  public LocalDateTime getStartsAt() {
+    return startsAtNoon ? startDate.atTime(LocalTime.NOON) : startDate.atStartOfDay();
+  }
+
+  public LocalDateTime getEndsAt() {
+    return endsAtNoon ? getEndDate().atTime(LocalTime.NOON) : getEndDate().plusDays(1).atStartOfDay();
+  }
+
+  /**
+   * Whether the two share any time. Both ends are exclusive, so a morning
+   * off and an afternoon off on the same day do not overlap.
+   */
+  public boolean overlaps(TrainerTimeOff other) {
+    return getStartsAt().isBefore(other.getEndsAt()) && other.getStartsAt().isBefore(getEndsAt());
+  }
 }
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -52,6 +53,15 @@ public class User {
   @Column(nullable = false)
   private Boolean enabled = true;
 
+  /**
+   * Bumped whenever the account is disabled or its role, gym or credentials
+   * change. Access tokens carry the value they were issued with, so a token
+   * minted before the change stops authenticating.
+   */
+  @ColumnDefault("0")
+  @Column(name = "security_version", nullable = false)
+  private Integer securityVersion = 0;
+
   @CreatedDate
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
     indexes = {
         @Index(name = "idx_waitlist_scheduled_class", columnList = "scheduled_class_id"),
         @Index(name = "idx_waitlist_member", columnList = "member_id"),
-        @Index(name = "idx_waitlist_status", columnList = "status")
+        @Index(name = "idx_waitlist_status", columnList = "status"),
+        @Index(name = "idx_waitlist_class_sequence", columnList = "scheduled_class_id, queue_sequence"),
+        @Index(name = "idx_waitlist_status_offer_expires", columnList = "status, offer_expires_at")
     },
     uniqueConstraints = {
         @UniqueConstraint(
@@ -43,6 +45,14 @@ public class Waitlist {
   @Column(name = "joined_at", nullable = false)
   private LocalDateTime joinedAt;
 
+  /**
+   * Position of this entry in its class's queue, increasing per class in join
+   * order. Entries created before sequences existed are numbered by
+   * WaitlistSequenceMigration.
+   */
+  @Column(name = "queue_sequence")
+  private Long queueSequence;
+
   @Enumerated(EnumType.STRING)
   @Column(nullable = false, length = 20)
   private WaitlistStatus status;
@@ -50,6 +60,13 @@ public class Waitlist {
   @Column(name = "notified_at")
   private LocalDateTime notifiedAt;
 
+  /**
+   * End of the hold on a seat offered to this entry; set while OFFERED. Never
+   * later than the class start.
+   */
+  @Column(name = "offer_expires_at")
+  private LocalDateTime offerExpiresAt;
+
   @Version
   private Long version;
 
@@ -62,7 +79,9 @@ public class Waitlist {
 
   public enum WaitlistStatus {
     WAITING,
+    OFFERED,
     PROMOTED,
+    DECLINED,
     EXPIRED,
     REMOVED
   }
@@ -2,6 +2,9 @@ package com.example.gym_management.mapper;
 
 import com.example.gym_management.dto.BookingRequest;
 import com.example.gym_management.dto.BookingResponse;
+import com.example.gym_management.dto.BookingSummary;
+import com.example.gym_management.dto.MemberDTO;
+import com.example.gym_management.dto.ScheduledClassResponse;
 import com.example.gym_management.entity.Booking;
 import com.example.gym_management.entity.Member;
 import com.example.gym_management.entity.ScheduledClass;
@@ -27,76 +30,70 @@ public class BookingMapper {
     if (booking == null) {
       return null;
     }
+    return toResponse(booking, scheduledClassMapper.toResponse(booking.getScheduledClass()));
+  }
 
-    String className = null;
-    String trainerName = null;
-    String roomName = null;
-    LocalDateTime classStartTime = null;
-
-    if (booking.getScheduledClass() != null) {
-      classStartTime = booking.getScheduledClass().getStartTime();
-
-      if (booking.getScheduledClass().getClassType() != null) {
-        className = booking.getScheduledClass().getClassType().getName();
-      }
-
-      if (booking.getScheduledClass().getTrainer() != null) {
-        trainerName = booking.getScheduledClass().getTrainer().getFirstName() + " " +
-            booking.getScheduledClass().getTrainer().getLastName();
-      }
-
-      if (booking.getScheduledClass().getRoom() != null) {
-        roomName = booking.getScheduledClass().getRoom().getRoomName();
-      }
+  public BookingResponse toSummaryResponse(BookingSummary summary) {
+    if (summary == null) {
+      return null;
     }
 
+    String trainerName = summary.trainerFirstName() != null
+        ? summary.trainerFirstName() + " " + summary.trainerLastName()
+        : null;
+
     return new BookingResponse(
-        booking.getId(),
-        memberMapper.toSimpleDto(booking.getMember()),
-        scheduledClassMapper.toResponse(booking.getScheduledClass()),
-        booking.getStatus(),
-        classStartTime,
-        className,
+        summary.id(),
+        new MemberDTO(summary.memberId(), summary.memberFirstName(), summary.memberLastName(), summary.memberEmail()),
+        null,
+        summary.status(),
+        summary.classStartTime(),
+        summary.className(),
         trainerName,
-        roomName);
+        summary.roomName(),
+        summary.enrolledCount(),
+        summary.roomCapacity());
   }
 
-  public BookingResponse toCompactResponse(Booking booking) {
-    if (booking == null) {
-      return null;
-    }
-
+  private BookingResponse toResponse(Booking booking, ScheduledClassResponse scheduledClassResponse) {
     String className = null;
     String trainerName = null;
     String roomName = null;
     LocalDateTime classStartTime = null;
+    Integer enrolledCount = null;
+    Integer classCapacity = null;
 
-    if (booking.getScheduledClass() != null) {
-      classStartTime = booking.getScheduledClass().getStartTime();
+    ScheduledClass scheduledClass = booking.getScheduledClass();
+    if (scheduledClass != null) {
+      classStartTime = scheduledClass.getStartTime();
+      enrolledCount = scheduledClass.getEnrolledCount();
 
-      if (booking.getScheduledClass().getClassType() != null) {
-        className = booking.getScheduledClass().getClassType().getName();
+      if (scheduledClass.getClassType() != null) {
+        className = scheduledClass.getClassType().getName();
       }
 
-      if (booking.getScheduledClass().getTrainer() != null) {
-        trainerName = booking.getScheduledClass().getTrainer().getFirstName() + " " +
-            booking.getScheduledClass().getTrainer().getLastName();
+      if (scheduledClass.getTrainer() != null) {
+        trainerName = scheduledClass.getTrainer().getFirstName() + " " +
+            scheduledClass.getTrainer().getLastName();
       }
 
-      if (booking.getScheduledClass().getRoom() != null) {
-        roomName = booking.getScheduledClass().getRoom().getRoomName();
+      if (scheduledClass.getRoom() != null) {
+        roomName = scheduledClass.getRoom().getRoomName();
+        classCapacity = scheduledClass.getRoom().getCapacity();
       }
     }
 
     return new BookingResponse(
         booking.getId(),
         memberMapper.toSimpleDto(booking.getMember()),
-        null,
+        scheduledClassResponse,
         booking.getStatus(),
         classStartTime,
         className,
         trainerName,
-        roomName);
+        roomName,
+        enrolledCount,
+        classCapacity);
   }
 
   public List<BookingResponse> toResponseList(List<Booking> bookings) {
@@ -30,6 +30,7 @@ public class ClassTypeMapper {
         classType.getId(),
         classType.getName(),
         classType.getDescription(),
+        classType.getDurationMinutes(),
         calculateScheduledClassCount(classType));
   }
 
@@ -41,6 +42,7 @@ public class ClassTypeMapper {
         classType.getId(),
         classType.getName(),
         classType.getDescription(),
+        classType.getDurationMinutes(),
         null);
   }
 
@@ -51,14 +53,21 @@ public class ClassTypeMapper {
   }
 
   public ClassType toEntity(ClassTypeRequest request) {
-    return new ClassType(
+    ClassType classType = new ClassType(
         request.getName(),
         request.getDescription());
+    if (request.getDurationMinutes() != null) {
+      classType.setDurationMinutes(request.getDurationMinutes());
+    }
+    return classType;
   }
 
   public void updateEntity(ClassTypeRequest request, ClassType classType) {
     classType.setName(request.getName());
     classType.setDescription(request.getDescription());
+    if (request.getDurationMinutes() != null) {
+      classType.setDurationMinutes(request.getDurationMinutes());
+    }
   }
 
   private Integer calculateScheduledClassCount(ClassType classType) {
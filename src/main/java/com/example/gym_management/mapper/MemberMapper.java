@@ -3,7 +3,6 @@ package com.example.gym_management.mapper;
 import com.example.gym_management.dto.MemberDTO;
 import com.example.gym_management.dto.MemberRequest;
 import com.example.gym_management.dto.MemberResponse;
-import com.example.gym_management.entity.Booking;
 import com.example.gym_management.entity.Member;
 import com.example.gym_management.entity.MembershipPlan;
 import com.example.gym_management.repository.MembershipPlanRepository;
@@ -13,6 +12,7 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
@@ -34,7 +34,7 @@ public class MemberMapper {
         );
     }
 
-    public MemberResponse toResponse(Member member) {
+    public MemberResponse toResponse(Member member, Integer activeBookingsCount) {
         if (member == null) {
             return null;
         }
@@ -50,33 +50,17 @@ public class MemberMapper {
                 member.getMembershipStatus() != null ? member.getMembershipStatus().name() : null,
                 calculateDaysUntilExpiration(member),
                 member.isExpired(),
-                calculateActiveBookingsCount(member)
+                activeBookingsCount
         );
     }
 
     public MemberResponse toResponseWithoutBookingCount(Member member) {
-        if (member == null) {
-            return null;
-        }
-
-        return new MemberResponse(
-                member.getId(),
-                member.getFirstName(),
-                member.getLastName(),
-                member.getEmail(),
-                membershipPlanMapper.toResponse(member.getMembershipPlan()),
-                member.getMembershipStartDate(),
-                member.getMembershipEndDate(),
-                member.getMembershipStatus() != null ? member.getMembershipStatus().name() : null,
-                calculateDaysUntilExpiration(member),
-                member.isExpired(),
-                null
-        );
+        return toResponse(member, null);
     }
 
-    public List<MemberResponse> toResponseListWithoutBookingCount(List<Member> members) {
+    public List<MemberResponse> toResponseList(List<Member> members, Map<Long, Integer> activeBookingsCounts) {
         return members.stream()
-                .map(this::toResponseWithoutBookingCount)
+                .map(member -> toResponse(member, activeBookingsCounts.getOrDefault(member.getId(), 0)))
                 .collect(Collectors.toList());
     }
 
@@ -111,15 +95,6 @@ public class MemberMapper {
         }
     }
 
-    private Integer calculateActiveBookingsCount(Member member) {
-        if (member.getBookings() == null) {
-            return 0;
-        }
-        return (int) member.getBookings().stream()
-                .filter(b -> b.getStatus() == Booking.BookingStatus.ENROLLED)
-                .count();
-    }
-
     private Integer calculateDaysUntilExpiration(Member member) {
         if (member.getMembershipEndDate() == null) {
             return null;
@@ -45,8 +45,11 @@ public class ScheduledClassMapper {
                 trainerMapper.toSimpleDto(scheduledClass.getTrainer()),
                 roomMapper.toDto(scheduledClass.getRoom()),
                 scheduledClass.getStartTime(),
+                scheduledClass.getDurationMinutes(),
+                scheduledClass.getEndTime(),
                 bookingCount,
-                availableSpots
+                availableSpots,
+                scheduledClass.getWaitlistCount() != null ? scheduledClass.getWaitlistCount() : 0
         );
     }
 
@@ -79,6 +82,7 @@ public class ScheduledClassMapper {
         scheduledClass.setTrainer(trainer);
         scheduledClass.setRoom(room);
         scheduledClass.setStartTime(request.getStartTime());
+        scheduledClass.setDurationMinutes(durationOf(request, classType));
         return scheduledClass;
     }
 
@@ -101,6 +105,7 @@ public class ScheduledClassMapper {
         scheduledClass.setTrainer(trainer);
         scheduledClass.setRoom(room);
         scheduledClass.setStartTime(request.getStartTime());
+        scheduledClass.setDurationMinutes(durationOf(request, classType));
         return scheduledClass;
     }
 
@@ -128,6 +133,17 @@ public class ScheduledClassMapper {
         scheduledClass.setTrainer(trainer);
         scheduledClass.setRoom(room);
         scheduledClass.setStartTime(request.getStartTime());
+        scheduledClass.setDurationMinutes(durationOf(request, classType));
+    }
+
+    /**
+     * Length of the class a request schedules: its own duration, or else the
+     * class type's.
+     */
+    private int durationOf(ScheduledClassRequest request, ClassType classType) {
+        return request.getDurationMinutes() != null
+                ? request.getDurationMinutes()
+                : classType.getDurationMinutes();
     }
 
     private GymDTO toGymDto(Gym gym) {
@@ -138,8 +154,8 @@ public class ScheduledClassMapper {
     }
 
     private Integer calculateBookingCount(ScheduledClass scheduledClass) {
-        return scheduledClass.getBookings() != null
-                ? scheduledClass.getBookings().size()
+        return scheduledClass.getEnrolledCount() != null
+                ? scheduledClass.getEnrolledCount()
                 : 0;
     }
 
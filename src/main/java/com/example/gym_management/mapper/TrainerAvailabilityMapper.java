@@ -8,6 +8,7 @@ import com.example.gym_management.repository.TrainerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -64,7 +65,10 @@ public class TrainerAvailabilityMapper {
                 timeOff.getId(),
                 timeOff.getTrainer().getId(),
                 getTrainerFullName(timeOff.getTrainer()),
-                timeOff.getDate(),
+                timeOff.getStartDate(),
+                timeOff.getEndDate(),
+                timeOff.isStartsAtNoon(),
+                timeOff.isEndsAtNoon(),
                 timeOff.getReason()
         );
     }
@@ -82,6 +86,9 @@ public class TrainerAvailabilityMapper {
         return new TrainerTimeOff(
                 trainer,
                 request.getDate(),
+                request.getEndDate() != null ? request.getEndDate() : request.getDate(),
+                request.isStartsAtNoon(),
+                request.isEndsAtNoon(),
                 request.getReason()
         );
     }
@@ -107,6 +114,23 @@ public class TrainerAvailabilityMapper {
         );
     }
 
+    public TrainerMatch toTrainerMatch(Trainer trainer, LocalDateTime earliestStart, int classesInWindow) {
+        List<ClassTypeDTO> classTypeDTOs = trainer.getClassTypes() != null
+                ? trainer.getClassTypes().stream()
+                .map(classTypeMapper::toSimpleDto)
+                .collect(Collectors.toList())
+                : null;
+
+        return new TrainerMatch(
+                trainer.getId(),
+                trainer.getFirstName(),
+                trainer.getLastName(),
+                earliestStart,
+                classesInWindow,
+                classTypeDTOs
+        );
+    }
+
     private String getTrainerFullName(Trainer trainer) {
         return trainer.getFirstName() + " " + trainer.getLastName();
     }
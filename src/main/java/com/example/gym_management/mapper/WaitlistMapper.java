@@ -39,6 +39,7 @@ public class WaitlistMapper {
         waitlist.getStatus(),
         waitlist.getJoinedAt(),
         waitlist.getNotifiedAt(),
+        waitlist.getOfferExpiresAt(),
         classStartTime,
         className
     );
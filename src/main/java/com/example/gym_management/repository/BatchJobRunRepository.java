@@ -0,0 +1,46 @@
+package com.example.gym_management.repository;
+
+import com.example.gym_management.entity.BatchJobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BatchJobRunRepository extends JpaRepository<BatchJobRun, Long> {
+
+    Optional<BatchJobRun> findByJobNameAndRunKey(String jobName, String runKey);
+
+    List<BatchJobRun> findByJobNameAndStatusNotOrderById(String jobName, BatchJobRun.Status status);
+
+    /**
+     * Hands a failed run, or one whose owner stopped sending heartbeats, to a
+     * new owner. Returns 0 when the run is completed or still actively owned.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BatchJobRun r SET r.owner = :owner, r.status = :running, r.heartbeatAt = :now, " +
+           "r.lastError = NULL " +
+           "WHERE r.id = :id AND r.status <> :completed " +
+           "AND (r.status <> :running OR r.heartbeatAt < :staleBefore)")
+    int takeOver(@Param("id") Long id,
+                 @Param("owner") String owner,
+                 @Param("now") LocalDateTime now,
+                 @Param("staleBefore") LocalDateTime staleBefore,
+                 @Param("running") BatchJobRun.Status running,
+                 @Param("completed") BatchJobRun.Status completed);
+
+    @Modifying
+    @Query("UPDATE BatchJobRun r SET r.heartbeatAt = :now " +
+           "WHERE r.id = :id AND r.owner = :owner AND r.status = :running")
+    int heartbeat(@Param("id") Long id,
+                  @Param("owner") String owner,
+                  @Param("now") LocalDateTime now,
+                  @Param("running") BatchJobRun.Status running);
+}
@@ -0,0 +1,13 @@
+package com.example.gym_management.repository;
+
+import com.example.gym_management.entity.BatchJobStep;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BatchJobStepRepository extends JpaRepository<BatchJobStep, Long> {
+
+    List<BatchJobStep> findByRunIdOrderById(Long runId);
+}
@@ -1,19 +1,35 @@
 package com.example.gym_management.repository;
 
+import com.example.gym_management.dto.BookingSummary;
+import com.example.gym_management.dto.MemberBookingCount;
 import com.example.gym_management.entity.Booking;
 import com.example.gym_management.entity.Booking.BookingStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    /**
+     * Shared SELECT of the BookingSummary projection queries: one row per
+     * booking, joined to everything a compact response displays.
+     */
+    String SUMMARY_SELECT = "SELECT new com.example.gym_management.dto.BookingSummary(" +
+            "b.id, b.status, m.id, m.firstName, m.lastName, m.email, sc.id, sc.startTime, ct.name, " +
+            "t.firstName, t.lastName, r.roomName, sc.enrolledCount, r.capacity) " +
+            "FROM Booking b JOIN b.member m JOIN b.scheduledClass sc JOIN sc.classType ct " +
+            "JOIN sc.trainer t JOIN sc.room r ";
+
     List<Booking> findByMemberId(Long memberId);
 
     List<Booking> findByScheduledClassId(Long scheduledClassId);
@@ -33,14 +49,119 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.scheduledClass.id = :classId AND b.status = 'ENROLLED'")
     Long countEnrolledByScheduledClassId(@Param("classId") Long classId);
 
-    @Query("SELECT b FROM Booking b JOIN FETCH b.scheduledClass sc WHERE b.member.id = :memberId AND sc.startTime >= :startTime AND b.status = 'ENROLLED' ORDER BY sc.startTime")
+    long countByMemberIdAndStatus(Long memberId, BookingStatus status);
+
+    @Query("SELECT new com.example.gym_management.dto.MemberBookingCount(b.member.id, COUNT(b)) FROM Booking b " +
+           "WHERE b.member.id IN :memberIds AND b.status = :status GROUP BY b.member.id")
+    List<MemberBookingCount> countByMemberIdsAndStatus(@Param("memberIds") Collection<Long> memberIds,
+                                                       @Param("status") BookingStatus status);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.member JOIN FETCH b.scheduledClass sc " +
+           "JOIN FETCH sc.gym JOIN FETCH sc.classType JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE b.member.id = :memberId AND sc.startTime >= :startTime AND b.status = 'ENROLLED' " +
+           "ORDER BY sc.startTime")
     List<Booking> findUpcomingBookingsByMemberId(@Param("memberId") Long memberId, @Param("startTime") LocalDateTime startTime);
 
-    @Query("SELECT b FROM Booking b JOIN FETCH b.scheduledClass sc WHERE b.member.id = :memberId AND sc.startTime < :endTime AND b.status = 'ENROLLED' ORDER BY sc.startTime DESC")
+    @Query("SELECT b FROM Booking b JOIN FETCH b.member JOIN FETCH b.scheduledClass sc " +
+           "JOIN FETCH sc.gym JOIN FETCH sc.classType JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE b.member.id = :memberId AND sc.startTime < :endTime AND b.status = 'ENROLLED' " +
+           "ORDER BY sc.startTime DESC")
     List<Booking> findPastBookingsByMemberId(@Param("memberId") Long memberId, @Param("endTime") LocalDateTime endTime);
 
     @Query("SELECT b FROM Booking b WHERE b.scheduledClass.startTime BETWEEN :startTime AND :endTime")
     List<Booking> findBookingsByDateRange(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
 
     boolean existsByMemberIdAndScheduledClassIdAndStatus(Long memberId, Long scheduledClassId, BookingStatus status);
+
+    @Query("SELECT b.member.id FROM Booking b WHERE b.scheduledClass.id = :classId " +
+           "AND b.status = 'ENROLLED' AND b.member.id IN :memberIds")
+    List<Long> findEnrolledMemberIds(@Param("classId") Long classId, @Param("memberIds") List<Long> memberIds);
+
+    /**
+     * Creates one booking per waitlist entry in a single INSERT ... SELECT.
+     */
+    @Modifying
+    @Query("INSERT INTO Booking (member, scheduledClass, status) " +
+           "SELECT w.member, w.scheduledClass, :status FROM Waitlist w WHERE w.id IN :waitlistIds")
+    int insertFromWaitlist(@Param("waitlistIds") List<Long> waitlistIds, @Param("status") BookingStatus status);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :to WHERE b.scheduledClass.id = :classId AND b.status = :from")
+    int updateStatusByScheduledClassId(@Param("classId") Long classId,
+                                       @Param("from") BookingStatus from,
+                                       @Param("to") BookingStatus to);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.member JOIN FETCH b.scheduledClass sc " +
+           "JOIN FETCH sc.gym JOIN FETCH sc.classType JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE b.id > :afterId ORDER BY b.id")
+    Slice<Booking> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.member JOIN FETCH b.scheduledClass sc " +
+           "JOIN FETCH sc.gym JOIN FETCH sc.classType JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE b.status = :status AND b.id > :afterId ORDER BY b.id")
+    Slice<Booking> findPageByStatusAfter(@Param("status") BookingStatus status,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.member JOIN FETCH b.scheduledClass sc " +
+           "JOIN FETCH sc.gym JOIN FETCH sc.classType JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE sc.startTime <= :endTime " +
+           "AND (sc.startTime > :afterTime OR (sc.startTime = :afterTime AND b.id > :afterId)) " +
+           "ORDER BY sc.startTime, b.id")
+    Slice<Booking> findPageByDateRangeAfter(@Param("afterTime") LocalDateTime afterTime,
+                                            @Param("afterId") Long afterId,
+                                            @Param("endTime") LocalDateTime endTime,
+                                            Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE sc.id = :classId ORDER BY b.id")
+    List<BookingSummary> findSummariesByScheduledClassId(@Param("classId") Long classId);
+
+    @Query(SUMMARY_SELECT + "WHERE m.id = :memberId ORDER BY sc.startTime DESC, b.id")
+    List<BookingSummary> findSummariesByMemberId(@Param("memberId") Long memberId);
+
+    @Query(SUMMARY_SELECT + "WHERE m.id = :memberId AND b.status = :status ORDER BY sc.startTime DESC, b.id")
+    List<BookingSummary> findSummariesByMemberIdAndStatus(@Param("memberId") Long memberId,
+                                                          @Param("status") BookingStatus status);
+
+    @Query(SUMMARY_SELECT + "WHERE m.id = :memberId AND sc.startTime >= :startTime AND b.status = 'ENROLLED' " +
+           "ORDER BY sc.startTime")
+    List<BookingSummary> findUpcomingSummariesByMemberId(@Param("memberId") Long memberId,
+                                                         @Param("startTime") LocalDateTime startTime);
+
+    @Query(SUMMARY_SELECT + "WHERE m.id = :memberId AND sc.startTime < :endTime AND b.status = 'ENROLLED' " +
+           "ORDER BY sc.startTime DESC")
+    List<BookingSummary> findPastSummariesByMemberId(@Param("memberId") Long memberId,
+                                                     @Param("endTime") LocalDateTime endTime);
+
+    @Query(SUMMARY_SELECT + "WHERE b.id > :afterId ORDER BY b.id")
+    Slice<BookingSummary> findSummaryPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE b.status = :status AND b.id > :afterId ORDER BY b.id")
+    Slice<BookingSummary> findSummaryPageByStatusAfter(@Param("status") BookingStatus status,
+                                                       @Param("afterId") Long afterId,
+                                                       Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE sc.startTime <= :endTime " +
+           "AND (sc.startTime > :afterTime OR (sc.startTime = :afterTime AND b.id > :afterId)) " +
+           "ORDER BY sc.startTime, b.id")
+    Slice<BookingSummary> findSummaryPageByDateRangeAfter(@Param("afterTime") LocalDateTime afterTime,
+                                                          @Param("afterId") Long afterId,
+                                                          @Param("endTime") LocalDateTime endTime,
+                                                          Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.member JOIN FETCH b.scheduledClass sc " +
+           "JOIN FETCH sc.gym JOIN FETCH sc.classType JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE sc.id = :classId ORDER BY b.id")
+    List<Booking> findByScheduledClassIdWithDetails(@Param("classId") Long classId);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.member m JOIN FETCH b.scheduledClass sc " +
+           "JOIN FETCH sc.gym JOIN FETCH sc.classType JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE m.id = :memberId ORDER BY sc.startTime DESC, b.id")
+    List<Booking> findByMemberIdWithDetails(@Param("memberId") Long memberId);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.member m JOIN FETCH b.scheduledClass sc " +
+           "JOIN FETCH sc.gym JOIN FETCH sc.classType JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE m.id = :memberId AND b.status = :status ORDER BY sc.startTime DESC, b.id")
+    List<Booking> findByMemberIdAndStatusWithDetails(@Param("memberId") Long memberId,
+                                                     @Param("status") BookingStatus status);
 }
@@ -0,0 +1,51 @@
+package com.example.gym_management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserts imported members through JDBC batches. Onboarding a franchise is
+ * tens of thousands of members, which Hibernate would insert one round trip
+ * at a time because of their IDENTITY ids. Auditing columns are filled here,
+ * since the JPA auditing listener does not see these rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO members (first_name, last_name, email, membership_plan_id, created_at, updated_at, " +
+            "created_by, modified_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record NewMember(
+            String firstName,
+            String lastName,
+            String email,
+            Long membershipPlanId) {
+    }
+
+    public void insertAll(List<NewMember> members, String createdBy) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, members, members.size(), (ps, member) -> {
+            ps.setString(1, member.firstName());
+            ps.setString(2, member.lastName());
+            ps.setString(3, member.email());
+            if (member.membershipPlanId() != null) {
+                ps.setLong(4, member.membershipPlanId());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setObject(5, now);
+            ps.setObject(6, now);
+            ps.setString(7, createdBy);
+            ps.setString(8, createdBy);
+        });
+    }
+}
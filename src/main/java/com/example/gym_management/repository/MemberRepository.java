@@ -1,12 +1,19 @@
 package com.example.gym_management.repository;
 
+import com.example.gym_management.dto.DueTransition;
+import com.example.gym_management.dto.SearchEntry;
 import com.example.gym_management.entity.Member;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,15 +26,20 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
 
     List<Member> findByMembershipPlanId(Long membershipPlanId);
 
-    @Query("SELECT m FROM Member m WHERE LOWER(m.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(m.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Member> searchByName(@Param("name") String name);
+    @Query("SELECT new com.example.gym_management.dto.SearchEntry(m.id, CAST(NULL AS Long), m.firstName, " +
+           "m.lastName, m.email) FROM Member m WHERE m.id > :afterId ORDER BY m.id")
+    List<SearchEntry> findSearchEntriesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.example.gym_management.dto.SearchEntry(m.id, CAST(NULL AS Long), m.firstName, " +
+           "m.lastName, m.email) FROM Member m WHERE m.email IN :emails")
+    List<SearchEntry> findSearchEntriesByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT m.email FROM Member m")
+    List<String> findAllEmails();
 
     @Query("SELECT m FROM Member m WHERE m.membershipPlan IS NULL")
     List<Member> findMembersWithoutPlan();
 
-    @Query("SELECT m FROM Member m LEFT JOIN FETCH m.bookings WHERE m.id = :id")
-    Optional<Member> findByIdWithBookings(@Param("id") Long id);
-
     List<Member> findByMembershipStatus(Member.MembershipStatus status);
 
     @Query("SELECT m FROM Member m WHERE m.membershipEndDate IS NOT NULL " +
@@ -36,13 +48,46 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     List<Member> findExpiringBetween(@Param("startDate") LocalDate startDate,
                                      @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT m FROM Member m WHERE m.membershipEndDate < :date " +
-           "AND m.membershipStatus = 'ACTIVE'")
-    List<Member> findExpiredActive(@Param("date") LocalDate date);
+    @Query("SELECT new com.example.gym_management.dto.DueTransition(m.id, m.nextTransitionAt) FROM Member m " +
+           "WHERE m.nextTransitionAt <= :until ORDER BY m.nextTransitionAt, m.id")
+    List<DueTransition> findDueTransitions(@Param("until") LocalDateTime until, Pageable pageable);
+
+    @Query("SELECT new com.example.gym_management.dto.DueTransition(m.id, m.nextTransitionAt) FROM Member m " +
+           "WHERE m.nextTransitionAt <= :until AND (m.nextTransitionAt > :afterDue " +
+           "OR (m.nextTransitionAt = :afterDue AND m.id > :afterId)) ORDER BY m.nextTransitionAt, m.id")
+    List<DueTransition> findDueTransitionsAfter(@Param("until") LocalDateTime until,
+                                                @Param("afterDue") LocalDateTime afterDue,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
 
-    @Query("SELECT m FROM Member m WHERE m.membershipEndDate < :date " +
-           "AND m.membershipStatus = 'GRACE_PERIOD'")
-    List<Member> findBeyondGracePeriod(@Param("date") LocalDate date);
+    /**
+     * Applies one transition to members that all share it. The status, end
+     * date and due time are checked again so a membership renewed or
+     * changed since it was read is left alone.
+     */
+    @Modifying
+    @Query("UPDATE Member m SET m.membershipStatus = :to, m.nextTransitionAt = :next, m.updatedAt = :now, " +
+           "m.modifiedBy = 'system' WHERE m.id IN :ids AND m.membershipStatus = :from " +
+           "AND m.membershipEndDate = :endDate AND m.nextTransitionAt = :due")
+    int applyTransition(@Param("ids") List<Long> ids,
+                        @Param("from") Member.MembershipStatus from,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("due") LocalDateTime due,
+                        @Param("to") Member.MembershipStatus to,
+                        @Param("next") LocalDateTime next,
+                        @Param("now") LocalDateTime now);
+
+    @Query("SELECT m FROM Member m WHERE m.id > :afterId AND m.membershipStatus IN :statuses " +
+           "AND m.membershipEndDate IS NOT NULL AND m.nextTransitionAt IS NULL ORDER BY m.id")
+    List<Member> findUnscheduledAfter(@Param("afterId") Long afterId,
+                                      @Param("statuses") List<Member.MembershipStatus> statuses,
+                                      Pageable pageable);
+
+    @Query("SELECT m FROM Member m LEFT JOIN FETCH m.membershipPlan WHERE m.id > :afterId " +
+           "AND ((m.membershipPlan IS NOT NULL AND (m.membershipStartDate IS NULL " +
+           "OR m.membershipEndDate IS NULL OR m.membershipStatus IS NULL)) " +
+           "OR (m.membershipPlan IS NULL AND m.membershipStatus IS NULL)) ORDER BY m.id")
+    List<Member> findMissingMembershipDataAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     @Query("SELECT COUNT(m) FROM Member m WHERE m.membershipStatus = 'ACTIVE'")
     Long countActiveMembers();
@@ -50,4 +95,7 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     @Query("SELECT m FROM Member m WHERE m.membershipPlan IS NOT NULL " +
            "AND m.membershipEndDate IS NULL")
     List<Member> findWithPlanButNoEndDate();
+
+    @Query("SELECT m FROM Member m LEFT JOIN FETCH m.membershipPlan WHERE m.id > :afterId ORDER BY m.id")
+    Slice<Member> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
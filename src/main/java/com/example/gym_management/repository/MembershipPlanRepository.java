@@ -2,6 +2,7 @@ package com.example.gym_management.repository;
 
 import com.example.gym_management.entity.MembershipPlan;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +13,7 @@ public interface MembershipPlanRepository extends JpaRepository<MembershipPlan,
   List<MembershipPlan> findByTierNameContainingIgnoreCase(String tierName);
 
   List<MembershipPlan> findByDurationDaysLessThanEqual(Integer durationDays);
+
+  @Query("SELECT p.id FROM MembershipPlan p")
+  List<Long> findAllIds();
 }
@@ -2,6 +2,8 @@ package com.example.gym_management.repository;
 
 import com.example.gym_management.entity.Payment;
 import com.example.gym_management.entity.Payment.PaymentStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -39,4 +41,7 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     @Query("SELECT p FROM Payment p WHERE p.status = 'PENDING' AND p.paymentDate < :thresholdDate")
     List<Payment> findOverduePendingPayments(@Param("thresholdDate") LocalDateTime thresholdDate);
+
+    @Query("SELECT p FROM Payment p JOIN FETCH p.member WHERE p.id > :afterId ORDER BY p.id")
+    Slice<Payment> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
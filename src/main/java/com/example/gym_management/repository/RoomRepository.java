@@ -2,10 +2,12 @@ package com.example.gym_management.repository;
 
 import com.example.gym_management.entity.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +16,9 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
 
     List<Room> findByGymId(Long gymId);
 
+    @Query("SELECT r FROM Room r WHERE r.gym.id IN :gymIds")
+    List<Room> findByGymIdIn(@Param("gymIds") Collection<Long> gymIds);
+
     @Query("SELECT r FROM Room r WHERE r.gym.id = :gymId AND r.id = :roomId")
     Optional<Room> findByIdAndGymId(@Param("roomId") Long roomId, @Param("gymId") Long gymId);
 
@@ -21,4 +26,15 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     Optional<Room> findByIdWithScheduledClasses(@Param("id") Long id);
 
     boolean existsByGymIdAndRoomName(Long gymId, String roomName);
+
+    /**
+     * Bumps the schedule version; the row stays locked until the caller's
+     * transaction ends, which serializes schedule changes per room.
+     */
+    @Modifying
+    @Query("UPDATE Room r SET r.scheduleVersion = r.scheduleVersion + 1 WHERE r.id = :id")
+    int incrementScheduleVersion(@Param("id") Long id);
+
+    @Query("SELECT r.scheduleVersion FROM Room r WHERE r.id = :id")
+    Optional<Long> findScheduleVersion(@Param("id") Long id);
 }
@@ -0,0 +1,119 @@
+package com.example.gym_management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts and reassigns scheduled classes through JDBC batches. Hibernate
+ * cannot batch inserts of IDENTITY entities, so publishing a term of classes
+ * through {@link ScheduledClassRepository#saveAll} would cost one round trip
+ * per class. Runs on the connection of the surrounding JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ScheduledClassBatchRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO scheduled_classes (gym_id, class_type_id, trainer_id, room_id, start_time, " +
+            "duration_minutes, enrolled_count, waitlist_count, waitlist_sequence) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, 0, 0)";
+
+    private static final String REASSIGN_SQL =
+            "UPDATE scheduled_classes SET trainer_id = ? WHERE id = ? AND trainer_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record NewScheduledClass(
+            Long gymId,
+            Long classTypeId,
+            Long trainerId,
+            Long roomId,
+            LocalDateTime startTime,
+            int durationMinutes) {
+    }
+
+    public record TrainerChange(Long scheduledClassId, Long fromTrainerId, Long toTrainerId) {
+    }
+
+    /**
+     * Inserts the classes in batches of {@link #BATCH_SIZE} and returns their
+     * generated ids in the order given.
+     */
+    public List<Long> insertAll(List<NewScheduledClass> classes) {
+        List<Long> ids = new ArrayList<>(classes.size());
+        for (int from = 0; from < classes.size(); from += BATCH_SIZE) {
+            List<NewScheduledClass> batch = classes.subList(from, Math.min(from + BATCH_SIZE, classes.size()));
+            GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            NewScheduledClass scheduledClass = batch.get(i);
+                            ps.setLong(1, scheduledClass.gymId());
+                            ps.setLong(2, scheduledClass.classTypeId());
+                            ps.setLong(3, scheduledClass.trainerId());
+                            ps.setLong(4, scheduledClass.roomId());
+                            ps.setObject(5, scheduledClass.startTime());
+                            ps.setInt(6, scheduledClass.durationMinutes());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    },
+                    keyHolder);
+            // Only the id column is requested; drivers differ in how they case its name.
+            for (Map<String, Object> keys : keyHolder.getKeyList()) {
+                ids.add(((Number) keys.values().iterator().next()).longValue());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Moves each class to its new trainer if it is still taught by the old
+     * one. Returns the ids of the classes that were not, which the caller
+     * should treat as a concurrent change.
+     */
+    public List<Long> reassignTrainers(List<TrainerChange> changes) {
+        List<Long> missed = new ArrayList<>();
+        for (int from = 0; from < changes.size(); from += BATCH_SIZE) {
+            List<TrainerChange> batch = changes.subList(from, Math.min(from + BATCH_SIZE, changes.size()));
+            int[] counts = jdbcTemplate.batchUpdate(REASSIGN_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    TrainerChange change = batch.get(i);
+                    ps.setLong(1, change.toTrainerId());
+                    ps.setLong(2, change.scheduledClassId());
+                    ps.setLong(3, change.fromTrainerId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+            for (int i = 0; i < counts.length; i++) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for a row they did update.
+                if (counts[i] == 0) {
+                    missed.add(batch.get(i).scheduledClassId());
+                }
+            }
+        }
+        return missed;
+    }
+}
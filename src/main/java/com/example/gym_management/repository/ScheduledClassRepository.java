@@ -1,19 +1,28 @@
 package com.example.gym_management.repository;
 
+import com.example.gym_management.dto.ScheduleSlot;
 import com.example.gym_management.entity.ScheduledClass;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ScheduledClassRepository extends JpaRepository<ScheduledClass, Long> {
 
-    List<ScheduledClass> findByGymId(Long gymId);
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.gym JOIN FETCH sc.classType " +
+           "JOIN FETCH sc.trainer JOIN FETCH sc.room WHERE sc.gym.id = :gymId")
+    List<ScheduledClass> findByGymId(@Param("gymId") Long gymId);
 
     @Query("SELECT sc FROM ScheduledClass sc WHERE sc.gym.id = :gymId AND sc.id = :classId")
     Optional<ScheduledClass> findByIdAndGymId(@Param("classId") Long classId, @Param("gymId") Long gymId);
@@ -26,17 +35,57 @@ public interface ScheduledClassRepository extends JpaRepository<ScheduledClass,
 
     List<ScheduledClass> findByStartTimeBetween(LocalDateTime startDate, LocalDateTime endDate);
 
-    @Query("SELECT sc FROM ScheduledClass sc WHERE sc.startTime >= :startTime")
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.gym JOIN FETCH sc.classType " +
+           "JOIN FETCH sc.trainer JOIN FETCH sc.room WHERE sc.startTime >= :startTime")
     List<ScheduledClass> findUpcomingClasses(@Param("startTime") LocalDateTime startTime);
 
-    @Query("SELECT sc FROM ScheduledClass sc WHERE sc.gym.id = :gymId AND sc.startTime >= :startTime")
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.gym JOIN FETCH sc.classType " +
+           "JOIN FETCH sc.trainer JOIN FETCH sc.room WHERE sc.gym.id = :gymId AND sc.startTime >= :startTime")
     List<ScheduledClass> findUpcomingClassesByGymId(@Param("gymId") Long gymId, @Param("startTime") LocalDateTime startTime);
 
-    @Query("SELECT sc FROM ScheduledClass sc WHERE sc.trainer.id = :trainerId AND sc.startTime BETWEEN :startTime AND :endTime")
-    List<ScheduledClass> findByTrainerIdAndTimeRange(@Param("trainerId") Long trainerId, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
-
-    @Query("SELECT sc FROM ScheduledClass sc WHERE sc.room.id = :roomId AND sc.startTime BETWEEN :startTime AND :endTime")
-    List<ScheduledClass> findByRoomIdAndTimeRange(@Param("roomId") Long roomId, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.gym JOIN FETCH sc.classType " +
+           "JOIN FETCH sc.trainer JOIN FETCH sc.room r " +
+           "WHERE sc.startTime >= :startTime AND sc.enrolledCount < r.capacity")
+    List<ScheduledClass> findAvailableClasses(@Param("startTime") LocalDateTime startTime);
+
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.gym JOIN FETCH sc.classType " +
+           "JOIN FETCH sc.trainer JOIN FETCH sc.room r " +
+           "WHERE sc.gym.id = :gymId AND sc.startTime >= :startTime AND sc.enrolledCount < r.capacity")
+    List<ScheduledClass> findAvailableClassesByGymId(@Param("gymId") Long gymId, @Param("startTime") LocalDateTime startTime);
+
+    String SLOT_SELECT = "SELECT new com.example.gym_management.dto.ScheduleSlot(" +
+                         "sc.id, sc.trainer.id, sc.room.id, sc.startTime, sc.durationMinutes) " +
+                         "FROM ScheduledClass sc ";
+
+    @Query(SLOT_SELECT + "WHERE sc.trainer.id IN :trainerIds AND sc.startTime >= :since")
+    List<ScheduleSlot> findTrainerSlotsSince(@Param("trainerIds") Collection<Long> trainerIds,
+                                             @Param("since") LocalDateTime since);
+
+    @Query(SLOT_SELECT + "WHERE sc.room.id IN :roomIds AND sc.startTime >= :since")
+    List<ScheduleSlot> findRoomSlotsSince(@Param("roomIds") Collection<Long> roomIds,
+                                          @Param("since") LocalDateTime since);
+
+    @Query(SLOT_SELECT + "WHERE sc.trainer.id IN :trainerIds AND sc.startTime >= :from AND sc.startTime < :to")
+    List<ScheduleSlot> findTrainerSlotsBetween(@Param("trainerIds") Collection<Long> trainerIds,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    @Query(SLOT_SELECT + "WHERE sc.gym.id IN :gymIds AND sc.startTime >= :from AND sc.startTime < :to")
+    List<ScheduleSlot> findGymSlotsBetween(@Param("gymIds") Collection<Long> gymIds,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.gym JOIN FETCH sc.classType " +
+           "JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE sc.id IN :ids ORDER BY sc.startTime, sc.id")
+    List<ScheduledClass> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.classType " +
+           "WHERE sc.trainer.id = :trainerId AND sc.startTime >= :from AND sc.startTime < :to " +
+           "ORDER BY sc.startTime, sc.id")
+    List<ScheduledClass> findTrainerClassesStartingBetween(@Param("trainerId") Long trainerId,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to);
 
     @Query("SELECT sc FROM ScheduledClass sc WHERE sc.gym.id = :gymId AND sc.trainer.id = :trainerId")
     List<ScheduledClass> findByGymIdAndTrainerId(@Param("gymId") Long gymId, @Param("trainerId") Long trainerId);
@@ -49,4 +98,108 @@ public interface ScheduledClassRepository extends JpaRepository<ScheduledClass,
 
     @Query("SELECT sc FROM ScheduledClass sc WHERE sc.gym.id = :gymId AND sc.startTime BETWEEN :startDate AND :endDate")
     List<ScheduledClass> findByGymIdAndStartTimeBetween(@Param("gymId") Long gymId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Modifying
+    @Query("UPDATE ScheduledClass sc SET sc.enrolledCount = sc.enrolledCount + 1 " +
+           "WHERE sc.id = :classId AND sc.enrolledCount < :capacity")
+    int tryReserveSeat(@Param("classId") Long classId, @Param("capacity") Integer capacity);
+
+    /**
+     * Reserves {@code seats} seats at once, or none if they no longer all fit.
+     */
+    @Modifying
+    @Query("UPDATE ScheduledClass sc SET sc.enrolledCount = sc.enrolledCount + :seats " +
+           "WHERE sc.id = :classId " +
+           "AND sc.enrolledCount + :seats <= (SELECT r.capacity FROM Room r WHERE r.id = sc.room.id)")
+    int tryReserveSeats(@Param("classId") Long classId, @Param("seats") int seats);
+
+    @Query("SELECT r.capacity - sc.enrolledCount FROM ScheduledClass sc JOIN sc.room r WHERE sc.id = :classId")
+    Optional<Integer> findFreeSeats(@Param("classId") Long classId);
+
+    @Modifying
+    @Query("UPDATE ScheduledClass sc SET sc.enrolledCount = " +
+           "CASE WHEN sc.enrolledCount > :seats THEN sc.enrolledCount - :seats ELSE 0 END " +
+           "WHERE sc.id = :classId")
+    int releaseSeats(@Param("classId") Long classId, @Param("seats") int seats);
+
+    @Modifying
+    @Query("UPDATE ScheduledClass sc SET sc.waitlistCount = " +
+           "CASE WHEN sc.waitlistCount + :delta > 0 THEN sc.waitlistCount + :delta ELSE 0 END " +
+           "WHERE sc.id = :classId")
+    int adjustWaitlistCount(@Param("classId") Long classId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE ScheduledClass sc SET sc.waitlistSequence = sc.waitlistSequence + 1 WHERE sc.id = :classId")
+    int incrementWaitlistSequence(@Param("classId") Long classId);
+
+    @Query("SELECT sc.startTime FROM ScheduledClass sc WHERE sc.id = :classId")
+    Optional<LocalDateTime> findStartTime(@Param("classId") Long classId);
+
+    @Query("SELECT sc.waitlistSequence FROM ScheduledClass sc WHERE sc.id = :classId")
+    Long findWaitlistSequence(@Param("classId") Long classId);
+
+    @Modifying
+    @Query("UPDATE ScheduledClass sc SET sc.waitlistSequence = :sequence WHERE sc.id = :classId")
+    int setWaitlistSequence(@Param("classId") Long classId, @Param("sequence") Long sequence);
+
+    @Query("SELECT sc.id FROM ScheduledClass sc WHERE sc.id > :afterId ORDER BY sc.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT sc FROM ScheduledClass sc WHERE sc.id IN :ids")
+    List<ScheduledClass> lockAllByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE ScheduledClass sc SET " +
+           "sc.enrolledCount = (SELECT CAST(COUNT(b) AS Integer) FROM Booking b " +
+           "WHERE b.scheduledClass.id = sc.id AND b.status = 'ENROLLED') + " +
+           "(SELECT CAST(COUNT(o) AS Integer) FROM Waitlist o " +
+           "WHERE o.scheduledClass.id = sc.id AND o.status = 'OFFERED'), " +
+           "sc.waitlistCount = (SELECT CAST(COUNT(w) AS Integer) FROM Waitlist w " +
+           "WHERE w.scheduledClass.id = sc.id AND w.status = 'WAITING') " +
+           "WHERE sc.id IN :ids")
+    int recountCounters(@Param("ids") List<Long> ids);
+
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.gym JOIN FETCH sc.classType " +
+           "JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE sc.id > :afterId ORDER BY sc.id")
+    Slice<ScheduledClass> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.gym JOIN FETCH sc.classType " +
+           "JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE sc.gym.id = :gymId AND sc.id > :afterId ORDER BY sc.id")
+    Slice<ScheduledClass> findPageByGymIdAfter(@Param("gymId") Long gymId,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.gym JOIN FETCH sc.classType " +
+           "JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE (:gymId IS NULL OR sc.gym.id = :gymId) " +
+           "AND (sc.startTime > :afterTime OR (sc.startTime = :afterTime AND sc.id > :afterId)) " +
+           "ORDER BY sc.startTime, sc.id")
+    Slice<ScheduledClass> findUpcomingPageAfter(@Param("gymId") Long gymId,
+                                                @Param("afterTime") LocalDateTime afterTime,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.gym JOIN FETCH sc.classType " +
+           "JOIN FETCH sc.trainer JOIN FETCH sc.room r " +
+           "WHERE (:gymId IS NULL OR sc.gym.id = :gymId) AND sc.enrolledCount < r.capacity " +
+           "AND (sc.startTime > :afterTime OR (sc.startTime = :afterTime AND sc.id > :afterId)) " +
+           "ORDER BY sc.startTime, sc.id")
+    Slice<ScheduledClass> findAvailablePageAfter(@Param("gymId") Long gymId,
+                                                 @Param("afterTime") LocalDateTime afterTime,
+                                                 @Param("afterId") Long afterId,
+                                                 Pageable pageable);
+
+    @Query("SELECT sc FROM ScheduledClass sc JOIN FETCH sc.gym JOIN FETCH sc.classType " +
+           "JOIN FETCH sc.trainer JOIN FETCH sc.room " +
+           "WHERE (:gymId IS NULL OR sc.gym.id = :gymId) AND sc.startTime <= :endTime " +
+           "AND (sc.startTime > :afterTime OR (sc.startTime = :afterTime AND sc.id > :afterId)) " +
+           "ORDER BY sc.startTime, sc.id")
+    Slice<ScheduledClass> findDateRangePageAfter(@Param("gymId") Long gymId,
+                                                 @Param("afterTime") LocalDateTime afterTime,
+                                                 @Param("afterId") Long afterId,
+                                                 @Param("endTime") LocalDateTime endTime,
+                                                 Pageable pageable);
 }
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,9 @@ public interface TrainerAvailabilityRepository extends JpaRepository<TrainerAvai
 
     List<TrainerAvailability> findByTrainerId(Long trainerId);
 
+    @Query("SELECT ta FROM TrainerAvailability ta WHERE ta.trainer.id IN :trainerIds")
+    List<TrainerAvailability> findByTrainerIdIn(@Param("trainerIds") Collection<Long> trainerIds);
+
     List<TrainerAvailability> findByTrainerIdAndDayOfWeek(Long trainerId, DayOfWeek dayOfWeek);
 
     @Query("SELECT ta FROM TrainerAvailability ta WHERE ta.trainer.id = :trainerId " +
@@ -1,11 +1,17 @@
 package com.example.gym_management.repository;
 
+import com.example.gym_management.dto.SearchEntry;
 import com.example.gym_management.entity.Trainer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,14 +20,18 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
 
     List<Trainer> findByGymId(Long gymId);
 
+    @Query("SELECT t.id FROM Trainer t WHERE t.gym.id = :gymId")
+    List<Long> findIdsByGymId(@Param("gymId") Long gymId);
+
+    @Query("SELECT t.id FROM Trainer t WHERE t.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT t FROM Trainer t WHERE t.gym.id = :gymId AND t.id = :trainerId")
     Optional<Trainer> findByIdAndGymId(@Param("trainerId") Long trainerId, @Param("gymId") Long gymId);
 
-    @Query("SELECT t FROM Trainer t WHERE t.gym.id = :gymId AND (LOWER(t.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(t.lastName) LIKE LOWER(CONCAT('%', :name, '%')))")
-    List<Trainer> searchByNameAndGymId(@Param("name") String name, @Param("gymId") Long gymId);
-
-    @Query("SELECT t FROM Trainer t WHERE LOWER(t.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(t.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Trainer> searchByName(@Param("name") String name);
+    @Query("SELECT new com.example.gym_management.dto.SearchEntry(t.id, t.gym.id, t.firstName, t.lastName, " +
+            "CAST(NULL AS String)) FROM Trainer t WHERE t.id > :afterId ORDER BY t.id")
+    List<SearchEntry> findSearchEntriesAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     @Query("SELECT t FROM Trainer t LEFT JOIN FETCH t.scheduledClasses WHERE t.id = :id")
     Optional<Trainer> findByIdWithScheduledClasses(@Param("id") Long id);
@@ -32,9 +42,43 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
     @Query("SELECT DISTINCT t FROM Trainer t LEFT JOIN FETCH t.classTypes LEFT JOIN FETCH t.scheduledClasses WHERE t.id = :id")
     Optional<Trainer> findByIdWithClassTypesAndScheduledClasses(@Param("id") Long id);
 
+    @Query("SELECT DISTINCT t FROM Trainer t LEFT JOIN FETCH t.classTypes WHERE t.gym.id IN :gymIds")
+    List<Trainer> findByGymIdInWithClassTypes(@Param("gymIds") Collection<Long> gymIds);
+
+    @Query("SELECT DISTINCT t FROM Trainer t LEFT JOIN FETCH t.classTypes WHERE t.id IN :ids")
+    List<Trainer> findByIdInWithClassTypes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Trainers of the gym qualified for the class type, with all their class
+     * types fetched.
+     */
+    @Query("SELECT DISTINCT t FROM Trainer t LEFT JOIN FETCH t.classTypes WHERE t.gym.id = :gymId " +
+            "AND EXISTS (SELECT ct FROM Trainer q JOIN q.classTypes ct WHERE q = t AND ct.id = :classTypeId)")
+    List<Trainer> findQualifiedByGymIdWithClassTypes(@Param("gymId") Long gymId,
+                                                     @Param("classTypeId") Long classTypeId);
+
     @Query("SELECT t FROM Trainer t JOIN t.classTypes ct WHERE ct.id = :classTypeId")
     List<Trainer> findByClassTypeId(@Param("classTypeId") Long classTypeId);
 
     @Query("SELECT t FROM Trainer t JOIN t.classTypes ct WHERE ct.id = :classTypeId AND t.gym.id = :gymId")
     List<Trainer> findByClassTypeIdAndGymId(@Param("classTypeId") Long classTypeId, @Param("gymId") Long gymId);
+
+    /**
+     * Bumps the schedule version; the row stays locked until the caller's
+     * transaction ends, which serializes schedule changes per trainer.
+     */
+    @Modifying
+    @Query("UPDATE Trainer t SET t.scheduleVersion = t.scheduleVersion + 1 WHERE t.id = :id")
+    int incrementScheduleVersion(@Param("id") Long id);
+
+    @Query("SELECT t.scheduleVersion FROM Trainer t WHERE t.id = :id")
+    Optional<Long> findScheduleVersion(@Param("id") Long id);
+
+    /**
+     * Locks the trainers in id order until the caller's transaction ends,
+     * which serializes changes to their time off.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Trainer t WHERE t.id IN :ids ORDER BY t.id")
+    List<Trainer> lockAllByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,46 @@
+package com.example.gym_management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Inserts imported time off through JDBC batches; a holiday calendar for
+ * every trainer of a gym is thousands of rows, which Hibernate would insert
+ * one round trip at a time because of their IDENTITY ids.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TrainerTimeOffBatchRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO trainer_time_off (trainer_id, date, end_date, starts_at_noon, ends_at_noon, reason) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record NewTimeOff(
+            Long trainerId,
+            LocalDate startDate,
+            LocalDate endDate,
+            boolean startsAtNoon,
+            boolean endsAtNoon,
+            String reason) {
+    }
+
+    public void insertAll(List<NewTimeOff> timeOff) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, timeOff, BATCH_SIZE, (ps, off) -> {
+            ps.setLong(1, off.trainerId());
+            ps.setObject(2, off.startDate());
+            ps.setObject(3, off.endDate());
+            ps.setBoolean(4, off.startsAtNoon());
+            ps.setBoolean(5, off.endsAtNoon());
+            ps.setString(6, off.reason());
+        });
+    }
+}
@@ -7,33 +7,36 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface TrainerTimeOffRepository extends JpaRepository<TrainerTimeOff, Long> {
 
     List<TrainerTimeOff> findByTrainerId(Long trainerId);
 
-    Optional<TrainerTimeOff> findByTrainerIdAndDate(Long trainerId, LocalDate date);
+    @Query("SELECT tto FROM TrainerTimeOff tto WHERE tto.trainer.id IN :trainerIds")
+    List<TrainerTimeOff> findByTrainerIdIn(@Param("trainerIds") Collection<Long> trainerIds);
 
+    /**
+     * Time off of the trainer touching any day of {@code [startDate, endDate]}.
+     */
     @Query("SELECT tto FROM TrainerTimeOff tto WHERE tto.trainer.id = :trainerId " +
-           "AND tto.date BETWEEN :startDate AND :endDate")
+           "AND tto.startDate <= :endDate AND COALESCE(tto.endDate, tto.startDate) >= :startDate")
     List<TrainerTimeOff> findByTrainerIdAndDateRange(
             @Param("trainerId") Long trainerId,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT tto FROM TrainerTimeOff tto WHERE tto.date = :date")
-    List<TrainerTimeOff> findByDate(@Param("date") LocalDate date);
-
-    @Query("SELECT tto.trainer.id FROM TrainerTimeOff tto WHERE tto.date = :date")
-    List<Long> findTrainerIdsWithTimeOffOnDate(@Param("date") LocalDate date);
-
-    boolean existsByTrainerIdAndDate(Long trainerId, LocalDate date);
+    @Query("SELECT tto FROM TrainerTimeOff tto WHERE tto.trainer.id IN :trainerIds " +
+           "AND tto.startDate <= :endDate AND COALESCE(tto.endDate, tto.startDate) >= :startDate")
+    List<TrainerTimeOff> findByTrainerIdInAndDateRange(
+            @Param("trainerIds") Collection<Long> trainerIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
 
     @Query("SELECT tto FROM TrainerTimeOff tto WHERE tto.trainer.id = :trainerId " +
-           "AND tto.date >= :fromDate ORDER BY tto.date ASC")
+           "AND COALESCE(tto.endDate, tto.startDate) >= :fromDate ORDER BY tto.startDate ASC")
     List<TrainerTimeOff> findUpcomingByTrainerId(
             @Param("trainerId") Long trainerId,
             @Param("fromDate") LocalDate fromDate);
@@ -0,0 +1,107 @@
+package com.example.gym_management.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Member and trainer search on PostgreSQL through pg_trgm GIN indexes, which
+ * serve {@code LIKE '%term%'} without a scan. Every term must occur in the
+ * indexed text: terms of three letters or more anywhere, shorter ones at the
+ * start of a word. Results are ranked by {@code word_similarity} to the
+ * query, then by name.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TrigramSearchRepository {
+
+    // The queries must use exactly the indexed expressions for the indexes to apply.
+    private static final String MEMBER_TEXT = "lower(first_name || ' ' || last_name || ' ' || email)";
+    private static final String TRAINER_TEXT = "lower(first_name || ' ' || last_name)";
+
+    private static final String EXTENSION_SQL = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+
+    private static final List<TrigramIndex> INDEXES = List.of(
+            new TrigramIndex("idx_members_search_trgm", "members", MEMBER_TEXT),
+            new TrigramIndex("idx_trainers_search_trgm", "trainers", TRAINER_TEXT));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private record TrigramIndex(String name, String table, String text) {
+    }
+
+    public boolean isPostgreSql() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
+    }
+
+    /**
+     * Creates the extension and the indexes if missing; needs the right to
+     * create the extension the first time. The indexes are built
+     * concurrently, so members and trainers stay writable meanwhile; that
+     * cannot run in a transaction, so this must be called outside one. A
+     * build that was interrupted leaves an invalid index behind, which is
+     * dropped and built again.
+     */
+    public void createIndexes() {
+        jdbcTemplate.execute(EXTENSION_SQL);
+        for (TrigramIndex index : INDEXES) {
+            if (isInvalid(index.name())) {
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index.name());
+            }
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.name() + " ON " + index.table()
+                    + " USING gin ((" + index.text() + ") gin_trgm_ops)");
+        }
+    }
+
+    private boolean isInvalid(String indexName) {
+        return jdbcTemplate.queryForList("SELECT i.indisvalid FROM pg_index i "
+                + "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?", Boolean.class, indexName)
+                .contains(Boolean.FALSE);
+    }
+
+    public List<Long> searchMembers(List<String> terms, int limit) {
+        return search("members", MEMBER_TEXT, terms, null, limit);
+    }
+
+    public List<Long> searchTrainers(List<String> terms, Long gymId, int limit) {
+        return search("trainers", TRAINER_TEXT, terms, gymId, limit);
+    }
+
+    /**
+     * @param terms lower-case terms without whitespace
+     */
+    private List<Long> search(String table, String text, List<String> terms, Long gymId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id FROM ").append(table).append(" WHERE ");
+        List<Object> args = new ArrayList<>();
+        for (String term : terms) {
+            String escaped = escapeLike(term);
+            if (term.length() >= 3) {
+                sql.append(text).append(" LIKE ? AND ");
+                args.add("%" + escaped + "%");
+            } else {
+                sql.append("(").append(text).append(" LIKE ? OR ").append(text).append(" LIKE ?) AND ");
+                args.add(escaped + "%");
+                args.add("% " + escaped + "%");
+            }
+        }
+        if (gymId != null) {
+            sql.append("gym_id = ? AND ");
+            args.add(gymId);
+        }
+        sql.setLength(sql.length() - " AND ".length());
+        sql.append(" ORDER BY word_similarity(?, ").append(text).append(") DESC, last_name, first_name, id LIMIT ?");
+        args.add(String.join(" ", terms));
+        args.add(limit);
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
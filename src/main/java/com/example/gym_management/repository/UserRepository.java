@@ -2,6 +2,7 @@ package com.example.gym_management.repository;
 
 import com.example.gym_management.entity.User;
 import com.example.gym_management.entity.UserRole;
+import com.example.gym_management.security.UserSecurityStamp;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -32,4 +33,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.gym WHERE u.username = :username")
     Optional<User> findByUsernameWithGym(@Param("username") String username);
+
+    @Query("SELECT new com.example.gym_management.security.UserSecurityStamp(u.id, u.securityVersion, u.enabled) " +
+           "FROM User u")
+    List<UserSecurityStamp> findAllSecurityStamps();
+
+    @Query("SELECT new com.example.gym_management.security.UserSecurityStamp(u.id, u.securityVersion, u.enabled) " +
+           "FROM User u WHERE u.id = :id")
+    Optional<UserSecurityStamp> findSecurityStampById(@Param("id") Long id);
 }
@@ -1,9 +1,16 @@
 package com.example.gym_management.repository;
 
+import com.example.gym_management.entity.ScheduledClass;
 import com.example.gym_management.entity.Waitlist;
 import com.example.gym_management.entity.Waitlist.WaitlistStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,12 +22,63 @@ import java.util.Optional;
 public interface WaitlistRepository extends JpaRepository<Waitlist, Long> {
 
     @Query("SELECT w FROM Waitlist w WHERE w.scheduledClass.id = :classId " +
-           "AND w.status = 'WAITING' ORDER BY w.joinedAt ASC, w.id ASC")
+           "AND w.status = 'WAITING' ORDER BY w.queueSequence ASC NULLS FIRST, w.joinedAt ASC, w.id ASC")
     List<Waitlist> findActiveWaitlistByScheduledClassId(@Param("classId") Long classId);
 
+    /**
+     * Locks the next WAITING entries of a class in queue order. The lock
+     * timeout of -2 is Hibernate's SKIP LOCKED, so concurrent promoters on
+     * other nodes each claim different entries instead of queueing up.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
     @Query("SELECT w FROM Waitlist w WHERE w.scheduledClass.id = :classId " +
-           "AND w.status = 'WAITING' ORDER BY w.joinedAt ASC, w.id ASC")
-    Optional<Waitlist> findFirstInWaitlist(@Param("classId") Long classId);
+           "AND w.status = 'WAITING' ORDER BY w.queueSequence ASC NULLS FIRST, w.joinedAt ASC, w.id ASC")
+    List<Waitlist> lockNextWaiting(@Param("classId") Long classId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Waitlist w SET w.status = :status, w.notifiedAt = :notifiedAt, w.version = w.version + 1 " +
+           "WHERE w.id IN :ids AND w.status = 'WAITING'")
+    int updateWaitingStatus(@Param("ids") List<Long> ids,
+                            @Param("status") WaitlistStatus status,
+                            @Param("notifiedAt") LocalDateTime notifiedAt);
+
+    @Modifying
+    @Query("UPDATE Waitlist w SET w.status = :offered, w.notifiedAt = :offeredAt, " +
+           "w.offerExpiresAt = :expiresAt, w.version = w.version + 1 " +
+           "WHERE w.id IN :ids AND w.status = 'WAITING'")
+    int offerWaiting(@Param("ids") List<Long> ids,
+                     @Param("offered") WaitlistStatus offered,
+                     @Param("offeredAt") LocalDateTime offeredAt,
+                     @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Moves an open offer to {@code status}. Only an offer whose hold has not
+     * ended by {@code now} can be accepted, so acceptance and timeout can never
+     * both succeed.
+     */
+    @Modifying
+    @Query("UPDATE Waitlist w SET w.status = :status, w.offerExpiresAt = NULL, w.version = w.version + 1 " +
+           "WHERE w.id = :id AND w.status = 'OFFERED' AND w.offerExpiresAt > :now")
+    int closeOpenOffer(@Param("id") Long id,
+                       @Param("status") WaitlistStatus status,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Waitlist w SET w.status = :status, w.offerExpiresAt = NULL, w.version = w.version + 1 " +
+           "WHERE w.id = :id AND w.status = 'OFFERED'")
+    int closeOffer(@Param("id") Long id, @Param("status") WaitlistStatus status);
+
+    @Modifying
+    @Query("UPDATE Waitlist w SET w.status = :expired, w.offerExpiresAt = NULL, w.version = w.version + 1 " +
+           "WHERE w.id IN :ids AND w.status = 'OFFERED' AND w.offerExpiresAt <= :now")
+    int expireOffers(@Param("ids") List<Long> ids,
+                     @Param("now") LocalDateTime now,
+                     @Param("expired") WaitlistStatus expired);
+
+    List<Waitlist> findByStatus(WaitlistStatus status);
+
+    List<Waitlist> findByStatusAndOfferExpiresAtBefore(WaitlistStatus status, LocalDateTime cutoff);
 
     boolean existsByMemberIdAndScheduledClassIdAndStatus(
         Long memberId, Long scheduledClassId, WaitlistStatus status);
@@ -30,6 +88,11 @@ public interface WaitlistRepository extends JpaRepository<Waitlist, Long> {
 
     List<Waitlist> findByMemberIdAndStatus(Long memberId, WaitlistStatus status);
 
+    List<Waitlist> findByMemberIdAndStatusIn(Long memberId, List<WaitlistStatus> statuses);
+
+    boolean existsByMemberIdAndScheduledClassIdAndStatusIn(
+        Long memberId, Long scheduledClassId, List<WaitlistStatus> statuses);
+
     @Query("SELECT COUNT(w) FROM Waitlist w WHERE w.scheduledClass.id = :classId " +
            "AND w.status = 'WAITING'")
     Long countActiveWaitlistByScheduledClassId(@Param("classId") Long classId);
@@ -42,9 +105,33 @@ public interface WaitlistRepository extends JpaRepository<Waitlist, Long> {
         @Param("joinedAt") LocalDateTime joinedAt,
         @Param("id") Long id);
 
-    @Query("SELECT w FROM Waitlist w JOIN FETCH w.scheduledClass sc " +
-           "WHERE w.status = 'WAITING' AND sc.startTime < :currentTime")
-    List<Waitlist> findExpiredWaitlistEntries(@Param("currentTime") LocalDateTime currentTime);
+    @Query("SELECT w.queueSequence FROM Waitlist w WHERE w.scheduledClass.id = :classId " +
+           "AND w.status = 'WAITING' AND w.queueSequence IS NOT NULL")
+    List<Long> findWaitingSequences(@Param("classId") Long classId);
+
+    @Query("SELECT DISTINCT w.scheduledClass.id FROM Waitlist w WHERE w.queueSequence IS NULL " +
+           "AND w.scheduledClass.id > :afterId ORDER BY w.scheduledClass.id")
+    List<Long> findClassIdsWithoutSequenceAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT w FROM Waitlist w WHERE w.scheduledClass.id = :classId " +
+           "ORDER BY w.queueSequence ASC NULLS FIRST, w.joinedAt ASC, w.id ASC")
+    List<Waitlist> findAllInQueueOrder(@Param("classId") Long classId);
+
+    @Query("SELECT DISTINCT sc FROM Waitlist w JOIN w.scheduledClass sc WHERE w.status = 'WAITING'")
+    List<ScheduledClass> findClassesWithWaitingEntries();
+
+    @Query("SELECT DISTINCT sc FROM Waitlist w JOIN w.scheduledClass sc " +
+           "WHERE w.status = 'WAITING' AND sc.startTime <= :now")
+    List<ScheduledClass> findStartedClassesWithWaitingEntries(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Waitlist w SET w.status = :expired, w.version = w.version + 1 " +
+           "WHERE w.scheduledClass.id = :classId AND w.status = 'WAITING' " +
+           "AND w.scheduledClass.id IN (SELECT sc.id FROM ScheduledClass sc " +
+           "WHERE sc.id = :classId AND sc.startTime <= :now)")
+    int expireWaitingOfStartedClass(@Param("classId") Long classId,
+                                    @Param("now") LocalDateTime now,
+                                    @Param("expired") WaitlistStatus expired);
 
     List<Waitlist> findByScheduledClassId(Long scheduledClassId);
 }
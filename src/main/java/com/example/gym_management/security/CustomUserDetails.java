@@ -11,27 +11,65 @@ import java.util.Collections;
 
 public class CustomUserDetails implements UserDetails {
 
-    private final User user;
+    private final Long userId;
+    private final String username;
+    private final String password;
+    private final UserRole role;
+    private final Long gymId;
+    private final boolean enabled;
+    private final Integer securityVersion;
 
     public CustomUserDetails(User user) {
-        this.user = user;
+        this(user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getRole(),
+                user.getGym() != null ? user.getGym().getId() : null,
+                Boolean.TRUE.equals(user.getEnabled()),
+                user.getSecurityVersion());
+    }
+
+    private CustomUserDetails(Long userId, String username, String password, UserRole role, Long gymId,
+                              boolean enabled, Integer securityVersion) {
+        this.userId = userId;
+        this.username = username;
+        this.password = password;
+        this.role = role;
+        this.gymId = gymId;
+        this.enabled = enabled;
+        this.securityVersion = securityVersion;
+    }
+
+    /**
+     * Rebuilds the principal from a verified access token. The password is
+     * not part of the token and stays null.
+     */
+    public static CustomUserDetails fromClaims(JwtClaims claims) {
+        return new CustomUserDetails(
+                claims.userId(),
+                claims.username(),
+                null,
+                claims.role(),
+                claims.gymId(),
+                true,
+                claims.securityVersion());
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
+                new SimpleGrantedAuthority("ROLE_" + role.name())
         );
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getUsername();
+        return username;
     }
 
     @Override
@@ -51,22 +89,22 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return user.getEnabled();
+        return enabled;
     }
 
     public Long getUserId() {
-        return user.getId();
+        return userId;
     }
 
     public UserRole getRole() {
-        return user.getRole();
+        return role;
     }
 
     public Long getGymId() {
-        return user.getGym() != null ? user.getGym().getId() : null;
+        return gymId;
     }
 
-    public User getUser() {
-        return user;
+    public Integer getSecurityVersion() {
+        return securityVersion;
     }
 }
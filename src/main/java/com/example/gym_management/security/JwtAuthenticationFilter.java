@@ -1,10 +1,12 @@
 package com.example.gym_management.security;
 
+import com.example.gym_management.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,17 +23,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final com.example.gym_management.service.UserService userService;
+    private final UserSecurityVersions userSecurityVersions;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${jwt.stateless-authentication:true}")
+    private boolean statelessAuthentication;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
+            JwtClaims claims = jwt != null ? jwtUtils.verifyAndExtract(jwt).orElse(null) : null;
+            boolean usable = claims != null && !claims.isRefreshToken() && !tokenRevocationService.isRevoked(claims);
+            UserDetails userDetails = usable ? resolveUser(claims) : null;
 
-            if (jwt != null && jwtUtils.validateToken(jwt) && !jwtUtils.isRefreshToken(jwt)) {
-                String username = jwtUtils.getUsernameFromToken(jwt);
-
-                UserDetails userDetails = userService.loadUserByUsername(username);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -49,6 +56,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds the principal straight from the token claims when they carry a
+     * security version that is still current; tokens without user claims,
+     * or any token before the version map has loaded, fall back to loading
+     * the user from the database.
+     */
+    private UserDetails resolveUser(JwtClaims claims) {
+        if (statelessAuthentication && claims.hasUserClaims() && userSecurityVersions.isLoaded()) {
+            if (!userSecurityVersions.isCurrent(claims.userId(), claims.securityVersion())) {
+                return null;
+            }
+            return CustomUserDetails.fromClaims(claims);
+        }
+        return userService.loadUserByUsername(claims.username());
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,46 @@
+package com.example.gym_management.security;
+
+import com.example.gym_management.entity.UserRole;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been verified by
+ * {@link JwtUtils#verifyAndExtract(String)}. Every token has an id (jti);
+ * tokens issued from a login also share a family id with every token later
+ * rotated from it. The user claims (id, role, gym and security version) are
+ * only present on access tokens issued for a {@link CustomUserDetails}.
+ */
+public record JwtClaims(
+        String tokenId,
+        String familyId,
+        String username,
+        String type,
+        Date issuedAt,
+        Date expiration,
+        Long userId,
+        UserRole role,
+        Long gymId,
+        Integer securityVersion) {
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    public boolean isAccessToken() {
+        return ACCESS.equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH.equals(type);
+    }
+
+    public LocalDateTime expiresAt() {
+        return LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault());
+    }
+
+    public boolean hasUserClaims() {
+        return userId != null && role != null && securityVersion != null;
+    }
+}
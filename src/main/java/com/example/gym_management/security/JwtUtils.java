@@ -1,98 +1,121 @@
 package com.example.gym_management.security;
 
+import com.example.gym_management.entity.UserRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
-
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and verifies the HMAC-signed access and refresh tokens. The signing
+ * key and the parser are immutable and thread-safe, so both are built once
+ * and shared by every request instead of being recreated per call.
+ */
 @Component
 public class JwtUtils {
 
-    @Value("${jwt.secret:defaultSecretKeyThatShouldBeAtLeast256BitsLongForHS256Algorithm}")
-    private String jwtSecret;
-
-    @Value("${jwt.expiration:86400000}")
-    private long jwtExpirationMs;
-
-    @Value("${jwt.refresh-expiration:604800000}")
-    private long refreshExpirationMs;
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static final String TYPE = "type";
+    private static final String FAMILY_ID = "fid";
+    private static final String USER_ID = "uid";
+    private static final String ROLE = "role";
+    private static final String GYM_ID = "gid";
+    private static final String SECURITY_VERSION = "sv";
+
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final long jwtExpirationMs;
+    private final long refreshExpirationMs;
+
+    public JwtUtils(
+            @Value("${jwt.secret:defaultSecretKeyThatShouldBeAtLeast256BitsLongForHS256Algorithm}") String jwtSecret,
+            @Value("${jwt.expiration:86400000}") long jwtExpirationMs,
+            @Value("${jwt.refresh-expiration:604800000}") long refreshExpirationMs) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.refreshExpirationMs = refreshExpirationMs;
     }
 
-    public String generateAccessToken(Authentication authentication) {
-        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
-        return generateAccessToken(userDetails.getUsername());
+    /**
+     * Starts a new token family, one per login. Every access and refresh token
+     * rotated from that login carries the same id, so revoking the family
+     * revokes the whole session.
+     */
+    public String newTokenFamily() {
+        return UUID.randomUUID().toString();
     }
 
-    public String generateAccessToken(String username) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-
-        return Jwts.builder()
-                .subject(username)
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .claim("type", "access")
-                .signWith(getSigningKey())
+    /**
+     * Issues an access token that also carries the user id, role, gym and
+     * security version, so the filter can authenticate it without loading
+     * the user.
+     */
+    public String generateAccessToken(CustomUserDetails userDetails, String familyId) {
+        return tokenBuilder(userDetails.getUsername(), JwtClaims.ACCESS, jwtExpirationMs)
+                .claim(FAMILY_ID, familyId)
+                .claim(USER_ID, userDetails.getUserId())
+                .claim(ROLE, userDetails.getRole().name())
+                .claim(GYM_ID, userDetails.getGymId())
+                .claim(SECURITY_VERSION, userDetails.getSecurityVersion())
                 .compact();
     }
 
-    public String generateRefreshToken(String username) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + refreshExpirationMs);
-
-        return Jwts.builder()
-                .subject(username)
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .claim("type", "refresh")
-                .signWith(getSigningKey())
+    public String generateRefreshToken(String username, String familyId) {
+        return tokenBuilder(username, JwtClaims.REFRESH, refreshExpirationMs)
+                .claim(FAMILY_ID, familyId)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
-
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
-    }
-
-    public boolean isRefreshToken(String token) {
+    /**
+     * Verifies the signature and expiry of a token with a single parse and
+     * returns its claims, or an empty Optional when the token is invalid.
+     */
+    public Optional<JwtClaims> verifyAndExtract(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return "refresh".equals(claims.get("type"));
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            String role = claims.get(ROLE, String.class);
+            return Optional.of(new JwtClaims(
+                    claims.getId(),
+                    claims.get(FAMILY_ID, String.class),
+                    claims.getSubject(),
+                    claims.get(TYPE, String.class),
+                    claims.getIssuedAt(),
+                    claims.getExpiration(),
+                    claims.get(USER_ID, Long.class),
+                    role != null ? UserRole.valueOf(role) : null,
+                    claims.get(GYM_ID, Long.class),
+                    claims.get(SECURITY_VERSION, Integer.class)));
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
 
     public long getJwtExpirationMs() {
         return jwtExpirationMs;
     }
+
+    public long getRefreshExpirationMs() {
+        return refreshExpirationMs;
+    }
+
+    private JwtBuilder tokenBuilder(String username, String type, long validityMs) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + validityMs);
+
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(username)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .claim(TYPE, type)
+                .signWith(signingKey);
+    }
 }
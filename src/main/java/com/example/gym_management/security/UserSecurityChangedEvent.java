@@ -0,0 +1,9 @@
+package com.example.gym_management.security;
+
+/**
+ * Published by UserService whenever a user's security stamp changes, and
+ * applied to {@link UserSecurityVersions} once the transaction commits.
+ * A null stamp means the user was deleted.
+ */
+public record UserSecurityChangedEvent(Long userId, UserSecurityStamp stamp) {
+}
@@ -0,0 +1,16 @@
+package com.example.gym_management.security;
+
+/**
+ * Security-relevant state of a user account as of its last committed change.
+ * A stamp without a version marks a user that no longer exists.
+ */
+public record UserSecurityStamp(Long userId, Integer version, Boolean enabled) {
+
+    public static UserSecurityStamp deleted(Long userId) {
+        return new UserSecurityStamp(userId, null, false);
+    }
+
+    public boolean isDeleted() {
+        return version == null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.gym_management.security;
+
+import com.example.gym_management.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of every user's security version and enabled flag, used by
+ * JwtAuthenticationFilter to accept claim-based access tokens without a
+ * query per request. The users table only holds staff accounts, so the
+ * whole table is loaded at startup and kept current from
+ * {@link UserSecurityChangedEvent}s after their transaction commits.
+ *
+ * <p>Changes made on other instances arrive through {@link #refresh()},
+ * which reloads the table every few seconds, so a user disabled, deleted or
+ * re-roled elsewhere loses access within one refresh interval. A user id
+ * that is not in the map yet, such as a user created on another instance
+ * since the last refresh, is looked up once and cached.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserSecurityVersions {
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, UserSecurityStamp> stamps = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+        log.info("Loaded security stamps for {} users", stamps.size());
+    }
+
+    /**
+     * Reloads every stamp. A stamp this instance has already seen at a newer
+     * version, or as deleted, is kept, since the snapshot may have been read
+     * before that change committed; users missing from the snapshot are
+     * dropped and looked up again on their next request.
+     */
+    @Scheduled(fixedDelayString = "${jwt.security-stamps.refresh-interval-ms:10000}")
+    public void refresh() {
+        List<UserSecurityStamp> snapshot = userRepository.findAllSecurityStamps();
+        for (UserSecurityStamp stamp : snapshot) {
+            stamps.merge(stamp.userId(), stamp, UserSecurityVersions::newer);
+        }
+        Set<Long> present = snapshot.stream().map(UserSecurityStamp::userId).collect(Collectors.toSet());
+        stamps.keySet().retainAll(present);
+        loaded = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        stamps.put(event.userId(), event.stamp() != null ? event.stamp() : UserSecurityStamp.deleted(event.userId()));
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * True when the user still exists, is enabled and has not had a security
+     * change since a token carrying {@code tokenVersion} was issued.
+     */
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        UserSecurityStamp stamp = stamps.get(userId);
+        if (stamp == null) {
+            stamp = lookUp(userId);
+        }
+        return !stamp.isDeleted()
+                && Boolean.TRUE.equals(stamp.enabled())
+                && stamp.version().equals(tokenVersion);
+    }
+
+    private UserSecurityStamp lookUp(Long userId) {
+        UserSecurityStamp stamp = userRepository.findSecurityStampById(userId)
+                .orElseGet(() -> UserSecurityStamp.deleted(userId));
+        UserSecurityStamp previous = stamps.putIfAbsent(userId, stamp);
+        return previous != null ? previous : stamp;
+    }
+
+    private static UserSecurityStamp newer(UserSecurityStamp current, UserSecurityStamp fresh) {
+        if (current.isDeleted() || current.version() > fresh.version()) {
+            return current;
+        }
+        return fresh;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.BatchJobRun;
+import com.example.gym_management.entity.BatchJobStep;
+import com.example.gym_management.repository.BatchJobRunRepository;
+import com.example.gym_management.repository.BatchJobStepRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Bookkeeping for chunked, resumable batch jobs. A run is claimed
+ * cluster-wide through the unique (job name, run key) constraint and kept
+ * alive by a heartbeat; each chunk commits its work together with its step's
+ * checkpoint and timing in {@link #runChunk}, so a crash loses at most the
+ * chunk in flight and the batch_job_runs / batch_job_steps tables double as
+ * the job history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchJobService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final BatchJobRunRepository batchJobRunRepository;
+    private final BatchJobStepRepository batchJobStepRepository;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    /**
+     * Processes one chunk of a step, starting after {@code afterId} and never
+     * past {@code upToId}.
+     */
+    @FunctionalInterface
+    public interface ChunkHandler {
+        ChunkResult process(long afterId, long upToId);
+    }
+
+    /**
+     * Outcome of one chunk. {@code lastId} is the new checkpoint (null when
+     * the chunk found no rows) and {@code finished} ends the step.
+     */
+    public record ChunkResult(int rowsAffected, Long lastId, boolean finished) {
+
+        public static ChunkResult done() {
+            return new ChunkResult(0, null, true);
+        }
+    }
+
+    /**
+     * Creates the run for {@code runKey} with the given steps, or resumes it
+     * when it exists but is unfinished and no longer actively owned. Empty
+     * when the run has completed or another instance is working on it.
+     */
+    public Optional<BatchJobRun> claim(String jobName, String runKey, Supplier<List<BatchJobStep>> steps,
+                                       Duration leaseTimeout) {
+        Optional<BatchJobRun> existing = batchJobRunRepository.findByJobNameAndRunKey(jobName, runKey);
+        if (existing.isPresent()) {
+            return takeOver(existing.get(), leaseTimeout);
+        }
+
+        BatchJobRun run = new BatchJobRun(jobName, runKey, owner);
+        steps.get().forEach(run::addStep);
+        try {
+            return Optional.of(batchJobRunRepository.saveAndFlush(run));
+        } catch (DataIntegrityViolationException e) {
+            log.info("Run {} of {} was created by another instance", runKey, jobName);
+            return Optional.empty();
+        }
+    }
+
+    public Optional<BatchJobRun> takeOver(BatchJobRun run, Duration leaseTimeout) {
+        if (run.getStatus() == BatchJobRun.Status.COMPLETED) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = batchJobRunRepository.takeOver(run.getId(), owner, now, now.minus(leaseTimeout),
+                BatchJobRun.Status.RUNNING, BatchJobRun.Status.COMPLETED);
+        if (claimed == 0) {
+            return Optional.empty();
+        }
+        log.info("Resuming run {} of {} from its checkpoints", run.getRunKey(), run.getJobName());
+        return batchJobRunRepository.findById(run.getId());
+    }
+
+    public Optional<BatchJobRun> findRun(String jobName, String runKey) {
+        return batchJobRunRepository.findByJobNameAndRunKey(jobName, runKey);
+    }
+
+    public List<BatchJobRun> findUnfinished(String jobName) {
+        return batchJobRunRepository.findByJobNameAndStatusNotOrderById(jobName, BatchJobRun.Status.COMPLETED);
+    }
+
+    public List<BatchJobStep> findSteps(Long runId) {
+        return batchJobStepRepository.findByRunIdOrderById(runId);
+    }
+
+    /**
+     * Runs one chunk of a step and commits its work, the step's new
+     * checkpoint and the run's heartbeat in a single transaction. If this
+     * instance has lost the run to another owner the chunk is rolled back.
+     */
+    @Transactional
+    public ChunkResult runChunk(Long stepId, ChunkHandler handler) {
+        BatchJobStep step = batchJobStepRepository.findById(stepId)
+                .orElseThrow(() -> new IllegalArgumentException("Batch job step not found with id: " + stepId));
+        if (step.isCompleted()) {
+            return ChunkResult.done();
+        }
+
+        long started = System.nanoTime();
+        ChunkResult result = handler.process(step.getLastId(), step.getUpperId());
+        long millis = (System.nanoTime() - started) / 1_000_000;
+
+        step.recordChunk(result.rowsAffected(), result.lastId(), millis);
+        if (result.finished()) {
+            step.complete();
+        }
+
+        Long runId = step.getRun().getId();
+        if (batchJobRunRepository.heartbeat(runId, owner, LocalDateTime.now(), BatchJobRun.Status.RUNNING) == 0) {
+            throw new IllegalStateException("Batch job run " + runId + " is no longer owned by this instance");
+        }
+        return result;
+    }
+
+    @Transactional
+    public void complete(Long runId) {
+        BatchJobRun run = findRun(runId);
+        List<BatchJobStep> steps = batchJobStepRepository.findByRunIdOrderById(runId);
+        run.setRowsAffected(steps.stream().mapToLong(BatchJobStep::getRowsAffected).sum());
+        run.setChunkCount(steps.stream().mapToInt(BatchJobStep::getChunkCount).sum());
+        run.setStatus(BatchJobRun.Status.COMPLETED);
+        run.setFinishedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Marks the run failed so the next attempt can take it over immediately,
+     * without waiting for the lease to expire.
+     */
+    @Transactional
+    public void fail(Long runId, Throwable error) {
+        BatchJobRun run = findRun(runId);
+        if (!owner.equals(run.getOwner())) {
+            return;
+        }
+        String message = String.valueOf(error.getMessage());
+        run.setStatus(BatchJobRun.Status.FAILED);
+        run.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        run.setOwner(null);
+    }
+
+    private BatchJobRun findRun(Long runId) {
+        return batchJobRunRepository.findById(runId)
+                .orElseThrow(() -> new IllegalArgumentException("Batch job run not found with id: " + runId));
+    }
+}
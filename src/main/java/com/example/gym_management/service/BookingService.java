@@ -2,9 +2,13 @@ package com.example.gym_management.service;
 
 import com.example.gym_management.config.MembershipProperties;
 import com.example.gym_management.dto.BookingDTOs.BookingEligibility;
+import com.example.gym_management.dto.BookingDTOs.BookingView;
 import com.example.gym_management.dto.BookingDTOs.ClassAvailability;
 import com.example.gym_management.dto.BookingRequest;
 import com.example.gym_management.dto.BookingResponse;
+import com.example.gym_management.dto.BookingSummary;
+import com.example.gym_management.dto.CursorPage;
+import com.example.gym_management.dto.PageCursor;
 import com.example.gym_management.entity.Booking;
 import com.example.gym_management.entity.Booking.BookingStatus;
 import com.example.gym_management.entity.Member;
@@ -15,6 +19,7 @@ import com.example.gym_management.repository.MemberRepository;
 import com.example.gym_management.repository.ScheduledClassRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -34,6 +39,7 @@ public class BookingService {
   private final ScheduledClassRepository scheduledClassRepository;
   private final BookingMapper bookingMapper;
   private final WaitlistService waitlistService;
+  private final SeatReservationService seatReservationService;
   private final MembershipProperties membershipProperties;
 
   @Transactional
@@ -47,6 +53,7 @@ public class BookingService {
             "Scheduled class not found with id: " + request.getScheduledClassId()));
 
     validateBookingEligibility(member, scheduledClass);
+    seatReservationService.reserveSeat(scheduledClass);
 
     Booking booking = bookingMapper.toEntity(member, scheduledClass);
     Booking savedBooking = bookingRepository.save(booking);
@@ -96,16 +103,6 @@ public class BookingService {
           "Member is already enrolled in this class. " +
               "Cannot create duplicate booking.");
     }
-
-    Long currentEnrollments = bookingRepository.countEnrolledByScheduledClassId(scheduledClass.getId());
-    Integer roomCapacity = scheduledClass.getRoom().getCapacity();
-
-    if (currentEnrollments >= roomCapacity) {
-      throw new IllegalStateException(
-          "Class is fully booked. Current enrollments: " + currentEnrollments +
-              ", Room capacity: " + roomCapacity +
-              ". Please try another class or check back later for cancellations.");
-    }
   }
 
   @Transactional(readOnly = true)
@@ -116,8 +113,19 @@ public class BookingService {
   }
 
   @Transactional(readOnly = true)
-  public List<BookingResponse> getAllBookings() {
-    return bookingMapper.toResponseList(bookingRepository.findAll());
+  public CursorPage<BookingResponse> getAllBookings(BookingView view, String cursor, Integer size) {
+    PageCursor after = PageCursor.decode(cursor, null);
+    Pageable page = PageCursor.pageRequest(size);
+    if (view == BookingView.COMPACT) {
+      return CursorPage.of(
+          bookingRepository.findSummaryPageAfter(after.id(), page),
+          bookingMapper::toSummaryResponse,
+          summary -> PageCursor.ofId(summary.id()));
+    }
+    return CursorPage.of(
+        bookingRepository.findPageAfter(after.id(), page),
+        bookingMapper::toResponse,
+        booking -> PageCursor.ofId(booking.getId()));
   }
 
   @Transactional
@@ -141,7 +149,8 @@ public class BookingService {
     Booking updatedBooking = bookingRepository.save(booking);
 
     Long scheduledClassId = booking.getScheduledClass().getId();
-    waitlistService.promoteFromWaitlist(scheduledClassId);
+    seatReservationService.releaseSeats(scheduledClassId, 1);
+    waitlistService.offerFreeSeats(scheduledClassId);
 
     return bookingMapper.toResponse(updatedBooking);
   }
@@ -156,6 +165,7 @@ public class BookingService {
     }
 
     validateBookingEligibility(booking.getMember(), booking.getScheduledClass());
+    seatReservationService.reserveSeat(booking.getScheduledClass());
 
     booking.setStatus(BookingStatus.ENROLLED);
     Booking updatedBooking = bookingRepository.save(booking);
@@ -177,65 +187,84 @@ public class BookingService {
   }
 
   @Transactional(readOnly = true)
-  public List<BookingResponse> getBookingsByMember(Long memberId) {
+  public List<BookingResponse> getBookingsByMember(Long memberId, BookingView view) {
     memberRepository.findById(memberId)
         .orElseThrow(() -> new IllegalArgumentException("Member not found with id: " + memberId));
 
-    return bookingRepository.findByMemberId(memberId)
-        .stream()
-        .map(bookingMapper::toCompactResponse)
-        .collect(Collectors.toList());
+    if (view == BookingView.COMPACT) {
+      return toSummaryResponses(bookingRepository.findSummariesByMemberId(memberId));
+    }
+    return bookingMapper.toResponseList(bookingRepository.findByMemberIdWithDetails(memberId));
   }
 
   @Transactional(readOnly = true)
-  public List<BookingResponse> getActiveBookingsByMember(Long memberId) {
+  public List<BookingResponse> getActiveBookingsByMember(Long memberId, BookingView view) {
     memberRepository.findById(memberId)
         .orElseThrow(() -> new IllegalArgumentException("Member not found with id: " + memberId));
 
-    return bookingRepository.findByMemberIdAndStatus(memberId, BookingStatus.ENROLLED)
-        .stream()
-        .map(bookingMapper::toCompactResponse)
-        .collect(Collectors.toList());
+    if (view == BookingView.COMPACT) {
+      return toSummaryResponses(bookingRepository.findSummariesByMemberIdAndStatus(memberId, BookingStatus.ENROLLED));
+    }
+    return bookingMapper.toResponseList(
+        bookingRepository.findByMemberIdAndStatusWithDetails(memberId, BookingStatus.ENROLLED));
   }
 
   @Transactional(readOnly = true)
-  public List<BookingResponse> getUpcomingBookingsByMember(Long memberId) {
+  public List<BookingResponse> getUpcomingBookingsByMember(Long memberId, BookingView view) {
     memberRepository.findById(memberId)
         .orElseThrow(() -> new IllegalArgumentException("Member not found with id: " + memberId));
 
-    return bookingRepository.findUpcomingBookingsByMemberId(memberId, LocalDateTime.now())
-        .stream()
-        .map(bookingMapper::toCompactResponse)
-        .collect(Collectors.toList());
+    LocalDateTime now = LocalDateTime.now();
+    if (view == BookingView.COMPACT) {
+      return toSummaryResponses(bookingRepository.findUpcomingSummariesByMemberId(memberId, now));
+    }
+    return bookingMapper.toResponseList(bookingRepository.findUpcomingBookingsByMemberId(memberId, now));
   }
 
   @Transactional(readOnly = true)
-  public List<BookingResponse> getPastBookingsByMember(Long memberId) {
+  public List<BookingResponse> getPastBookingsByMember(Long memberId, BookingView view) {
     memberRepository.findById(memberId)
         .orElseThrow(() -> new IllegalArgumentException("Member not found with id: " + memberId));
 
-    return bookingRepository.findPastBookingsByMemberId(memberId, LocalDateTime.now())
-        .stream()
-        .map(bookingMapper::toCompactResponse)
-        .collect(Collectors.toList());
+    LocalDateTime now = LocalDateTime.now();
+    if (view == BookingView.COMPACT) {
+      return toSummaryResponses(bookingRepository.findPastSummariesByMemberId(memberId, now));
+    }
+    return bookingMapper.toResponseList(bookingRepository.findPastBookingsByMemberId(memberId, now));
   }
 
   @Transactional(readOnly = true)
-  public List<BookingResponse> getBookingsByScheduledClass(Long scheduledClassId) {
-    scheduledClassRepository.findById(scheduledClassId)
-        .orElseThrow(() -> new IllegalArgumentException(
-            "Scheduled class not found with id: " + scheduledClassId));
+  public List<BookingResponse> getBookingsByScheduledClass(Long scheduledClassId, BookingView view) {
+    if (!scheduledClassRepository.existsById(scheduledClassId)) {
+      throw new IllegalArgumentException("Scheduled class not found with id: " + scheduledClassId);
+    }
 
-    return bookingMapper.toResponseList(bookingRepository.findByScheduledClassId(scheduledClassId));
+    if (view == BookingView.COMPACT) {
+      return toSummaryResponses(bookingRepository.findSummariesByScheduledClassId(scheduledClassId));
+    }
+    return bookingMapper.toResponseList(bookingRepository.findByScheduledClassIdWithDetails(scheduledClassId));
   }
 
   @Transactional(readOnly = true)
-  public List<BookingResponse> getBookingsByStatus(BookingStatus status) {
-    return bookingMapper.toResponseList(bookingRepository.findByStatus(status));
+  public CursorPage<BookingResponse> getBookingsByStatus(BookingStatus status, BookingView view,
+                                                        String cursor, Integer size) {
+    PageCursor after = PageCursor.decode(cursor, null);
+    Pageable page = PageCursor.pageRequest(size);
+    if (view == BookingView.COMPACT) {
+      return CursorPage.of(
+          bookingRepository.findSummaryPageByStatusAfter(status, after.id(), page),
+          bookingMapper::toSummaryResponse,
+          summary -> PageCursor.ofId(summary.id()));
+    }
+    return CursorPage.of(
+        bookingRepository.findPageByStatusAfter(status, after.id(), page),
+        bookingMapper::toResponse,
+        booking -> PageCursor.ofId(booking.getId()));
   }
 
   @Transactional(readOnly = true)
-  public List<BookingResponse> getBookingsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+  public CursorPage<BookingResponse> getBookingsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                           BookingView view, String cursor, Integer size) {
     if (startDate == null || endDate == null) {
       throw new IllegalArgumentException("Start date and end date are required");
     }
@@ -243,7 +272,21 @@ public class BookingService {
       throw new IllegalArgumentException("Start date must be before end date");
     }
 
-    return bookingMapper.toResponseList(bookingRepository.findBookingsByDateRange(startDate, endDate));
+    PageCursor after = PageCursor.decode(cursor, startDate);
+    if (after.sortKey().isBefore(startDate)) {
+      throw new IllegalArgumentException("Page cursor is outside the requested date range");
+    }
+    Pageable page = PageCursor.pageRequest(size);
+    if (view == BookingView.COMPACT) {
+      return CursorPage.of(
+          bookingRepository.findSummaryPageByDateRangeAfter(after.sortKey(), after.id(), endDate, page),
+          bookingMapper::toSummaryResponse,
+          summary -> new PageCursor(summary.classStartTime(), summary.id()));
+    }
+    return CursorPage.of(
+        bookingRepository.findPageByDateRangeAfter(after.sortKey(), after.id(), endDate, page),
+        bookingMapper::toResponse,
+        booking -> new PageCursor(booking.getScheduledClass().getStartTime(), booking.getId()));
   }
 
   @Transactional(readOnly = true)
@@ -252,9 +295,9 @@ public class BookingService {
         .orElseThrow(() -> new IllegalArgumentException(
             "Scheduled class not found with id: " + scheduledClassId));
 
-    Long currentEnrollments = bookingRepository.countEnrolledByScheduledClassId(scheduledClassId);
+    Integer currentEnrollments = scheduledClass.getEnrolledCount();
     Integer roomCapacity = scheduledClass.getRoom().getCapacity();
-    Integer availableSpots = roomCapacity - currentEnrollments.intValue();
+    Integer availableSpots = roomCapacity - currentEnrollments;
     boolean isAvailable = availableSpots > 0 && scheduledClass.getStartTime().isAfter(LocalDateTime.now());
 
     return new ClassAvailability(
@@ -262,7 +305,7 @@ public class BookingService {
         scheduledClass.getClassType().getName(),
         scheduledClass.getStartTime(),
         roomCapacity,
-        currentEnrollments.intValue(),
+        currentEnrollments,
         availableSpots,
         isAvailable);
   }
@@ -295,7 +338,7 @@ public class BookingService {
       reason.append("Already enrolled in this class. ");
     }
 
-    Long currentEnrollments = bookingRepository.countEnrolledByScheduledClassId(scheduledClassId);
+    Integer currentEnrollments = scheduledClass.getEnrolledCount();
     Integer roomCapacity = scheduledClass.getRoom().getCapacity();
     if (currentEnrollments >= roomCapacity) {
       eligible = false;
@@ -311,20 +354,20 @@ public class BookingService {
 
   @Transactional
   public int cancelAllBookingsForClass(Long scheduledClassId) {
-    scheduledClassRepository.findById(scheduledClassId)
-        .orElseThrow(() -> new IllegalArgumentException(
-            "Scheduled class not found with id: " + scheduledClassId));
-
-    List<Booking> activeBookings = bookingRepository.findByScheduledClassId(scheduledClassId)
-        .stream()
-        .filter(b -> b.getStatus() == BookingStatus.ENROLLED)
-        .collect(Collectors.toList());
-
-    for (Booking booking : activeBookings) {
-      booking.setStatus(BookingStatus.CANCELLED);
+    if (!scheduledClassRepository.existsById(scheduledClassId)) {
+      throw new IllegalArgumentException("Scheduled class not found with id: " + scheduledClassId);
     }
 
-    bookingRepository.saveAll(activeBookings);
-    return activeBookings.size();
+    int cancelled = bookingRepository.updateStatusByScheduledClassId(
+        scheduledClassId, BookingStatus.ENROLLED, BookingStatus.CANCELLED);
+    seatReservationService.releaseSeats(scheduledClassId, cancelled);
+    waitlistService.offerFreeSeats(scheduledClassId);
+    return cancelled;
+  }
+
+  private List<BookingResponse> toSummaryResponses(List<BookingSummary> summaries) {
+    return summaries.stream()
+        .map(bookingMapper::toSummaryResponse)
+        .collect(Collectors.toList());
   }
 }
@@ -0,0 +1,47 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.service.BatchJobService.ChunkResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills enrolled_count and waitlist_count for classes created before the
+ * counters existed, which start at 0 even though their bookings and
+ * waitlist entries do not. Until this has run, seat reservation would let
+ * those classes overbook. Recounting is idempotent, so a retried chunk is
+ * harmless.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClassCountersMigration implements DataMigration {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final ScheduledClassRepository scheduledClassRepository;
+    private final SeatReservationService seatReservationService;
+
+    @Override
+    public String version() {
+        return "2026-10-17-class-counters";
+    }
+
+    @Override
+    public String description() {
+        return "Backfill enrolled and waitlist counters on scheduled classes";
+    }
+
+    @Override
+    public ChunkResult migrateChunk(long afterId) {
+        List<Long> ids = scheduledClassRepository.findIdsAfter(afterId, PageRequest.of(0, CHUNK_SIZE));
+        if (ids.isEmpty()) {
+            return ChunkResult.done();
+        }
+
+        int recounted = seatReservationService.recountCounters(ids);
+        return new ChunkResult(recounted, ids.getLast(), ids.size() < CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.gym_management.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads comma-separated records one at a time, so an upload is never held in
+ * memory as a whole. Follows RFC 4180: a field may be quoted, a quote inside
+ * it is doubled, and a quoted field may contain commas and line breaks.
+ * Records end with LF or CRLF; blank lines are skipped.
+ */
+final class CsvParser {
+
+    private final Reader reader;
+    private int line = 1;
+    private int recordLine;
+    // A character read past the end of a record ending in a lone CR; -2 when none.
+    private int pending = -2;
+
+    CsvParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * The next record's fields, or null at the end of the input.
+     *
+     * @throws IllegalArgumentException on a quote that is never closed or
+     *                                  is followed by anything but a separator
+     */
+    List<String> next() {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        while (true) {
+            if (c == '"' && field.isEmpty()) {
+                c = readQuoted(field);
+            } else {
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+            fields.add(field.toString());
+            field.setLength(0);
+            if (c != ',') {
+                if (c == '\r') {
+                    int after = read();
+                    if (after != '\n') {
+                        pending = after;
+                    }
+                }
+                return fields;
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Reads the header record and maps each column it names, matched
+     * case-insensitively against {@code known}, to its index.
+     *
+     * @throws IllegalArgumentException if the input is empty or the header
+     *                                  names an unknown column or one twice
+     */
+    Map<String, Integer> readHeader(List<String> known) {
+        List<String> header = next();
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).strip();
+            String column = known.stream().filter(name::equalsIgnoreCase).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown column '" + name + "'; expected "
+                            + String.join(",", known)));
+            if (columns.put(column, i) != null) {
+                throw new IllegalArgumentException("Column '" + column + "' appears twice");
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * The stripped value of the column in a record, or null if the column
+     * is missing or the value blank.
+     */
+    static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isBlank()) {
+            return null;
+        }
+        return record.get(index).strip();
+    }
+
+    /**
+     * Line the last record returned by {@link #next()} starts on, counting
+     * from 1.
+     */
+    int recordLine() {
+        return recordLine;
+    }
+
+    private int readQuoted(StringBuilder field) {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IllegalArgumentException("Line " + recordLine + ": unterminated quoted field");
+            }
+            if (c == '"') {
+                c = read();
+                if (c != '"') {
+                    if (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                        throw new IllegalArgumentException(
+                                "Line " + recordLine + ": unexpected character after quoted field");
+                    }
+                    return c;
+                }
+            }
+            field.append((char) c);
+        }
+    }
+
+    private int read() {
+        int c;
+        if (pending != -2) {
+            c = pending;
+            pending = -2;
+        } else {
+            try {
+                c = reader.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.service.BatchJobService.ChunkResult;
+
+/**
+ * A one-off data change run by {@link DataMigrationRunner}. Migrations run in
+ * {@link #version()} order, exactly once per database, one keyset chunk per
+ * transaction; the runner stores the last id of every chunk so an interrupted
+ * migration resumes where it stopped. A chunk may therefore be retried and
+ * must be safe to apply twice.
+ */
+public interface DataMigration {
+
+    /**
+     * Unique, sortable id that is recorded once the migration completes. It
+     * must never change after the migration has been deployed.
+     */
+    String version();
+
+    String description();
+
+    /**
+     * Migrates the next chunk of rows with an id greater than {@code afterId}.
+     */
+    ChunkResult migrateChunk(long afterId);
+}
@@ -0,0 +1,108 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.BatchJobRun;
+import com.example.gym_management.entity.BatchJobStep;
+import com.example.gym_management.service.BatchJobService.ChunkResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies pending {@link DataMigration}s in the background once the
+ * application is ready, so startup and readiness never wait on them. Every
+ * migration is a {@link BatchJobRun} of the data-migration job keyed by its
+ * version: the unique run key lets exactly one instance in the cluster run
+ * it, and its completed run is the record that it has been applied.
+ *
+ * <p>A migration that fails, or whose instance dies, is resumed from its
+ * checkpoint by the periodic retry; later migrations wait until it completes.
+ */
+@Service
+@Slf4j
+public class DataMigrationRunner {
+
+    static final String JOB_NAME = "data-migration";
+
+    private static final Duration LEASE_TIMEOUT = Duration.ofMinutes(10);
+
+    private final List<DataMigration> migrations;
+    private final BatchJobService batchJobService;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public DataMigrationRunner(List<DataMigration> migrations, BatchJobService batchJobService) {
+        this.migrations = migrations.stream()
+                .sorted(Comparator.comparing(DataMigration::version))
+                .toList();
+        this.batchJobService = batchJobService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startInBackground() {
+        Thread.ofVirtual().name("data-migrations").start(this::runPendingMigrations);
+    }
+
+    @Scheduled(fixedDelay = 15, initialDelay = 15, timeUnit = TimeUnit.MINUTES)
+    public void runPendingMigrations() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (DataMigration migration : migrations) {
+                if (!apply(migration)) {
+                    return;
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Returns true when the migration has been applied, by this instance or
+     * earlier by any other.
+     */
+    private boolean apply(DataMigration migration) {
+        Optional<BatchJobRun> existing = batchJobService.findRun(JOB_NAME, migration.version());
+        if (existing.isPresent() && existing.get().getStatus() == BatchJobRun.Status.COMPLETED) {
+            return true;
+        }
+
+        Optional<BatchJobRun> claimed = batchJobService.claim(JOB_NAME, migration.version(),
+                () -> List.of(new BatchJobStep(migration.version(), 0, 0L, Long.MAX_VALUE)), LEASE_TIMEOUT);
+        if (claimed.isEmpty()) {
+            log.info("Data migration {} is running on another instance", migration.version());
+            return false;
+        }
+
+        BatchJobRun run = claimed.get();
+        log.info("Applying data migration {}: {}", migration.version(), migration.description());
+        long started = System.currentTimeMillis();
+        try {
+            long migrated = 0;
+            for (BatchJobStep step : batchJobService.findSteps(run.getId())) {
+                ChunkResult result;
+                do {
+                    result = batchJobService.runChunk(step.getId(), (afterId, upToId) -> migration.migrateChunk(afterId));
+                    migrated += result.rowsAffected();
+                } while (!result.finished());
+            }
+            batchJobService.complete(run.getId());
+            log.info("Data migration {} complete. Rows migrated: {}, took {} ms",
+                     migration.version(), migrated, System.currentTimeMillis() - started);
+            return true;
+        } catch (RuntimeException e) {
+            batchJobService.fail(run.getId(), e);
+            log.error("Data migration {} failed and will resume from its last checkpoint", migration.version(), e);
+            return false;
+        }
+    }
+}
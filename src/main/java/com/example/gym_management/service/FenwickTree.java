@@ -0,0 +1,71 @@
+package com.example.gym_management.service;
+
+import java.util.Arrays;
+
+/**
+ * Fenwick (binary indexed) tree over slots 1..capacity: point updates and
+ * prefix sums in O(log n). It grows by doubling when a slot beyond its
+ * capacity is touched. Not thread-safe.
+ */
+final class FenwickTree {
+
+    private long[] tree;
+    private long[] values;
+    private long total;
+
+    FenwickTree(int capacity) {
+        this.tree = new long[Math.max(1, capacity) + 1];
+        this.values = new long[tree.length];
+    }
+
+    void add(int slot, long delta) {
+        if (slot < 1) {
+            throw new IllegalArgumentException("Fenwick slots start at 1: " + slot);
+        }
+        ensureCapacity(slot);
+        values[slot] += delta;
+        total += delta;
+        for (int i = slot; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    long get(int slot) {
+        return slot >= 1 && slot < values.length ? values[slot] : 0;
+    }
+
+    /**
+     * Sum of slots 1..slot, inclusive.
+     */
+    long prefixSum(int slot) {
+        long sum = 0;
+        for (int i = Math.min(slot, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    long total() {
+        return total;
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < tree.length) {
+            return;
+        }
+        int capacity = tree.length - 1;
+        while (capacity < slot) {
+            capacity *= 2;
+        }
+        values = Arrays.copyOf(values, capacity + 1);
+        tree = new long[capacity + 1];
+        // Linear-time rebuild: push every node's sum up to its parent.
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] += values[i];
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
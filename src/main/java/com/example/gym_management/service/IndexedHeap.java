@@ -0,0 +1,128 @@
+package com.example.gym_management.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary min-heap of keys by due time that also tracks where each key sits,
+ * so a key can be rescheduled or removed in O(log n) rather than by a scan.
+ * A key is in the heap at most once; scheduling it again moves it. Ties go
+ * to the key scheduled first. Not thread-safe.
+ */
+final class IndexedHeap<K> {
+
+    private static final class Entry<K> {
+
+        private final K key;
+        private long due;
+        private long sequence;
+        private int position;
+
+        Entry(K key) {
+            this.key = key;
+        }
+    }
+
+    private final List<Entry<K>> heap = new ArrayList<>();
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private long sequence;
+
+    /**
+     * Adds the key, or moves it to its new due time if already present.
+     */
+    void schedule(K key, long due) {
+        Entry<K> entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry<>(key);
+            entries.put(key, entry);
+            entry.position = heap.size();
+            heap.add(entry);
+        }
+        long previous = entry.due;
+        boolean added = entry.sequence == 0;
+        entry.due = due;
+        entry.sequence = ++sequence;
+        if (added || due < previous) {
+            siftUp(entry.position);
+        } else {
+            siftDown(entry.position);
+        }
+    }
+
+    boolean remove(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        Entry<K> last = heap.removeLast();
+        if (last != entry) {
+            int position = entry.position;
+            place(last, position);
+            siftUp(position);
+            siftDown(last.position);
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns, earliest first, up to {@code max} keys due at or
+     * before {@code now}.
+     */
+    List<K> pollDue(long now, int max) {
+        List<K> due = new ArrayList<>();
+        while (!heap.isEmpty() && due.size() < max && heap.getFirst().due <= now) {
+            K key = heap.getFirst().key;
+            remove(key);
+            due.add(key);
+        }
+        return due;
+    }
+
+    int size() {
+        return heap.size();
+    }
+
+    private void siftUp(int position) {
+        Entry<K> entry = heap.get(position);
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!before(entry, heap.get(parent))) {
+                break;
+            }
+            place(heap.get(parent), position);
+            position = parent;
+        }
+        place(entry, position);
+    }
+
+    private void siftDown(int position) {
+        Entry<K> entry = heap.get(position);
+        int size = heap.size();
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap.get(child + 1), heap.get(child))) {
+                child++;
+            }
+            if (!before(heap.get(child), entry)) {
+                break;
+            }
+            place(heap.get(child), position);
+            position = child;
+        }
+        place(entry, position);
+    }
+
+    private void place(Entry<K> entry, int position) {
+        heap.set(position, entry);
+        entry.position = position;
+    }
+
+    private static boolean before(Entry<?> a, Entry<?> b) {
+        return a.due < b.due || (a.due == b.due && a.sequence < b.sequence);
+    }
+}
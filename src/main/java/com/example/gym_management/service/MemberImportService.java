@@ -0,0 +1,247 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.config.MembershipProperties;
+import com.example.gym_management.dto.MemberImportResponse;
+import com.example.gym_management.dto.MemberImportResponse.RowError;
+import com.example.gym_management.dto.MemberRequest;
+import com.example.gym_management.dto.SearchEntry;
+import com.example.gym_management.entity.BatchJobRun;
+import com.example.gym_management.entity.BatchJobStep;
+import com.example.gym_management.repository.MemberBatchRepository;
+import com.example.gym_management.repository.MemberBatchRepository.NewMember;
+import com.example.gym_management.repository.MemberRepository;
+import com.example.gym_management.repository.MembershipPlanRepository;
+import com.example.gym_management.service.BatchJobService.ChunkResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+
+import java.io.Reader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk member import from CSV, for onboarding a franchise. The file is read
+ * one row at a time and accepted rows are inserted in JDBC batches of
+ * {@code gym.membership.import-batch-size}, each committed as one chunk of
+ * a {@link BatchJobRun} whose checkpoint is the last row it covered. Rows
+ * that are invalid or whose email is already taken are skipped and reported
+ * without stopping the import. If an upload fails part way, uploading the
+ * same file again with the job id continues after the last committed batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MemberImportService {
+
+    static final String JOB_NAME = "member-import";
+    static final String STEP_NAME = "rows";
+    static final List<String> CSV_COLUMNS = List.of("firstName", "lastName", "email", "membershipPlanId");
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final Duration LEASE_TIMEOUT = Duration.ofMinutes(10);
+
+    private final MemberRepository memberRepository;
+    private final MembershipPlanRepository membershipPlanRepository;
+    private final MemberBatchRepository memberBatchRepository;
+    private final BatchJobService batchJobService;
+    private final MembershipProperties membershipProperties;
+    private final Validator validator;
+    private final AuditorAware<String> auditorAware;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Imports a CSV file with a header row naming its columns, out of
+     * {@link #CSV_COLUMNS} in any order; firstName, lastName and email are
+     * required.
+     *
+     * @param jobId the id of an earlier, unfinished upload of the same file
+     *              to resume, or null to start a new import
+     */
+    public MemberImportResponse importCsv(Reader csv, String jobId) {
+        CsvParser parser = new CsvParser(csv);
+        Map<String, Integer> columns = parser.readHeader(CSV_COLUMNS);
+        for (String column : List.of("firstName", "lastName", "email")) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("Column '" + column + "' is required");
+            }
+        }
+
+        BatchJobRun run = jobId == null ? start() : resume(jobId);
+        Upload upload = null;
+        try {
+            BatchJobStep step = batchJobService.findSteps(run.getId()).getFirst();
+            upload = new Upload(run.getRunKey(), step.getId(), step.getLastId());
+            upload.read(parser, columns);
+            batchJobService.complete(run.getId());
+        } catch (RuntimeException e) {
+            batchJobService.fail(run.getId(), e);
+            String message;
+            if (upload == null) {
+                log.warn("Member import {} failed to start", run.getRunKey(), e);
+                message = e.getMessage() + ". Upload the file again with jobId " + run.getRunKey() + " to retry";
+            } else {
+                log.warn("Member import {} stopped after row {}", run.getRunKey(), upload.committedRow, e);
+                message = e.getMessage() + ". Rows up to " + upload.committedRow + " were imported; upload "
+                        + "the file again with jobId " + run.getRunKey() + " to continue after them";
+            }
+            if (e instanceof IllegalArgumentException) {
+                throw new IllegalArgumentException(message, e);
+            }
+            throw new IllegalStateException(message, e);
+        }
+        log.info("Member import {} complete: {} imported, {} duplicates, {} invalid", run.getRunKey(),
+                upload.imported, upload.duplicates, upload.failed);
+        return new MemberImportResponse(run.getRunKey(), upload.resumeAfterRow, upload.imported, upload.duplicates,
+                upload.failed, upload.errors);
+    }
+
+    private BatchJobRun start() {
+        String jobId = UUID.randomUUID().toString();
+        Supplier<List<BatchJobStep>> steps = () -> List.of(new BatchJobStep(STEP_NAME, 0, 0, Long.MAX_VALUE));
+        return batchJobService.claim(JOB_NAME, jobId, steps, LEASE_TIMEOUT)
+                .orElseThrow(() -> new IllegalStateException("Could not start member import " + jobId));
+    }
+
+    private BatchJobRun resume(String jobId) {
+        BatchJobRun run = batchJobService.findRun(JOB_NAME, jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Member import not found with id: " + jobId));
+        if (run.getStatus() == BatchJobRun.Status.COMPLETED) {
+            throw new IllegalStateException("Member import " + jobId + " has already completed");
+        }
+        return batchJobService.takeOver(run, LEASE_TIMEOUT)
+                .orElseThrow(() -> new IllegalStateException("Member import " + jobId + " is still running"));
+    }
+
+    /**
+     * State of one upload: the emails and plans rows are checked against,
+     * loaded once, and the batch being filled.
+     */
+    private final class Upload {
+
+        private final String jobId;
+        private final Long stepId;
+        private final long resumeAfterRow;
+        private final int batchSize = Math.max(1, membershipProperties.getImportBatchSize());
+        private final Set<String> emails = new HashSet<>(memberRepository.findAllEmails());
+        private final Set<Long> planIds = new HashSet<>(membershipPlanRepository.findAllIds());
+        private final String createdBy = auditorAware.getCurrentAuditor().orElse("system");
+        private final List<NewMember> batch = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private long committedRow;
+        private int imported;
+        private int duplicates;
+        private int failed;
+
+        Upload(String jobId, Long stepId, long resumeAfterRow) {
+            this.jobId = jobId;
+            this.stepId = stepId;
+            this.resumeAfterRow = resumeAfterRow;
+            this.committedRow = resumeAfterRow;
+        }
+
+        void read(CsvParser parser, Map<String, Integer> columns) {
+            long row = 0;
+            for (List<String> fields = parser.next(); fields != null; fields = parser.next()) {
+                row++;
+                if (row <= resumeAfterRow) {
+                    continue;
+                }
+                String email = CsvParser.field(fields, columns, "email");
+                try {
+                    NewMember member = toMember(fields, columns);
+                    if (!emails.add(member.email())) {
+                        duplicates++;
+                        report(parser.recordLine(), email, "A member with this email already exists");
+                        continue;
+                    }
+                    batch.add(member);
+                } catch (IllegalArgumentException e) {
+                    failed++;
+                    report(parser.recordLine(), email, e.getMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    flush(row, false);
+                }
+            }
+            flush(row, true);
+        }
+
+        private NewMember toMember(List<String> fields, Map<String, Integer> columns) {
+            MemberRequest request = new MemberRequest(
+                    CsvParser.field(fields, columns, "firstName"),
+                    CsvParser.field(fields, columns, "lastName"),
+                    CsvParser.field(fields, columns, "email"),
+                    parseId(CsvParser.field(fields, columns, "membershipPlanId")));
+            Set<ConstraintViolation<MemberRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                throw new IllegalArgumentException(violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+            if (request.getMembershipPlanId() != null && !planIds.contains(request.getMembershipPlanId())) {
+                throw new IllegalArgumentException(
+                        "Membership plan not found with id: " + request.getMembershipPlanId());
+            }
+            return new NewMember(request.getFirstName(), request.getLastName(), request.getEmail(),
+                    request.getMembershipPlanId());
+        }
+
+        /**
+         * Inserts the batch and moves the checkpoint to {@code row} in one
+         * transaction; the imported members are added to the name search
+         * index once it commits.
+         */
+        private void flush(long row, boolean last) {
+            List<NewMember> members = List.copyOf(batch);
+            ChunkResult result = batchJobService.runChunk(stepId, (afterId, upToId) -> {
+                if (afterId != committedRow) {
+                    throw new IllegalStateException("Member import " + jobId + " was advanced to row " + afterId
+                            + " by another upload");
+                }
+                if (!members.isEmpty()) {
+                    memberBatchRepository.insertAll(members, createdBy);
+                    List<String> inserted = members.stream().map(NewMember::email).toList();
+                    for (SearchEntry entry : memberRepository.findSearchEntriesByEmailIn(inserted)) {
+                        eventPublisher.publishEvent(SearchEntryChangedEvent.member(
+                                entry.id(), entry.firstName(), entry.lastName(), entry.email()));
+                    }
+                }
+                return new ChunkResult(members.size(), row, last);
+            });
+            imported += result.rowsAffected();
+            committedRow = row;
+            batch.clear();
+        }
+
+        private void report(int line, String email, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, email, message));
+            }
+        }
+    }
+
+    private static Long parseId(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("membershipPlanId must be a number");
+        }
+    }
+}
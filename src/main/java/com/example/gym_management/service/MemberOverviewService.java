@@ -0,0 +1,124 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.BookingDTOs.BookingView;
+import com.example.gym_management.dto.BookingResponse;
+import com.example.gym_management.dto.MemberOverviewResponse;
+import com.example.gym_management.dto.MemberResponse;
+import com.example.gym_management.dto.WaitlistResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Everything the front desk shows when it opens a member, in one call. The
+ * sections are read concurrently, each on its own virtual thread in its own
+ * read-only transaction, and the whole overview waits at most
+ * {@link #BUDGET}. A section that fails or runs late is left out and named
+ * in {@code unavailable}; only the member details themselves are required.
+ */
+@Service
+@Slf4j
+public class MemberOverviewService {
+
+    static final Duration BUDGET = Duration.ofSeconds(2);
+
+    private final MemberService memberService;
+    private final BookingService bookingService;
+    private final PaymentService paymentService;
+    private final WaitlistService waitlistService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public MemberOverviewService(MemberService memberService, BookingService bookingService,
+                                 PaymentService paymentService, WaitlistService waitlistService,
+                                 PlatformTransactionManager transactionManager) {
+        this.memberService = memberService;
+        this.bookingService = bookingService;
+        this.paymentService = paymentService;
+        this.waitlistService = waitlistService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // The database gives up on a section's queries once the budget is spent.
+        this.readOnlyTransaction.setTimeout((int) BUDGET.toSeconds());
+    }
+
+    public MemberOverviewResponse getOverview(Long memberId) {
+        long deadline = System.nanoTime() + BUDGET.toNanos();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<MemberResponse> member = submit(executor, () -> memberService.getMemberById(memberId));
+            Future<List<BookingResponse>> bookings =
+                    submit(executor, () -> bookingService.getUpcomingBookingsByMember(memberId, BookingView.COMPACT));
+            Future<BigDecimal> totalPaid = submit(executor, () -> paymentService.getMemberTotalPaid(memberId));
+            Future<List<WaitlistResponse>> waitlists =
+                    submit(executor, () -> waitlistService.getMemberWaitlists(memberId));
+
+            MemberOverviewResponse overview = new MemberOverviewResponse();
+            overview.setMember(required(member, deadline));
+            List<String> unavailable = new ArrayList<>();
+            overview.setUpcomingBookings(optional(bookings, deadline, "upcomingBookings", memberId, unavailable));
+            overview.setTotalPaid(optional(totalPaid, deadline, "totalPaid", memberId, unavailable));
+            overview.setActiveWaitlists(optional(waitlists, deadline, "activeWaitlists", memberId, unavailable));
+            overview.setUnavailable(unavailable);
+            return overview;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> Future<T> submit(ExecutorService executor, Supplier<T> section) {
+        return executor.submit(() -> readOnlyTransaction.execute(status -> section.get()));
+    }
+
+    /**
+     * The section's result; its exception as is, so a missing member is
+     * reported like everywhere else.
+     */
+    private static <T> T required(Future<T> section, long deadline) {
+        try {
+            return section.get(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Member overview failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Member details did not load within " + BUDGET.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the member overview");
+        }
+    }
+
+    private static <T> T optional(Future<T> section, long deadline, String name, Long memberId,
+                                  List<String> unavailable) {
+        try {
+            return section.get(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            log.warn("Member {} overview: {} failed", memberId, name, e.getCause());
+        } catch (TimeoutException e) {
+            section.cancel(true);
+            log.warn("Member {} overview: {} did not load within {} ms", memberId, name, BUDGET.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        unavailable.add(name);
+        return null;
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+}
@@ -1,31 +1,45 @@
 package com.example.gym_management.service;
 
 import com.example.gym_management.config.MembershipProperties;
+import com.example.gym_management.dto.CursorPage;
+import com.example.gym_management.dto.MemberBookingCount;
 import com.example.gym_management.dto.MemberRequest;
 import com.example.gym_management.dto.MemberResponse;
+import com.example.gym_management.dto.PageCursor;
+import com.example.gym_management.entity.Booking.BookingStatus;
 import com.example.gym_management.entity.Member;
 import com.example.gym_management.entity.MembershipPlan;
 import com.example.gym_management.mapper.MemberMapper;
+import com.example.gym_management.repository.BookingRepository;
 import com.example.gym_management.repository.MemberRepository;
 import com.example.gym_management.repository.MembershipPlanRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Validated
 public class MemberService {
 
+    static final int COUNT_CHUNK_SIZE = 1000;
+
     private final MemberRepository memberRepository;
     private final MembershipPlanRepository membershipPlanRepository;
+    private final BookingRepository bookingRepository;
     private final MemberMapper memberMapper;
     private final MembershipProperties membershipProperties;
+    private final SearchService searchService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public MemberResponse createMember(@Valid MemberRequest request) {
@@ -35,19 +49,27 @@ public class MemberService {
 
         Member member = memberMapper.toEntity(request);
         Member savedMember = memberRepository.save(member);
+        publishSearchEntry(savedMember);
         return memberMapper.toResponseWithoutBookingCount(savedMember);
     }
 
     @Transactional(readOnly = true)
     public MemberResponse getMemberById(Long id) {
-        Member member = memberRepository.findByIdWithBookings(id)
+        Member member = memberRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Member not found with id: " + id));
-        return memberMapper.toResponse(member);
+        long activeBookings = bookingRepository.countByMemberIdAndStatus(id, BookingStatus.ENROLLED);
+        return memberMapper.toResponse(member, (int) activeBookings);
     }
 
     @Transactional(readOnly = true)
-    public List<MemberResponse> getAllMembers() {
-        return memberMapper.toResponseListWithoutBookingCount(memberRepository.findAll());
+    public CursorPage<MemberResponse> getAllMembers(String cursor, Integer size) {
+        PageCursor after = PageCursor.decode(cursor, null);
+        Slice<Member> page = memberRepository.findPageAfter(after.id(), PageCursor.pageRequest(size));
+        Map<Long, Integer> activeBookings = countActiveBookings(page.getContent());
+        return CursorPage.of(
+                page,
+                member -> memberMapper.toResponse(member, activeBookings.getOrDefault(member.getId(), 0)),
+                member -> PageCursor.ofId(member.getId()));
     }
 
     @Transactional
@@ -63,34 +85,37 @@ public class MemberService {
         memberMapper.updateEntity(request, member);
 
         Member updatedMember = memberRepository.save(member);
+        publishSearchEntry(updatedMember);
         return memberMapper.toResponseWithoutBookingCount(updatedMember);
     }
 
     @Transactional
     public void deleteMember(Long id) {
-        Member member = memberRepository.findByIdWithBookings(id)
+        Member member = memberRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Member not found with id: " + id));
 
-        if (member.getBookings() != null && !member.getBookings().isEmpty()) {
-            long activeBookings = member.getBookings().stream()
-                    .filter(b -> b.getStatus() == com.example.gym_management.entity.Booking.BookingStatus.ENROLLED)
-                    .count();
-            if (activeBookings > 0) {
-                throw new IllegalStateException(
-                        "Cannot delete member with " + activeBookings + " active booking(s). " +
-                                "Please cancel all bookings first.");
-            }
+        long activeBookings = bookingRepository.countByMemberIdAndStatus(id, BookingStatus.ENROLLED);
+        if (activeBookings > 0) {
+            throw new IllegalStateException(
+                    "Cannot delete member with " + activeBookings + " active booking(s). " +
+                            "Please cancel all bookings first.");
         }
 
         memberRepository.delete(member);
+        eventPublisher.publishEvent(SearchEntryChangedEvent.removed(SearchEntryChangedEvent.Kind.MEMBER, id));
     }
 
+    /**
+     * Members whose first name, last name or email contains every word of
+     * the query, best match first; see {@link SearchService}.
+     */
     @Transactional(readOnly = true)
-    public List<MemberResponse> searchMembersByName(String name) {
-        if (name == null || name.trim().isEmpty()) {
-            throw new IllegalArgumentException("Search name cannot be empty");
+    public List<MemberResponse> searchMembersByName(String name, Integer limit) {
+        List<Long> ids = searchService.searchMembers(name, limit);
+        if (ids.isEmpty()) {
+            return List.of();
         }
-        return memberMapper.toResponseListWithoutBookingCount(memberRepository.searchByName(name.trim()));
+        return toResponseList(SearchService.inSearchOrder(ids, memberRepository.findAllById(ids), Member::getId));
     }
 
     @Transactional(readOnly = true)
@@ -99,13 +124,12 @@ public class MemberService {
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Membership plan not found with id: " + membershipPlanId));
 
-        return memberMapper.toResponseListWithoutBookingCount(
-                memberRepository.findByMembershipPlanId(membershipPlanId));
+        return toResponseList(memberRepository.findByMembershipPlanId(membershipPlanId));
     }
 
     @Transactional(readOnly = true)
     public List<MemberResponse> getMembersWithoutPlan() {
-        return memberMapper.toResponseListWithoutBookingCount(memberRepository.findMembersWithoutPlan());
+        return toResponseList(memberRepository.findMembersWithoutPlan());
     }
 
     @Transactional
@@ -125,6 +149,7 @@ public class MemberService {
         member.setMembershipEndDate(endDate);
         member.setMembershipStatus(Member.MembershipStatus.ACTIVE);
 
+        scheduleNextTransition(member);
         Member updatedMember = memberRepository.save(member);
         return memberMapper.toResponseWithoutBookingCount(updatedMember);
     }
@@ -158,6 +183,7 @@ public class MemberService {
         member.setMembershipEndDate(newEndDate);
         member.setMembershipStatus(Member.MembershipStatus.ACTIVE);
 
+        scheduleNextTransition(member);
         Member updatedMember = memberRepository.save(member);
         return memberMapper.toResponseWithoutBookingCount(updatedMember);
     }
@@ -183,6 +209,7 @@ public class MemberService {
             member.setMembershipStatus(Member.MembershipStatus.ACTIVE);
         }
 
+        scheduleNextTransition(member);
         Member updatedMember = memberRepository.save(member);
         return memberMapper.toResponseWithoutBookingCount(updatedMember);
     }
@@ -205,6 +232,7 @@ public class MemberService {
 
         member.setMembershipStatus(Member.MembershipStatus.SUSPENDED);
 
+        scheduleNextTransition(member);
         Member updatedMember = memberRepository.save(member);
         return memberMapper.toResponseWithoutBookingCount(updatedMember);
     }
@@ -236,6 +264,7 @@ public class MemberService {
             member.setMembershipStatus(Member.MembershipStatus.ACTIVE);
         }
 
+        scheduleNextTransition(member);
         Member updatedMember = memberRepository.save(member);
         return memberMapper.toResponseWithoutBookingCount(updatedMember);
     }
@@ -247,6 +276,7 @@ public class MemberService {
 
         member.setMembershipStatus(Member.MembershipStatus.CANCELLED);
 
+        scheduleNextTransition(member);
         Member updatedMember = memberRepository.save(member);
         return memberMapper.toResponseWithoutBookingCount(updatedMember);
     }
@@ -261,7 +291,7 @@ public class MemberService {
         LocalDate endDate = startDate.plusDays(daysAhead);
 
         List<Member> members = memberRepository.findExpiringBetween(startDate, endDate);
-        return memberMapper.toResponseListWithoutBookingCount(members);
+        return toResponseList(members);
     }
 
     @Transactional(readOnly = true)
@@ -271,11 +301,48 @@ public class MemberService {
         }
 
         List<Member> members = memberRepository.findByMembershipStatus(status);
-        return memberMapper.toResponseListWithoutBookingCount(members);
+        return toResponseList(members);
     }
 
     @Transactional(readOnly = true)
     public Long getActiveMembersCount() {
         return memberRepository.countActiveMembers();
     }
+
+    private List<MemberResponse> toResponseList(List<Member> members) {
+        return memberMapper.toResponseList(members, countActiveBookings(members));
+    }
+
+    /**
+     * ENROLLED bookings per member, from grouped counts of at most
+     * {@link #COUNT_CHUNK_SIZE} members each; members without any are absent.
+     */
+    private Map<Long, Integer> countActiveBookings(List<Member> members) {
+        Map<Long, Integer> counts = new HashMap<>();
+        List<Long> ids = members.stream().map(Member::getId).toList();
+        for (int from = 0; from < ids.size(); from += COUNT_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + COUNT_CHUNK_SIZE, ids.size()));
+            List<MemberBookingCount> chunkCounts =
+                    bookingRepository.countByMemberIdsAndStatus(chunk, BookingStatus.ENROLLED);
+            for (MemberBookingCount count : chunkCounts) {
+                counts.put(count.memberId(), count.count().intValue());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Sets when the member's status next changes by date alone and moves the
+     * member in the transition queue once this transaction commits.
+     */
+    private void scheduleNextTransition(Member member) {
+        member.scheduleNextTransition(membershipProperties.getGracePeriodDays());
+        eventPublisher.publishEvent(
+                new MembershipTransitionScheduledEvent(member.getId(), member.getNextTransitionAt()));
+    }
+
+    private void publishSearchEntry(Member member) {
+        eventPublisher.publishEvent(SearchEntryChangedEvent.member(
+                member.getId(), member.getFirstName(), member.getLastName(), member.getEmail()));
+    }
 }
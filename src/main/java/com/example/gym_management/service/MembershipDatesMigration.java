@@ -0,0 +1,77 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.config.MembershipProperties;
+import com.example.gym_management.entity.Member;
+import com.example.gym_management.repository.MemberRepository;
+import com.example.gym_management.service.BatchJobService.ChunkResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Backfills membershipStartDate, membershipEndDate and membershipStatus for
+ * members created before membership tracking existed, and marks members
+ * without a plan as PENDING. First applied by hand on 2026-01-17.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MembershipDatesMigration implements DataMigration {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final MemberRepository memberRepository;
+    private final MembershipProperties membershipProperties;
+
+    @Override
+    public String version() {
+        return "2026-01-17-membership-dates";
+    }
+
+    @Override
+    public String description() {
+        return "Backfill membership dates and status";
+    }
+
+    @Override
+    public ChunkResult migrateChunk(long afterId) {
+        List<Member> members = memberRepository.findMissingMembershipDataAfter(afterId, PageRequest.of(0, CHUNK_SIZE));
+        if (members.isEmpty()) {
+            return ChunkResult.done();
+        }
+
+        LocalDate now = LocalDate.now();
+        for (Member member : members) {
+            if (member.getMembershipPlan() == null) {
+                member.setMembershipStatus(Member.MembershipStatus.PENDING);
+                log.debug("Set member {} to PENDING status (no plan)", member.getId());
+                continue;
+            }
+
+            LocalDate startDate = member.getCreatedAt() != null
+                    ? member.getCreatedAt().toLocalDate()
+                    : now;
+            LocalDate endDate = startDate.plusDays(member.getMembershipPlan().getDurationDays());
+            member.setMembershipStartDate(startDate);
+            member.setMembershipEndDate(endDate);
+
+            if (now.isAfter(endDate.plusDays(membershipProperties.getGracePeriodDays()))) {
+                member.setMembershipStatus(Member.MembershipStatus.EXPIRED);
+            } else if (now.isAfter(endDate)) {
+                member.setMembershipStatus(Member.MembershipStatus.GRACE_PERIOD);
+            } else {
+                member.setMembershipStatus(Member.MembershipStatus.ACTIVE);
+            }
+            log.debug("Migrated member {} with plan {} (status: {}, end date: {})",
+                      member.getId(), member.getMembershipPlan().getTierName(),
+                      member.getMembershipStatus(), member.getMembershipEndDate());
+        }
+
+        Long lastId = members.getLast().getId();
+        return new ChunkResult(members.size(), lastId, members.size() < CHUNK_SIZE);
+    }
+}
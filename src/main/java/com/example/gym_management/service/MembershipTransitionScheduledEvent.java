@@ -0,0 +1,11 @@
+package com.example.gym_management.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a member's next membership status change is set, moved or
+ * cleared ({@code dueAt} null), so {@link MembershipTransitionScheduler} can
+ * update its queue once the transaction commits.
+ */
+public record MembershipTransitionScheduledEvent(Long memberId, LocalDateTime dueAt) {
+}
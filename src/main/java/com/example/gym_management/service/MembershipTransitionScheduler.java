@@ -0,0 +1,114 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.DueTransition;
+import com.example.gym_management.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies membership status changes within a second of them coming due.
+ * Every member's next change is stored in {@code members.next_transition_at},
+ * whose index keeps the whole schedule in due order in the database. The
+ * part of it due within {@link #HORIZON} is loaded, page by page, into an
+ * {@link IndexedHeap}, which a one-second tick drains; changes made on this
+ * instance move or drop a member's entry there as they commit.
+ *
+ * <p>The window is loaded again every minute, which picks up changes made on
+ * other instances and anything a failed tick left behind.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MembershipTransitionScheduler {
+
+    static final Duration HORIZON = Duration.ofMinutes(10);
+    static final int LOAD_PAGE_SIZE = 1000;
+    static final int MAX_QUEUED = 100_000;
+    static final int APPLY_CHUNK_SIZE = 500;
+
+    private final MemberRepository memberRepository;
+    private final MembershipTransitionService membershipTransitionService;
+
+    private final IndexedHeap<Long> queue = new IndexedHeap<>();
+    // Everything due up to here was queued by the last refill; guarded by the queue.
+    private long loadedUntil = Long.MIN_VALUE;
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void refill() {
+        LocalDateTime until = LocalDateTime.now().plus(HORIZON);
+        List<DueTransition> page = memberRepository.findDueTransitions(until, PageRequest.ofSize(LOAD_PAGE_SIZE));
+        int loaded = 0;
+        while (true) {
+            synchronized (queue) {
+                for (DueTransition transition : page) {
+                    queue.schedule(transition.memberId(), toMillis(transition.dueAt()));
+                }
+            }
+            loaded += page.size();
+            if (page.size() < LOAD_PAGE_SIZE || loaded >= MAX_QUEUED) {
+                break;
+            }
+            DueTransition last = page.getLast();
+            page = memberRepository.findDueTransitionsAfter(until, last.dueAt(), last.memberId(),
+                    PageRequest.ofSize(LOAD_PAGE_SIZE));
+        }
+        // When the window did not fit, later changes are left for the refill after next.
+        long loadedThrough = loaded >= MAX_QUEUED ? toMillis(page.getLast().dueAt()) : toMillis(until);
+        synchronized (queue) {
+            loadedUntil = loadedThrough;
+        }
+        log.debug("Queued {} membership transitions due by {}", loaded, until);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransitionScheduled(MembershipTransitionScheduledEvent event) {
+        synchronized (queue) {
+            if (event.dueAt() != null && toMillis(event.dueAt()) <= loadedUntil) {
+                queue.schedule(event.memberId(), toMillis(event.dueAt()));
+            } else {
+                queue.remove(event.memberId());
+            }
+        }
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void tick() {
+        while (true) {
+            long now = System.currentTimeMillis();
+            List<Long> due;
+            synchronized (queue) {
+                due = queue.pollDue(now, APPLY_CHUNK_SIZE);
+            }
+            if (due.isEmpty()) {
+                return;
+            }
+            try {
+                int moved = membershipTransitionService.applyDue(due, LocalDateTime.now());
+                log.info("Applied membership transitions: {} of {} due members changed status", moved, due.size());
+            } catch (RuntimeException e) {
+                log.error("Could not apply membership transitions; the next refill will queue them again", e);
+                return;
+            }
+        }
+    }
+
+    int queued() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.config.MembershipProperties;
+import com.example.gym_management.entity.Member;
+import com.example.gym_management.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves memberships along ACTIVE → GRACE_PERIOD → EXPIRED as their dates
+ * pass; see {@link Member#nextTransitionTime}. Members due at the same time
+ * from the same status and end date share their outcome, so each such group
+ * is moved with one update, which at midnight is most of them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MembershipTransitionService {
+
+    private final MemberRepository memberRepository;
+    private final MembershipProperties membershipProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private record Group(Member.MembershipStatus status, LocalDate endDate, LocalDateTime due) {
+    }
+
+    /**
+     * Applies the transitions of these members that are due by {@code now}
+     * and schedules their next ones. Members that are not due, because they
+     * changed since they were queued, are only rescheduled.
+     *
+     * @return how many members changed status
+     */
+    @Transactional
+    public int applyDue(Collection<Long> memberIds, LocalDateTime now) {
+        int gracePeriodDays = membershipProperties.getGracePeriodDays();
+        Map<Group, List<Long>> groups = new LinkedHashMap<>();
+        for (Member member : memberRepository.findAllById(memberIds)) {
+            LocalDateTime due = member.getNextTransitionAt();
+            if (due == null || due.isAfter(now)) {
+                eventPublisher.publishEvent(new MembershipTransitionScheduledEvent(member.getId(), due));
+                continue;
+            }
+            Group group = new Group(member.getMembershipStatus(), member.getMembershipEndDate(), due);
+            groups.computeIfAbsent(group, g -> new ArrayList<>()).add(member.getId());
+        }
+
+        int moved = 0;
+        for (Map.Entry<Group, List<Long>> entry : groups.entrySet()) {
+            Group group = entry.getKey();
+            Member.MembershipStatus to = Member.statusAt(group.status(), group.endDate(), gracePeriodDays, now);
+            LocalDateTime next = Member.nextTransitionTime(to, group.endDate(), gracePeriodDays);
+            int updated = memberRepository.applyTransition(entry.getValue(), group.status(), group.endDate(),
+                    group.due(), to, next, now);
+            log.debug("Moved {} members from {} to {} (due {})", updated, group.status(), to, group.due());
+            if (to != group.status()) {
+                moved += updated;
+            }
+            // A member changed concurrently was rescheduled by that change; at worst this
+            // queues it at the wrong time, and it is checked again when it comes up.
+            for (Long memberId : entry.getValue()) {
+                eventPublisher.publishEvent(new MembershipTransitionScheduledEvent(memberId, next));
+            }
+        }
+        return moved;
+    }
+}
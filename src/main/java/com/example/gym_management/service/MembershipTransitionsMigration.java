@@ -0,0 +1,54 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.config.MembershipProperties;
+import com.example.gym_management.entity.Member;
+import com.example.gym_management.repository.MemberRepository;
+import com.example.gym_management.service.BatchJobService.ChunkResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Schedules the next status change of ACTIVE and GRACE_PERIOD members
+ * created before transitions were scheduled, which the nightly expiration
+ * scan used to find. Members already past it get a time in the past and are
+ * moved on by {@link MembershipTransitionScheduler} straight away.
+ */
+@Component
+@RequiredArgsConstructor
+public class MembershipTransitionsMigration implements DataMigration {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final MemberRepository memberRepository;
+    private final MembershipProperties membershipProperties;
+
+    @Override
+    public String version() {
+        return "2026-10-17-membership-transitions";
+    }
+
+    @Override
+    public String description() {
+        return "Schedule membership status transitions";
+    }
+
+    @Override
+    public ChunkResult migrateChunk(long afterId) {
+        List<Member> members = memberRepository.findUnscheduledAfter(afterId,
+                List.of(Member.MembershipStatus.ACTIVE, Member.MembershipStatus.GRACE_PERIOD),
+                PageRequest.of(0, CHUNK_SIZE));
+        if (members.isEmpty()) {
+            return ChunkResult.done();
+        }
+
+        for (Member member : members) {
+            member.scheduleNextTransition(membershipProperties.getGracePeriodDays());
+        }
+
+        Long lastId = members.getLast().getId();
+        return new ChunkResult(members.size(), lastId, members.size() < CHUNK_SIZE);
+    }
+}
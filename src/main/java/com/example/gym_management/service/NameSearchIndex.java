@@ -0,0 +1,189 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.SearchEntry;
+import com.example.gym_management.repository.MemberRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.service.SearchEntryChangedEvent.Kind;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory {@link TrigramIndex}es over member names and emails and over
+ * trainer names, used by {@link SearchService} where pg_trgm is not
+ * available. An index is built on its first search, follows this instance's
+ * writes through {@link SearchEntryChangedEvent}s after commit, and is
+ * rebuilt in the background once it is {@link #MAX_AGE} old to pick up
+ * writes made elsewhere. Changes committed during a rebuild are replayed on
+ * the new index before it replaces the old one.
+ */
+@Component
+@RequiredArgsConstructor
+public class NameSearchIndex {
+
+    static final Duration MAX_AGE = Duration.ofMinutes(10);
+    static final int LOAD_PAGE_SIZE = 5000;
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    private final MemberRepository memberRepository;
+    private final TrainerRepository trainerRepository;
+
+    private final Map<Kind, Slot> slots = new EnumMap<>(Map.of(Kind.MEMBER, new Slot(), Kind.TRAINER, new Slot()));
+
+    /**
+     * Ids of the best {@code limit} members whose name or email contains
+     * every term of the query.
+     */
+    public List<Long> searchMembers(String query, int limit) {
+        return search(Kind.MEMBER, query, null, limit);
+    }
+
+    /**
+     * Ids of the best {@code limit} trainers whose name contains every term
+     * of the query, optionally only of one gym.
+     */
+    public List<Long> searchTrainers(String query, Long gymId, int limit) {
+        return search(Kind.TRAINER, query, gymId, limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSearchEntryChanged(SearchEntryChangedEvent event) {
+        Slot slot = slots.get(event.kind());
+        synchronized (slot) {
+            if (slot.pending != null) {
+                slot.pending.add(event);
+            }
+            if (slot.loaded != null) {
+                slot.loaded.apply(event);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    public void refresh() {
+        long now = System.nanoTime();
+        for (Map.Entry<Kind, Slot> entry : slots.entrySet()) {
+            Loaded loaded = entry.getValue().loaded;
+            if (loaded == null) {
+                continue;
+            }
+            if (now - loaded.lastAccess > IDLE_TIMEOUT.toNanos()) {
+                entry.getValue().loaded = null;
+            } else if (now - loaded.loadedAt > MAX_AGE.toNanos()) {
+                rebuild(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private List<Long> search(Kind kind, String query, Long gymId, int limit) {
+        Slot slot = slots.get(kind);
+        Loaded loaded = slot.loaded;
+        if (loaded == null) {
+            loaded = rebuild(kind, slot);
+        }
+        loaded.lastAccess = System.nanoTime();
+        loaded.lock.readLock().lock();
+        try {
+            return loaded.index.search(query, gymId, limit);
+        } finally {
+            loaded.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads a new index and swaps it in; only one build per kind runs at a
+     * time, and a caller that waited on another's first build uses its result.
+     */
+    private Loaded rebuild(Kind kind, Slot slot) {
+        Loaded previous = slot.loaded;
+        slot.building.lock();
+        try {
+            if (previous == null && slot.loaded != null) {
+                return slot.loaded;
+            }
+            synchronized (slot) {
+                slot.pending = new ArrayList<>();
+            }
+            Loaded rebuilt = new Loaded(load(kind), System.nanoTime());
+            synchronized (slot) {
+                slot.pending.forEach(rebuilt::apply);
+                slot.pending = null;
+                slot.loaded = rebuilt;
+            }
+            return rebuilt;
+        } finally {
+            slot.building.unlock();
+        }
+    }
+
+    private TrigramIndex load(Kind kind) {
+        TrigramIndex index = new TrigramIndex();
+        long afterId = 0;
+        List<SearchEntry> page;
+        do {
+            PageRequest pageRequest = PageRequest.ofSize(LOAD_PAGE_SIZE);
+            page = kind == Kind.MEMBER
+                    ? memberRepository.findSearchEntriesAfter(afterId, pageRequest)
+                    : trainerRepository.findSearchEntriesAfter(afterId, pageRequest);
+            for (SearchEntry entry : page) {
+                put(index, entry);
+                afterId = entry.id();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        return index;
+    }
+
+    private static void put(TrigramIndex index, SearchEntry entry) {
+        String text = entry.firstName() + " " + entry.lastName() + (entry.email() != null ? " " + entry.email() : "");
+        String sortKey = (entry.lastName() + " " + entry.firstName()).toLowerCase(Locale.ROOT);
+        index.put(entry.id(), entry.gymId() != null ? entry.gymId() : 0, text, sortKey);
+    }
+
+    private static final class Slot {
+
+        private final ReentrantLock building = new ReentrantLock();
+        private volatile Loaded loaded;
+        // Changes committed while a rebuild runs; guarded by the slot.
+        private List<SearchEntryChangedEvent> pending;
+    }
+
+    private static final class Loaded {
+
+        private final TrigramIndex index;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final long loadedAt;
+        private volatile long lastAccess;
+
+        Loaded(TrigramIndex index, long loadedAt) {
+            this.index = index;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+
+        void apply(SearchEntryChangedEvent event) {
+            lock.writeLock().lock();
+            try {
+                if (event.entry() == null) {
+                    index.remove(event.id());
+                } else {
+                    put(index, event.entry());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
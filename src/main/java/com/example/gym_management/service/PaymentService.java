@@ -1,5 +1,7 @@
 package com.example.gym_management.service;
 
+import com.example.gym_management.dto.CursorPage;
+import com.example.gym_management.dto.PageCursor;
 import com.example.gym_management.dto.PaymentRequest;
 import com.example.gym_management.dto.PaymentResponse;
 import com.example.gym_management.entity.Payment;
@@ -41,8 +43,12 @@ public class PaymentService {
     }
 
     @Transactional(readOnly = true)
-    public List<PaymentResponse> getAllPayments() {
-        return paymentMapper.toResponseList(paymentRepository.findAll());
+    public CursorPage<PaymentResponse> getAllPayments(String cursor, Integer size) {
+        PageCursor after = PageCursor.decode(cursor, null);
+        return CursorPage.of(
+                paymentRepository.findPageAfter(after.id(), PageCursor.pageRequest(size)),
+                paymentMapper::toResponse,
+                payment -> PageCursor.ofId(payment.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,18 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.ScheduleSlot;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published by a transaction that changed locked trainer and room schedules,
+ * so {@link ScheduleConflictIndex} can apply the change once it commits.
+ * {@code versions} are the schedule versions the transaction took;
+ * {@code removedClassIds} leave every one of those schedules, and each of
+ * {@code slots} is added to its own trainer's and room's.
+ */
+public record ScheduleChangedEvent(Map<ScheduleConflictIndex.ScheduleKey, Long> versions,
+                                   List<Long> removedClassIds,
+                                   List<ScheduleSlot> slots) {
+}
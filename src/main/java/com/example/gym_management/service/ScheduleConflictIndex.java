@@ -0,0 +1,276 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.ScheduleSlot;
+import com.example.gym_management.entity.Room;
+import com.example.gym_management.entity.Trainer;
+import com.example.gym_management.repository.RoomRepository;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory schedules of trainers and rooms: one {@link IntervalTree} of class
+ * times per trainer and per room, so an overlap check costs O(log n) instead
+ * of range queries.
+ *
+ * <p>Writers call {@link #lock} first. It bumps the schedule version of every
+ * trainer and room involved, which locks their rows until commit, so only one
+ * transaction at a time changes a given schedule, on any instance. A tree that
+ * is not at the version just before the lock is reloaded while the lock is
+ * held, so the checks of a writer always see every committed class. Committed
+ * changes reach the trees through {@link ScheduleChangedEvent}s.
+ *
+ * <p>Read-only window queries ({@link #findOverlapping}) take no locks and use
+ * trees up to {@link #MAX_AGE} old.
+ */
+@Component
+@RequiredArgsConstructor
+public class ScheduleConflictIndex {
+
+    static final Duration MAX_AGE = Duration.ofSeconds(30);
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+    // Longest class a request may schedule; classes that started earlier than
+    // this can no longer overlap anything being scheduled now.
+    private static final Duration MAX_CLASS_LENGTH = Duration.ofHours(24);
+
+    private final ScheduledClassRepository scheduledClassRepository;
+    private final TrainerRepository trainerRepository;
+    private final RoomRepository roomRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<ScheduleKey, Schedule> schedules = new ConcurrentHashMap<>();
+
+    public enum Resource {
+        TRAINER,
+        ROOM
+    }
+
+    public record ScheduleKey(Resource resource, Long id) {
+
+        public static ScheduleKey trainer(Long trainerId) {
+            return new ScheduleKey(Resource.TRAINER, trainerId);
+        }
+
+        public static ScheduleKey room(Long roomId) {
+            return new ScheduleKey(Resource.ROOM, roomId);
+        }
+    }
+
+    /**
+     * Schedule versions taken by {@link #lock}; only valid inside the
+     * transaction that took them.
+     */
+    public record ScheduleLock(Map<ScheduleKey, Long> versions) {
+    }
+
+    /**
+     * Locks the schedules of the given trainers and rooms for the current
+     * transaction. Trainers are locked before rooms and each in id order, so
+     * two writers can never wait on each other in a cycle.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ScheduleLock lock(Collection<Long> trainerIds, Collection<Long> roomIds) {
+        Map<ScheduleKey, Long> versions = new LinkedHashMap<>();
+        for (Long trainerId : new TreeSet<>(trainerIds)) {
+            trainerRepository.incrementScheduleVersion(trainerId);
+            versions.put(ScheduleKey.trainer(trainerId), trainerRepository.findScheduleVersion(trainerId)
+                    .orElseThrow(() -> new IllegalArgumentException("Trainer not found with id: " + trainerId)));
+        }
+        for (Long roomId : new TreeSet<>(roomIds)) {
+            roomRepository.incrementScheduleVersion(roomId);
+            versions.put(ScheduleKey.room(roomId), roomRepository.findScheduleVersion(roomId)
+                    .orElseThrow(() -> new IllegalArgumentException("Room not found with id: " + roomId)));
+        }
+        return new ScheduleLock(versions);
+    }
+
+    /**
+     * Classes on a locked schedule overlapping {@code [start, end)}, apart
+     * from {@code excludeClassId}.
+     */
+    public List<Long> findConflicts(ScheduleLock lock, ScheduleKey key, LocalDateTime start, LocalDateTime end,
+                                    Long excludeClassId) {
+        Long version = lock.versions().get(key);
+        if (version == null) {
+            throw new IllegalStateException("Schedule is not locked: " + key);
+        }
+        Schedule schedule = schedules.get(key);
+        if (schedule == null || schedule.version() != version - 1) {
+            schedule = load(List.of(key), Map.of(key, version - 1)).get(key);
+        }
+        schedule.lastAccess = System.nanoTime();
+        return schedule.overlapping(start, end, excludeClassId);
+    }
+
+    /**
+     * Records what the current transaction changed on locked schedules; the
+     * trees follow once it commits.
+     */
+    public void recordChanges(ScheduleLock lock, Collection<Long> removedClassIds, Collection<ScheduleSlot> slots) {
+        eventPublisher.publishEvent(new ScheduleChangedEvent(
+                lock.versions(), List.copyOf(removedClassIds), List.copyOf(slots)));
+    }
+
+    /**
+     * Classes of each given schedule overlapping {@code [from, to)}. Stale
+     * schedules are reloaded with one query per resource type.
+     */
+    public Map<ScheduleKey, List<Long>> findOverlapping(Collection<ScheduleKey> keys, LocalDateTime from,
+                                                        LocalDateTime to) {
+        long now = System.nanoTime();
+        Map<ScheduleKey, Schedule> current = new HashMap<>();
+        List<ScheduleKey> stale = new ArrayList<>();
+        for (ScheduleKey key : keys) {
+            Schedule schedule = schedules.get(key);
+            if (schedule == null || now - schedule.loadedAt > MAX_AGE.toNanos()) {
+                stale.add(key);
+            } else {
+                current.put(key, schedule);
+            }
+        }
+        if (!stale.isEmpty()) {
+            current.putAll(load(stale, currentVersions(stale)));
+        }
+
+        Map<ScheduleKey, List<Long>> overlapping = new LinkedHashMap<>();
+        for (ScheduleKey key : keys) {
+            Schedule schedule = current.get(key);
+            schedule.lastAccess = now;
+            overlapping.put(key, schedule.overlapping(from, to, null));
+        }
+        return overlapping;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        event.versions().forEach((key, version) -> {
+            Schedule schedule = schedules.get(key);
+            if (schedule != null && !schedule.apply(version, event.removedClassIds(), slotsOf(key, event.slots()))) {
+                // Missed a change made elsewhere; the next use reloads it.
+                schedules.remove(key, schedule);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    public void evictIdle() {
+        long idleBefore = System.nanoTime() - IDLE_TIMEOUT.toNanos();
+        schedules.values().removeIf(schedule -> schedule.lastAccess - idleBefore < 0);
+    }
+
+    /**
+     * Versions read before the slots are, so a change committed in between is
+     * applied again on top rather than missed.
+     */
+    private Map<ScheduleKey, Long> currentVersions(List<ScheduleKey> keys) {
+        Map<ScheduleKey, Long> versions = new HashMap<>();
+        for (Trainer trainer : trainerRepository.findAllById(idsOf(keys, Resource.TRAINER))) {
+            versions.put(ScheduleKey.trainer(trainer.getId()), trainer.getScheduleVersion());
+        }
+        for (Room room : roomRepository.findAllById(idsOf(keys, Resource.ROOM))) {
+            versions.put(ScheduleKey.room(room.getId()), room.getScheduleVersion());
+        }
+        return versions;
+    }
+
+    private Map<ScheduleKey, Schedule> load(List<ScheduleKey> keys, Map<ScheduleKey, Long> versions) {
+        LocalDateTime since = LocalDateTime.now().minus(MAX_CLASS_LENGTH);
+        Map<ScheduleKey, List<ScheduleSlot>> slots = new HashMap<>();
+        List<Long> trainerIds = idsOf(keys, Resource.TRAINER);
+        if (!trainerIds.isEmpty()) {
+            for (ScheduleSlot slot : scheduledClassRepository.findTrainerSlotsSince(trainerIds, since)) {
+                slots.computeIfAbsent(ScheduleKey.trainer(slot.trainerId()), k -> new ArrayList<>()).add(slot);
+            }
+        }
+        List<Long> roomIds = idsOf(keys, Resource.ROOM);
+        if (!roomIds.isEmpty()) {
+            for (ScheduleSlot slot : scheduledClassRepository.findRoomSlotsSince(roomIds, since)) {
+                slots.computeIfAbsent(ScheduleKey.room(slot.roomId()), k -> new ArrayList<>()).add(slot);
+            }
+        }
+
+        long now = System.nanoTime();
+        Map<ScheduleKey, Schedule> loaded = new HashMap<>();
+        for (ScheduleKey key : keys) {
+            Schedule schedule = new Schedule(versions.getOrDefault(key, 0L), slots.getOrDefault(key, List.of()), now);
+            schedules.put(key, schedule);
+            loaded.put(key, schedule);
+        }
+        return loaded;
+    }
+
+    private static List<Long> idsOf(Collection<ScheduleKey> keys, Resource resource) {
+        return keys.stream()
+                .filter(key -> key.resource() == resource)
+                .map(ScheduleKey::id)
+                .toList();
+    }
+
+    private static List<ScheduleSlot> slotsOf(ScheduleKey key, List<ScheduleSlot> slots) {
+        return slots.stream()
+                .filter(slot -> key.id().equals(key.resource() == Resource.TRAINER ? slot.trainerId() : slot.roomId()))
+                .toList();
+    }
+
+    private static final class Schedule {
+
+        private final IntervalTree classes = new IntervalTree();
+        private final long loadedAt;
+        private long version;
+        private volatile long lastAccess;
+
+        Schedule(long version, List<ScheduleSlot> slots, long loadedAt) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+            slots.forEach(slot -> classes.put(slot.scheduledClassId(), slot.startTime(), slot.endTime()));
+        }
+
+        synchronized long version() {
+            return version;
+        }
+
+        synchronized List<Long> overlapping(LocalDateTime from, LocalDateTime to, Long excludeClassId) {
+            List<Long> ids = classes.overlapping(from, to);
+            if (excludeClassId != null) {
+                ids.remove(excludeClassId);
+            }
+            return ids;
+        }
+
+        /**
+         * Applies the change that moved this schedule to {@code newVersion}.
+         * Returns false if an earlier change is missing.
+         */
+        synchronized boolean apply(long newVersion, List<Long> removedClassIds, List<ScheduleSlot> slots) {
+            if (version >= newVersion) {
+                return true;
+            }
+            if (version != newVersion - 1) {
+                return false;
+            }
+            removedClassIds.forEach(classes::remove);
+            slots.forEach(slot -> classes.put(slot.scheduledClassId(), slot.startTime(), slot.endTime()));
+            version = newVersion;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.BatchJobRun;
+import com.example.gym_management.entity.BatchJobStep;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.service.BatchJobService.ChunkResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Nightly recount of the class counters. Each day is one {@link BatchJobRun},
+ * so only one instance in the cluster does the work, and the step checkpoint
+ * lets a run that failed part way be taken over from where it stopped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduledClassCounterRepairJob {
+
+    static final String JOB_NAME = "class-counter-repair";
+    static final String STEP_NAME = "recount";
+
+    private static final int CHUNK_SIZE = 500;
+    private static final Duration LEASE_TIMEOUT = Duration.ofMinutes(10);
+
+    private final ScheduledClassRepository scheduledClassRepository;
+    private final SeatReservationService seatReservationService;
+    private final BatchJobService batchJobService;
+
+    @Scheduled(cron = "0 30 3 * * *")  // Daily at 3:30 AM
+    public void repairCounters() {
+        LocalDate today = LocalDate.now();
+        batchJobService.claim(JOB_NAME, today.toString(),
+                        () -> List.of(new BatchJobStep(STEP_NAME, 0, 0L, Long.MAX_VALUE)), LEASE_TIMEOUT)
+                .ifPresentOrElse(this::execute,
+                        () -> log.info("Counter repair for {} is complete or running elsewhere", today));
+    }
+
+    private void execute(BatchJobRun run) {
+        log.info("Starting scheduled class counter repair...");
+        long started = System.currentTimeMillis();
+
+        try {
+            int repaired = 0;
+            for (BatchJobStep step : batchJobService.findSteps(run.getId())) {
+                ChunkResult result;
+                do {
+                    result = batchJobService.runChunk(step.getId(), (afterId, upToId) -> recountChunk(afterId));
+                    repaired += result.rowsAffected();
+                } while (!result.finished());
+            }
+            batchJobService.complete(run.getId());
+
+            log.info("Scheduled class counter repair complete. Classes recounted: {}, took {} ms",
+                     repaired, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            batchJobService.fail(run.getId(), e);
+            log.error("Scheduled class counter repair for {} failed", run.getRunKey(), e);
+        }
+    }
+
+    private ChunkResult recountChunk(long afterId) {
+        List<Long> ids = scheduledClassRepository.findIdsAfter(afterId, PageRequest.of(0, CHUNK_SIZE));
+        if (ids.isEmpty()) {
+            return ChunkResult.done();
+        }
+        return new ChunkResult(seatReservationService.recountCounters(ids), ids.getLast(),
+                ids.size() < CHUNK_SIZE);
+    }
+}
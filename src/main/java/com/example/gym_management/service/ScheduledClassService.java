@@ -1,7 +1,11 @@
 package com.example.gym_management.service;
 
+import com.example.gym_management.dto.CursorPage;
+import com.example.gym_management.dto.PageCursor;
+import com.example.gym_management.dto.ScheduleSlot;
 import com.example.gym_management.dto.ScheduledClassRequest;
 import com.example.gym_management.dto.ScheduledClassResponse;
+import com.example.gym_management.entity.ClassType;
 import com.example.gym_management.entity.Gym;
 import com.example.gym_management.entity.ScheduledClass;
 import com.example.gym_management.mapper.ScheduledClassMapper;
@@ -10,14 +14,19 @@ import com.example.gym_management.repository.GymRepository;
 import com.example.gym_management.repository.RoomRepository;
 import com.example.gym_management.repository.ScheduledClassRepository;
 import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleKey;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleLock;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.domain.Slice;
 import org.springframework.validation.annotation.Validated;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +39,7 @@ public class ScheduledClassService {
   private final RoomRepository roomRepository;
   private final ScheduledClassMapper scheduledClassMapper;
   private final TrainerAvailabilityService trainerAvailabilityService;
+  private final ScheduleConflictIndex scheduleConflictIndex;
 
   @Transactional
   public ScheduledClassResponse createScheduledClass(@Valid ScheduledClassRequest request) {
@@ -37,11 +47,15 @@ public class ScheduledClassService {
         .orElseThrow(() -> new IllegalArgumentException("Gym not found with id: " + request.getGymId()));
 
     validateGymResources(request);
-    trainerAvailabilityService.validateTrainerAvailabilityForClass(request.getTrainerId(), request.getStartTime());
-    validateSchedulingConflicts(request.getTrainerId(), request.getRoomId(), request.getStartTime(), null);
+    int durationMinutes = resolveDuration(request);
+    trainerAvailabilityService.validateTrainerAvailabilityForClass(request.getTrainerId(), request.getStartTime(),
+        durationMinutes);
+    ScheduleLock lock = scheduleConflictIndex.lock(List.of(request.getTrainerId()), List.of(request.getRoomId()));
+    validateSchedulingConflicts(lock, request, durationMinutes, null);
 
     ScheduledClass scheduledClass = scheduledClassMapper.toEntityWithGym(request, gym);
     ScheduledClass savedClass = scheduledClassRepository.save(scheduledClass);
+    scheduleConflictIndex.recordChanges(lock, List.of(), List.of(slotOf(savedClass.getId(), request, durationMinutes)));
     return scheduledClassMapper.toResponse(savedClass);
   }
 
@@ -60,31 +74,31 @@ public class ScheduledClassService {
   }
 
   @Transactional(readOnly = true)
-  public List<ScheduledClassResponse> getAllScheduledClasses() {
-    return scheduledClassMapper.toResponseList(scheduledClassRepository.findAll());
+  public CursorPage<ScheduledClassResponse> getAllScheduledClasses(String cursor, Integer size) {
+    PageCursor after = PageCursor.decode(cursor, null);
+    return toIdPage(scheduledClassRepository.findPageAfter(after.id(), PageCursor.pageRequest(size)));
   }
 
   @Transactional(readOnly = true)
-  public List<ScheduledClassResponse> getScheduledClassesByGymId(Long gymId) {
+  public CursorPage<ScheduledClassResponse> getScheduledClassesByGymId(Long gymId, String cursor, Integer size) {
     if (!gymRepository.existsById(gymId)) {
       throw new IllegalArgumentException("Gym not found with id: " + gymId);
     }
-    return scheduledClassMapper.toResponseList(scheduledClassRepository.findByGymId(gymId));
+    PageCursor after = PageCursor.decode(cursor, null);
+    return toIdPage(scheduledClassRepository.findPageByGymIdAfter(gymId, after.id(), PageCursor.pageRequest(size)));
   }
 
   @Transactional(readOnly = true)
-  public List<ScheduledClassResponse> getUpcomingClasses() {
-    return scheduledClassMapper.toResponseList(
-        scheduledClassRepository.findUpcomingClasses(LocalDateTime.now()));
+  public CursorPage<ScheduledClassResponse> getUpcomingClasses(String cursor, Integer size) {
+    return findUpcomingPage(null, cursor, size);
   }
 
   @Transactional(readOnly = true)
-  public List<ScheduledClassResponse> getUpcomingClassesByGymId(Long gymId) {
+  public CursorPage<ScheduledClassResponse> getUpcomingClassesByGymId(Long gymId, String cursor, Integer size) {
     if (!gymRepository.existsById(gymId)) {
       throw new IllegalArgumentException("Gym not found with id: " + gymId);
     }
-    return scheduledClassMapper.toResponseList(
-        scheduledClassRepository.findUpcomingClassesByGymId(gymId, LocalDateTime.now()));
+    return findUpcomingPage(gymId, cursor, size);
   }
 
   @Transactional(readOnly = true)
@@ -145,45 +159,38 @@ public class ScheduledClassService {
   }
 
   @Transactional(readOnly = true)
-  public List<ScheduledClassResponse> getClassesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+  public CursorPage<ScheduledClassResponse> getClassesByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                                  String cursor, Integer size) {
     if (startDate.isAfter(endDate)) {
       throw new IllegalArgumentException("Start date must be before end date");
     }
-    return scheduledClassMapper.toResponseList(
-        scheduledClassRepository.findByStartTimeBetween(startDate, endDate));
+    return findDateRangePage(null, startDate, endDate, cursor, size);
   }
 
   @Transactional(readOnly = true)
-  public List<ScheduledClassResponse> getClassesByDateRangeAndGymId(Long gymId, LocalDateTime startDate, LocalDateTime endDate) {
+  public CursorPage<ScheduledClassResponse> getClassesByDateRangeAndGymId(Long gymId, LocalDateTime startDate,
+                                                                          LocalDateTime endDate, String cursor,
+                                                                          Integer size) {
     if (startDate.isAfter(endDate)) {
       throw new IllegalArgumentException("Start date must be before end date");
     }
     if (!gymRepository.existsById(gymId)) {
       throw new IllegalArgumentException("Gym not found with id: " + gymId);
     }
-    return scheduledClassMapper.toResponseList(
-        scheduledClassRepository.findByGymIdAndStartTimeBetween(gymId, startDate, endDate));
+    return findDateRangePage(gymId, startDate, endDate, cursor, size);
   }
 
   @Transactional(readOnly = true)
-  public List<ScheduledClassResponse> getAvailableClasses() {
-    return scheduledClassRepository.findUpcomingClasses(LocalDateTime.now())
-        .stream()
-        .map(scheduledClassMapper::toResponse)
-        .filter(response -> response.getAvailableSpots() > 0)
-        .collect(Collectors.toList());
+  public CursorPage<ScheduledClassResponse> getAvailableClasses(String cursor, Integer size) {
+    return findAvailablePage(null, cursor, size);
   }
 
   @Transactional(readOnly = true)
-  public List<ScheduledClassResponse> getAvailableClassesByGymId(Long gymId) {
+  public CursorPage<ScheduledClassResponse> getAvailableClassesByGymId(Long gymId, String cursor, Integer size) {
     if (!gymRepository.existsById(gymId)) {
       throw new IllegalArgumentException("Gym not found with id: " + gymId);
     }
-    return scheduledClassRepository.findUpcomingClassesByGymId(gymId, LocalDateTime.now())
-        .stream()
-        .map(scheduledClassMapper::toResponse)
-        .filter(response -> response.getAvailableSpots() > 0)
-        .collect(Collectors.toList());
+    return findAvailablePage(gymId, cursor, size);
   }
 
   @Transactional
@@ -192,12 +199,19 @@ public class ScheduledClassService {
         .orElseThrow(() -> new IllegalArgumentException("Scheduled class not found with ID: " + id));
 
     validateGymResources(request);
-    trainerAvailabilityService.validateTrainerAvailabilityForClass(request.getTrainerId(), request.getStartTime());
-    validateSchedulingConflicts(request.getTrainerId(), request.getRoomId(), request.getStartTime(), id);
+    int durationMinutes = resolveDuration(request);
+    trainerAvailabilityService.validateTrainerAvailabilityForClass(request.getTrainerId(), request.getStartTime(),
+        durationMinutes);
+    // Lock the schedules the class leaves as well as the ones it joins.
+    ScheduleLock lock = scheduleConflictIndex.lock(
+        List.of(existingClass.getTrainer().getId(), request.getTrainerId()),
+        List.of(existingClass.getRoom().getId(), request.getRoomId()));
+    validateSchedulingConflicts(lock, request, durationMinutes, id);
 
     scheduledClassMapper.updateEntity(request, existingClass);
 
     ScheduledClass updatedClass = scheduledClassRepository.save(existingClass);
+    scheduleConflictIndex.recordChanges(lock, List.of(id), List.of(slotOf(id, request, durationMinutes)));
     return scheduledClassMapper.toResponse(updatedClass);
   }
 
@@ -211,7 +225,35 @@ public class ScheduledClassService {
           "Cannot delete scheduled class with existing bookings. Please cancel all bookings first.");
     }
 
+    ScheduleLock lock = scheduleConflictIndex.lock(
+        List.of(scheduledClass.getTrainer().getId()), List.of(scheduledClass.getRoom().getId()));
     scheduledClassRepository.delete(scheduledClass);
+    scheduleConflictIndex.recordChanges(lock, List.of(id), List.of());
+  }
+
+  /**
+   * Classes of the given trainers and rooms that overlap {@code [from, to)},
+   * answered from the in-memory schedules.
+   */
+  @Transactional(readOnly = true)
+  public List<ScheduledClassResponse> findConflicts(LocalDateTime from, LocalDateTime to,
+                                                    List<Long> trainerIds, List<Long> roomIds) {
+    if (!from.isBefore(to)) {
+      throw new IllegalArgumentException("Start date must be before end date");
+    }
+    List<ScheduleKey> keys = new ArrayList<>();
+    trainerIds.forEach(trainerId -> keys.add(ScheduleKey.trainer(trainerId)));
+    roomIds.forEach(roomId -> keys.add(ScheduleKey.room(roomId)));
+    if (keys.isEmpty()) {
+      throw new IllegalArgumentException("At least one trainer or room is required");
+    }
+
+    Set<Long> classIds = new HashSet<>();
+    scheduleConflictIndex.findOverlapping(keys, from, to).values().forEach(classIds::addAll);
+    if (classIds.isEmpty()) {
+      return List.of();
+    }
+    return scheduledClassMapper.toResponseList(scheduledClassRepository.findAllWithDetailsByIdIn(classIds));
   }
 
   private void validateGymResources(ScheduledClassRequest request) {
@@ -230,29 +272,65 @@ public class ScheduledClassService {
     }
   }
 
-  private void validateSchedulingConflicts(Long trainerId, Long roomId, LocalDateTime startTime, Long excludeClassId) {
-    LocalDateTime endTime = startTime.plusHours(1);
-
-    List<ScheduledClass> trainerConflicts = scheduledClassRepository
-        .findByTrainerIdAndTimeRange(trainerId, startTime, endTime);
-    if (excludeClassId != null) {
-      trainerConflicts = trainerConflicts.stream()
-          .filter(sc -> !sc.getId().equals(excludeClassId))
-          .collect(Collectors.toList());
+  private int resolveDuration(ScheduledClassRequest request) {
+    if (request.getDurationMinutes() != null) {
+      return request.getDurationMinutes();
     }
-    if (!trainerConflicts.isEmpty()) {
+    return classTypeRepository.findById(request.getClassTypeId())
+        .map(ClassType::getDurationMinutes)
+        .orElseThrow(() -> new IllegalArgumentException("Class type not found with id: " + request.getClassTypeId()));
+  }
+
+  private void validateSchedulingConflicts(ScheduleLock lock, ScheduledClassRequest request, int durationMinutes,
+                                           Long excludeClassId) {
+    LocalDateTime startTime = request.getStartTime();
+    LocalDateTime endTime = startTime.plusMinutes(durationMinutes);
+
+    if (!scheduleConflictIndex.findConflicts(lock, ScheduleKey.trainer(request.getTrainerId()),
+        startTime, endTime, excludeClassId).isEmpty()) {
       throw new IllegalStateException("Trainer is already scheduled for another class at this time");
     }
 
-    List<ScheduledClass> roomConflicts = scheduledClassRepository
-        .findByRoomIdAndTimeRange(roomId, startTime, endTime);
-    if (excludeClassId != null) {
-      roomConflicts = roomConflicts.stream()
-          .filter(sc -> !sc.getId().equals(excludeClassId))
-          .collect(Collectors.toList());
-    }
-    if (!roomConflicts.isEmpty()) {
+    if (!scheduleConflictIndex.findConflicts(lock, ScheduleKey.room(request.getRoomId()),
+        startTime, endTime, excludeClassId).isEmpty()) {
       throw new IllegalStateException("Room is already occupied at this time");
     }
   }
+
+  private ScheduleSlot slotOf(Long scheduledClassId, ScheduledClassRequest request, int durationMinutes) {
+    return new ScheduleSlot(scheduledClassId, request.getTrainerId(), request.getRoomId(),
+        request.getStartTime(), durationMinutes);
+  }
+
+  private CursorPage<ScheduledClassResponse> findUpcomingPage(Long gymId, String cursor, Integer size) {
+    PageCursor after = PageCursor.decode(cursor, LocalDateTime.now());
+    return toTimePage(scheduledClassRepository.findUpcomingPageAfter(
+        gymId, after.sortKey(), after.id(), PageCursor.pageRequest(size)));
+  }
+
+  private CursorPage<ScheduledClassResponse> findAvailablePage(Long gymId, String cursor, Integer size) {
+    PageCursor after = PageCursor.decode(cursor, LocalDateTime.now());
+    return toTimePage(scheduledClassRepository.findAvailablePageAfter(
+        gymId, after.sortKey(), after.id(), PageCursor.pageRequest(size)));
+  }
+
+  private CursorPage<ScheduledClassResponse> findDateRangePage(Long gymId, LocalDateTime startDate,
+                                                               LocalDateTime endDate, String cursor, Integer size) {
+    PageCursor after = PageCursor.decode(cursor, startDate);
+    if (after.sortKey().isBefore(startDate)) {
+      throw new IllegalArgumentException("Page cursor is outside the requested date range");
+    }
+    return toTimePage(scheduledClassRepository.findDateRangePageAfter(
+        gymId, after.sortKey(), after.id(), endDate, PageCursor.pageRequest(size)));
+  }
+
+  private CursorPage<ScheduledClassResponse> toIdPage(Slice<ScheduledClass> slice) {
+    return CursorPage.of(slice, scheduledClassMapper::toResponse,
+        scheduledClass -> PageCursor.ofId(scheduledClass.getId()));
+  }
+
+  private CursorPage<ScheduledClassResponse> toTimePage(Slice<ScheduledClass> slice) {
+    return CursorPage.of(slice, scheduledClassMapper::toResponse,
+        scheduledClass -> new PageCursor(scheduledClass.getStartTime(), scheduledClass.getId()));
+  }
 }
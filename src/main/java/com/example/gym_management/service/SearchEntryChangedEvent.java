@@ -0,0 +1,28 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.SearchEntry;
+
+/**
+ * Published when a member or trainer is created, renamed or deleted, so
+ * {@link NameSearchIndex} can follow the change once the transaction
+ * commits. {@code entry} is null for deletions.
+ */
+public record SearchEntryChangedEvent(Kind kind, Long id, SearchEntry entry) {
+
+    public enum Kind {
+        MEMBER,
+        TRAINER
+    }
+
+    public static SearchEntryChangedEvent member(Long id, String firstName, String lastName, String email) {
+        return new SearchEntryChangedEvent(Kind.MEMBER, id, new SearchEntry(id, null, firstName, lastName, email));
+    }
+
+    public static SearchEntryChangedEvent trainer(Long id, Long gymId, String firstName, String lastName) {
+        return new SearchEntryChangedEvent(Kind.TRAINER, id, new SearchEntry(id, gymId, firstName, lastName, null));
+    }
+
+    public static SearchEntryChangedEvent removed(Kind kind, Long id) {
+        return new SearchEntryChangedEvent(kind, id, null);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.repository.TrigramSearchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Substring, prefix and email search over members and trainers for the
+ * front-desk search box. On PostgreSQL it queries pg_trgm indexes, created
+ * in the background once the application is ready; elsewhere, or until
+ * they exist, it answers from the in-memory {@link NameSearchIndex}. Both
+ * rank results and return at most {@link #MAX_LIMIT} of them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchService {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private final TrigramSearchRepository trigramSearchRepository;
+    private final NameSearchIndex nameSearchIndex;
+
+    private volatile boolean trigramIndexesReady;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void setUpInBackground() {
+        Thread.ofVirtual().name("trigram-search-setup").start(this::setUpTrigramIndexes);
+    }
+
+    void setUpTrigramIndexes() {
+        try {
+            if (!trigramSearchRepository.isPostgreSql()) {
+                log.info("Searching members and trainers with the in-memory trigram index");
+                return;
+            }
+            trigramSearchRepository.createIndexes();
+            trigramIndexesReady = true;
+            log.info("Searching members and trainers with pg_trgm indexes");
+        } catch (DataAccessException e) {
+            log.warn("pg_trgm indexes unavailable, searching with the in-memory trigram index", e);
+        }
+    }
+
+    /**
+     * Ids of the members whose name or email contains every term of the
+     * query, best match first.
+     */
+    public List<Long> searchMembers(String query, Integer limit) {
+        List<String> terms = terms(query);
+        int max = limitOf(limit);
+        return trigramIndexesReady
+                ? trigramSearchRepository.searchMembers(terms, max)
+                : nameSearchIndex.searchMembers(String.join(" ", terms), max);
+    }
+
+    /**
+     * Ids of the trainers whose name contains every term of the query, best
+     * match first.
+     *
+     * @param gymId only trainers of this gym, or null for all
+     */
+    public List<Long> searchTrainers(String query, Long gymId, Integer limit) {
+        List<String> terms = terms(query);
+        int max = limitOf(limit);
+        return trigramIndexesReady
+                ? trigramSearchRepository.searchTrainers(terms, gymId, max)
+                : nameSearchIndex.searchTrainers(String.join(" ", terms), gymId, max);
+    }
+
+    /**
+     * The entities in the order of {@code ids}, skipping any deleted since
+     * the search.
+     */
+    static <T> List<T> inSearchOrder(List<Long> ids, List<T> entities, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        entities.forEach(entity -> byId.put(idOf.apply(entity), entity));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static List<String> terms(String query) {
+        String[] terms = TrigramIndex.split(query);
+        if (terms.length == 0) {
+            throw new IllegalArgumentException("Search name cannot be empty");
+        }
+        return Arrays.asList(terms);
+    }
+
+    private static int limitOf(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
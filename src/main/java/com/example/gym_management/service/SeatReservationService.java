@@ -0,0 +1,70 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.ScheduledClass;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Hands out seats of a scheduled class through a conditional update on
+ * {@code scheduled_classes.enrolled_count}. The database applies
+ * "increment if below capacity" atomically, so concurrent bookings can never
+ * push a class past its room capacity, and no enrollment COUNT is needed on
+ * the booking path. Callers must invoke these methods inside the transaction
+ * that writes the booking so a rollback also returns the seat.
+ */
+@Service
+@RequiredArgsConstructor
+public class SeatReservationService {
+
+  private final ScheduledClassRepository scheduledClassRepository;
+
+  @Transactional
+  public boolean tryReserveSeat(ScheduledClass scheduledClass) {
+    Integer capacity = scheduledClass.getRoom().getCapacity();
+    return scheduledClassRepository.tryReserveSeat(scheduledClass.getId(), capacity) > 0;
+  }
+
+  /**
+   * Reserves several seats in one statement; all or nothing.
+   */
+  @Transactional
+  public boolean tryReserveSeats(Long scheduledClassId, int seats) {
+    return seats > 0 && scheduledClassRepository.tryReserveSeats(scheduledClassId, seats) > 0;
+  }
+
+  @Transactional
+  public void reserveSeat(ScheduledClass scheduledClass) {
+    if (!tryReserveSeat(scheduledClass)) {
+      throw new IllegalStateException(
+          "Class is fully booked. Room capacity: " + scheduledClass.getRoom().getCapacity() +
+              ". Please try another class or check back later for cancellations.");
+    }
+  }
+
+  @Transactional
+  public void releaseSeats(Long scheduledClassId, int seats) {
+    if (seats <= 0) {
+      return;
+    }
+    scheduledClassRepository.releaseSeats(scheduledClassId, seats);
+  }
+
+  /**
+   * Rebuilds enrolled_count and waitlist_count for a chunk of classes from the
+   * bookings and waitlists tables; seats held by open waitlist offers count as
+   * taken. The rows are locked first, so a booking that already moved a
+   * counter has committed before the recount reads its row.
+   */
+  @Transactional
+  public int recountCounters(List<Long> scheduledClassIds) {
+    if (scheduledClassIds.isEmpty()) {
+      return 0;
+    }
+    scheduledClassRepository.lockAllByIdIn(scheduledClassIds);
+    return scheduledClassRepository.recountCounters(scheduledClassIds);
+  }
+}
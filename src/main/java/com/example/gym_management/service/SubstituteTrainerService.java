@@ -0,0 +1,289 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.AffectedClass;
+import com.example.gym_management.dto.ScheduleSlot;
+import com.example.gym_management.dto.SubstituteCandidate;
+import com.example.gym_management.dto.TimeOffImpactResponse;
+import com.example.gym_management.dto.TrainerReassignmentRequest;
+import com.example.gym_management.dto.TrainerReassignmentRequest.Assignment;
+import com.example.gym_management.dto.TrainerReassignmentResponse;
+import com.example.gym_management.entity.ClassType;
+import com.example.gym_management.entity.ScheduledClass;
+import com.example.gym_management.entity.Trainer;
+import com.example.gym_management.repository.ScheduledClassBatchRepository;
+import com.example.gym_management.repository.ScheduledClassBatchRepository.TrainerChange;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleKey;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleLock;
+import com.example.gym_management.service.TrainerAvailabilityIndex.TrainerCalendar;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Covers the classes of an absent trainer. The impact analysis finds the
+ * trainer's upcoming classes in a period and ranks substitutes for each;
+ * the reassignment moves any number of classes to new trainers in one
+ * transaction, or none if any move is invalid.
+ */
+@Service
+@RequiredArgsConstructor
+@Validated
+public class SubstituteTrainerService {
+
+    static final int MAX_PERIOD_DAYS = 92;
+    static final int MAX_SUBSTITUTES = 5;
+    private static final Duration MAX_CLASS_LENGTH = Duration.ofHours(24);
+
+    private final TrainerRepository trainerRepository;
+    private final ScheduledClassRepository scheduledClassRepository;
+    private final ScheduledClassBatchRepository scheduledClassBatchRepository;
+    private final TrainerAvailabilityIndex trainerAvailabilityIndex;
+    private final ScheduleConflictIndex scheduleConflictIndex;
+
+    private record ClassToCover(Long id, Long gymId, Long classTypeId, String classTypeName, LocalDateTime startTime,
+                                int durationMinutes) {
+
+        LocalDateTime endTime() {
+            return startTime.plusMinutes(durationMinutes);
+        }
+    }
+
+    private record Candidate(Long id, Long gymId, String firstName, String lastName, Set<Long> classTypeIds,
+                             TrainerCalendar calendar, IntervalTree classes) {
+
+        boolean canTake(ClassToCover scheduledClass) {
+            return gymId.equals(scheduledClass.gymId())
+                    && classTypeIds.contains(scheduledClass.classTypeId())
+                    && calendar.isAvailableFor(scheduledClass.startTime(), scheduledClass.durationMinutes())
+                    && classes.overlapping(scheduledClass.startTime(), scheduledClass.endTime()).isEmpty();
+        }
+    }
+
+    /**
+     * The trainer's classes starting between now or {@code startDate},
+     * whichever is later, and the end of {@code endDate}, each with up to
+     * {@link #MAX_SUBSTITUTES} substitutes: trainers of the same gym qualified
+     * for the class type, available for the whole class and not teaching at
+     * the time, least busy in the period first. Everything is loaded up front
+     * in a handful of queries, then the classes are ranked in parallel.
+     */
+    @Transactional(readOnly = true)
+    public TimeOffImpactResponse analyzeTimeOff(Long trainerId, LocalDate startDate, LocalDate endDate) {
+        if (!trainerRepository.existsById(trainerId)) {
+            throw new IllegalArgumentException("Trainer not found with ID: " + trainerId);
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_PERIOD_DAYS) {
+            throw new IllegalArgumentException("Cannot analyse more than " + MAX_PERIOD_DAYS + " days at once");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = startDate.atStartOfDay().isAfter(now) ? startDate.atStartOfDay() : now;
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+        List<ClassToCover> affected = new ArrayList<>();
+        if (from.isBefore(to)) {
+            for (ScheduledClass scheduledClass : scheduledClassRepository.findTrainerClassesStartingBetween(
+                    trainerId, from, to)) {
+                ClassType classType = scheduledClass.getClassType();
+                affected.add(new ClassToCover(scheduledClass.getId(), scheduledClass.getGym().getId(),
+                        classType.getId(), classType.getName(), scheduledClass.getStartTime(),
+                        scheduledClass.getDurationMinutes()));
+            }
+        }
+        if (affected.isEmpty()) {
+            return new TimeOffImpactResponse(trainerId, startDate, endDate, List.of());
+        }
+
+        // Least busy first, so each class keeps the first few that can take it.
+        List<Candidate> candidates = loadCandidates(trainerId, affected, from, to).stream()
+                .sorted(Comparator.<Candidate>comparingInt(candidate -> candidate.classes().size())
+                        .thenComparing(Candidate::lastName)
+                        .thenComparing(Candidate::firstName)
+                        .thenComparing(Candidate::id))
+                .toList();
+
+        // Only immutable snapshots are shared, so the classes can be ranked
+        // on the common pool without touching the persistence context.
+        List<AffectedClass> ranked = affected.parallelStream()
+                .map(scheduledClass -> new AffectedClass(scheduledClass.id(), scheduledClass.gymId(),
+                        scheduledClass.classTypeId(), scheduledClass.classTypeName(), scheduledClass.startTime(),
+                        scheduledClass.durationMinutes(),
+                        candidates.stream()
+                                .filter(candidate -> candidate.canTake(scheduledClass))
+                                .limit(MAX_SUBSTITUTES)
+                                .map(candidate -> new SubstituteCandidate(candidate.id(), candidate.firstName(),
+                                        candidate.lastName(), candidate.classes().size()))
+                                .toList()))
+                .toList();
+        return new TimeOffImpactResponse(trainerId, startDate, endDate, ranked);
+    }
+
+    /**
+     * Moves every class of the request to its new trainer, or none of them.
+     * Each move is checked like scheduling the class afresh: the trainer must
+     * belong to the class's gym, be qualified, be available for the whole
+     * class and be free, counting the other moves of the request.
+     */
+    @Transactional
+    public TrainerReassignmentResponse reassignTrainers(@Valid TrainerReassignmentRequest request) {
+        List<Assignment> assignments = request.getAssignments();
+        Map<Long, Long> newTrainerByClass = new HashMap<>();
+        for (Assignment assignment : assignments) {
+            if (newTrainerByClass.put(assignment.scheduledClassId(), assignment.trainerId()) != null) {
+                throw new IllegalArgumentException("Scheduled class " + assignment.scheduledClassId()
+                        + " is assigned more than once");
+            }
+        }
+
+        List<ScheduledClass> classes = scheduledClassRepository.findAllWithDetailsByIdIn(newTrainerByClass.keySet());
+        if (classes.size() != newTrainerByClass.size()) {
+            Set<Long> found = classes.stream().map(ScheduledClass::getId).collect(Collectors.toSet());
+            Long missing = newTrainerByClass.keySet().stream()
+                    .filter(id -> !found.contains(id))
+                    .findFirst()
+                    .orElseThrow();
+            throw new IllegalArgumentException("Scheduled class not found with ID: " + missing);
+        }
+        Set<Long> newTrainerIds = new HashSet<>(newTrainerByClass.values());
+        Map<Long, Trainer> trainers = trainerRepository.findByIdInWithClassTypes(newTrainerIds).stream()
+                .collect(Collectors.toMap(Trainer::getId, Function.identity()));
+        for (Long trainerId : newTrainerIds) {
+            if (!trainers.containsKey(trainerId)) {
+                throw new IllegalArgumentException("Trainer not found with ID: " + trainerId);
+            }
+        }
+
+        Set<Long> lockedTrainerIds = new HashSet<>(newTrainerIds);
+        classes.forEach(scheduledClass -> lockedTrainerIds.add(scheduledClass.getTrainer().getId()));
+        ScheduleLock lock = scheduleConflictIndex.lock(lockedTrainerIds, List.of());
+        Map<Long, TrainerCalendar> calendars = trainerAvailabilityIndex.calendars(newTrainerIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, IntervalTree> accepted = new HashMap<>();
+        List<TrainerChange> changes = new ArrayList<>();
+        List<ScheduleSlot> slots = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        for (ScheduledClass scheduledClass : classes) {
+            Trainer trainer = trainers.get(newTrainerByClass.get(scheduledClass.getId()));
+            List<String> reasons = checkAssignment(lock, scheduledClass, trainer, calendars.get(trainer.getId()),
+                    accepted, newTrainerByClass, now);
+            if (!reasons.isEmpty()) {
+                problems.add("Class " + scheduledClass.getId() + ": " + String.join(", ", reasons));
+                continue;
+            }
+            accepted.computeIfAbsent(trainer.getId(), k -> new IntervalTree())
+                    .put(scheduledClass.getId(), scheduledClass.getStartTime(), scheduledClass.getEndTime());
+            if (!trainer.getId().equals(scheduledClass.getTrainer().getId())) {
+                changes.add(new TrainerChange(scheduledClass.getId(), scheduledClass.getTrainer().getId(),
+                        trainer.getId()));
+                slots.add(new ScheduleSlot(scheduledClass.getId(), trainer.getId(), scheduledClass.getRoom().getId(),
+                        scheduledClass.getStartTime(), scheduledClass.getDurationMinutes()));
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("No class was reassigned. " + String.join("; ", problems));
+        }
+
+        List<Long> missed = scheduledClassBatchRepository.reassignTrainers(changes);
+        if (!missed.isEmpty()) {
+            throw new IllegalStateException("Scheduled classes " + missed + " changed during the reassignment");
+        }
+        List<Long> classIds = changes.stream().map(TrainerChange::scheduledClassId).toList();
+        scheduleConflictIndex.recordChanges(lock, classIds, slots);
+        return new TrainerReassignmentResponse(classIds.size(), classIds);
+    }
+
+    /**
+     * Trainers of the gyms involved, with their classes in {@code [from, to)}
+     * or overlapping an affected class.
+     */
+    private List<Candidate> loadCandidates(Long absentTrainerId, List<ClassToCover> affected, LocalDateTime from,
+                                           LocalDateTime to) {
+        Set<Long> gymIds = affected.stream().map(ClassToCover::gymId).collect(Collectors.toSet());
+        List<Trainer> trainers = trainerRepository.findByGymIdInWithClassTypes(gymIds).stream()
+                .filter(trainer -> !trainer.getId().equals(absentTrainerId))
+                .toList();
+        if (trainers.isEmpty()) {
+            return List.of();
+        }
+        List<Long> trainerIds = trainers.stream().map(Trainer::getId).toList();
+        Map<Long, TrainerCalendar> calendars = trainerAvailabilityIndex.calendars(trainerIds);
+
+        LocalDateTime lastEnd = affected.stream()
+                .map(ClassToCover::endTime)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        Map<Long, IntervalTree> classes = new HashMap<>();
+        for (ScheduleSlot slot : scheduledClassRepository.findTrainerSlotsBetween(
+                trainerIds, from.minus(MAX_CLASS_LENGTH), lastEnd.isAfter(to) ? lastEnd : to)) {
+            if (slot.endTime().isAfter(from)) {
+                classes.computeIfAbsent(slot.trainerId(), k -> new IntervalTree())
+                        .put(slot.scheduledClassId(), slot.startTime(), slot.endTime());
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (Trainer trainer : trainers) {
+            Set<Long> classTypeIds = trainer.getClassTypes().stream().map(ClassType::getId).collect(Collectors.toSet());
+            candidates.add(new Candidate(trainer.getId(), trainer.getGym().getId(), trainer.getFirstName(),
+                    trainer.getLastName(), classTypeIds, calendars.get(trainer.getId()),
+                    classes.getOrDefault(trainer.getId(), new IntervalTree())));
+        }
+        return candidates;
+    }
+
+    private List<String> checkAssignment(ScheduleLock lock, ScheduledClass scheduledClass, Trainer trainer,
+                                         TrainerCalendar calendar, Map<Long, IntervalTree> accepted,
+                                         Map<Long, Long> newTrainerByClass, LocalDateTime now) {
+        List<String> reasons = new ArrayList<>();
+        LocalDateTime start = scheduledClass.getStartTime();
+        LocalDateTime end = scheduledClass.getEndTime();
+        if (!start.isAfter(now)) {
+            reasons.add("class has already started");
+        }
+        if (!trainer.getGym().getId().equals(scheduledClass.getGym().getId())) {
+            reasons.add("trainer does not belong to the class's gym");
+        }
+        ClassType classType = scheduledClass.getClassType();
+        if (trainer.getClassTypes().stream().noneMatch(type -> type.getId().equals(classType.getId()))) {
+            reasons.add("trainer is not qualified for " + classType.getName());
+        }
+        if (!calendar.isAvailableFor(start, scheduledClass.getDurationMinutes())) {
+            reasons.add("trainer is not available from " + start + " to " + end);
+        }
+        // Classes of the request are checked against each other through the
+        // accepted trees instead, wherever the request moves them.
+        List<Long> existing = scheduleConflictIndex.findConflicts(lock, ScheduleKey.trainer(trainer.getId()),
+                        start, end, scheduledClass.getId()).stream()
+                .filter(id -> !newTrainerByClass.containsKey(id))
+                .toList();
+        if (!existing.isEmpty()) {
+            reasons.add("trainer is already scheduled at this time (classes " + existing + ")");
+        }
+        IntervalTree taken = accepted.get(trainer.getId());
+        if (taken != null && !taken.overlapping(start, end).isEmpty()) {
+            reasons.add("trainer is given overlapping classes " + taken.overlapping(start, end) + " in this request");
+        }
+        return reasons;
+    }
+}
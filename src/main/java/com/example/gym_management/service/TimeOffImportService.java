@@ -0,0 +1,354 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.TimeOffImportEntry;
+import com.example.gym_management.dto.TimeOffImportRequest;
+import com.example.gym_management.dto.TimeOffImportResponse;
+import com.example.gym_management.entity.TrainerTimeOff;
+import com.example.gym_management.repository.GymRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.repository.TrainerTimeOffBatchRepository;
+import com.example.gym_management.repository.TrainerTimeOffBatchRepository.NewTimeOff;
+import com.example.gym_management.repository.TrainerTimeOffRepository;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Imports holiday calendars and gym closures as time off. An entry names
+ * either a trainer or a gym, which gives every trainer of the gym the time
+ * off. The whole import is validated before anything is written and either
+ * all of it is stored or none; entries already stored with the same dates
+ * are skipped, so an import can be repeated safely, while entries that
+ * overlap other time off of the trainer reject the import, as
+ * {@link TrainerAvailabilityService#createTimeOff} would. The affected
+ * trainers are locked for the check, like a single time-off request.
+ */
+@Service
+@RequiredArgsConstructor
+@Validated
+public class TimeOffImportService {
+
+    static final int MAX_ENTRIES = 10_000;
+    static final int MAX_RECORDS = 50_000;
+    static final int MAX_REPORTED_ERRORS = 20;
+    static final int LOCK_CHUNK_SIZE = 1_000;
+    static final List<String> CSV_COLUMNS =
+            List.of("trainerId", "gymId", "startDate", "endDate", "startsAtNoon", "endsAtNoon", "reason");
+
+    private final TrainerRepository trainerRepository;
+    private final GymRepository gymRepository;
+    private final TrainerTimeOffRepository timeOffRepository;
+    private final TrainerTimeOffBatchRepository timeOffBatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private record Key(Long trainerId, LocalDate startDate, LocalDate endDate, boolean startsAtNoon,
+                       boolean endsAtNoon) {
+
+        static Key of(TrainerTimeOff timeOff) {
+            return new Key(timeOff.getTrainer().getId(), timeOff.getStartDate(), timeOff.getEndDate(),
+                    timeOff.isStartsAtNoon(), timeOff.isEndsAtNoon());
+        }
+
+        TrainerTimeOff toTimeOff() {
+            return new TrainerTimeOff(null, startDate, endDate, startsAtNoon, endsAtNoon, null);
+        }
+    }
+
+    /**
+     * A time-off period in the overlap sweep; {@code key} is null for stored
+     * time off.
+     */
+    private record Period(TrainerTimeOff timeOff, Key key) {
+
+        boolean endsAfter(Period other) {
+            return timeOff.getEndsAt().isAfter(other.timeOff.getEndsAt());
+        }
+    }
+
+    /**
+     * A new record that overlaps either another new record or stored time off.
+     */
+    private record Overlap(Key added, Key other, TrainerTimeOff stored) {
+    }
+
+    @Transactional
+    public TimeOffImportResponse importTimeOff(@Valid TimeOffImportRequest request) {
+        List<String> labels = new ArrayList<>();
+        for (int i = 1; i <= request.getEntries().size(); i++) {
+            labels.add("Entry " + i);
+        }
+        return importEntries(request.getEntries(), labels, List.of());
+    }
+
+    /**
+     * Imports a CSV file with a header row naming its columns, out of
+     * {@link #CSV_COLUMNS} in any order; {@code startDate} and one of
+     * {@code trainerId} and {@code gymId} are required.
+     */
+    @Transactional
+    public TimeOffImportResponse importCsv(Reader csv) {
+        CsvParser parser = new CsvParser(csv);
+        Map<String, Integer> columns = parser.readHeader(CSV_COLUMNS);
+        if (!columns.containsKey("startDate")) {
+            throw new IllegalArgumentException("Column 'startDate' is required");
+        }
+
+        List<TimeOffImportEntry> entries = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (List<String> row = parser.next(); row != null; row = parser.next()) {
+            if (entries.size() + errors.size() == MAX_ENTRIES) {
+                throw new IllegalArgumentException("Cannot import more than " + MAX_ENTRIES + " entries at once");
+            }
+            String label = "Line " + parser.recordLine();
+            try {
+                entries.add(toEntry(row, columns));
+                labels.add(label);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                errors.add(label + ": " + e.getMessage());
+            }
+        }
+        return importEntries(entries, labels, errors);
+    }
+
+    /**
+     * @param labels how each entry is named in error messages
+     * @param errors problems already found with entries that could not be read
+     */
+    private TimeOffImportResponse importEntries(List<TimeOffImportEntry> entries, List<String> labels,
+                                                List<String> errors) {
+        if (entries.isEmpty() && errors.isEmpty()) {
+            throw new IllegalArgumentException("At least one entry is required");
+        }
+        List<String> problems = new ArrayList<>(errors);
+        for (int i = 0; i < entries.size(); i++) {
+            String problem = checkEntry(entries.get(i));
+            if (problem != null) {
+                problems.add(labels.get(i) + ": " + problem);
+            }
+        }
+        rejectIfAny(problems);
+
+        Set<Long> gymIds = new HashSet<>();
+        Set<Long> trainerIds = new HashSet<>();
+        for (TimeOffImportEntry entry : entries) {
+            if (entry.getGymId() != null) {
+                gymIds.add(entry.getGymId());
+            } else {
+                trainerIds.add(entry.getTrainerId());
+            }
+        }
+        Set<Long> knownGyms = new HashSet<>();
+        gymRepository.findAllById(gymIds).forEach(gym -> knownGyms.add(gym.getId()));
+        Map<Long, List<Long>> gymTrainers = new HashMap<>();
+        for (Long gymId : knownGyms) {
+            gymTrainers.put(gymId, trainerRepository.findIdsByGymId(gymId));
+        }
+        Set<Long> knownTrainers = trainerIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(trainerRepository.findExistingIds(trainerIds));
+        for (int i = 0; i < entries.size(); i++) {
+            TimeOffImportEntry entry = entries.get(i);
+            if (entry.getGymId() != null && !knownGyms.contains(entry.getGymId())) {
+                problems.add(labels.get(i) + ": gym not found with ID: " + entry.getGymId());
+            } else if (entry.getGymId() == null && !knownTrainers.contains(entry.getTrainerId())) {
+                problems.add(labels.get(i) + ": trainer not found with ID: " + entry.getTrainerId());
+            }
+        }
+        rejectIfAny(problems);
+
+        // The entry each record came from, for its reason and error label.
+        Map<Key, Integer> sources = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            TimeOffImportEntry entry = entries.get(i);
+            LocalDate endDate = entry.getEndDate() != null ? entry.getEndDate() : entry.getStartDate();
+            List<Long> trainers = entry.getGymId() != null
+                    ? gymTrainers.get(entry.getGymId())
+                    : List.of(entry.getTrainerId());
+            for (Long trainerId : trainers) {
+                sources.putIfAbsent(new Key(trainerId, entry.getStartDate(), endDate, entry.isStartsAtNoon(),
+                        entry.isEndsAtNoon()), i);
+                if (sources.size() > MAX_RECORDS) {
+                    throw new IllegalArgumentException("The import expands to more than " + MAX_RECORDS
+                            + " time-off records");
+                }
+            }
+        }
+        if (sources.isEmpty()) {
+            return new TimeOffImportResponse(0, 0, 0);
+        }
+
+        Set<Long> affected = new TreeSet<>();
+        sources.keySet().forEach(key -> affected.add(key.trainerId()));
+        lockTrainers(affected);
+        LocalDate from = sources.keySet().stream().map(Key::startDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = sources.keySet().stream().map(Key::endDate).max(Comparator.naturalOrder()).orElseThrow();
+        List<TrainerTimeOff> stored = timeOffRepository.findByTrainerIdInAndDateRange(affected, from, to);
+        int before = sources.size();
+        stored.forEach(existing -> sources.remove(Key.of(existing)));
+
+        for (Overlap overlap : findOverlaps(sources.keySet(), stored)) {
+            String label = labels.get(sources.get(overlap.added()));
+            if (overlap.stored() != null) {
+                problems.add(label + ": trainer " + overlap.added().trainerId() + " already has time off from "
+                        + overlap.stored().getStartDate() + " to " + overlap.stored().getEndDate());
+            } else {
+                problems.add(label + ": overlaps " + labels.get(sources.get(overlap.other()))
+                        + " for trainer " + overlap.added().trainerId());
+            }
+        }
+        rejectIfAny(problems);
+
+        List<NewTimeOff> timeOff = sources.entrySet().stream()
+                .map(source -> {
+                    Key key = source.getKey();
+                    return new NewTimeOff(key.trainerId(), key.startDate(), key.endDate(), key.startsAtNoon(),
+                            key.endsAtNoon(), entries.get(source.getValue()).getReason());
+                })
+                .toList();
+        timeOffBatchRepository.insertAll(timeOff);
+        Set<Long> changed = new TreeSet<>();
+        timeOff.forEach(off -> changed.add(off.trainerId()));
+        changed.forEach(trainerId -> eventPublisher.publishEvent(new TrainerAvailabilityChangedEvent(trainerId)));
+        return new TimeOffImportResponse(timeOff.size(), before - timeOff.size(), changed.size());
+    }
+
+    /**
+     * New records that overlap stored time off, or another new record, of the
+     * same trainer; the rule createTimeOff applies to a single record. Stored
+     * time off is only compared with new records, so overlaps already in the
+     * table don't block an import. Each trainer's periods are swept in start
+     * order, keeping the one that reaches furthest so far, overall and among
+     * the new ones.
+     */
+    private static List<Overlap> findOverlaps(Collection<Key> added, List<TrainerTimeOff> stored) {
+        Map<Long, List<Period>> byTrainer = new LinkedHashMap<>();
+        for (Key key : added) {
+            byTrainer.computeIfAbsent(key.trainerId(), id -> new ArrayList<>()).add(new Period(key.toTimeOff(), key));
+        }
+        for (TrainerTimeOff existing : stored) {
+            List<Period> periods = byTrainer.get(existing.getTrainer().getId());
+            if (periods != null) {
+                periods.add(new Period(existing, null));
+            }
+        }
+
+        List<Overlap> overlaps = new ArrayList<>();
+        for (List<Period> periods : byTrainer.values()) {
+            periods.sort(Comparator.comparing((Period period) -> period.timeOff().getStartsAt()));
+            Period furthest = null;
+            Period furthestAdded = null;
+            for (Period period : periods) {
+                if (period.key() != null && furthest != null && furthest.timeOff().overlaps(period.timeOff())) {
+                    overlaps.add(new Overlap(period.key(), furthest.key(),
+                            furthest.key() == null ? furthest.timeOff() : null));
+                } else if (period.key() == null && furthestAdded != null
+                        && furthestAdded.timeOff().overlaps(period.timeOff())) {
+                    overlaps.add(new Overlap(furthestAdded.key(), null, period.timeOff()));
+                }
+                if (furthest == null || period.endsAfter(furthest)) {
+                    furthest = period;
+                }
+                if (period.key() != null && (furthestAdded == null || period.endsAfter(furthestAdded))) {
+                    furthestAdded = period;
+                }
+            }
+        }
+        return overlaps;
+    }
+
+    /**
+     * What is wrong with the entry on its own, or null. Repeats the request
+     * constraints, which CSV rows don't go through.
+     */
+    private static String checkEntry(TimeOffImportEntry entry) {
+        if ((entry.getTrainerId() == null) == (entry.getGymId() == null)) {
+            return "exactly one of trainerId and gymId is required";
+        }
+        if (entry.getStartDate() == null) {
+            return "start date is required";
+        }
+        if (entry.getReason() != null && entry.getReason().length() > 255) {
+            return "reason cannot exceed 255 characters";
+        }
+        LocalDate endDate = entry.getEndDate() != null ? entry.getEndDate() : entry.getStartDate();
+        try {
+            TrainerAvailabilityService.validateTimeOffRange(new TrainerTimeOff(null, entry.getStartDate(), endDate,
+                    entry.isStartsAtNoon(), entry.isEndsAtNoon(), entry.getReason()));
+        } catch (IllegalArgumentException e) {
+            return e.getMessage().toLowerCase(Locale.ROOT);
+        }
+        return null;
+    }
+
+    private static TimeOffImportEntry toEntry(List<String> row, Map<String, Integer> columns) {
+        TimeOffImportEntry entry = new TimeOffImportEntry();
+        entry.setTrainerId(parseId(CsvParser.field(row, columns, "trainerId"), "trainerId"));
+        entry.setGymId(parseId(CsvParser.field(row, columns, "gymId"), "gymId"));
+        String startDate = CsvParser.field(row, columns, "startDate");
+        entry.setStartDate(startDate == null ? null : LocalDate.parse(startDate));
+        String endDate = CsvParser.field(row, columns, "endDate");
+        entry.setEndDate(endDate == null ? null : LocalDate.parse(endDate));
+        entry.setStartsAtNoon(parseFlag(CsvParser.field(row, columns, "startsAtNoon"), "startsAtNoon"));
+        entry.setEndsAtNoon(parseFlag(CsvParser.field(row, columns, "endsAtNoon"), "endsAtNoon"));
+        entry.setReason(CsvParser.field(row, columns, "reason"));
+        return entry;
+    }
+
+    private static Long parseId(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " must be a number");
+        }
+    }
+
+    private static boolean parseFlag(String value, String column) {
+        if (value == null || value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        throw new IllegalArgumentException(column + " must be true or false");
+    }
+
+    private void lockTrainers(Set<Long> trainerIds) {
+        List<Long> ids = new ArrayList<>(trainerIds);
+        for (int from = 0; from < ids.size(); from += LOCK_CHUNK_SIZE) {
+            trainerRepository.lockAllByIdIn(ids.subList(from, Math.min(from + LOCK_CHUNK_SIZE, ids.size())));
+        }
+    }
+
+    private static void rejectIfAny(List<String> problems) {
+        if (problems.isEmpty()) {
+            return;
+        }
+        String message = String.join("; ", problems.subList(0, Math.min(problems.size(), MAX_REPORTED_ERRORS)));
+        if (problems.size() > MAX_REPORTED_ERRORS) {
+            message += "; and " + (problems.size() - MAX_REPORTED_ERRORS) + " more";
+        }
+        throw new IllegalArgumentException("Nothing was imported. " + message);
+    }
+}
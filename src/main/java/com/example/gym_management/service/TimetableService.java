@@ -0,0 +1,235 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.RecurrenceRuleRequest;
+import com.example.gym_management.dto.ScheduleSlot;
+import com.example.gym_management.dto.TimetableConflict;
+import com.example.gym_management.dto.TimetableRequest;
+import com.example.gym_management.dto.TimetableResponse;
+import com.example.gym_management.entity.ClassType;
+import com.example.gym_management.entity.Room;
+import com.example.gym_management.entity.Trainer;
+import com.example.gym_management.repository.ClassTypeRepository;
+import com.example.gym_management.repository.GymRepository;
+import com.example.gym_management.repository.RoomRepository;
+import com.example.gym_management.repository.ScheduledClassBatchRepository;
+import com.example.gym_management.repository.ScheduledClassBatchRepository.NewScheduledClass;
+import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleKey;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleLock;
+import com.example.gym_management.service.TrainerAvailabilityIndex.TrainerCalendar;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes a term of recurring classes in one transaction. Every occurrence
+ * is checked in memory: trainer calendars come from the
+ * {@link TrainerAvailabilityIndex}, existing classes come from the {@link ScheduleConflictIndex},
+ * and occurrences of the request are checked against each other with local
+ * {@link IntervalTree}s. All conflicts are reported together; the accepted
+ * occurrences are inserted with JDBC batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Validated
+public class TimetableService {
+
+    static final int MAX_TERM_DAYS = 366;
+    static final int MAX_OCCURRENCES = 10_000;
+
+    private final GymRepository gymRepository;
+    private final ClassTypeRepository classTypeRepository;
+    private final TrainerRepository trainerRepository;
+    private final RoomRepository roomRepository;
+    private final TrainerAvailabilityIndex trainerAvailabilityIndex;
+    private final ScheduledClassBatchRepository scheduledClassBatchRepository;
+    private final ScheduleConflictIndex scheduleConflictIndex;
+
+    private record Occurrence(int ruleIndex, RecurrenceRuleRequest rule, LocalDateTime startTime, int durationMinutes) {
+
+        LocalDateTime endTime() {
+            return startTime.plusMinutes(durationMinutes);
+        }
+    }
+
+    @Transactional
+    public TimetableResponse publishTimetable(@Valid TimetableRequest request) {
+        Long gymId = request.getGymId();
+        if (!gymRepository.existsById(gymId)) {
+            throw new IllegalArgumentException("Gym not found with id: " + gymId);
+        }
+        List<RecurrenceRuleRequest> rules = request.getRules();
+        Map<Long, ClassType> classTypes = loadClassTypes(rules);
+        Set<Long> trainerIds = validateTrainers(rules, gymId);
+        Set<Long> roomIds = validateRooms(rules, gymId);
+
+        List<Occurrence> occurrences = expand(rules, classTypes);
+        Map<Long, TrainerCalendar> calendars = trainerAvailabilityIndex.calendars(trainerIds);
+
+        ScheduleLock lock = scheduleConflictIndex.lock(trainerIds, roomIds);
+        Map<ScheduleKey, IntervalTree> accepted = new HashMap<>();
+        List<Occurrence> toCreate = new ArrayList<>();
+        List<TimetableConflict> conflicts = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < occurrences.size(); i++) {
+            Occurrence occurrence = occurrences.get(i);
+            List<String> reasons = new ArrayList<>();
+            checkTrainerAvailability(occurrence, calendars.get(occurrence.rule().getTrainerId()), now, reasons);
+            checkSchedule(lock, ScheduleKey.trainer(occurrence.rule().getTrainerId()), occurrence, accepted,
+                    occurrences, "Trainer", reasons);
+            checkSchedule(lock, ScheduleKey.room(occurrence.rule().getRoomId()), occurrence, accepted,
+                    occurrences, "Room", reasons);
+
+            if (reasons.isEmpty()) {
+                toCreate.add(occurrence);
+                // Keyed by position in the expanded list, so a later clash can
+                // name the rule it collides with.
+                accepted.computeIfAbsent(ScheduleKey.trainer(occurrence.rule().getTrainerId()), k -> new IntervalTree())
+                        .put(i, occurrence.startTime(), occurrence.endTime());
+                accepted.computeIfAbsent(ScheduleKey.room(occurrence.rule().getRoomId()), k -> new IntervalTree())
+                        .put(i, occurrence.startTime(), occurrence.endTime());
+            } else {
+                conflicts.add(new TimetableConflict(occurrence.ruleIndex(), occurrence.startTime(), reasons));
+            }
+        }
+
+        List<Long> createdIds = List.of();
+        List<ScheduleSlot> slots = new ArrayList<>();
+        if (!request.isDryRun() && !toCreate.isEmpty()) {
+            createdIds = scheduledClassBatchRepository.insertAll(toCreate.stream()
+                    .map(o -> new NewScheduledClass(gymId, o.rule().getClassTypeId(), o.rule().getTrainerId(),
+                            o.rule().getRoomId(), o.startTime(), o.durationMinutes()))
+                    .toList());
+            for (int i = 0; i < toCreate.size(); i++) {
+                Occurrence occurrence = toCreate.get(i);
+                slots.add(new ScheduleSlot(createdIds.get(i), occurrence.rule().getTrainerId(),
+                        occurrence.rule().getRoomId(), occurrence.startTime(), occurrence.durationMinutes()));
+            }
+        }
+        // Recorded even when nothing was created, so the trees follow the
+        // versions the lock bumped instead of being reloaded.
+        scheduleConflictIndex.recordChanges(lock, List.of(), slots);
+        return new TimetableResponse(gymId, occurrences.size(), createdIds.size(), createdIds, conflicts);
+    }
+
+    private Map<Long, ClassType> loadClassTypes(List<RecurrenceRuleRequest> rules) {
+        Set<Long> ids = rules.stream().map(RecurrenceRuleRequest::getClassTypeId).collect(Collectors.toSet());
+        Map<Long, ClassType> classTypes = classTypeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ClassType::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!classTypes.containsKey(id)) {
+                throw new IllegalArgumentException("Class type not found with id: " + id);
+            }
+        }
+        return classTypes;
+    }
+
+    private Set<Long> validateTrainers(List<RecurrenceRuleRequest> rules, Long gymId) {
+        Set<Long> ids = rules.stream().map(RecurrenceRuleRequest::getTrainerId).collect(Collectors.toSet());
+        Map<Long, Trainer> trainers = trainerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Trainer::getId, Function.identity()));
+        for (Long id : ids) {
+            Trainer trainer = trainers.get(id);
+            if (trainer == null) {
+                throw new IllegalArgumentException("Trainer not found with id: " + id);
+            }
+            if (!trainer.getGym().getId().equals(gymId)) {
+                throw new IllegalArgumentException("Trainer " + id + " does not belong to the specified gym");
+            }
+        }
+        return ids;
+    }
+
+    private Set<Long> validateRooms(List<RecurrenceRuleRequest> rules, Long gymId) {
+        Set<Long> ids = rules.stream().map(RecurrenceRuleRequest::getRoomId).collect(Collectors.toSet());
+        Map<Long, Room> rooms = roomRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        for (Long id : ids) {
+            Room room = rooms.get(id);
+            if (room == null) {
+                throw new IllegalArgumentException("Room not found with id: " + id);
+            }
+            if (!room.getGym().getId().equals(gymId)) {
+                throw new IllegalArgumentException("Room " + id + " does not belong to the specified gym");
+            }
+        }
+        return ids;
+    }
+
+    private List<Occurrence> expand(List<RecurrenceRuleRequest> rules, Map<Long, ClassType> classTypes) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            RecurrenceRuleRequest rule = rules.get(i);
+            if (rule.getEndDate().isBefore(rule.getStartDate())) {
+                throw new IllegalArgumentException("Rule " + i + ": end date must not be before start date");
+            }
+            if (ChronoUnit.DAYS.between(rule.getStartDate(), rule.getEndDate()) >= MAX_TERM_DAYS) {
+                throw new IllegalArgumentException("Rule " + i + ": a rule cannot span more than " + MAX_TERM_DAYS + " days");
+            }
+            int durationMinutes = rule.getDurationMinutes() != null
+                    ? rule.getDurationMinutes()
+                    : classTypes.get(rule.getClassTypeId()).getDurationMinutes();
+            for (LocalDate date = rule.getStartDate().with(TemporalAdjusters.nextOrSame(rule.getDayOfWeek()));
+                 !date.isAfter(rule.getEndDate()); date = date.plusWeeks(1)) {
+                occurrences.add(new Occurrence(i, rule, date.atTime(rule.getStartTime()), durationMinutes));
+            }
+            if (occurrences.size() > MAX_OCCURRENCES) {
+                throw new IllegalArgumentException("A timetable cannot expand to more than " + MAX_OCCURRENCES + " classes");
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * The same rules {@link TrainerAvailabilityService#validateTrainerAvailabilityForClass}
+     * applies to a single class.
+     */
+    private void checkTrainerAvailability(Occurrence occurrence, TrainerCalendar calendar, LocalDateTime now,
+                                          List<String> reasons) {
+        LocalDateTime startTime = occurrence.startTime();
+        LocalDateTime endTime = occurrence.endTime();
+        if (!startTime.isAfter(now)) {
+            reasons.add("Start time must be in the future");
+        }
+        LocalDateTime offAt = calendar.firstTimeOff(startTime, endTime);
+        if (offAt != null) {
+            reasons.add("Trainer has time off on " + offAt.toLocalDate());
+            return;
+        }
+        if (!calendar.covers(startTime, occurrence.durationMinutes())) {
+            reasons.add("Trainer is not available on " + startTime.getDayOfWeek() + " from "
+                    + startTime.toLocalTime() + " to " + endTime.toLocalTime());
+        }
+    }
+
+    private void checkSchedule(ScheduleLock lock, ScheduleKey key, Occurrence occurrence,
+                               Map<ScheduleKey, IntervalTree> accepted, List<Occurrence> occurrences,
+                               String resource, List<String> reasons) {
+        List<Long> existing = scheduleConflictIndex.findConflicts(lock, key, occurrence.startTime(),
+                occurrence.endTime(), null);
+        if (!existing.isEmpty()) {
+            reasons.add(resource + " is already scheduled at this time (classes " + existing + ")");
+        }
+        IntervalTree batch = accepted.get(key);
+        if (batch != null) {
+            for (Long index : batch.overlapping(occurrence.startTime(), occurrence.endTime())) {
+                reasons.add(resource + " is already taken at this time by rule " +
+                        occurrences.get(index.intValue()).ruleIndex() + " of this timetable");
+            }
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.example.gym_management.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Places a week of class sessions per gym on trainers, rooms and quarter-hour
+ * start slots, so that no trainer or room is used twice at once, trainers
+ * only teach class types they are qualified for and only while they are free,
+ * and rooms are large enough.
+ *
+ * <p>Each gym starts from a greedy construction, most constrained session
+ * first, then runs an ejection search until every session is placed or its
+ * share of the time budget is spent: an unplaced session takes a random
+ * feasible position, the at most {@link #MAX_EJECTED} sessions in its way are
+ * moved elsewhere if they fit, and the move is kept unless it leaves more
+ * sessions unplaced. The best assignment seen is returned. Gyms share no
+ * trainers or rooms, so they are solved in parallel as fork-join tasks.
+ */
+final class TimetableSolver {
+
+    private static final int MAX_EJECTED = 2;
+    // Chance of keeping a move that unplaces one more session, so the search
+    // can leave a local optimum.
+    private static final double WORSENING_ACCEPTANCE = 0.02;
+
+    private final ForkJoinPool pool;
+
+    TimetableSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @param free slots the trainer can teach in: available, not on time
+     *             off, within opening hours and not already teaching
+     */
+    record TrainerSpec(long id, Set<Long> classTypeIds, WeeklySlotMask free) {
+    }
+
+    /**
+     * @param free slots within opening hours the room is not already used in
+     */
+    record RoomSpec(long id, int capacity, WeeklySlotMask free) {
+    }
+
+    /**
+     * One weekly session to place. Sessions of the same {@code demand} are
+     * spread over as many days as possible.
+     */
+    record SessionSpec(int demand, long classTypeId, int minCapacity, int slots) {
+    }
+
+    record GymProblem(long gymId, List<TrainerSpec> trainers, List<RoomSpec> rooms, List<SessionSpec> sessions) {
+    }
+
+    record Placement(int session, long trainerId, long roomId, int startSlot) {
+    }
+
+    record GymSolution(long gymId, List<Placement> placements, List<Integer> unplacedSessions) {
+    }
+
+    /**
+     * Solves every gym within {@code budgetNanos}. When there are more gyms
+     * than workers, each gym gets a proportional share of the budget.
+     */
+    List<GymSolution> solve(List<GymProblem> problems, long budgetNanos, long seed) {
+        if (problems.isEmpty()) {
+            return List.of();
+        }
+        long deadline = System.nanoTime() + budgetNanos;
+        long gymBudget = Math.min(budgetNanos, budgetNanos * pool.getParallelism() / problems.size());
+        return pool.invoke(new SolveTask(problems, 0, problems.size(), deadline, gymBudget, seed));
+    }
+
+    private static final class SolveTask extends RecursiveTask<List<GymSolution>> {
+
+        private final List<GymProblem> problems;
+        private final int from;
+        private final int to;
+        private final long deadline;
+        private final long gymBudget;
+        private final long seed;
+
+        SolveTask(List<GymProblem> problems, int from, int to, long deadline, long gymBudget, long seed) {
+            this.problems = problems;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+            this.gymBudget = gymBudget;
+            this.seed = seed;
+        }
+
+        @Override
+        protected List<GymSolution> compute() {
+            if (to - from == 1) {
+                GymProblem problem = problems.get(from);
+                long gymDeadline = Math.min(deadline, System.nanoTime() + gymBudget);
+                return List.of(new GymSearch(problem, new SplittableRandom(seed ^ problem.gymId())).run(gymDeadline));
+            }
+            int middle = (from + to) >>> 1;
+            SolveTask left = new SolveTask(problems, from, middle, deadline, gymBudget, seed);
+            left.fork();
+            List<GymSolution> right = new SolveTask(problems, middle, to, deadline, gymBudget, seed).compute();
+            List<GymSolution> solutions = new ArrayList<>(left.join());
+            solutions.addAll(right);
+            return solutions;
+        }
+    }
+
+    /**
+     * Search state of one gym. Trainers, rooms and sessions are addressed by
+     * their index in the problem.
+     */
+    private static final class GymSearch {
+
+        private final GymProblem problem;
+        private final SplittableRandom random;
+        private final int[][] trainersOf;
+        private final int[][] roomsOf;
+        private final WeeklySlotMask[] trainerBusy;
+        private final WeeklySlotMask[] roomBusy;
+        private final int[][] trainerOccupant;
+        private final int[][] roomOccupant;
+        private final int[][] demandDayLoad;
+
+        private final int[] trainerOf;
+        private final int[] roomOf;
+        private final int[] startOf;
+        private final int[] unplaced;
+        private final int[] unplacedIndex;
+        private int unplacedCount;
+
+        GymSearch(GymProblem problem, SplittableRandom random) {
+            this.problem = problem;
+            this.random = random;
+            int sessions = problem.sessions().size();
+            int trainers = problem.trainers().size();
+            int rooms = problem.rooms().size();
+
+            trainersOf = new int[sessions][];
+            roomsOf = new int[sessions][];
+            int demands = 0;
+            for (int s = 0; s < sessions; s++) {
+                SessionSpec session = problem.sessions().get(s);
+                trainersOf[s] = qualifiedTrainers(session);
+                roomsOf[s] = largeEnoughRooms(session);
+                demands = Math.max(demands, session.demand() + 1);
+            }
+            demandDayLoad = new int[demands][7];
+
+            trainerBusy = new WeeklySlotMask[trainers];
+            trainerOccupant = new int[trainers][WeeklySlotMask.SLOTS_PER_WEEK];
+            for (int t = 0; t < trainers; t++) {
+                trainerBusy[t] = new WeeklySlotMask();
+                Arrays.fill(trainerOccupant[t], -1);
+            }
+            roomBusy = new WeeklySlotMask[rooms];
+            roomOccupant = new int[rooms][WeeklySlotMask.SLOTS_PER_WEEK];
+            for (int r = 0; r < rooms; r++) {
+                roomBusy[r] = new WeeklySlotMask();
+                Arrays.fill(roomOccupant[r], -1);
+            }
+
+            trainerOf = new int[sessions];
+            roomOf = new int[sessions];
+            startOf = new int[sessions];
+            Arrays.fill(startOf, -1);
+            unplaced = new int[sessions];
+            unplacedIndex = new int[sessions];
+            for (int s = 0; s < sessions; s++) {
+                unplaced[s] = s;
+                unplacedIndex[s] = s;
+            }
+            unplacedCount = sessions;
+        }
+
+        GymSolution run(long deadline) {
+            construct();
+            int[] bestTrainer = trainerOf.clone();
+            int[] bestRoom = roomOf.clone();
+            int[] bestStart = startOf.clone();
+            int best = unplacedCount;
+
+            while (unplacedCount > 0 && System.nanoTime() - deadline < 0) {
+                improve();
+                if (unplacedCount < best) {
+                    best = unplacedCount;
+                    System.arraycopy(trainerOf, 0, bestTrainer, 0, trainerOf.length);
+                    System.arraycopy(roomOf, 0, bestRoom, 0, roomOf.length);
+                    System.arraycopy(startOf, 0, bestStart, 0, startOf.length);
+                }
+            }
+            return solution(bestTrainer, bestRoom, bestStart);
+        }
+
+        /**
+         * Places sessions greedily, those with the fewest qualified trainers
+         * and rooms first.
+         */
+        private void construct() {
+            Integer[] order = new Integer[problem.sessions().size()];
+            for (int s = 0; s < order.length; s++) {
+                order[s] = s;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(
+                    trainersOf[a].length * roomsOf[a].length, trainersOf[b].length * roomsOf[b].length));
+            for (int s : order) {
+                placeAnywhere(s);
+            }
+        }
+
+        private void improve() {
+            int session = unplaced[random.nextInt(unplacedCount)];
+            if (placeAnywhere(session)) {
+                return;
+            }
+            int[] trainers = trainersOf[session];
+            int[] rooms = roomsOf[session];
+            if (trainers.length == 0 || rooms.length == 0) {
+                return;
+            }
+            int trainer = trainers[random.nextInt(trainers.length)];
+            int room = rooms[random.nextInt(rooms.length)];
+            int length = problem.sessions().get(session).slots();
+            WeeklySlotMask starts = problem.trainers().get(trainer).free().copy()
+                    .and(problem.rooms().get(room).free())
+                    .runStarts(length);
+            int start = randomSlot(starts, 0, WeeklySlotMask.SLOTS_PER_WEEK);
+            if (start < 0) {
+                return;
+            }
+
+            List<Integer> ejected = occupants(trainer, room, start, length);
+            if (ejected.size() > MAX_EJECTED) {
+                return;
+            }
+            int[][] previous = new int[ejected.size()][];
+            for (int i = 0; i < ejected.size(); i++) {
+                int other = ejected.get(i);
+                previous[i] = new int[] {trainerOf[other], roomOf[other], startOf[other]};
+                unplace(other);
+            }
+            place(session, trainer, room, start);
+            int stillUnplaced = 0;
+            for (int other : ejected) {
+                if (!placeAnywhere(other)) {
+                    stillUnplaced++;
+                }
+            }
+            if (stillUnplaced <= 1 || random.nextDouble() < WORSENING_ACCEPTANCE) {
+                return;
+            }
+            // Undo: the ejected sessions go back where they were.
+            for (int other : ejected) {
+                if (startOf[other] >= 0) {
+                    unplace(other);
+                }
+            }
+            unplace(session);
+            for (int i = 0; i < ejected.size(); i++) {
+                place(ejected.get(i), previous[i][0], previous[i][1], previous[i][2]);
+            }
+        }
+
+        /**
+         * Places a session at a free position on the day its demand uses
+         * least, picking randomly among equally good trainers, rooms and
+         * start times. Returns false if it fits nowhere.
+         */
+        private boolean placeAnywhere(int session) {
+            SessionSpec spec = problem.sessions().get(session);
+            int[] loads = demandDayLoad[spec.demand()];
+            int bestTrainer = -1;
+            int bestRoom = -1;
+            int bestStart = -1;
+            long bestScore = Long.MAX_VALUE;
+            for (int trainer : trainersOf[session]) {
+                WeeklySlotMask trainerFree = problem.trainers().get(trainer).free().copy().andNot(trainerBusy[trainer]);
+                if (trainerFree.isEmpty()) {
+                    continue;
+                }
+                for (int room : roomsOf[session]) {
+                    WeeklySlotMask starts = trainerFree.copy()
+                            .and(problem.rooms().get(room).free())
+                            .andNot(roomBusy[room])
+                            .runStarts(spec.slots());
+                    for (int day = 0; day < 7; day++) {
+                        int dayStart = day * WeeklySlotMask.SLOTS_PER_DAY;
+                        int start = randomSlot(starts, dayStart, dayStart + WeeklySlotMask.SLOTS_PER_DAY);
+                        if (start < 0) {
+                            continue;
+                        }
+                        long score = ((long) loads[day] << 32) | random.nextInt() & 0xffffffffL;
+                        if (score < bestScore) {
+                            bestScore = score;
+                            bestTrainer = trainer;
+                            bestRoom = room;
+                            bestStart = start;
+                        }
+                    }
+                }
+            }
+            if (bestStart < 0) {
+                return false;
+            }
+            place(session, bestTrainer, bestRoom, bestStart);
+            return true;
+        }
+
+        private List<Integer> occupants(int trainer, int room, int start, int length) {
+            List<Integer> occupants = new ArrayList<>(MAX_EJECTED + 1);
+            for (int slot = start; slot < start + length; slot++) {
+                addOnce(occupants, trainerOccupant[trainer][slot]);
+                addOnce(occupants, roomOccupant[room][slot]);
+            }
+            return occupants;
+        }
+
+        private static void addOnce(List<Integer> sessions, int session) {
+            if (session >= 0 && !sessions.contains(session)) {
+                sessions.add(session);
+            }
+        }
+
+        private void place(int session, int trainer, int room, int start) {
+            int end = start + problem.sessions().get(session).slots();
+            trainerBusy[trainer].set(start, end);
+            roomBusy[room].set(start, end);
+            Arrays.fill(trainerOccupant[trainer], start, end, session);
+            Arrays.fill(roomOccupant[room], start, end, session);
+            trainerOf[session] = trainer;
+            roomOf[session] = room;
+            startOf[session] = start;
+            demandDayLoad[problem.sessions().get(session).demand()][start / WeeklySlotMask.SLOTS_PER_DAY]++;
+
+            int index = unplacedIndex[session];
+            int last = unplaced[--unplacedCount];
+            unplaced[index] = last;
+            unplacedIndex[last] = index;
+            unplacedIndex[session] = -1;
+        }
+
+        private void unplace(int session) {
+            int start = startOf[session];
+            int end = start + problem.sessions().get(session).slots();
+            int trainer = trainerOf[session];
+            int room = roomOf[session];
+            trainerBusy[trainer].clear(start, end);
+            roomBusy[room].clear(start, end);
+            Arrays.fill(trainerOccupant[trainer], start, end, -1);
+            Arrays.fill(roomOccupant[room], start, end, -1);
+            demandDayLoad[problem.sessions().get(session).demand()][start / WeeklySlotMask.SLOTS_PER_DAY]--;
+            startOf[session] = -1;
+
+            unplaced[unplacedCount] = session;
+            unplacedIndex[session] = unplacedCount++;
+        }
+
+        /**
+         * A set slot of {@code [from, to)}, starting the scan at a random
+         * offset, or -1.
+         */
+        private int randomSlot(WeeklySlotMask mask, int from, int to) {
+            int offset = from + random.nextInt(to - from);
+            int slot = mask.nextSetSlot(offset, to);
+            return slot >= 0 ? slot : mask.nextSetSlot(from, offset);
+        }
+
+        private int[] qualifiedTrainers(SessionSpec session) {
+            List<TrainerSpec> trainers = problem.trainers();
+            return IntStream.range(0, trainers.size())
+                    .filter(t -> trainers.get(t).classTypeIds().contains(session.classTypeId()))
+                    .toArray();
+        }
+
+        private int[] largeEnoughRooms(SessionSpec session) {
+            List<RoomSpec> rooms = problem.rooms();
+            return IntStream.range(0, rooms.size())
+                    .filter(r -> rooms.get(r).capacity() >= session.minCapacity())
+                    .toArray();
+        }
+
+        private GymSolution solution(int[] trainers, int[] rooms, int[] starts) {
+            List<Placement> placements = new ArrayList<>();
+            List<Integer> missing = new ArrayList<>();
+            for (int s = 0; s < starts.length; s++) {
+                if (starts[s] < 0) {
+                    missing.add(s);
+                } else {
+                    placements.add(new Placement(s, problem.trainers().get(trainers[s]).id(),
+                            problem.rooms().get(rooms[s]).id(), starts[s]));
+                }
+            }
+            return new GymSolution(problem.gymId(), placements, missing);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.ClassDemandRequest;
+import com.example.gym_management.dto.ProposedClass;
+import com.example.gym_management.dto.ScheduleSlot;
+import com.example.gym_management.dto.TimetableProposal;
+import com.example.gym_management.dto.TimetableProposal.UnplacedDemand;
+import com.example.gym_management.dto.TimetableSolveRequest;
+import com.example.gym_management.entity.ClassType;
+import com.example.gym_management.entity.Gym;
+import com.example.gym_management.entity.Room;
+import com.example.gym_management.entity.Trainer;
+import com.example.gym_management.entity.TrainerAvailability;
+import com.example.gym_management.entity.TrainerTimeOff;
+import com.example.gym_management.repository.ClassTypeRepository;
+import com.example.gym_management.repository.GymRepository;
+import com.example.gym_management.repository.RoomRepository;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.repository.TrainerAvailabilityRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.repository.TrainerTimeOffRepository;
+import com.example.gym_management.service.TimetableSolver.GymProblem;
+import com.example.gym_management.service.TimetableSolver.GymSolution;
+import com.example.gym_management.service.TimetableSolver.Placement;
+import com.example.gym_management.service.TimetableSolver.RoomSpec;
+import com.example.gym_management.service.TimetableSolver.SessionSpec;
+import com.example.gym_management.service.TimetableSolver.TrainerSpec;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Proposes a weekly timetable from class demand: which trainer teaches each
+ * session, in which room and when. Availability, time off, opening hours and
+ * the classes already scheduled that week are turned into
+ * {@link WeeklySlotMask}s up front and {@link TimetableSolver} searches on
+ * those, one fork-join task per gym.
+ *
+ * <p>Not transactional: everything is read before the search with fetch
+ * joins, so no connection is held while it runs.
+ */
+@Service
+@RequiredArgsConstructor
+@Validated
+public class TimetableSolverService {
+
+    static final Duration DEFAULT_BUDGET = Duration.ofSeconds(5);
+    static final int MAX_SESSIONS = 50_000;
+
+    private final GymRepository gymRepository;
+    private final ClassTypeRepository classTypeRepository;
+    private final TrainerRepository trainerRepository;
+    private final RoomRepository roomRepository;
+    private final TrainerAvailabilityRepository availabilityRepository;
+    private final TrainerTimeOffRepository timeOffRepository;
+    private final ScheduledClassRepository scheduledClassRepository;
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final TimetableSolver solver = new TimetableSolver(pool);
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public TimetableProposal solve(@Valid TimetableSolveRequest request) {
+        LocalDate weekStart = request.getWeekStart();
+        if (weekStart.getDayOfWeek() != DayOfWeek.MONDAY) {
+            throw new IllegalArgumentException("Week start must be a Monday");
+        }
+        List<ClassDemandRequest> demands = request.getDemands();
+        int sessions = demands.stream().mapToInt(ClassDemandRequest::getSessionsPerWeek).sum();
+        if (sessions > MAX_SESSIONS) {
+            throw new IllegalArgumentException("A timetable cannot have more than " + MAX_SESSIONS + " sessions");
+        }
+
+        Set<Long> gymIds = demands.stream().map(ClassDemandRequest::getGymId).collect(Collectors.toSet());
+        Map<Long, Gym> gyms = gymRepository.findAllById(gymIds).stream()
+                .collect(Collectors.toMap(Gym::getId, Function.identity()));
+        gymIds.stream().filter(id -> !gyms.containsKey(id)).findFirst().ifPresent(id -> {
+            throw new IllegalArgumentException("Gym not found with id: " + id);
+        });
+        Set<Long> classTypeIds = demands.stream().map(ClassDemandRequest::getClassTypeId).collect(Collectors.toSet());
+        Map<Long, ClassType> classTypes = classTypeRepository.findAllById(classTypeIds).stream()
+                .collect(Collectors.toMap(ClassType::getId, Function.identity()));
+        classTypeIds.stream().filter(id -> !classTypes.containsKey(id)).findFirst().ifPresent(id -> {
+            throw new IllegalArgumentException("Class type not found with id: " + id);
+        });
+
+        List<Trainer> trainers = trainerRepository.findByGymIdInWithClassTypes(gymIds);
+        List<Room> rooms = roomRepository.findByGymIdIn(gymIds);
+        Set<Long> trainerIds = trainers.stream().map(Trainer::getId).collect(Collectors.toSet());
+        Map<Long, WeeklySlotMask> trainerFree = trainerFreeSlots(trainerIds, weekStart);
+        Map<Long, WeeklySlotMask> trainerTaken = new HashMap<>();
+        Map<Long, WeeklySlotMask> roomTaken = new HashMap<>();
+        LocalDateTime weekStartTime = weekStart.atStartOfDay();
+        // Classes from the Sunday before may still be running on Monday morning.
+        for (ScheduleSlot slot : scheduledClassRepository.findGymSlotsBetween(
+                gymIds, weekStartTime.minusDays(1), weekStartTime.plusWeeks(1))) {
+            int from = (int) Math.floorDiv(ChronoUnit.MINUTES.between(weekStartTime, slot.startTime()),
+                    WeeklySlotMask.SLOT_MINUTES);
+            int to = from + WeeklySlotMask.slotsFor(slot.durationMinutes() + minutesPastSlot(slot.startTime()));
+            trainerTaken.computeIfAbsent(slot.trainerId(), k -> new WeeklySlotMask()).set(from, to);
+            roomTaken.computeIfAbsent(slot.roomId(), k -> new WeeklySlotMask()).set(from, to);
+        }
+
+        Map<Long, GymProblem> problems = new LinkedHashMap<>();
+        for (Long gymId : gymIds) {
+            WeeklySlotMask open = openingHours(gyms.get(gymId));
+            List<TrainerSpec> gymTrainers = trainers.stream()
+                    .filter(trainer -> trainer.getGym().getId().equals(gymId))
+                    .map(trainer -> new TrainerSpec(trainer.getId(),
+                            trainer.getClassTypes().stream().map(ClassType::getId).collect(Collectors.toSet()),
+                            trainerFree.getOrDefault(trainer.getId(), new WeeklySlotMask()).and(open)
+                                    .andNot(trainerTaken.getOrDefault(trainer.getId(), new WeeklySlotMask()))))
+                    .toList();
+            List<RoomSpec> gymRooms = rooms.stream()
+                    .filter(room -> room.getGym().getId().equals(gymId))
+                    .map(room -> new RoomSpec(room.getId(), room.getCapacity(), open.copy()
+                            .andNot(roomTaken.getOrDefault(room.getId(), new WeeklySlotMask()))))
+                    .toList();
+            problems.put(gymId, new GymProblem(gymId, gymTrainers, gymRooms, new ArrayList<>()));
+        }
+        for (int d = 0; d < demands.size(); d++) {
+            ClassDemandRequest demand = demands.get(d);
+            SessionSpec session = new SessionSpec(d, demand.getClassTypeId(),
+                    demand.getMinCapacity() != null ? demand.getMinCapacity() : 1,
+                    WeeklySlotMask.slotsFor(durationOf(demand, classTypes)));
+            List<SessionSpec> gymSessions = problems.get(demand.getGymId()).sessions();
+            for (int i = 0; i < demand.getSessionsPerWeek(); i++) {
+                gymSessions.add(session);
+            }
+        }
+
+        Duration budget = request.getTimeBudgetMillis() != null
+                ? Duration.ofMillis(request.getTimeBudgetMillis())
+                : DEFAULT_BUDGET;
+        long started = System.nanoTime();
+        List<GymSolution> solutions = solver.solve(List.copyOf(problems.values()), budget.toNanos(),
+                System.nanoTime());
+        long searchMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        return toProposal(weekStart, demands, classTypes, problems, solutions, searchMillis);
+    }
+
+    /**
+     * Available slots of each trainer in the week, without any slot their
+     * time off touches.
+     */
+    private Map<Long, WeeklySlotMask> trainerFreeSlots(Set<Long> trainerIds, LocalDate weekStart) {
+        Map<Long, WeeklySlotMask> free = new HashMap<>();
+        if (trainerIds.isEmpty()) {
+            return free;
+        }
+        for (TrainerAvailability availability : availabilityRepository.findByTrainerIdIn(trainerIds)) {
+            free.computeIfAbsent(availability.getTrainer().getId(), k -> new WeeklySlotMask()).set(
+                    WeeklySlotMask.slotAtOrAfter(availability.getDayOfWeek(), availability.getStartTime()),
+                    WeeklySlotMask.slotAtOrBefore(availability.getDayOfWeek(), availability.getEndTime()));
+        }
+        for (TrainerTimeOff timeOff : timeOffRepository.findByTrainerIdInAndDateRange(
+                trainerIds, weekStart, weekStart.plusDays(6))) {
+            WeeklySlotMask trainerFree = free.get(timeOff.getTrainer().getId());
+            if (trainerFree != null) {
+                LocalDateTime week = weekStart.atStartOfDay();
+                long from = Math.max(0, Duration.between(week, timeOff.getStartsAt()).toMinutes());
+                long to = Math.min(WeeklySlotMask.SLOTS_PER_WEEK * (long) WeeklySlotMask.SLOT_MINUTES,
+                        Duration.between(week, timeOff.getEndsAt()).toMinutes());
+                if (from < to) {
+                    trainerFree.clear((int) (from / WeeklySlotMask.SLOT_MINUTES),
+                            WeeklySlotMask.slotsFor((int) to));
+                }
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Slots between opening and closing time on every day; the whole week if
+     * the gym has no opening hours.
+     */
+    private static WeeklySlotMask openingHours(Gym gym) {
+        if (gym.getOpeningTime() == null || gym.getClosingTime() == null) {
+            return WeeklySlotMask.full();
+        }
+        WeeklySlotMask open = new WeeklySlotMask();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            open.set(WeeklySlotMask.slotAtOrAfter(day, gym.getOpeningTime()),
+                    WeeklySlotMask.slotAtOrBefore(day, gym.getClosingTime()));
+        }
+        return open;
+    }
+
+    private static int minutesPastSlot(LocalDateTime time) {
+        return time.getMinute() % WeeklySlotMask.SLOT_MINUTES;
+    }
+
+    private static int durationOf(ClassDemandRequest demand, Map<Long, ClassType> classTypes) {
+        return demand.getDurationMinutes() != null
+                ? demand.getDurationMinutes()
+                : classTypes.get(demand.getClassTypeId()).getDurationMinutes();
+    }
+
+    private static TimetableProposal toProposal(LocalDate weekStart, List<ClassDemandRequest> demands,
+                                                Map<Long, ClassType> classTypes, Map<Long, GymProblem> problems,
+                                                List<GymSolution> solutions, long searchMillis) {
+        List<ProposedClass> classes = new ArrayList<>();
+        int[] missing = new int[demands.size()];
+        for (GymSolution solution : solutions) {
+            List<SessionSpec> sessions = problems.get(solution.gymId()).sessions();
+            for (Placement placement : solution.placements()) {
+                ClassDemandRequest demand = demands.get(sessions.get(placement.session()).demand());
+                LocalDateTime startTime = weekStart.atStartOfDay()
+                        .plusMinutes((long) placement.startSlot() * WeeklySlotMask.SLOT_MINUTES);
+                classes.add(new ProposedClass(solution.gymId(), demand.getClassTypeId(), placement.trainerId(),
+                        placement.roomId(), startTime.getDayOfWeek(), startTime, durationOf(demand, classTypes)));
+            }
+            for (int session : solution.unplacedSessions()) {
+                missing[sessions.get(session).demand()]++;
+            }
+        }
+
+        List<UnplacedDemand> unplaced = new ArrayList<>();
+        for (int d = 0; d < demands.size(); d++) {
+            if (missing[d] > 0) {
+                unplaced.add(new UnplacedDemand(demands.get(d).getGymId(), demands.get(d).getClassTypeId(), missing[d]));
+            }
+        }
+        classes.sort(Comparator.comparing(ProposedClass::startTime));
+        return new TimetableProposal(weekStart, unplaced.isEmpty(), classes, unplaced, searchMillis);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.gym_management.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} buckets of one
+ * tick each; timers further out go to an overflow wheel whose tick is the
+ * whole span of the level below, created on demand, so adding a timer and
+ * advancing the clock cost O(1) per tick regardless of how far ahead
+ * deadlines are. An overflow bucket is cascaded into the level below when
+ * that level's clock reaches it.
+ *
+ * <p>Timers fire once the tick containing their deadline has passed, so at
+ * most one tick late and never early. Not thread-safe.
+ */
+final class TimingWheel<T> {
+
+    private record Timer<T>(long deadline, T item) {
+    }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long spanMillis;
+    private final List<List<Timer<T>>> buckets;
+    private long currentTime;
+    private TimingWheel<T> overflow;
+    private int size;
+
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.spanMillis = tickMillis * wheelSize;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules {@code item}. Returns false, without scheduling it, when the
+     * deadline is already in a past tick and the item is due now.
+     */
+    boolean add(long deadlineMillis, T item) {
+        if (deadlineMillis < currentTime) {
+            return false;
+        }
+        insert(new Timer<>(deadlineMillis, item));
+        return true;
+    }
+
+    /**
+     * Unschedules one timer for {@code item} at {@code deadlineMillis}, found
+     * through the bucket its deadline maps to on each level. Returns false
+     * when there is none, for instance because it has already fired.
+     */
+    boolean cancel(long deadlineMillis, T item) {
+        if (bucketAt(deadlineMillis).remove(new Timer<>(deadlineMillis, item))) {
+            size--;
+            return true;
+        }
+        return overflow != null && overflow.cancel(deadlineMillis, item);
+    }
+
+    /**
+     * Moves the clock forward to {@code nowMillis} and returns the items of
+     * every tick that has passed completely.
+     */
+    List<T> advanceTo(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        while (currentTime + tickMillis <= nowMillis) {
+            for (Timer<T> timer : takeBucket(currentTime)) {
+                due.add(timer.item());
+            }
+            currentTime += tickMillis;
+            cascadeFromOverflow();
+        }
+        return due;
+    }
+
+    int size() {
+        return size + (overflow != null ? overflow.size() : 0);
+    }
+
+    private void insert(Timer<T> timer) {
+        if (timer.deadline() < currentTime + spanMillis) {
+            bucketAt(timer.deadline()).add(timer);
+            size++;
+        } else {
+            if (overflow == null) {
+                overflow = new TimingWheel<>(spanMillis, wheelSize, currentTime);
+            }
+            overflow.insert(timer);
+        }
+    }
+
+    /**
+     * Called on an overflow wheel when the level below reaches {@code tickStart}:
+     * returns that tick's timers so they can be spread over the finer level.
+     */
+    private List<Timer<T>> cascade(long tickStart) {
+        currentTime = tickStart;
+        cascadeFromOverflow();
+        return takeBucket(tickStart);
+    }
+
+    private void cascadeFromOverflow() {
+        if (overflow != null && Math.floorMod(currentTime, spanMillis) == 0) {
+            overflow.cascade(currentTime).forEach(this::insert);
+        }
+    }
+
+    private List<Timer<T>> takeBucket(long time) {
+        List<Timer<T>> bucket = bucketAt(time);
+        if (bucket.isEmpty()) {
+            return List.of();
+        }
+        List<Timer<T>> timers = new ArrayList<>(bucket);
+        bucket.clear();
+        size -= timers.size();
+        return timers;
+    }
+
+    private List<Timer<T>> bucketAt(long time) {
+        return buckets.get((int) Math.floorMod(Math.floorDiv(time, tickMillis), (long) wheelSize));
+    }
+}
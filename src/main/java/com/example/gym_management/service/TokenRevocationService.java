@@ -0,0 +1,154 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.RevokedToken;
+import com.example.gym_management.entity.RevokedToken.RevocationKind;
+import com.example.gym_management.entity.RevokedToken.RevocationReason;
+import com.example.gym_management.repository.RevokedTokenRepository;
+import com.example.gym_management.security.BloomFilter;
+import com.example.gym_management.security.JwtClaims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Denylist for JWTs. Revocations are stored in the revoked_tokens table and
+ * mirrored in memory: a Bloom filter answers the common "not revoked" case,
+ * and an exact set (id to expiry) confirms its rare positives, so
+ * {@link #isRevoked(JwtClaims)} never queries the database.
+ *
+ * <p>Each write goes through a single repository call in its own transaction,
+ * so a failed insert (a refresh token presented twice) cannot poison the
+ * family revocation that follows it. Revocations made by other instances are
+ * picked up by {@link #syncAndPrune()}, which also drops expired entries and
+ * rebuilds the Bloom filter.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedEntries;
+
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile LocalDateTime lastSync;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${jwt.revocation.expected-entries:100000}") int expectedEntries) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.bloomFilter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        syncAndPrune();
+    }
+
+    /**
+     * True when the token itself or its family has been revoked.
+     */
+    public boolean isRevoked(JwtClaims claims) {
+        return isRevoked(claims.tokenId()) || isRevoked(claims.familyId());
+    }
+
+    public void revokeToken(JwtClaims claims, RevocationReason reason) {
+        if (claims.tokenId() == null || isRevoked(claims.tokenId())) {
+            return;
+        }
+        insert(new RevokedToken(claims.tokenId(), RevocationKind.TOKEN, reason, claims.familyId(),
+                claims.expiresAt()));
+    }
+
+    public void revokeFamily(String familyId, RevocationReason reason, LocalDateTime expiresAt) {
+        if (familyId == null || isRevoked(familyId)) {
+            return;
+        }
+        insert(new RevokedToken(familyId, RevocationKind.FAMILY, reason, familyId, expiresAt));
+    }
+
+    /**
+     * Marks a refresh token as used. A refresh token may be rotated exactly
+     * once; presenting it again means it has leaked, so its whole family is
+     * revoked and the request is rejected. The primary key on the token id
+     * makes "first use" atomic across concurrent requests and instances.
+     */
+    public void consumeRefreshToken(JwtClaims claims, LocalDateTime familyExpiresAt) {
+        if (claims.tokenId() == null || isRevoked(claims.familyId())) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+
+        boolean firstUse = !isRevoked(claims.tokenId());
+        if (firstUse) {
+            try {
+                insert(new RevokedToken(claims.tokenId(), RevocationKind.TOKEN, RevocationReason.ROTATED,
+                        claims.familyId(), claims.expiresAt()));
+            } catch (DataIntegrityViolationException e) {
+                firstUse = false;
+            }
+        }
+
+        if (!firstUse) {
+            log.warn("Refresh token reuse detected for user {}; revoking token family {}",
+                    claims.username(), claims.familyId());
+            revokeFamily(claims.familyId(), RevocationReason.REUSE_DETECTED, familyExpiresAt);
+            throw new IllegalArgumentException("Refresh token has already been used");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:30000}")
+    public void syncAndPrune() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> fresh = lastSync == null
+                ? revokedTokenRepository.findActive(now)
+                : revokedTokenRepository.findRevokedSince(lastSync.minusSeconds(SYNC_OVERLAP_SECONDS), now);
+        fresh.forEach(token -> remember(token.getTokenId(), token.getExpiresAt()));
+        lastSync = now;
+
+        pruneExpired(now);
+
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        if (deleted > 0) {
+            log.info("Pruned {} expired token revocations", deleted);
+        }
+    }
+
+    private boolean isRevoked(String id) {
+        return id != null && bloomFilter.mightContain(id) && revoked.containsKey(id);
+    }
+
+    private void insert(RevokedToken token) {
+        revokedTokenRepository.saveAndFlush(token);
+        remember(token.getTokenId(), token.getExpiresAt());
+    }
+
+    private synchronized void remember(String id, LocalDateTime expiresAt) {
+        revoked.put(id, expiresAt);
+        bloomFilter.add(id);
+    }
+
+    /**
+     * Bloom filters cannot forget, so expired ids are dropped by rebuilding
+     * the filter from the remaining set. Synchronized with {@link #remember}
+     * so no id added during the rebuild is lost.
+     */
+    private synchronized void pruneExpired(LocalDateTime now) {
+        if (revoked.entrySet().removeIf(entry -> !entry.getValue().isAfter(now))) {
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size()), FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(rebuilt::add);
+            bloomFilter = rebuilt;
+        }
+    }
+}
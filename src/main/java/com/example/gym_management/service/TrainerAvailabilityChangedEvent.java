@@ -0,0 +1,9 @@
+package com.example.gym_management.service;
+
+/**
+ * Published when a trainer's weekly availability or time off changes, so
+ * {@link TrainerAvailabilityIndex} drops the trainer's calendar once the
+ * transaction commits.
+ */
+public record TrainerAvailabilityChangedEvent(Long trainerId) {
+}
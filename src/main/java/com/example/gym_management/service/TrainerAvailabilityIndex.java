@@ -0,0 +1,253 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.TrainerAvailability;
+import com.example.gym_management.entity.TrainerTimeOff;
+import com.example.gym_management.repository.TrainerAvailabilityRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.repository.TrainerTimeOffRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each trainer's weekly availability compiled into a {@link WeeklySlotMask}
+ * plus their time off merged into sorted, disjoint intervals, so availability
+ * checks are a few bit tests and a binary search instead of three queries.
+ *
+ * <p>Availability windows are rounded inward to quarter hours and a class
+ * outward, so a check never answers yes where the stored windows say no.
+ * Calendars are dropped after this instance commits a change, through
+ * {@link TrainerAvailabilityChangedEvent}s, and reloaded at most
+ * {@link #MAX_AGE} after they were built to pick up changes made elsewhere.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrainerAvailabilityIndex {
+
+    static final Duration MAX_AGE = Duration.ofSeconds(30);
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    private final TrainerAvailabilityRepository availabilityRepository;
+    private final TrainerTimeOffRepository timeOffRepository;
+    private final TrainerRepository trainerRepository;
+
+    private final Map<Long, TrainerCalendar> calendars = new ConcurrentHashMap<>();
+
+    /**
+     * The trainer's calendar, or null if there is no such trainer.
+     */
+    public TrainerCalendar calendar(Long trainerId) {
+        long now = System.nanoTime();
+        TrainerCalendar calendar = calendars.get(trainerId);
+        if (calendar == null || now - calendar.loadedAt > MAX_AGE.toNanos()) {
+            if (!trainerRepository.existsById(trainerId)) {
+                calendars.remove(trainerId);
+                return null;
+            }
+            calendar = new TrainerCalendar(availabilityRepository.findByTrainerId(trainerId),
+                    timeOffRepository.findByTrainerId(trainerId), now);
+            calendars.put(trainerId, calendar);
+        }
+        calendar.lastAccess = now;
+        return calendar;
+    }
+
+    /**
+     * Calendars of the given trainers; stale ones are reloaded with one
+     * availability and one time-off query in total. Unknown ids get an empty
+     * calendar.
+     */
+    public Map<Long, TrainerCalendar> calendars(Collection<Long> trainerIds) {
+        long now = System.nanoTime();
+        Map<Long, TrainerCalendar> result = new HashMap<>();
+        List<Long> stale = new ArrayList<>();
+        for (Long trainerId : trainerIds) {
+            TrainerCalendar calendar = calendars.get(trainerId);
+            if (calendar == null || now - calendar.loadedAt > MAX_AGE.toNanos()) {
+                stale.add(trainerId);
+            } else {
+                calendar.lastAccess = now;
+                result.put(trainerId, calendar);
+            }
+        }
+        if (!stale.isEmpty()) {
+            Map<Long, List<TrainerAvailability>> availability = new HashMap<>();
+            for (TrainerAvailability slot : availabilityRepository.findByTrainerIdIn(stale)) {
+                availability.computeIfAbsent(slot.getTrainer().getId(), k -> new ArrayList<>()).add(slot);
+            }
+            Map<Long, List<TrainerTimeOff>> timeOff = new HashMap<>();
+            for (TrainerTimeOff off : timeOffRepository.findByTrainerIdIn(stale)) {
+                timeOff.computeIfAbsent(off.getTrainer().getId(), k -> new ArrayList<>()).add(off);
+            }
+            for (Long trainerId : stale) {
+                TrainerCalendar calendar = new TrainerCalendar(availability.getOrDefault(trainerId, List.of()),
+                        timeOff.getOrDefault(trainerId, List.of()), now);
+                calendars.put(trainerId, calendar);
+                result.put(trainerId, calendar);
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(TrainerAvailabilityChangedEvent event) {
+        calendars.remove(event.trainerId());
+    }
+
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    public void evictIdle() {
+        long idleBefore = System.nanoTime() - IDLE_TIMEOUT.toNanos();
+        calendars.values().removeIf(calendar -> calendar.lastAccess - idleBefore < 0);
+    }
+
+    /**
+     * Immutable once built.
+     */
+    public static final class TrainerCalendar {
+
+        private static final LocalTime LAST_MINUTE = LocalTime.of(23, 59);
+
+        private final WeeklySlotMask weekly = new WeeklySlotMask();
+        // Time off as half-open [start, end) intervals in epoch seconds, merged and sorted.
+        private final long[] offStarts;
+        private final long[] offEnds;
+        private final long loadedAt;
+        private volatile long lastAccess;
+
+        TrainerCalendar(List<TrainerAvailability> availability, List<TrainerTimeOff> timeOff, long loadedAt) {
+            for (TrainerAvailability slot : availability) {
+                // A window can't end at 24:00, so one ending in the last minute runs to midnight.
+                int to = slot.getEndTime().isBefore(LAST_MINUTE)
+                        ? WeeklySlotMask.slotAtOrBefore(slot.getDayOfWeek(), slot.getEndTime())
+                        : WeeklySlotMask.dayStart(slot.getDayOfWeek()) + WeeklySlotMask.SLOTS_PER_DAY;
+                weekly.set(WeeklySlotMask.slotAtOrAfter(slot.getDayOfWeek(), slot.getStartTime()), to);
+            }
+            long[][] intervals = timeOff.stream()
+                    .map(off -> new long[] {epochSecond(off.getStartsAt()), epochSecond(off.getEndsAt())})
+                    .filter(interval -> interval[0] < interval[1])
+                    .sorted(Comparator.comparingLong(interval -> interval[0]))
+                    .toArray(long[][]::new);
+            long[] starts = new long[intervals.length];
+            long[] ends = new long[intervals.length];
+            int count = 0;
+            for (long[] interval : intervals) {
+                if (count > 0 && interval[0] <= ends[count - 1]) {
+                    ends[count - 1] = Math.max(ends[count - 1], interval[1]);
+                } else {
+                    starts[count] = interval[0];
+                    ends[count++] = interval[1];
+                }
+            }
+            this.offStarts = Arrays.copyOf(starts, count);
+            this.offEnds = Arrays.copyOf(ends, count);
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+
+        public boolean isOffAt(LocalDateTime time) {
+            return containing(epochSecond(time)) >= 0;
+        }
+
+        /**
+         * First instant in {@code [from, to)} the trainer is off, or null.
+         */
+        public LocalDateTime firstTimeOff(LocalDateTime from, LocalDateTime to) {
+            long start = epochSecond(from);
+            if (containing(start) >= 0) {
+                return from;
+            }
+            int next = startsAtOrBefore(start);
+            return next < offStarts.length && offStarts[next] < epochSecond(to) ? dateTime(offStarts[next]) : null;
+        }
+
+        /**
+         * When the time off the instant falls in ends, or null if the trainer
+         * isn't off then. Adjacent records are merged, so this is the first
+         * instant the trainer is back.
+         */
+        public LocalDateTime timeOffEnd(LocalDateTime time) {
+            int index = containing(epochSecond(time));
+            return index >= 0 ? dateTime(offEnds[index]) : null;
+        }
+
+        /**
+         * Whether the weekly availability covers the instant, ignoring time off.
+         */
+        public boolean isAvailableAt(LocalDateTime time) {
+            return weekly.get(slotOf(time));
+        }
+
+        /**
+         * Whether the weekly availability covers the whole class, ignoring
+         * time off. A class running past Sunday midnight continues on Monday.
+         */
+        public boolean covers(LocalDateTime start, int durationMinutes) {
+            int from = slotOf(start);
+            int minutes = start.getMinute() % WeeklySlotMask.SLOT_MINUTES + durationMinutes;
+            int to = from + WeeklySlotMask.slotsFor(minutes);
+            if (to <= WeeklySlotMask.SLOTS_PER_WEEK) {
+                return weekly.allSet(from, to);
+            }
+            return weekly.allSet(from, WeeklySlotMask.SLOTS_PER_WEEK)
+                    && weekly.allSet(0, to - WeeklySlotMask.SLOTS_PER_WEEK);
+        }
+
+        /**
+         * Whether the trainer can teach the whole class: covered by the
+         * weekly availability, and not off at any point of it.
+         */
+        public boolean isAvailableFor(LocalDateTime start, int durationMinutes) {
+            return firstTimeOff(start, start.plusMinutes(durationMinutes)) == null && covers(start, durationMinutes);
+        }
+
+        /**
+         * A copy of the weekly availability.
+         */
+        WeeklySlotMask weekly() {
+            return weekly.copy();
+        }
+
+        private int containing(long second) {
+            int index = startsAtOrBefore(second) - 1;
+            return index >= 0 && second < offEnds[index] ? index : -1;
+        }
+
+        /**
+         * Number of intervals starting at or before the second.
+         */
+        private int startsAtOrBefore(long second) {
+            int index = Arrays.binarySearch(offStarts, second);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+
+        private static long epochSecond(LocalDateTime time) {
+            return time.toEpochSecond(ZoneOffset.UTC);
+        }
+
+        private static LocalDateTime dateTime(long epochSecond) {
+            return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        }
+
+        private static int slotOf(LocalDateTime time) {
+            return WeeklySlotMask.dayStart(time.getDayOfWeek())
+                    + (int) (ChronoUnit.MINUTES.between(time.toLocalDate().atStartOfDay(), time)
+                    / WeeklySlotMask.SLOT_MINUTES);
+        }
+    }
+}
@@ -1,26 +1,36 @@
 package com.example.gym_management.service;
 
 import com.example.gym_management.dto.*;
+import com.example.gym_management.entity.ClassType;
 import com.example.gym_management.entity.Trainer;
 import com.example.gym_management.entity.TrainerAvailability;
 import com.example.gym_management.entity.TrainerTimeOff;
 import com.example.gym_management.mapper.TrainerAvailabilityMapper;
+import com.example.gym_management.repository.ClassTypeRepository;
+import com.example.gym_management.repository.GymRepository;
+import com.example.gym_management.repository.ScheduledClassRepository;
 import com.example.gym_management.repository.TrainerAvailabilityRepository;
 import com.example.gym_management.repository.TrainerRepository;
 import com.example.gym_management.repository.TrainerTimeOffRepository;
+import com.example.gym_management.service.TrainerAvailabilityIndex.TrainerCalendar;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,10 +38,19 @@ import java.util.stream.Collectors;
 @Validated
 public class TrainerAvailabilityService {
 
+    static final Duration MAX_SEARCH_WINDOW = Duration.ofDays(14);
+    private static final Duration MAX_CLASS_LENGTH = Duration.ofHours(24);
+    private static final int QUARTER_HOUR = 15;
+
     private final TrainerAvailabilityRepository availabilityRepository;
     private final TrainerTimeOffRepository timeOffRepository;
     private final TrainerRepository trainerRepository;
+    private final GymRepository gymRepository;
+    private final ClassTypeRepository classTypeRepository;
+    private final ScheduledClassRepository scheduledClassRepository;
     private final TrainerAvailabilityMapper availabilityMapper;
+    private final TrainerAvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public TrainerAvailabilityResponse createAvailability(Long trainerId, @Valid TrainerAvailabilityRequest request) {
@@ -41,6 +60,7 @@ public class TrainerAvailabilityService {
 
         TrainerAvailability availability = availabilityMapper.toAvailabilityEntity(request, trainerId);
         TrainerAvailability saved = availabilityRepository.save(availability);
+        eventPublisher.publishEvent(new TrainerAvailabilityChangedEvent(trainerId));
         return availabilityMapper.toAvailabilityResponse(saved);
     }
 
@@ -77,6 +97,7 @@ public class TrainerAvailabilityService {
 
         availabilityMapper.updateAvailabilityEntity(request, availability);
         TrainerAvailability updated = availabilityRepository.save(availability);
+        eventPublisher.publishEvent(new TrainerAvailabilityChangedEvent(trainerId));
         return availabilityMapper.toAvailabilityResponse(updated);
     }
 
@@ -90,18 +111,33 @@ public class TrainerAvailabilityService {
         }
 
         availabilityRepository.delete(availability);
+        eventPublisher.publishEvent(new TrainerAvailabilityChangedEvent(trainerId));
     }
 
+    /**
+     * Adds time off that must not overlap the trainer's existing time off.
+     * The trainer row is locked first, so concurrent requests for the same
+     * trainer, and imports, check for overlaps one at a time.
+     */
     @Transactional
     public TrainerTimeOffResponse createTimeOff(Long trainerId, @Valid TrainerTimeOffRequest request) {
-        validateTrainerExists(trainerId);
-
-        if (timeOffRepository.existsByTrainerIdAndDate(trainerId, request.getDate())) {
-            throw new IllegalStateException("Time off already exists for this date");
+        if (trainerRepository.lockAllByIdIn(List.of(trainerId)).isEmpty()) {
+            throw new IllegalArgumentException("Trainer not found with ID: " + trainerId);
         }
 
         TrainerTimeOff timeOff = availabilityMapper.toTimeOffEntity(request, trainerId);
+        validateTimeOffRange(timeOff);
+        List<TrainerTimeOff> overlapping = timeOffRepository
+                .findByTrainerIdAndDateRange(trainerId, timeOff.getStartDate(), timeOff.getEndDate()).stream()
+                .filter(timeOff::overlaps)
+                .toList();
+        if (!overlapping.isEmpty()) {
+            throw new IllegalStateException("Time off already exists from " + overlapping.getFirst().getStartDate()
+                    + " to " + overlapping.getFirst().getEndDate());
+        }
+
         TrainerTimeOff saved = timeOffRepository.save(timeOff);
+        eventPublisher.publishEvent(new TrainerAvailabilityChangedEvent(trainerId));
         return availabilityMapper.toTimeOffResponse(saved);
     }
 
@@ -129,68 +165,191 @@ public class TrainerAvailabilityService {
         }
 
         timeOffRepository.delete(timeOff);
+        eventPublisher.publishEvent(new TrainerAvailabilityChangedEvent(trainerId));
     }
 
+    /**
+     * Whether the trainer is working at the given instant, answered from the
+     * cached calendar.
+     */
     @Transactional(readOnly = true)
     public boolean isTrainerAvailable(Long trainerId, LocalDateTime dateTime) {
-        validateTrainerExists(trainerId);
-
-        LocalDate date = dateTime.toLocalDate();
-        LocalTime time = dateTime.toLocalTime();
-        DayOfWeek dayOfWeek = dateTime.getDayOfWeek();
-
-        if (timeOffRepository.existsByTrainerIdAndDate(trainerId, date)) {
-            return false;
-        }
-
-        Optional<TrainerAvailability> availability = availabilityRepository
-                .findByTrainerIdAndDayOfWeekAndTimeWithin(trainerId, dayOfWeek, time);
+        TrainerCalendar calendar = calendarOf(trainerId);
+        return !calendar.isOffAt(dateTime) && calendar.isAvailableAt(dateTime);
+    }
 
-        return availability.isPresent();
+    /**
+     * Whether the trainer is working for the whole of a class.
+     */
+    @Transactional(readOnly = true)
+    public boolean isTrainerAvailable(Long trainerId, LocalDateTime startTime, int durationMinutes) {
+        return calendarOf(trainerId).isAvailableFor(startTime, durationMinutes);
     }
 
     @Transactional(readOnly = true)
     public List<AvailableTrainerDTO> findAvailableTrainers(LocalDate date, LocalTime time) {
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        LocalDateTime dateTime = date.atTime(time);
+        List<TrainerAvailability> candidates = availabilityRepository
+                .findAvailableTrainersByDayAndTime(date.getDayOfWeek(), time);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TrainerCalendar> calendars = availabilityIndex.calendars(candidates.stream()
+                .map(av -> av.getTrainer().getId())
+                .collect(Collectors.toSet()));
+        List<TrainerAvailability> availabilities = candidates.stream()
+                .filter(av -> !calendars.get(av.getTrainer().getId()).isOffAt(dateTime))
+                .toList();
+        if (availabilities.isEmpty()) {
+            return List.of();
+        }
 
-        Set<Long> trainersWithTimeOff = timeOffRepository.findTrainerIdsWithTimeOffOnDate(date)
+        Map<Long, Trainer> trainers = trainerRepository.findByIdInWithClassTypes(availabilities.stream()
+                        .map(av -> av.getTrainer().getId())
+                        .collect(Collectors.toSet()))
                 .stream()
-                .collect(Collectors.toSet());
-
-        List<TrainerAvailability> availabilities = availabilityRepository
-                .findAvailableTrainersByDayAndTime(dayOfWeek, time);
+                .collect(Collectors.toMap(Trainer::getId, Function.identity()));
 
         return availabilities.stream()
-                .filter(av -> !trainersWithTimeOff.contains(av.getTrainer().getId()))
-                .map(av -> {
-                    Trainer trainer = trainerRepository.findByIdWithClassTypes(av.getTrainer().getId())
-                            .orElse(av.getTrainer());
-                    return availabilityMapper.toAvailableTrainerDTO(trainer, av);
-                })
+                .map(av -> availabilityMapper.toAvailableTrainerDTO(
+                        trainers.getOrDefault(av.getTrainer().getId(), av.getTrainer()), av))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Trainers of the gym qualified for the class type who are free for a
+     * whole class somewhere in {@code [from, to]}: covered by their weekly
+     * availability, no time off, and not teaching another class. Earliest
+     * start first, then the trainer with fewer classes in the window.
+     * Calendars come from the {@link TrainerAvailabilityIndex} and the
+     * trainers' classes are loaded in one query.
+     */
     @Transactional(readOnly = true)
-    public void validateTrainerAvailabilityForClass(Long trainerId, LocalDateTime startTime) {
-        if (!isTrainerAvailable(trainerId, startTime)) {
-            LocalDate date = startTime.toLocalDate();
-            LocalTime time = startTime.toLocalTime();
-
-            if (timeOffRepository.existsByTrainerIdAndDate(trainerId, date)) {
-                throw new IllegalStateException("Trainer has time off on " + date);
+    public List<TrainerMatch> findAvailableTrainers(Long gymId, Long classTypeId, LocalDateTime from,
+                                                    LocalDateTime to, Integer durationMinutes) {
+        if (!gymRepository.existsById(gymId)) {
+            throw new IllegalArgumentException("Gym not found with id: " + gymId);
+        }
+        ClassType classType = classTypeRepository.findById(classTypeId)
+                .orElseThrow(() -> new IllegalArgumentException("Class type not found with id: " + classTypeId));
+        int duration = durationMinutes != null ? durationMinutes : classType.getDurationMinutes();
+        validateSearchWindow(from, to, duration);
+
+        List<Trainer> trainers = trainerRepository.findQualifiedByGymIdWithClassTypes(gymId, classTypeId);
+        if (trainers.isEmpty()) {
+            return List.of();
+        }
+        List<Long> trainerIds = trainers.stream().map(Trainer::getId).toList();
+        Map<Long, TrainerCalendar> calendars = availabilityIndex.calendars(trainerIds);
+        Map<Long, List<ScheduleSlot>> classes = scheduledClassRepository
+                .findTrainerSlotsBetween(trainerIds, from.minus(MAX_CLASS_LENGTH), to).stream()
+                .filter(slot -> slot.endTime().isAfter(from))
+                .sorted(Comparator.comparing(ScheduleSlot::startTime))
+                .collect(Collectors.groupingBy(ScheduleSlot::trainerId));
+
+        record Match(Trainer trainer, LocalDateTime start, int load) {
+        }
+        List<Match> matches = new ArrayList<>();
+        for (Trainer trainer : trainers) {
+            List<ScheduleSlot> busy = classes.getOrDefault(trainer.getId(), List.of());
+            LocalDateTime start = earliestStart(calendars.get(trainer.getId()), busy, from, to, duration);
+            if (start != null) {
+                matches.add(new Match(trainer, start, busy.size()));
             }
+        }
+        return matches.stream()
+                .sorted(Comparator.comparing(Match::start)
+                        .thenComparingInt(Match::load)
+                        .thenComparing(match -> match.trainer().getLastName())
+                        .thenComparing(match -> match.trainer().getFirstName())
+                        .thenComparing(match -> match.trainer().getId()))
+                .map(match -> availabilityMapper.toTrainerMatch(match.trainer(), match.start(), match.load()))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public void validateTrainerAvailabilityForClass(Long trainerId, LocalDateTime startTime, int durationMinutes) {
+        TrainerCalendar calendar = calendarOf(trainerId);
+        LocalDateTime endTime = startTime.plusMinutes(durationMinutes);
 
-            throw new IllegalStateException(
-                    "Trainer is not available on " + startTime.getDayOfWeek() + " at " + time);
+        LocalDateTime offAt = calendar.firstTimeOff(startTime, endTime);
+        if (offAt != null) {
+            throw new IllegalStateException("Trainer has time off on " + offAt.toLocalDate());
+        }
+        if (!calendar.covers(startTime, durationMinutes)) {
+            throw new IllegalStateException("Trainer is not available on " + startTime.getDayOfWeek() + " from "
+                    + startTime.toLocalTime() + " to " + endTime.toLocalTime());
         }
     }
 
+    private TrainerCalendar calendarOf(Long trainerId) {
+        TrainerCalendar calendar = availabilityIndex.calendar(trainerId);
+        if (calendar == null) {
+            throw new IllegalArgumentException("Trainer not found with ID: " + trainerId);
+        }
+        return calendar;
+    }
+
     private void validateTrainerExists(Long trainerId) {
         if (!trainerRepository.existsById(trainerId)) {
             throw new IllegalArgumentException("Trainer not found with ID: " + trainerId);
         }
     }
 
+    private void validateSearchWindow(LocalDateTime from, LocalDateTime to, int durationMinutes) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Window start must be before window end");
+        }
+        if (Duration.between(from, to).compareTo(MAX_SEARCH_WINDOW) > 0) {
+            throw new IllegalArgumentException("Search window cannot be longer than " + MAX_SEARCH_WINDOW.toDays() + " days");
+        }
+        if (durationMinutes <= 0 || from.plusMinutes(durationMinutes).isAfter(to)) {
+            throw new IllegalArgumentException("Duration must be positive and fit in the search window");
+        }
+    }
+
+    /**
+     * First start in {@code [from, to - duration]} at which the class fits the
+     * calendar and clashes with none of {@code busy}, sorted by start time.
+     * Tries {@code from} and then every quarter hour; a clash jumps to the end
+     * of the class in the way and time off to its end.
+     */
+    private static LocalDateTime earliestStart(TrainerCalendar calendar, List<ScheduleSlot> busy,
+                                               LocalDateTime from, LocalDateTime to, int durationMinutes) {
+        LocalDateTime latest = to.minusMinutes(durationMinutes);
+        LocalDateTime candidate = from;
+        while (!candidate.isAfter(latest)) {
+            LocalDateTime end = candidate.plusMinutes(durationMinutes);
+            LocalDateTime clashEnd = calendar.timeOffEnd(candidate);
+            for (ScheduleSlot slot : busy) {
+                if (!slot.startTime().isBefore(end)) {
+                    break;
+                }
+                if (slot.endTime().isAfter(candidate) && (clashEnd == null || slot.endTime().isAfter(clashEnd))) {
+                    clashEnd = slot.endTime();
+                }
+            }
+            if (clashEnd != null) {
+                candidate = clashEnd;
+            } else if (calendar.isAvailableFor(candidate, durationMinutes)) {
+                return candidate;
+            } else {
+                candidate = candidate.truncatedTo(ChronoUnit.HOURS)
+                        .plusMinutes((candidate.getMinute() / QUARTER_HOUR + 1) * (long) QUARTER_HOUR);
+            }
+        }
+        return null;
+    }
+
+    static void validateTimeOffRange(TrainerTimeOff timeOff) {
+        if (timeOff.getEndDate().isBefore(timeOff.getStartDate())) {
+            throw new IllegalArgumentException("End date cannot be before start date");
+        }
+        if (!timeOff.getStartsAt().isBefore(timeOff.getEndsAt())) {
+            throw new IllegalArgumentException("A single day off cannot both start and end at noon");
+        }
+    }
+
     private void validateTimeRange(LocalTime startTime, LocalTime endTime) {
         if (!startTime.isBefore(endTime)) {
             throw new IllegalArgumentException("Start time must be before end time");
@@ -11,6 +11,7 @@ import com.example.gym_management.repository.GymRepository;
 import com.example.gym_management.repository.TrainerRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -28,6 +29,8 @@ public class TrainerService {
   private final GymRepository gymRepository;
   private final ClassTypeRepository classTypeRepository;
   private final TrainerMapper trainerMapper;
+  private final SearchService searchService;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Transactional
   public TrainerResponse createTrainer(@Valid TrainerRequest request) {
@@ -36,6 +39,7 @@ public class TrainerService {
 
     Trainer trainer = trainerMapper.toEntityWithGym(request, gym);
     Trainer saved = trainerRepository.save(trainer);
+    publishSearchEntry(saved);
     return trainerMapper.toResponseWithClassTypes(saved);
   }
 
@@ -66,23 +70,21 @@ public class TrainerService {
     return trainerMapper.toResponseListWithoutCount(trainerRepository.findByGymId(gymId));
   }
 
+  /**
+   * Trainers whose first or last name contains every word of the query, best
+   * match first; see {@link SearchService}.
+   */
   @Transactional(readOnly = true)
-  public List<TrainerResponse> searchTrainersByName(String name) {
-    if (name == null || name.trim().isEmpty()) {
-      throw new IllegalArgumentException("Search name cannot be empty");
-    }
-    return trainerMapper.toResponseListWithoutCount(trainerRepository.searchByName(name));
+  public List<TrainerResponse> searchTrainersByName(String name, Integer limit) {
+    return findInSearchOrder(searchService.searchTrainers(name, null, limit));
   }
 
   @Transactional(readOnly = true)
-  public List<TrainerResponse> searchTrainersByNameAndGymId(String name, Long gymId) {
-    if (name == null || name.trim().isEmpty()) {
-      throw new IllegalArgumentException("Search name cannot be empty");
-    }
+  public List<TrainerResponse> searchTrainersByNameAndGymId(String name, Long gymId, Integer limit) {
     if (!gymRepository.existsById(gymId)) {
       throw new IllegalArgumentException("Gym not found with id: " + gymId);
     }
-    return trainerMapper.toResponseListWithoutCount(trainerRepository.searchByNameAndGymId(name, gymId));
+    return findInSearchOrder(searchService.searchTrainers(name, gymId, limit));
   }
 
   @Transactional
@@ -93,6 +95,7 @@ public class TrainerService {
     trainerMapper.updateEntity(request, existingTrainer);
 
     Trainer updated = trainerRepository.save(existingTrainer);
+    publishSearchEntry(updated);
     return trainerMapper.toResponseWithClassTypes(updated);
   }
 
@@ -107,6 +110,7 @@ public class TrainerService {
     }
 
     trainerRepository.delete(existingTrainer);
+    eventPublisher.publishEvent(SearchEntryChangedEvent.removed(SearchEntryChangedEvent.Kind.TRAINER, id));
   }
 
   @Transactional
@@ -160,4 +164,17 @@ public class TrainerService {
     }
     return trainerMapper.toResponseListWithoutCount(trainerRepository.findByClassTypeIdAndGymId(classTypeId, gymId));
   }
+
+  private List<TrainerResponse> findInSearchOrder(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return trainerMapper.toResponseListWithoutCount(
+        SearchService.inSearchOrder(ids, trainerRepository.findAllById(ids), Trainer::getId));
+  }
+
+  private void publishSearchEntry(Trainer trainer) {
+    eventPublisher.publishEvent(SearchEntryChangedEvent.trainer(
+        trainer.getId(), trainer.getGym().getId(), trainer.getFirstName(), trainer.getLastName()));
+  }
 }
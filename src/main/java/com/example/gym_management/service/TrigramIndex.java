@@ -0,0 +1,240 @@
+package com.example.gym_management.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Inverted index from the trigrams of each document's words to the sorted
+ * ids of the documents containing them, for substring search without a scan.
+ * Words are padded the way pg_trgm pads them, two spaces in front and one
+ * behind, so a term of one or two letters still finds the words it starts.
+ *
+ * <p>A term of three letters or more matches any word containing it and a
+ * shorter one any word starting with it; a document matches when every term
+ * of the query does. Candidates come from intersecting the posting lists of
+ * the terms' trigrams, smallest first, and are checked against the words
+ * themselves, since trigrams from different words can coincide. Not
+ * thread-safe.
+ */
+final class TrigramIndex {
+
+    private record Document(long groupId, String[] words, String sortKey) {
+    }
+
+    private record Match(long id, int score, String sortKey) {
+    }
+
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingInt(Match::score).reversed()
+            .thenComparing(Match::sortKey)
+            .thenComparingLong(Match::id);
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * Indexes a document, replacing the one with the same id if present.
+     *
+     * @param groupId what searches can be narrowed to, such as a gym
+     * @param text    the searchable text, split into words on whitespace
+     * @param sortKey orders documents that match equally well
+     */
+    void put(long id, long groupId, String text, String sortKey) {
+        remove(id);
+        String[] words = split(text);
+        documents.put(id, new Document(groupId, words, sortKey));
+        for (String word : words) {
+            for (long trigram : trigrams(word)) {
+                postings.computeIfAbsent(trigram, k -> new Postings()).add(id);
+            }
+        }
+    }
+
+    boolean remove(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return false;
+        }
+        for (String word : document.words()) {
+            for (long trigram : trigrams(word)) {
+                Postings ids = postings.get(trigram);
+                if (ids != null && ids.remove(id) && ids.size == 0) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ids of at most {@code limit} documents matching every term of the
+     * query, best first: a term equal to a word scores above one starting a
+     * word, which scores above one inside a word; ties go by sort key.
+     *
+     * @param groupId only documents of this group, or null for all
+     */
+    List<Long> search(String query, Long groupId, int limit) {
+        String[] terms = split(query);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (String term : terms) {
+            for (long trigram : termTrigrams(term)) {
+                Postings ids = postings.get(trigram);
+                if (ids == null) {
+                    return List.of();
+                }
+                lists.add(ids);
+            }
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        long[] candidates = Arrays.copyOf(lists.getFirst().ids, lists.getFirst().size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retainIn(candidates, count);
+        }
+
+        PriorityQueue<Match> best = new PriorityQueue<>(BEST_FIRST.reversed());
+        for (int i = 0; i < count; i++) {
+            Document document = documents.get(candidates[i]);
+            if (groupId != null && document.groupId() != groupId) {
+                continue;
+            }
+            int score = score(document.words(), terms);
+            if (score < 0) {
+                continue;
+            }
+            best.add(new Match(candidates[i], score, document.sortKey()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(BEST_FIRST);
+        return matches.stream().map(Match::id).toList();
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    /**
+     * Sum of the terms' scores against their best word, or -1 if a term
+     * matches no word.
+     */
+    private static int score(String[] words, String[] terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = -1;
+            for (String word : words) {
+                if (word.equals(term)) {
+                    best = 3;
+                    break;
+                } else if (word.startsWith(term)) {
+                    best = Math.max(best, 2);
+                } else if (term.length() >= 3 && word.contains(term)) {
+                    best = Math.max(best, 1);
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    static String[] split(String text) {
+        String normalized = text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? new String[0] : normalized.split("\\s+");
+    }
+
+    /**
+     * Trigrams of the padded word, each packed into a long.
+     */
+    private static long[] trigrams(String word) {
+        String padded = "  " + word + " ";
+        long[] trigrams = new long[padded.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = pack(padded, i);
+        }
+        return trigrams;
+    }
+
+    /**
+     * Trigrams every word matching the term contains: those inside a longer
+     * term, or the leading padded trigram of a short one.
+     */
+    private static long[] termTrigrams(String term) {
+        if (term.length() < 3) {
+            return new long[] {pack((term.length() == 1 ? "  " : " ") + term, 0)};
+        }
+        long[] trigrams = new long[term.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = pack(term, i);
+        }
+        return trigrams;
+    }
+
+    private static long pack(String text, int from) {
+        return (long) text.charAt(from) << 32 | (long) text.charAt(from + 1) << 16 | text.charAt(from + 2);
+    }
+
+    /**
+     * Sorted ids. New members get the highest ids, so adds are appends.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keeps in the first {@code count} of the sorted candidates only the
+         * ids also in this list and returns how many are left.
+         */
+        int retainIn(long[] candidates, int count) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < count; i++) {
+                long id = candidates[i];
+                while (j < size && ids[j] < id) {
+                    j++;
+                }
+                if (j < size && ids[j] == id) {
+                    candidates[kept++] = id;
+                }
+            }
+            return kept;
+        }
+    }
+}
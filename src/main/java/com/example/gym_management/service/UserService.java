@@ -9,8 +9,11 @@ import com.example.gym_management.mapper.UserMapper;
 import com.example.gym_management.repository.GymRepository;
 import com.example.gym_management.repository.UserRepository;
 import com.example.gym_management.security.CustomUserDetails;
+import com.example.gym_management.security.UserSecurityChangedEvent;
+import com.example.gym_management.security.UserSecurityStamp;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +34,7 @@ public class UserService implements UserDetailsService {
     private final GymRepository gymRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -60,6 +65,7 @@ public class UserService implements UserDetailsService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
 
         User savedUser = userRepository.save(user);
+        publishSecurityStamp(savedUser);
         return userMapper.toResponse(savedUser);
     }
 
@@ -116,10 +122,19 @@ public class UserService implements UserDetailsService {
                     .orElseThrow(() -> new IllegalArgumentException("Gym not found with id: " + request.getGymId()));
         }
 
+        boolean passwordChanged = request.getPassword() != null && !request.getPassword().isEmpty();
+        boolean securityChanged = passwordChanged
+                || user.getRole() != request.getRole()
+                || !user.getUsername().equals(request.getUsername())
+                || !Objects.equals(user.getGym() != null ? user.getGym().getId() : null, request.getGymId());
+
         userMapper.updateEntity(request, user, gym);
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+        if (passwordChanged) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
         }
+        if (securityChanged) {
+            bumpSecurityVersion(user);
+        }
 
         User updatedUser = userRepository.save(user);
         return userMapper.toResponse(updatedUser);
@@ -130,6 +145,7 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(id, null));
     }
 
     @Transactional
@@ -137,6 +153,7 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
         user.setEnabled(true);
+        publishSecurityStamp(user);
         return userMapper.toResponse(userRepository.save(user));
     }
 
@@ -145,9 +162,24 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
         user.setEnabled(false);
+        bumpSecurityVersion(user);
         return userMapper.toResponse(userRepository.save(user));
     }
 
+    /**
+     * Invalidates every access token issued to the user so far and publishes
+     * the new stamp for the authentication filter once the change commits.
+     */
+    private void bumpSecurityVersion(User user) {
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
+        publishSecurityStamp(user);
+    }
+
+    private void publishSecurityStamp(User user) {
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getId(),
+                new UserSecurityStamp(user.getId(), user.getSecurityVersion(), user.getEnabled())));
+    }
+
     private void validateGymAssignment(UserRole role, Long gymId) {
         if (role == UserRole.ADMIN && gymId != null) {
             throw new IllegalArgumentException("Admin users cannot be assigned to a specific gym");
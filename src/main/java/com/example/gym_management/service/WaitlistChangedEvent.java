@@ -0,0 +1,22 @@
+package com.example.gym_management.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when entries join or leave the WAITING queue of a class, with
+ * their queue sequences, so {@link WaitlistPositionIndex} and
+ * {@link WaitlistExpiryScheduler} can follow the change once the transaction
+ * commits. {@code classStartTime} is only set for joins.
+ */
+public record WaitlistChangedEvent(Long scheduledClassId, LocalDateTime classStartTime, List<Long> joined,
+                                   List<Long> left) {
+
+    public static WaitlistChangedEvent joined(Long scheduledClassId, LocalDateTime classStartTime, Long sequence) {
+        return new WaitlistChangedEvent(scheduledClassId, classStartTime, List.of(sequence), List.of());
+    }
+
+    public static WaitlistChangedEvent left(Long scheduledClassId, List<Long> sequences) {
+        return new WaitlistChangedEvent(scheduledClassId, null, List.of(), sequences);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.WaitlistExpiryStatsResponse;
+import com.example.gym_management.entity.ScheduledClass;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.repository.WaitlistRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expires the waitlist of a class as soon as the class starts. Every class
+ * with WAITING entries gets a timer on a {@link TimingWheel} for its start
+ * time: armed for all of them at startup, and for new classes when their
+ * first entry joins on this instance. When a timer fires the class's entries
+ * are expired with one update; a class that has been moved to a later start
+ * is re-armed instead.
+ *
+ * <p>Timers are per instance, so entries that join on another instance after
+ * this one started, or classes moved to an earlier time, are caught by the
+ * fallback {@link #sweep()}; its lag is reported in {@link #getStats()}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WaitlistExpiryScheduler {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+
+    private final WaitlistRepository waitlistRepository;
+    private final ScheduledClassRepository scheduledClassRepository;
+    private final WaitlistService waitlistService;
+
+    private final TimingWheel<Long> wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+    private final Map<Long, LocalDateTime> armed = new ConcurrentHashMap<>();
+    private final AtomicLong expiredByTimer = new AtomicLong();
+    private final AtomicLong expiredBySweep = new AtomicLong();
+    private volatile LocalDateTime lastSweepAt;
+    private volatile int lastSweepMissedClasses;
+    private volatile long lastSweepMaxLagSeconds;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        for (ScheduledClass scheduledClass : waitlistRepository.findClassesWithWaitingEntries()) {
+            arm(scheduledClass.getId(), scheduledClass.getStartTime());
+        }
+        log.info("Armed waitlist expiry timers for {} classes", armed.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWaitlistChanged(WaitlistChangedEvent event) {
+        if (event.classStartTime() != null) {
+            arm(event.scheduledClassId(), event.classStartTime());
+        }
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void tick() {
+        List<Long> due;
+        synchronized (wheel) {
+            due = wheel.advanceTo(System.currentTimeMillis());
+        }
+        due.forEach(this::expire);
+    }
+
+    /**
+     * Safety net for classes whose timer this instance never had. Also run on
+     * demand from the waitlist API.
+     */
+    @Scheduled(fixedDelay = 15, initialDelay = 15, timeUnit = TimeUnit.MINUTES)
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduledClass> missed = waitlistRepository.findStartedClassesWithWaitingEntries(now);
+
+        int expired = 0;
+        long maxLagSeconds = 0;
+        for (ScheduledClass scheduledClass : missed) {
+            expired += waitlistService.expireStartedClass(scheduledClass.getId(), now);
+            maxLagSeconds = Math.max(maxLagSeconds, Duration.between(scheduledClass.getStartTime(), now).toSeconds());
+            armed.remove(scheduledClass.getId());
+        }
+
+        expiredBySweep.addAndGet(expired);
+        lastSweepAt = now;
+        lastSweepMissedClasses = missed.size();
+        lastSweepMaxLagSeconds = maxLagSeconds;
+        if (!missed.isEmpty()) {
+            log.warn("Waitlist sweep expired {} entries of {} started classes, up to {} s late",
+                     expired, missed.size(), maxLagSeconds);
+        }
+        return expired;
+    }
+
+    public WaitlistExpiryStatsResponse getStats() {
+        return new WaitlistExpiryStatsResponse(
+                armed.size(),
+                expiredByTimer.get(),
+                expiredBySweep.get(),
+                lastSweepAt,
+                lastSweepMissedClasses,
+                lastSweepMaxLagSeconds);
+    }
+
+    /**
+     * Sets the class's timer to {@code startTime}, cancelling the timer for
+     * its previous start time if it had one.
+     */
+    private void arm(Long scheduledClassId, LocalDateTime startTime) {
+        LocalDateTime previous = armed.put(scheduledClassId, startTime);
+        if (startTime.equals(previous)) {
+            return;
+        }
+        boolean scheduled;
+        synchronized (wheel) {
+            if (previous != null) {
+                wheel.cancel(epochMillis(previous), scheduledClassId);
+            }
+            scheduled = wheel.add(epochMillis(startTime), scheduledClassId);
+        }
+        if (!scheduled) {
+            expire(scheduledClassId);
+        }
+    }
+
+    private void expire(Long scheduledClassId) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<LocalDateTime> startTime = scheduledClassRepository.findStartTime(scheduledClassId);
+        if (startTime.isPresent() && startTime.get().isAfter(now)) {
+            arm(scheduledClassId, startTime.get());
+            return;
+        }
+
+        armed.remove(scheduledClassId);
+        if (startTime.isEmpty()) {
+            return;
+        }
+        try {
+            int expired = waitlistService.expireStartedClass(scheduledClassId, now);
+            expiredByTimer.addAndGet(expired);
+            log.debug("Expired {} waitlist entries of class {} at its start", expired, scheduledClassId);
+        } catch (RuntimeException e) {
+            log.error("Could not expire the waitlist of class {}; the sweep will retry", scheduledClassId, e);
+        }
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
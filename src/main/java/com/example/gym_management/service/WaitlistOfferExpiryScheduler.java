@@ -0,0 +1,148 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.Waitlist;
+import com.example.gym_management.entity.Waitlist.WaitlistStatus;
+import com.example.gym_management.repository.WaitlistRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times out the seat holds of offered waitlist entries. Every open offer sits
+ * in a {@link DelayQueue} keyed by its hold deadline: loaded from the
+ * database at startup, and added when an offer is made on this instance. One
+ * virtual thread blocks on the queue and expires the holds as they fall due,
+ * which passes their seats on to the next entries; those new offers come
+ * back into the queue through {@link WaitlistOfferedEvent}.
+ *
+ * <p>The queue is per instance, so offers made on an instance that went down
+ * are caught by the fallback {@link #sweep()}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WaitlistOfferExpiryScheduler {
+
+    private static final long SWEEP_GRACE_MINUTES = 1;
+
+    private final WaitlistRepository waitlistRepository;
+    private final WaitlistService waitlistService;
+
+    private final DelayQueue<Hold> holds = new DelayQueue<>();
+    private volatile Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Waitlist> offered = waitlistRepository.findByStatus(WaitlistStatus.OFFERED);
+        for (Waitlist waitlist : offered) {
+            holds.add(new Hold(waitlist.getId(), waitlist.getScheduledClass().getId(), waitlist.getOfferExpiresAt()));
+        }
+        log.info("Loaded {} open waitlist offers", offered.size());
+        worker = Thread.ofVirtual().name("waitlist-offer-expiry").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOffered(WaitlistOfferedEvent event) {
+        for (Long waitlistId : event.waitlistIds()) {
+            holds.add(new Hold(waitlistId, event.scheduledClassId(), event.expiresAt()));
+        }
+    }
+
+    /**
+     * Safety net for holds this instance never queued.
+     */
+    @Scheduled(fixedDelay = 5, initialDelay = 5, timeUnit = TimeUnit.MINUTES)
+    public int sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(SWEEP_GRACE_MINUTES);
+        List<Hold> missed = waitlistRepository.findByStatusAndOfferExpiresAtBefore(WaitlistStatus.OFFERED, cutoff)
+                .stream()
+                .map(w -> new Hold(w.getId(), w.getScheduledClass().getId(), w.getOfferExpiresAt()))
+                .toList();
+        int expired = expire(missed);
+        if (expired > 0) {
+            log.warn("Waitlist offer sweep expired {} holds missed by the delay queue", expired);
+        }
+        return expired;
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Hold> due = new ArrayList<>();
+                due.add(holds.take());
+                holds.drainTo(due);
+                expire(due);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Could not expire waitlist offers; the sweep will retry", e);
+            }
+        }
+    }
+
+    private int expire(List<Hold> due) {
+        Map<Long, List<Long>> byClass = new LinkedHashMap<>();
+        for (Hold hold : due) {
+            byClass.computeIfAbsent(hold.scheduledClassId(), id -> new ArrayList<>()).add(hold.waitlistId());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        for (Map.Entry<Long, List<Long>> entry : byClass.entrySet()) {
+            int classExpired = waitlistService.expireOffers(entry.getKey(), entry.getValue(), now);
+            log.debug("Expired {} waitlist offers of class {}", classExpired, entry.getKey());
+            expired += classExpired;
+        }
+        return expired;
+    }
+
+    record Hold(Long waitlistId, Long scheduledClassId, long deadlineMillis) implements Delayed {
+
+        Hold(Long waitlistId, Long scheduledClassId, LocalDateTime expiresAt) {
+            this(waitlistId, scheduledClassId, deadlineMillis(expiresAt));
+        }
+
+        /**
+         * Rounded up to the next millisecond, so a hold never falls due before
+         * its stored deadline and is always expired by the conditional update.
+         */
+        static long deadlineMillis(LocalDateTime expiresAt) {
+            Instant deadline = expiresAt.atZone(ZoneId.systemDefault()).toInstant();
+            long millis = deadline.toEpochMilli();
+            return deadline.getNano() % 1_000_000 == 0 ? millis : millis + 1;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
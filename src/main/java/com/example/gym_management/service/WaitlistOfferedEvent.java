@@ -0,0 +1,12 @@
+package com.example.gym_management.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when seats of a class are offered to waitlist entries, so
+ * {@link WaitlistOfferExpiryScheduler} can time out the holds once the
+ * transaction commits.
+ */
+public record WaitlistOfferedEvent(Long scheduledClassId, List<Long> waitlistIds, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,110 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.repository.WaitlistRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory queue positions for the waitlists members are polling. Each class
+ * that is asked about gets a Fenwick tree with a 1 in the slot of every
+ * WAITING entry's queue sequence, so an entry's position is a prefix sum and
+ * costs O(log n) instead of two COUNT queries.
+ *
+ * <p>Trees follow this instance's changes through {@link WaitlistChangedEvent}s
+ * after commit. Changes made on other instances are picked up when a tree is
+ * reloaded, which happens at most {@link #MAX_AGE} after it was built; a
+ * WAITING entry the tree has not seen yet is added on its first lookup.
+ */
+@Component
+@RequiredArgsConstructor
+public class WaitlistPositionIndex {
+
+    static final Duration MAX_AGE = Duration.ofSeconds(30);
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    private final WaitlistRepository waitlistRepository;
+
+    private final Map<Long, ClassQueue> queues = new ConcurrentHashMap<>();
+
+    public record Position(long position, long totalWaiting) {
+    }
+
+    /**
+     * Position of a WAITING entry, 1-based, and the size of its queue.
+     */
+    public Position positionOf(Long scheduledClassId, long sequence) {
+        return queue(scheduledClassId).position(sequence);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWaitlistChanged(WaitlistChangedEvent event) {
+        ClassQueue queue = queues.get(event.scheduledClassId());
+        if (queue != null) {
+            queue.apply(event.joined(), event.left());
+        }
+    }
+
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    public void evictIdle() {
+        long idleBefore = System.nanoTime() - IDLE_TIMEOUT.toNanos();
+        queues.values().removeIf(queue -> queue.lastAccess - idleBefore < 0);
+    }
+
+    private ClassQueue queue(Long scheduledClassId) {
+        long now = System.nanoTime();
+        ClassQueue queue = queues.get(scheduledClassId);
+        if (queue == null || now - queue.loadedAt > MAX_AGE.toNanos()) {
+            queue = new ClassQueue(waitlistRepository.findWaitingSequences(scheduledClassId), now);
+            queues.put(scheduledClassId, queue);
+        }
+        queue.lastAccess = now;
+        return queue;
+    }
+
+    private static final class ClassQueue {
+
+        private final FenwickTree waiting;
+        private final long loadedAt;
+        private volatile long lastAccess;
+
+        ClassQueue(List<Long> sequences, long loadedAt) {
+            this.waiting = new FenwickTree(Math.max(16, sequences.size() * 2));
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+            sequences.forEach(sequence -> waiting.add(slot(sequence), 1));
+        }
+
+        synchronized Position position(long sequence) {
+            int slot = slot(sequence);
+            if (waiting.get(slot) == 0) {
+                waiting.add(slot, 1);
+            }
+            return new Position(waiting.prefixSum(slot), waiting.total());
+        }
+
+        synchronized void apply(List<Long> joined, List<Long> left) {
+            for (Long sequence : joined) {
+                if (waiting.get(slot(sequence)) == 0) {
+                    waiting.add(slot(sequence), 1);
+                }
+            }
+            for (Long sequence : left) {
+                if (waiting.get(slot(sequence)) != 0) {
+                    waiting.add(slot(sequence), -1);
+                }
+            }
+        }
+
+        private static int slot(long sequence) {
+            return Math.toIntExact(sequence);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.Waitlist;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.repository.WaitlistRepository;
+import com.example.gym_management.service.BatchJobService.ChunkResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Numbers the waitlist entries created before queue sequences existed. Each
+ * affected class is locked and its entries renumbered 1..n in queue order
+ * (unnumbered entries first, as they joined before any numbered one), and
+ * the class's sequence counter is moved past them.
+ */
+@Component
+@RequiredArgsConstructor
+public class WaitlistSequenceMigration implements DataMigration {
+
+    private static final int CLASSES_PER_CHUNK = 100;
+
+    private final WaitlistRepository waitlistRepository;
+    private final ScheduledClassRepository scheduledClassRepository;
+
+    @Override
+    public String version() {
+        return "2026-10-17-waitlist-sequences";
+    }
+
+    @Override
+    public String description() {
+        return "Assign queue sequences to existing waitlist entries";
+    }
+
+    @Override
+    public ChunkResult migrateChunk(long afterId) {
+        List<Long> classIds = waitlistRepository.findClassIdsWithoutSequenceAfter(afterId,
+                PageRequest.of(0, CLASSES_PER_CHUNK));
+        if (classIds.isEmpty()) {
+            return ChunkResult.done();
+        }
+
+        scheduledClassRepository.lockAllByIdIn(classIds);
+        int renumbered = 0;
+        for (Long classId : classIds) {
+            long sequence = 0;
+            for (Waitlist waitlist : waitlistRepository.findAllInQueueOrder(classId)) {
+                waitlist.setQueueSequence(++sequence);
+            }
+            scheduledClassRepository.setWaitlistSequence(classId, sequence);
+            renumbered += (int) sequence;
+        }
+        return new ChunkResult(renumbered, classIds.getLast(), classIds.size() < CLASSES_PER_CHUNK);
+    }
+}
@@ -1,9 +1,9 @@
 package com.example.gym_management.service;
 
+import com.example.gym_management.config.MembershipProperties;
 import com.example.gym_management.dto.WaitlistPositionResponse;
 import com.example.gym_management.dto.WaitlistRequest;
 import com.example.gym_management.dto.WaitlistResponse;
-import com.example.gym_management.entity.Booking;
 import com.example.gym_management.entity.Booking.BookingStatus;
 import com.example.gym_management.entity.Member;
 import com.example.gym_management.entity.ScheduledClass;
@@ -14,27 +14,37 @@ import com.example.gym_management.repository.BookingRepository;
 import com.example.gym_management.repository.MemberRepository;
 import com.example.gym_management.repository.ScheduledClassRepository;
 import com.example.gym_management.repository.WaitlistRepository;
-import jakarta.persistence.OptimisticLockException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Validated
 public class WaitlistService {
 
+  private static final int MAX_PROMOTION_ROUNDS = 5;
+
   private final WaitlistRepository waitlistRepository;
   private final MemberRepository memberRepository;
   private final ScheduledClassRepository scheduledClassRepository;
   private final BookingRepository bookingRepository;
+  private final SeatReservationService seatReservationService;
   private final WaitlistMapper waitlistMapper;
+  private final MembershipProperties membershipProperties;
+  private final WaitlistPositionIndex waitlistPositionIndex;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Transactional
   public WaitlistResponse addToWaitlist(@Valid WaitlistRequest request) {
@@ -48,8 +58,14 @@ public class WaitlistService {
 
     validateWaitlistEligibility(member, scheduledClass);
 
+    Long scheduledClassId = scheduledClass.getId();
+    scheduledClassRepository.incrementWaitlistSequence(scheduledClassId);
     Waitlist waitlist = new Waitlist(member, scheduledClass);
+    waitlist.setQueueSequence(scheduledClassRepository.findWaitlistSequence(scheduledClassId));
     Waitlist saved = waitlistRepository.save(waitlist);
+    scheduledClassRepository.adjustWaitlistCount(scheduledClassId, 1);
+    eventPublisher.publishEvent(WaitlistChangedEvent.joined(scheduledClassId, scheduledClass.getStartTime(),
+        saved.getQueueSequence()));
 
     return waitlistMapper.toResponse(saved);
   }
@@ -73,14 +89,13 @@ public class WaitlistService {
           "Member is already enrolled in this class. Cannot join waitlist.");
     }
 
-    if (waitlistRepository.existsByMemberIdAndScheduledClassIdAndStatus(
-        member.getId(), scheduledClass.getId(), WaitlistStatus.WAITING)) {
+    if (waitlistRepository.existsByMemberIdAndScheduledClassIdAndStatusIn(
+        member.getId(), scheduledClass.getId(), List.of(WaitlistStatus.WAITING, WaitlistStatus.OFFERED))) {
       throw new IllegalStateException(
           "Member is already on the waitlist for this class.");
     }
 
-    Long currentEnrollments = bookingRepository.countEnrolledByScheduledClassId(
-        scheduledClass.getId());
+    Integer currentEnrollments = scheduledClass.getEnrolledCount();
     Integer roomCapacity = scheduledClass.getRoom().getCapacity();
 
     if (currentEnrollments < roomCapacity) {
@@ -103,6 +118,9 @@ public class WaitlistService {
 
     waitlist.setStatus(WaitlistStatus.REMOVED);
     Waitlist updated = waitlistRepository.save(waitlist);
+    Long scheduledClassId = waitlist.getScheduledClass().getId();
+    scheduledClassRepository.adjustWaitlistCount(scheduledClassId, -1);
+    publishLeft(scheduledClassId, List.of(waitlist));
 
     return waitlistMapper.toResponse(updated);
   }
@@ -118,19 +136,45 @@ public class WaitlistService {
           "Waitlist entry is not active. Status: " + waitlist.getStatus());
     }
 
-    Long position = waitlistRepository.getPositionInWaitlist(
-        waitlist.getScheduledClass().getId(),
-        waitlist.getJoinedAt(),
-        waitlist.getId());
+    return toPositionResponse(waitlist);
+  }
 
-    Long totalWaiting = waitlistRepository.countActiveWaitlistByScheduledClassId(
-        waitlist.getScheduledClass().getId());
+  /**
+   * Positions of all of a member's WAITING entries, from one query plus
+   * in-memory lookups.
+   */
+  @Transactional(readOnly = true)
+  public List<WaitlistPositionResponse> getMemberWaitlistPositions(Long memberId) {
+    if (!memberRepository.existsById(memberId)) {
+      throw new IllegalArgumentException("Member not found with id: " + memberId);
+    }
+
+    return waitlistRepository.findByMemberIdAndStatus(memberId, WaitlistStatus.WAITING).stream()
+        .map(this::toPositionResponse)
+        .toList();
+  }
+
+  private WaitlistPositionResponse toPositionResponse(Waitlist waitlist) {
+    Long scheduledClassId = waitlist.getScheduledClass().getId();
+    long position;
+    long totalWaiting;
+    if (waitlist.getQueueSequence() != null) {
+      WaitlistPositionIndex.Position indexed =
+          waitlistPositionIndex.positionOf(scheduledClassId, waitlist.getQueueSequence());
+      position = indexed.position();
+      totalWaiting = indexed.totalWaiting();
+    } else {
+      // Entry from before queue sequences, not yet numbered by the migration.
+      position = waitlistRepository.getPositionInWaitlist(
+          scheduledClassId, waitlist.getJoinedAt(), waitlist.getId()) + 1;
+      totalWaiting = waitlistRepository.countActiveWaitlistByScheduledClassId(scheduledClassId);
+    }
 
     return new WaitlistPositionResponse(
-        waitlistId,
+        waitlist.getId(),
         waitlist.getMember().getId(),
-        waitlist.getScheduledClass().getId(),
-        position + 1,
+        scheduledClassId,
+        position,
         totalWaiting);
   }
 
@@ -153,22 +197,30 @@ public class WaitlistService {
             "Member not found with id: " + memberId));
 
     List<Waitlist> waitlists = waitlistRepository
-        .findByMemberIdAndStatus(memberId, WaitlistStatus.WAITING);
+        .findByMemberIdAndStatusIn(memberId, List.of(WaitlistStatus.WAITING, WaitlistStatus.OFFERED));
 
     return waitlistMapper.toResponseList(waitlists);
   }
 
+  /**
+   * Expires the WAITING entries of a class that has started, in one update.
+   * Does nothing if the class has been moved to a later start time. The
+   * class row is locked first so no entry can join between reading the
+   * sequences that leave the queue and expiring them.
+   */
   @Transactional
-  public int expireWaitlistEntries() {
-    List<Waitlist> expiredEntries = waitlistRepository
-        .findExpiredWaitlistEntries(LocalDateTime.now());
-
-    for (Waitlist waitlist : expiredEntries) {
-      waitlist.setStatus(WaitlistStatus.EXPIRED);
+  public int expireStartedClass(Long scheduledClassId, LocalDateTime now) {
+    scheduledClassRepository.lockAllByIdIn(List.of(scheduledClassId));
+    List<Long> sequences = waitlistRepository.findWaitingSequences(scheduledClassId);
+    int expired = waitlistRepository.expireWaitingOfStartedClass(scheduledClassId, now,
+        WaitlistStatus.EXPIRED);
+    if (expired > 0) {
+      scheduledClassRepository.adjustWaitlistCount(scheduledClassId, -expired);
+      if (!sequences.isEmpty()) {
+        eventPublisher.publishEvent(WaitlistChangedEvent.left(scheduledClassId, sequences));
+      }
     }
-
-    waitlistRepository.saveAll(expiredEntries);
-    return expiredEntries.size();
+    return expired;
   }
 
   @Transactional(readOnly = true)
@@ -176,37 +228,152 @@ public class WaitlistService {
     return waitlistRepository.countActiveWaitlistByScheduledClassId(scheduledClassId);
   }
 
+  /**
+   * Offers every free seat of a class to its waitlist, in queue order. Each
+   * round locks the next entries with SKIP LOCKED, holds their seats in one
+   * conditional update and marks them OFFERED with one more, so concurrent
+   * promoters on several nodes never claim the same entry or overfill the
+   * room. A held seat stays taken until the member accepts or declines, or
+   * the hold runs out and the seat is offered to the next entry. Entries
+   * whose member is already enrolled are expired and their seats offered to
+   * the next round. Returns the number of offers made.
+   */
   @Transactional
-  public Optional<Booking> promoteFromWaitlist(Long scheduledClassId) {
-    Optional<Waitlist> firstInQueue = waitlistRepository
-        .findFirstInWaitlist(scheduledClassId);
+  public int offerFreeSeats(Long scheduledClassId) {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime startTime = scheduledClassRepository.findStartTime(scheduledClassId).orElse(null);
+    if (startTime == null || !startTime.isAfter(now)) {
+      return 0;
+    }
+    LocalDateTime holdEnd = now.plusMinutes(membershipProperties.getWaitlistOfferHoldMinutes());
+    LocalDateTime expiresAt = holdEnd.isBefore(startTime) ? holdEnd : startTime;
+
+    int offered = 0;
+    for (int round = 0; round < MAX_PROMOTION_ROUNDS; round++) {
+      int freeSeats = scheduledClassRepository.findFreeSeats(scheduledClassId).orElse(0);
+      if (freeSeats <= 0) {
+        break;
+      }
+
+      List<Waitlist> claimed = waitlistRepository.lockNextWaiting(scheduledClassId, PageRequest.of(0, freeSeats));
+      if (claimed.isEmpty()) {
+        break;
+      }
+
+      Set<Long> alreadyEnrolled = new HashSet<>(bookingRepository.findEnrolledMemberIds(scheduledClassId,
+          claimed.stream().map(w -> w.getMember().getId()).toList()));
+      List<Long> offerable = new ArrayList<>();
+      List<Long> stale = new ArrayList<>();
+      for (Waitlist waitlist : claimed) {
+        if (alreadyEnrolled.contains(waitlist.getMember().getId())) {
+          stale.add(waitlist.getId());
+        } else {
+          offerable.add(waitlist.getId());
+        }
+      }
+
+      if (!offerable.isEmpty()) {
+        // Loses only to a direct booking that took a seat since freeSeats was
+        // read; the next round re-reads the free seats.
+        if (!seatReservationService.tryReserveSeats(scheduledClassId, offerable.size())) {
+          continue;
+        }
+        waitlistRepository.offerWaiting(offerable, WaitlistStatus.OFFERED, now, expiresAt);
+        eventPublisher.publishEvent(new WaitlistOfferedEvent(scheduledClassId, offerable, expiresAt));
+        offered += offerable.size();
+      }
+      if (!stale.isEmpty()) {
+        waitlistRepository.updateWaitingStatus(stale, WaitlistStatus.EXPIRED, null);
+      }
+      scheduledClassRepository.adjustWaitlistCount(scheduledClassId, -claimed.size());
+      publishLeft(scheduledClassId, claimed);
+    }
+    return offered;
+  }
 
-    if (firstInQueue.isEmpty()) {
-      return Optional.empty();
+  /**
+   * Turns an open offer into a booking on the seat it holds.
+   */
+  @Transactional
+  public WaitlistResponse acceptOffer(Long waitlistId) {
+    Waitlist waitlist = findOffer(waitlistId);
+    if (bookingRepository.existsByMemberIdAndScheduledClassIdAndStatus(
+        waitlist.getMember().getId(), waitlist.getScheduledClass().getId(), BookingStatus.ENROLLED)) {
+      throw new IllegalStateException(
+          "Member is already enrolled in this class. Decline the offer to release the seat.");
     }
 
-    Waitlist waitlist = firstInQueue.get();
+    if (waitlistRepository.closeOpenOffer(waitlistId, WaitlistStatus.PROMOTED, LocalDateTime.now()) == 0) {
+      throw new IllegalStateException("The offer for waitlist entry " + waitlistId + " has expired.");
+    }
+    bookingRepository.insertFromWaitlist(List.of(waitlistId), BookingStatus.ENROLLED);
 
-    try {
-      Booking booking = new Booking(
-          waitlist.getMember(),
-          waitlist.getScheduledClass(),
-          BookingStatus.ENROLLED);
+    return answeredResponse(waitlist, WaitlistStatus.PROMOTED);
+  }
 
-      Booking savedBooking = bookingRepository.save(booking);
+  /**
+   * Gives up an offered seat, which is offered to the next entry right away.
+   */
+  @Transactional
+  public WaitlistResponse declineOffer(Long waitlistId) {
+    Waitlist waitlist = findOffer(waitlistId);
+    if (waitlistRepository.closeOffer(waitlistId, WaitlistStatus.DECLINED) == 0) {
+      throw new IllegalStateException("The offer for waitlist entry " + waitlistId + " is no longer open.");
+    }
 
-      waitlist.setStatus(WaitlistStatus.PROMOTED);
-      waitlist.setNotifiedAt(LocalDateTime.now());
-      waitlistRepository.save(waitlist);
+    Long scheduledClassId = waitlist.getScheduledClass().getId();
+    seatReservationService.releaseSeats(scheduledClassId, 1);
+    offerFreeSeats(scheduledClassId);
 
-      return Optional.of(savedBooking);
+    return answeredResponse(waitlist, WaitlistStatus.DECLINED);
+  }
+
+  /**
+   * Expires the given offers whose hold has run out, in one update, and
+   * passes their seats on to the next entries of the class. Offers accepted
+   * or declined in the meantime are left alone.
+   */
+  @Transactional
+  public int expireOffers(Long scheduledClassId, List<Long> waitlistIds, LocalDateTime now) {
+    int expired = waitlistRepository.expireOffers(waitlistIds, now, WaitlistStatus.EXPIRED);
+    if (expired > 0) {
+      seatReservationService.releaseSeats(scheduledClassId, expired);
+      offerFreeSeats(scheduledClassId);
+    }
+    return expired;
+  }
+
+  /**
+   * Loads an entry for accept or decline. The answer itself is written with a
+   * conditional update, so the loaded copy is never modified and only feeds
+   * the response.
+   */
+  private Waitlist findOffer(Long waitlistId) {
+    Waitlist waitlist = waitlistRepository.findById(waitlistId)
+        .orElseThrow(() -> new IllegalArgumentException(
+            "Waitlist entry not found with id: " + waitlistId));
+
+    if (waitlist.getStatus() != WaitlistStatus.OFFERED) {
+      throw new IllegalStateException(
+          "Waitlist entry has no open offer. Current status: " + waitlist.getStatus());
+    }
+    return waitlist;
+  }
+
+  private WaitlistResponse answeredResponse(Waitlist waitlist, WaitlistStatus status) {
+    WaitlistResponse response = waitlistMapper.toResponse(waitlist);
+    response.setStatus(status);
+    response.setOfferExpiresAt(null);
+    return response;
+  }
 
-    } catch (OptimisticLockException e) {
-      return promoteFromWaitlist(scheduledClassId);
-    } catch (Exception e) {
-      waitlist.setStatus(WaitlistStatus.EXPIRED);
-      waitlistRepository.save(waitlist);
-      return promoteFromWaitlist(scheduledClassId);
+  private void publishLeft(Long scheduledClassId, List<Waitlist> entries) {
+    List<Long> sequences = entries.stream()
+        .map(Waitlist::getQueueSequence)
+        .filter(Objects::nonNull)
+        .toList();
+    if (!sequences.isEmpty()) {
+      eventPublisher.publishEvent(WaitlistChangedEvent.left(scheduledClassId, sequences));
     }
   }
 }
@@ -0,0 +1,203 @@
+package com.example.gym_management.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * One bit per quarter hour of a week, Monday 00:00 first: 96 slots a day
+ * packed into eleven longs, so intersecting two schedules or finding where
+ * a class fits costs a few word operations. Not thread-safe.
+ */
+final class WeeklySlotMask {
+
+    static final int SLOT_MINUTES = 15;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    static final int SLOTS_PER_WEEK = 7 * SLOTS_PER_DAY;
+    private static final int WORDS = (SLOTS_PER_WEEK + 63) / 64;
+
+    private final long[] words;
+
+    WeeklySlotMask() {
+        this.words = new long[WORDS];
+    }
+
+    private WeeklySlotMask(long[] words) {
+        this.words = words;
+    }
+
+    static WeeklySlotMask full() {
+        return new WeeklySlotMask().set(0, SLOTS_PER_WEEK);
+    }
+
+    /**
+     * First slot starting at or after {@code time} on {@code day}.
+     */
+    static int slotAtOrAfter(DayOfWeek day, LocalTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute() + (time.getSecond() > 0 || time.getNano() > 0 ? 1 : 0);
+        return dayStart(day) + (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    /**
+     * Last slot boundary at or before {@code time} on {@code day}.
+     */
+    static int slotAtOrBefore(DayOfWeek day, LocalTime time) {
+        return dayStart(day) + (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    static int dayStart(DayOfWeek day) {
+        return (day.getValue() - 1) * SLOTS_PER_DAY;
+    }
+
+    static int slotsFor(int minutes) {
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    /**
+     * Sets the slots {@code [from, to)}, clipped to the week.
+     */
+    WeeklySlotMask set(int from, int to) {
+        for (int slot = Math.max(from, 0); slot < Math.min(to, SLOTS_PER_WEEK); slot++) {
+            words[slot >>> 6] |= 1L << slot;
+        }
+        return this;
+    }
+
+    /**
+     * Clears the slots {@code [from, to)}, clipped to the week.
+     */
+    WeeklySlotMask clear(int from, int to) {
+        for (int slot = Math.max(from, 0); slot < Math.min(to, SLOTS_PER_WEEK); slot++) {
+            words[slot >>> 6] &= ~(1L << slot);
+        }
+        return this;
+    }
+
+    boolean get(int slot) {
+        return (words[slot >>> 6] & 1L << slot) != 0;
+    }
+
+    /**
+     * Whether every slot of {@code [from, to)} is set.
+     */
+    boolean allSet(int from, int to) {
+        for (int slot = from; slot < to; slot++) {
+            if (!get(slot)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Next set slot in {@code [from, to)}, or -1.
+     */
+    int nextSetSlot(int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        int index = from >>> 6;
+        long word = words[index] & -1L << from;
+        while (true) {
+            if (word != 0) {
+                int slot = (index << 6) + Long.numberOfTrailingZeros(word);
+                return slot < to ? slot : -1;
+            }
+            if (++index >= WORDS || index << 6 >= to) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    WeeklySlotMask copy() {
+        return new WeeklySlotMask(words.clone());
+    }
+
+    WeeklySlotMask and(WeeklySlotMask other) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= other.words[i];
+        }
+        return this;
+    }
+
+    WeeklySlotMask andNot(WeeklySlotMask other) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= ~other.words[i];
+        }
+        return this;
+    }
+
+    WeeklySlotMask or(WeeklySlotMask other) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] |= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * A new mask with the slots where a run of {@code length} set slots
+     * starts without crossing midnight. Runs are found by doubling, so this
+     * takes O(log length) passes over the words.
+     */
+    WeeklySlotMask runStarts(int length) {
+        long[] runs = words.clone();
+        int covered = 1;
+        while (covered < length) {
+            int step = Math.min(covered, length - covered);
+            long[] shifted = shiftDown(runs, step);
+            for (int i = 0; i < WORDS; i++) {
+                runs[i] &= shifted[i];
+            }
+            covered += step;
+        }
+        WeeklySlotMask starts = new WeeklySlotMask(runs);
+        for (int day = 0; day < 7; day++) {
+            int dayEnd = (day + 1) * SLOTS_PER_DAY;
+            starts.clear(dayEnd - length + 1, dayEnd);
+        }
+        return starts;
+    }
+
+    /**
+     * Bit {@code i} of the result is bit {@code i + distance} of the input.
+     */
+    private static long[] shiftDown(long[] source, int distance) {
+        long[] shifted = new long[WORDS];
+        int wordShift = distance >>> 6;
+        int bitShift = distance & 63;
+        for (int i = 0; i + wordShift < WORDS; i++) {
+            long low = source[i + wordShift] >>> bitShift;
+            long high = bitShift == 0 || i + wordShift + 1 >= WORDS ? 0 : source[i + wordShift + 1] << (64 - bitShift);
+            shifted[i] = low | high;
+        }
+        return shifted;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WeeklySlotMask other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
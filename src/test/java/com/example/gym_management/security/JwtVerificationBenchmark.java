@@ -0,0 +1,101 @@
+package com.example.gym_management.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling cost of one authenticated request in JwtAuthenticationFilter.
+ * {@code perCallParsers} replays the former filter path (validateToken,
+ * isRefreshToken and getUsernameFromToken, each building its own key and
+ * parser); {@code verifyAndExtract} is the current single-parse path.
+ *
+ * <p>Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.gym_management.security.JwtVerificationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "defaultSecretKeyThatShouldBeAtLeast256BitsLongForHS256Algorithm";
+
+    private JwtUtils jwtUtils;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(SECRET, 86_400_000L, 604_800_000L);
+        Date now = new Date();
+        accessToken = Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject("benchmark-user")
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + 86_400_000L))
+                .claim("type", JwtClaims.ACCESS)
+                .signWith(legacyKey())
+                .compact();
+    }
+
+    @Benchmark
+    public String perCallParsers() {
+        if (legacyValidate(accessToken) && !legacyIsRefresh(accessToken)) {
+            return legacyUsername(accessToken);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String verifyAndExtract() {
+        return jwtUtils.verifyAndExtract(accessToken)
+                .filter(claims -> !claims.isRefreshToken())
+                .map(JwtClaims::username)
+                .orElse(null);
+    }
+
+    private static SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean legacyValidate(String token) {
+        try {
+            Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean legacyIsRefresh(String token) {
+        try {
+            Claims claims = Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token).getPayload();
+            return JwtClaims.REFRESH.equals(claims.get("type"));
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String legacyUsername(String token) {
+        return Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
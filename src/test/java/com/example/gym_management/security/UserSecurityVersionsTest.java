@@ -0,0 +1,78 @@
+package com.example.gym_management.security;
+
+import com.example.gym_management.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSecurityVersionsTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSecurityVersions userSecurityVersions;
+
+    @BeforeEach
+    void setUp() {
+        userSecurityVersions = new UserSecurityVersions(userRepository);
+        when(userRepository.findAllSecurityStamps()).thenReturn(List.of(new UserSecurityStamp(1L, 0, true)));
+        userSecurityVersions.load();
+    }
+
+    @Test
+    void isCurrent_UnknownUser_LooksUpOnceAndCaches() {
+        when(userRepository.findSecurityStampById(2L)).thenReturn(Optional.of(new UserSecurityStamp(2L, 0, true)));
+
+        assertThat(userSecurityVersions.isCurrent(2L, 0)).isTrue();
+        assertThat(userSecurityVersions.isCurrent(2L, 0)).isTrue();
+        verify(userRepository, times(1)).findSecurityStampById(2L);
+    }
+
+    @Test
+    void isCurrent_UserMissingFromDatabase_IsRejectedWithoutRepeatedLookups() {
+        when(userRepository.findSecurityStampById(3L)).thenReturn(Optional.empty());
+
+        assertThat(userSecurityVersions.isCurrent(3L, 0)).isFalse();
+        assertThat(userSecurityVersions.isCurrent(3L, 0)).isFalse();
+        verify(userRepository, times(1)).findSecurityStampById(3L);
+    }
+
+    @Test
+    void refresh_PicksUpChangesMadeOnOtherInstances() {
+        when(userRepository.findAllSecurityStamps()).thenReturn(List.of(new UserSecurityStamp(1L, 1, true)));
+
+        userSecurityVersions.refresh();
+
+        assertThat(userSecurityVersions.isCurrent(1L, 0)).isFalse();
+        assertThat(userSecurityVersions.isCurrent(1L, 1)).isTrue();
+    }
+
+    @Test
+    void refresh_UserDeletedElsewhere_IsRejected() {
+        when(userRepository.findAllSecurityStamps()).thenReturn(List.of());
+        when(userRepository.findSecurityStampById(1L)).thenReturn(Optional.empty());
+
+        userSecurityVersions.refresh();
+
+        assertThat(userSecurityVersions.isCurrent(1L, 0)).isFalse();
+    }
+
+    @Test
+    void refresh_StaleSnapshot_DoesNotUndoLocalChanges() {
+        userSecurityVersions.onUserSecurityChanged(new UserSecurityChangedEvent(1L, null));
+
+        userSecurityVersions.refresh();
+
+        assertThat(userSecurityVersions.isCurrent(1L, 0)).isFalse();
+        verify(userRepository, never()).findSecurityStampById(1L);
+    }
+}
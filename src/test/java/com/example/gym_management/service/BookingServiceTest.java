@@ -2,10 +2,14 @@ package com.example.gym_management.service;
 
 import com.example.gym_management.config.MembershipProperties;
 import com.example.gym_management.dto.BookingDTOs.BookingEligibility;
+import com.example.gym_management.dto.BookingDTOs.BookingView;
 import com.example.gym_management.dto.BookingDTOs.ClassAvailability;
 import com.example.gym_management.dto.BookingRequest;
 import com.example.gym_management.dto.BookingResponse;
+import com.example.gym_management.dto.BookingSummary;
+import com.example.gym_management.dto.CursorPage;
 import com.example.gym_management.dto.MemberDTO;
+import com.example.gym_management.dto.PageCursor;
 import com.example.gym_management.entity.*;
 import com.example.gym_management.entity.Booking.BookingStatus;
 import com.example.gym_management.mapper.BookingMapper;
@@ -18,11 +22,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,6 +58,9 @@ class BookingServiceTest {
     @Mock
     private WaitlistService waitlistService;
 
+    @Mock
+    private SeatReservationService seatReservationService;
+
     @Mock
     private MembershipProperties membershipProperties;
 
@@ -62,6 +72,7 @@ class BookingServiceTest {
     private ScheduledClass scheduledClass;
     private Room room;
     private Booking booking;
+    private BookingSummary bookingSummary;
     private BookingRequest bookingRequest;
     private BookingResponse bookingResponse;
     private LocalDateTime futureTime;
@@ -93,12 +104,14 @@ class BookingServiceTest {
 
         booking = new Booking(member, scheduledClass, BookingStatus.ENROLLED);
         booking.setId(1L);
+        bookingSummary = new BookingSummary(1L, BookingStatus.ENROLLED, 1L, "John", "Doe", "john@example.com",
+                1L, futureTime, "Yoga", "Jane", "Smith", "Studio A", 1, 20);
 
         bookingRequest = new BookingRequest(1L, 1L);
 
         MemberDTO memberDTO = new MemberDTO(1L, "John", "Doe", "john@example.com");
         bookingResponse = new BookingResponse(1L, memberDTO, null, BookingStatus.ENROLLED, futureTime, "Yoga",
-                "Jane Smith", "Studio A");
+                "Jane Smith", "Studio A", 1, 20);
 
         // Mock membership properties (lenient since not all tests use it)
         lenient().when(membershipProperties.getCancellationDeadlineHours()).thenReturn(1);
@@ -110,7 +123,6 @@ class BookingServiceTest {
         when(scheduledClassRepository.findById(1L)).thenReturn(Optional.of(scheduledClass));
         when(bookingRepository.existsByMemberIdAndScheduledClassIdAndStatus(1L, 1L, BookingStatus.ENROLLED))
                 .thenReturn(false);
-        when(bookingRepository.countEnrolledByScheduledClassId(1L)).thenReturn(5L);
         when(bookingMapper.toEntity(member, scheduledClass)).thenReturn(booking);
         when(bookingRepository.save(booking)).thenReturn(booking);
         when(bookingMapper.toResponse(booking)).thenReturn(bookingResponse);
@@ -119,6 +131,7 @@ class BookingServiceTest {
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
+        verify(seatReservationService).reserveSeat(scheduledClass);
         verify(bookingRepository).save(booking);
     }
 
@@ -137,11 +150,14 @@ class BookingServiceTest {
         when(scheduledClassRepository.findById(1L)).thenReturn(Optional.of(scheduledClass));
         when(bookingRepository.existsByMemberIdAndScheduledClassIdAndStatus(1L, 1L, BookingStatus.ENROLLED))
                 .thenReturn(false);
-        when(bookingRepository.countEnrolledByScheduledClassId(1L)).thenReturn(20L);
+        doThrow(new IllegalStateException("Class is fully booked. Room capacity: 20"))
+                .when(seatReservationService).reserveSeat(scheduledClass);
 
         assertThatThrownBy(() -> bookingService.createBooking(bookingRequest))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("fully booked");
+
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
@@ -178,22 +194,54 @@ class BookingServiceTest {
 
     @Test
     void getAllBookings_Success() {
-        List<Booking> bookings = List.of(booking);
-        List<BookingResponse> responses = List.of(bookingResponse);
+        Slice<Booking> slice = new SliceImpl<>(List.of(booking), PageRequest.of(0, 50), false);
 
-        when(bookingRepository.findAll()).thenReturn(bookings);
-        when(bookingMapper.toResponseList(bookings)).thenReturn(responses);
+        when(bookingRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(slice);
+        when(bookingMapper.toResponse(booking)).thenReturn(bookingResponse);
 
-        List<BookingResponse> result = bookingService.getAllBookings();
+        CursorPage<BookingResponse> result = bookingService.getAllBookings(BookingView.FULL, null, null);
 
-        assertThat(result).hasSize(1);
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.isHasMore()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getAllBookings_MoreRows_ReturnsCursorForNextPage() {
+        Slice<Booking> firstPage = new SliceImpl<>(List.of(booking), PageRequest.of(0, 1), true);
+        Slice<Booking> lastPage = new SliceImpl<>(List.of(), PageRequest.of(0, 1), false);
+
+        when(bookingRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(firstPage);
+        when(bookingRepository.findPageAfter(eq(1L), any(Pageable.class))).thenReturn(lastPage);
+        when(bookingMapper.toResponse(booking)).thenReturn(bookingResponse);
+
+        CursorPage<BookingResponse> first = bookingService.getAllBookings(BookingView.FULL, null, 1);
+        CursorPage<BookingResponse> second = bookingService.getAllBookings(BookingView.FULL, first.getNextCursor(), 1);
+
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.getItems()).isEmpty();
+        assertThat(second.isHasMore()).isFalse();
+    }
+
+    @Test
+    void getAllBookings_PageSizeAboveMaximum_ThrowsException() {
+        assertThatThrownBy(() -> bookingService.getAllBookings(BookingView.FULL, null, PageCursor.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Page size must be between 1 and");
+    }
+
+    @Test
+    void getAllBookings_MalformedCursor_ThrowsException() {
+        assertThatThrownBy(() -> bookingService.getAllBookings(BookingView.FULL, "not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid page cursor");
     }
 
     @Test
     void cancelBooking_Success() {
         scheduledClass.setStartTime(LocalDateTime.now().plusHours(3));
         BookingResponse cancelledResponse = new BookingResponse(1L, null, null, BookingStatus.CANCELLED, null, null,
-                null, null);
+                null, null, null, null);
 
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
         when(bookingRepository.save(booking)).thenReturn(booking);
@@ -203,6 +251,7 @@ class BookingServiceTest {
 
         assertThat(result.getStatus()).isEqualTo(BookingStatus.CANCELLED);
         verify(bookingRepository).save(booking);
+        verify(seatReservationService).releaseSeats(1L, 1);
     }
 
     @Test
@@ -234,13 +283,13 @@ class BookingServiceTest {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
         when(bookingRepository.existsByMemberIdAndScheduledClassIdAndStatus(1L, 1L, BookingStatus.ENROLLED))
                 .thenReturn(false);
-        when(bookingRepository.countEnrolledByScheduledClassId(1L)).thenReturn(5L);
         when(bookingRepository.save(booking)).thenReturn(booking);
         when(bookingMapper.toResponse(booking)).thenReturn(bookingResponse);
 
         BookingResponse result = bookingService.reEnrollBooking(1L);
 
         assertThat(result).isNotNull();
+        verify(seatReservationService).reserveSeat(scheduledClass);
         verify(bookingRepository).save(booking);
     }
 
@@ -269,12 +318,40 @@ class BookingServiceTest {
     @Test
     void getBookingsByMember_Success() {
         List<Booking> bookings = List.of(booking);
+        List<BookingResponse> responses = List.of(bookingResponse);
+
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(bookingRepository.findByMemberIdWithDetails(1L)).thenReturn(bookings);
+        when(bookingMapper.toResponseList(bookings)).thenReturn(responses);
+
+        List<BookingResponse> result = bookingService.getBookingsByMember(1L, BookingView.FULL);
+
+        assertThat(result).hasSize(1);
+        verify(bookingRepository, never()).findSummariesByMemberId(any());
+    }
+
+    @Test
+    void getBookingsByMember_CompactView_UsesProjection() {
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(bookingRepository.findSummariesByMemberId(1L)).thenReturn(List.of(bookingSummary));
+        when(bookingMapper.toSummaryResponse(bookingSummary)).thenReturn(bookingResponse);
+
+        List<BookingResponse> result = bookingService.getBookingsByMember(1L, BookingView.COMPACT);
+
+        assertThat(result).hasSize(1);
+        verify(bookingRepository, never()).findByMemberIdWithDetails(any());
+    }
+
+    @Test
+    void getActiveBookingsByMember_Success() {
+        List<Booking> bookings = List.of(booking);
+        List<BookingResponse> responses = List.of(bookingResponse);
 
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(bookingRepository.findByMemberId(1L)).thenReturn(bookings);
-        when(bookingMapper.toCompactResponse(booking)).thenReturn(bookingResponse);
+        when(bookingRepository.findByMemberIdAndStatusWithDetails(1L, BookingStatus.ENROLLED)).thenReturn(bookings);
+        when(bookingMapper.toResponseList(bookings)).thenReturn(responses);
 
-        List<BookingResponse> result = bookingService.getBookingsByMember(1L);
+        List<BookingResponse> result = bookingService.getActiveBookingsByMember(1L, BookingView.FULL);
 
         assertThat(result).hasSize(1);
     }
@@ -282,12 +359,40 @@ class BookingServiceTest {
     @Test
     void getUpcomingBookingsByMember_Success() {
         List<Booking> bookings = List.of(booking);
+        List<BookingResponse> responses = List.of(bookingResponse);
 
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
         when(bookingRepository.findUpcomingBookingsByMemberId(eq(1L), any(LocalDateTime.class))).thenReturn(bookings);
-        when(bookingMapper.toCompactResponse(booking)).thenReturn(bookingResponse);
+        when(bookingMapper.toResponseList(bookings)).thenReturn(responses);
 
-        List<BookingResponse> result = bookingService.getUpcomingBookingsByMember(1L);
+        List<BookingResponse> result = bookingService.getUpcomingBookingsByMember(1L, BookingView.FULL);
+
+        assertThat(result).hasSize(1);
+    }
+
+    @Test
+    void getUpcomingBookingsByMember_CompactView_UsesProjection() {
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(bookingRepository.findUpcomingSummariesByMemberId(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingSummary));
+        when(bookingMapper.toSummaryResponse(bookingSummary)).thenReturn(bookingResponse);
+
+        List<BookingResponse> result = bookingService.getUpcomingBookingsByMember(1L, BookingView.COMPACT);
+
+        assertThat(result).hasSize(1);
+        verify(bookingRepository, never()).findUpcomingBookingsByMemberId(any(), any());
+    }
+
+    @Test
+    void getPastBookingsByMember_Success() {
+        List<Booking> bookings = List.of(booking);
+        List<BookingResponse> responses = List.of(bookingResponse);
+
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(bookingRepository.findPastBookingsByMemberId(eq(1L), any(LocalDateTime.class))).thenReturn(bookings);
+        when(bookingMapper.toResponseList(bookings)).thenReturn(responses);
+
+        List<BookingResponse> result = bookingService.getPastBookingsByMember(1L, BookingView.FULL);
 
         assertThat(result).hasSize(1);
     }
@@ -297,19 +402,31 @@ class BookingServiceTest {
         List<Booking> bookings = List.of(booking);
         List<BookingResponse> responses = List.of(bookingResponse);
 
-        when(scheduledClassRepository.findById(1L)).thenReturn(Optional.of(scheduledClass));
-        when(bookingRepository.findByScheduledClassId(1L)).thenReturn(bookings);
+        when(scheduledClassRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findByScheduledClassIdWithDetails(1L)).thenReturn(bookings);
         when(bookingMapper.toResponseList(bookings)).thenReturn(responses);
 
-        List<BookingResponse> result = bookingService.getBookingsByScheduledClass(1L);
+        List<BookingResponse> result = bookingService.getBookingsByScheduledClass(1L, BookingView.FULL);
+
+        assertThat(result).hasSize(1);
+    }
+
+    @Test
+    void getBookingsByScheduledClass_CompactView_UsesProjection() {
+        when(scheduledClassRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findSummariesByScheduledClassId(1L)).thenReturn(List.of(bookingSummary));
+        when(bookingMapper.toSummaryResponse(bookingSummary)).thenReturn(bookingResponse);
+
+        List<BookingResponse> result = bookingService.getBookingsByScheduledClass(1L, BookingView.COMPACT);
 
         assertThat(result).hasSize(1);
+        verify(bookingRepository, never()).findByScheduledClassIdWithDetails(any());
     }
 
     @Test
     void getClassAvailability_Success() {
+        scheduledClass.setEnrolledCount(5);
         when(scheduledClassRepository.findById(1L)).thenReturn(Optional.of(scheduledClass));
-        when(bookingRepository.countEnrolledByScheduledClassId(1L)).thenReturn(5L);
 
         ClassAvailability result = bookingService.getClassAvailability(1L);
 
@@ -326,7 +443,6 @@ class BookingServiceTest {
         when(scheduledClassRepository.findById(1L)).thenReturn(Optional.of(scheduledClass));
         when(bookingRepository.existsByMemberIdAndScheduledClassIdAndStatus(1L, 1L, BookingStatus.ENROLLED))
                 .thenReturn(false);
-        when(bookingRepository.countEnrolledByScheduledClassId(1L)).thenReturn(5L);
 
         BookingEligibility result = bookingService.checkBookingEligibility(1L, 1L);
 
@@ -335,11 +451,11 @@ class BookingServiceTest {
 
     @Test
     void checkBookingEligibility_ClassFull_NotEligible() {
+        scheduledClass.setEnrolledCount(20);
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
         when(scheduledClassRepository.findById(1L)).thenReturn(Optional.of(scheduledClass));
         when(bookingRepository.existsByMemberIdAndScheduledClassIdAndStatus(1L, 1L, BookingStatus.ENROLLED))
                 .thenReturn(false);
-        when(bookingRepository.countEnrolledByScheduledClassId(1L)).thenReturn(20L);
 
         BookingEligibility result = bookingService.checkBookingEligibility(1L, 1L);
 
@@ -349,48 +465,60 @@ class BookingServiceTest {
 
     @Test
     void cancelAllBookingsForClass_Success() {
-        Booking booking1 = new Booking(member, scheduledClass, BookingStatus.ENROLLED);
-        booking1.setId(1L);
-        Booking booking2 = new Booking(member, scheduledClass, BookingStatus.ENROLLED);
-        booking2.setId(2L);
-
-        List<Booking> bookings = new ArrayList<>(List.of(booking1, booking2));
-
-        when(scheduledClassRepository.findById(1L)).thenReturn(Optional.of(scheduledClass));
-        when(bookingRepository.findByScheduledClassId(1L)).thenReturn(bookings);
+        when(scheduledClassRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.updateStatusByScheduledClassId(1L, BookingStatus.ENROLLED, BookingStatus.CANCELLED))
+                .thenReturn(2);
 
         int result = bookingService.cancelAllBookingsForClass(1L);
 
         assertThat(result).isEqualTo(2);
-        verify(bookingRepository).saveAll(anyList());
+        verify(seatReservationService).releaseSeats(1L, 2);
+        verify(waitlistService).offerFreeSeats(1L);
     }
 
     @Test
     void getBookingsByStatus_Success() {
-        List<Booking> bookings = List.of(booking);
-        List<BookingResponse> responses = List.of(bookingResponse);
+        Slice<Booking> slice = new SliceImpl<>(List.of(booking), PageRequest.of(0, 50), false);
 
-        when(bookingRepository.findByStatus(BookingStatus.ENROLLED)).thenReturn(bookings);
-        when(bookingMapper.toResponseList(bookings)).thenReturn(responses);
+        when(bookingRepository.findPageByStatusAfter(eq(BookingStatus.ENROLLED), eq(0L), any(Pageable.class)))
+                .thenReturn(slice);
+        when(bookingMapper.toResponse(booking)).thenReturn(bookingResponse);
 
-        List<BookingResponse> result = bookingService.getBookingsByStatus(BookingStatus.ENROLLED);
+        CursorPage<BookingResponse> result = bookingService.getBookingsByStatus(BookingStatus.ENROLLED,
+                BookingView.FULL, null, null);
 
-        assertThat(result).hasSize(1);
+        assertThat(result.getItems()).hasSize(1);
+    }
+
+    @Test
+    void getBookingsByStatus_CompactView_UsesProjection() {
+        Slice<BookingSummary> slice = new SliceImpl<>(List.of(bookingSummary), PageRequest.of(0, 50), false);
+
+        when(bookingRepository.findSummaryPageByStatusAfter(eq(BookingStatus.ENROLLED), eq(0L), any(Pageable.class)))
+                .thenReturn(slice);
+        when(bookingMapper.toSummaryResponse(bookingSummary)).thenReturn(bookingResponse);
+
+        CursorPage<BookingResponse> result = bookingService.getBookingsByStatus(BookingStatus.ENROLLED,
+                BookingView.COMPACT, null, null);
+
+        assertThat(result.getItems()).containsExactly(bookingResponse);
+        verify(bookingRepository, never()).findPageByStatusAfter(any(), any(), any());
     }
 
     @Test
     void getBookingsByDateRange_Success() {
         LocalDateTime startDate = LocalDateTime.now().minusDays(7);
         LocalDateTime endDate = LocalDateTime.now();
-        List<Booking> bookings = List.of(booking);
-        List<BookingResponse> responses = List.of(bookingResponse);
+        Slice<Booking> slice = new SliceImpl<>(List.of(booking), PageRequest.of(0, 50), false);
 
-        when(bookingRepository.findBookingsByDateRange(startDate, endDate)).thenReturn(bookings);
-        when(bookingMapper.toResponseList(bookings)).thenReturn(responses);
+        when(bookingRepository.findPageByDateRangeAfter(eq(startDate), eq(0L), eq(endDate), any(Pageable.class)))
+                .thenReturn(slice);
+        when(bookingMapper.toResponse(booking)).thenReturn(bookingResponse);
 
-        List<BookingResponse> result = bookingService.getBookingsByDateRange(startDate, endDate);
+        CursorPage<BookingResponse> result = bookingService.getBookingsByDateRange(startDate, endDate,
+                BookingView.FULL, null, null);
 
-        assertThat(result).hasSize(1);
+        assertThat(result.getItems()).hasSize(1);
     }
 
     @Test
@@ -398,7 +526,7 @@ class BookingServiceTest {
         LocalDateTime startDate = LocalDateTime.now();
         LocalDateTime endDate = LocalDateTime.now().minusDays(7);
 
-        assertThatThrownBy(() -> bookingService.getBookingsByDateRange(startDate, endDate))
+        assertThatThrownBy(() -> bookingService.getBookingsByDateRange(startDate, endDate, BookingView.FULL, null, null))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Start date must be before end date");
     }
@@ -44,9 +44,9 @@ class ClassTypeServiceTest {
         classType.setId(1L);
         classType.setScheduledClasses(new ArrayList<>());
 
-        classTypeRequest = new ClassTypeRequest("Yoga", "Relaxing yoga class");
+        classTypeRequest = new ClassTypeRequest("Yoga", "Relaxing yoga class", 60);
 
-        classTypeResponse = new ClassTypeResponse(1L, "Yoga", "Relaxing yoga class", 0);
+        classTypeResponse = new ClassTypeResponse(1L, "Yoga", "Relaxing yoga class", 60, 0);
     }
 
     @Test
@@ -122,8 +122,8 @@ class ClassTypeServiceTest {
 
     @Test
     void updateClassType_Success() {
-        ClassTypeRequest updateRequest = new ClassTypeRequest("Pilates", "Core strengthening class");
-        ClassTypeResponse updatedResponse = new ClassTypeResponse(1L, "Pilates", "Core strengthening class", null);
+        ClassTypeRequest updateRequest = new ClassTypeRequest("Pilates", "Core strengthening class", 45);
+        ClassTypeResponse updatedResponse = new ClassTypeResponse(1L, "Pilates", "Core strengthening class", 45, null);
 
         when(classTypeRepository.findById(1L)).thenReturn(Optional.of(classType));
         when(classTypeRepository.existsByName("Pilates")).thenReturn(false);
@@ -149,7 +149,7 @@ class ClassTypeServiceTest {
 
     @Test
     void updateClassType_DuplicateName_ThrowsException() {
-        ClassTypeRequest updateRequest = new ClassTypeRequest("Pilates", "Core class");
+        ClassTypeRequest updateRequest = new ClassTypeRequest("Pilates", "Core class", null);
 
         when(classTypeRepository.findById(1L)).thenReturn(Optional.of(classType));
         when(classTypeRepository.existsByName("Pilates")).thenReturn(true);
@@ -0,0 +1,105 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.BatchJobRun;
+import com.example.gym_management.entity.BatchJobStep;
+import com.example.gym_management.service.BatchJobService.ChunkHandler;
+import com.example.gym_management.service.BatchJobService.ChunkResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DataMigrationRunnerTest {
+
+    @Mock
+    private BatchJobService batchJobService;
+
+    @Mock
+    private DataMigration first;
+
+    @Mock
+    private DataMigration second;
+
+    private DataMigrationRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        when(first.version()).thenReturn("2026-01-01-first");
+        when(second.version()).thenReturn("2026-02-01-second");
+        runner = new DataMigrationRunner(List.of(second, first), batchJobService);
+    }
+
+    @Test
+    void runPendingMigrations_CompletedMigration_IsSkipped() {
+        BatchJobRun completed = run(1L, "2026-01-01-first");
+        completed.setStatus(BatchJobRun.Status.COMPLETED);
+        when(batchJobService.findRun(DataMigrationRunner.JOB_NAME, "2026-01-01-first"))
+                .thenReturn(Optional.of(completed));
+        when(batchJobService.findRun(DataMigrationRunner.JOB_NAME, "2026-02-01-second"))
+                .thenReturn(Optional.empty());
+        when(batchJobService.claim(eq(DataMigrationRunner.JOB_NAME), eq("2026-02-01-second"), any(), any()))
+                .thenReturn(Optional.of(run(2L, "2026-02-01-second")));
+        when(batchJobService.findSteps(2L)).thenReturn(List.of(step(20L)));
+        when(batchJobService.runChunk(eq(20L), any())).thenAnswer(invocation -> {
+            ChunkHandler handler = invocation.getArgument(1);
+            return handler.process(0L, Long.MAX_VALUE);
+        });
+        when(second.migrateChunk(0L)).thenReturn(new ChunkResult(3, 7L, true));
+
+        runner.runPendingMigrations();
+
+        verify(first, never()).migrateChunk(anyLong());
+        verify(batchJobService).complete(2L);
+    }
+
+    @Test
+    void runPendingMigrations_MigrationRunningElsewhere_StopsBeforeLaterMigrations() {
+        when(batchJobService.findRun(DataMigrationRunner.JOB_NAME, "2026-01-01-first"))
+                .thenReturn(Optional.empty());
+        when(batchJobService.claim(eq(DataMigrationRunner.JOB_NAME), eq("2026-01-01-first"), any(), any()))
+                .thenReturn(Optional.empty());
+
+        runner.runPendingMigrations();
+
+        verify(batchJobService, never()).findRun(DataMigrationRunner.JOB_NAME, "2026-02-01-second");
+        verify(second, never()).migrateChunk(anyLong());
+    }
+
+    @Test
+    void runPendingMigrations_ChunkFails_MarksRunFailedAndStops() {
+        when(batchJobService.findRun(DataMigrationRunner.JOB_NAME, "2026-01-01-first"))
+                .thenReturn(Optional.empty());
+        when(batchJobService.claim(eq(DataMigrationRunner.JOB_NAME), eq("2026-01-01-first"), any(), any()))
+                .thenReturn(Optional.of(run(1L, "2026-01-01-first")));
+        when(batchJobService.findSteps(1L)).thenReturn(List.of(step(10L)));
+        when(batchJobService.runChunk(eq(10L), any())).thenThrow(new IllegalStateException("boom"));
+
+        runner.runPendingMigrations();
+
+        verify(batchJobService).fail(eq(1L), any(IllegalStateException.class));
+        verify(batchJobService, never()).complete(anyLong());
+        verify(second, never()).migrateChunk(anyLong());
+    }
+
+    private BatchJobRun run(Long id, String version) {
+        BatchJobRun run = new BatchJobRun(DataMigrationRunner.JOB_NAME, version, "owner");
+        run.setId(id);
+        return run;
+    }
+
+    private BatchJobStep step(Long id) {
+        BatchJobStep step = new BatchJobStep("migration", 0, 0L, Long.MAX_VALUE);
+        step.setId(id);
+        return step;
+    }
+}
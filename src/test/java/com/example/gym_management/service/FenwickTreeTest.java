@@ -0,0 +1,75 @@
+package com.example.gym_management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FenwickTreeTest {
+
+    @Test
+    void prefixSum_CountsSlotsUpToAndIncludingTheSlot() {
+        FenwickTree tree = new FenwickTree(8);
+        tree.add(2, 1);
+        tree.add(5, 1);
+        tree.add(8, 3);
+
+        assertThat(tree.prefixSum(1)).isZero();
+        assertThat(tree.prefixSum(2)).isEqualTo(1);
+        assertThat(tree.prefixSum(7)).isEqualTo(2);
+        assertThat(tree.prefixSum(8)).isEqualTo(5);
+        assertThat(tree.prefixSum(100)).isEqualTo(5);
+        assertThat(tree.total()).isEqualTo(5);
+    }
+
+    @Test
+    void add_SlotBeyondCapacity_GrowsAndKeepsExistingSums() {
+        FenwickTree tree = new FenwickTree(2);
+        tree.add(1, 1);
+        tree.add(2, 1);
+
+        tree.add(37, 1);
+
+        assertThat(tree.get(37)).isEqualTo(1);
+        assertThat(tree.prefixSum(2)).isEqualTo(2);
+        assertThat(tree.prefixSum(36)).isEqualTo(2);
+        assertThat(tree.prefixSum(37)).isEqualTo(3);
+    }
+
+    @Test
+    void add_SlotBelowOne_IsRejected() {
+        FenwickTree tree = new FenwickTree(4);
+
+        assertThatThrownBy(() -> tree.add(0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void randomUpdates_MatchPlainArray() {
+        Random random = new Random(7);
+        FenwickTree tree = new FenwickTree(1);
+        long[] expected = new long[2_049];
+
+        for (int step = 0; step < 20_000; step++) {
+            int slot = 1 + random.nextInt(step < 1_000 ? 64 : 2_048);
+            long delta = random.nextInt(2) == 0 && expected[slot] > 0 ? -1 : 1;
+            tree.add(slot, delta);
+            expected[slot] += delta;
+
+            int probe = 1 + random.nextInt(2_048);
+            long sum = 0;
+            for (int i = 1; i <= probe; i++) {
+                sum += expected[i];
+            }
+            assertThat(tree.prefixSum(probe)).as("prefix sum at step %d", step).isEqualTo(sum);
+            assertThat(tree.get(probe)).isEqualTo(expected[probe]);
+        }
+
+        long total = 0;
+        for (long value : expected) {
+            total += value;
+        }
+        assertThat(tree.total()).isEqualTo(total);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.gym_management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexedHeapTest {
+
+    @Test
+    void pollDue_ReturnsDueKeysEarliestFirstUpToMax() {
+        IndexedHeap<String> heap = new IndexedHeap<>();
+        heap.schedule("c", 30);
+        heap.schedule("a", 10);
+        heap.schedule("d", 40);
+        heap.schedule("b", 20);
+
+        assertThat(heap.pollDue(5, 10)).isEmpty();
+        assertThat(heap.pollDue(30, 2)).containsExactly("a", "b");
+        assertThat(heap.pollDue(30, 10)).containsExactly("c");
+        assertThat(heap.size()).isEqualTo(1);
+    }
+
+    @Test
+    void schedule_SameDueTime_PollsInSchedulingOrder() {
+        IndexedHeap<String> heap = new IndexedHeap<>();
+        for (String key : List.of("e", "b", "d", "a", "c")) {
+            heap.schedule(key, 10);
+        }
+
+        assertThat(heap.pollDue(10, 10)).containsExactly("e", "b", "d", "a", "c");
+    }
+
+    @Test
+    void schedule_ExistingKey_MovesItInsteadOfAddingIt() {
+        IndexedHeap<String> heap = new IndexedHeap<>();
+        heap.schedule("a", 10);
+        heap.schedule("b", 20);
+        heap.schedule("c", 30);
+
+        heap.schedule("a", 50);
+        heap.schedule("c", 5);
+
+        assertThat(heap.size()).isEqualTo(3);
+        assertThat(heap.pollDue(100, 10)).containsExactly("c", "b", "a");
+    }
+
+    @Test
+    void schedule_ExistingKeyToATiedTime_GoesBehindKeysAlreadyThere() {
+        IndexedHeap<String> heap = new IndexedHeap<>();
+        heap.schedule("a", 10);
+        heap.schedule("b", 20);
+        heap.schedule("c", 20);
+
+        heap.schedule("a", 20);
+
+        assertThat(heap.pollDue(20, 10)).containsExactly("b", "c", "a");
+    }
+
+    @Test
+    void remove_KeyFromTheMiddle_KeepsTheRestInOrder() {
+        IndexedHeap<Integer> heap = new IndexedHeap<>();
+        for (int key = 1; key <= 15; key++) {
+            heap.schedule(key, key * 10L);
+        }
+
+        assertThat(heap.remove(2)).isTrue();
+        assertThat(heap.remove(9)).isTrue();
+        assertThat(heap.remove(9)).isFalse();
+
+        assertThat(heap.size()).isEqualTo(13);
+        assertThat(heap.pollDue(Long.MAX_VALUE, 20))
+                .containsExactly(1, 3, 4, 5, 6, 7, 8, 10, 11, 12, 13, 14, 15);
+    }
+
+    @Test
+    void randomOperations_MatchSortedReference() {
+        Random random = new Random(11);
+        IndexedHeap<Integer> heap = new IndexedHeap<>();
+        Map<Integer, long[]> scheduled = new HashMap<>();
+        TreeMap<long[], Integer> order = new TreeMap<>((a, b) ->
+                a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        long sequence = 0;
+        long now = 0;
+
+        for (int step = 0; step < 20_000; step++) {
+            int key = random.nextInt(200);
+            int operation = random.nextInt(10);
+            if (operation < 6) {
+                long due = now + random.nextInt(50);
+                heap.schedule(key, due);
+                long[] previous = scheduled.remove(key);
+                if (previous != null) {
+                    order.remove(previous);
+                }
+                long[] slot = {due, ++sequence};
+                scheduled.put(key, slot);
+                order.put(slot, key);
+            } else if (operation < 8) {
+                long[] previous = scheduled.remove(key);
+                if (previous != null) {
+                    order.remove(previous);
+                }
+                assertThat(heap.remove(key)).as("remove at step %d", step).isEqualTo(previous != null);
+            } else {
+                now += random.nextInt(10);
+                int max = 1 + random.nextInt(5);
+                List<Integer> expected = new ArrayList<>();
+                while (expected.size() < max && !order.isEmpty() && order.firstKey()[0] <= now) {
+                    int polled = order.pollFirstEntry().getValue();
+                    scheduled.remove(polled);
+                    expected.add(polled);
+                }
+                assertThat(heap.pollDue(now, max)).as("poll at step %d", step).isEqualTo(expected);
+            }
+            assertThat(heap.size()).isEqualTo(scheduled.size());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.gym_management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntervalTreeTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 19, 0, 0);
+
+    @Test
+    void overlapping_IntervalsAreHalfOpen() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1, at(60), at(120));
+
+        assertThat(tree.overlapping(at(0), at(60))).isEmpty();
+        assertThat(tree.overlapping(at(120), at(180))).isEmpty();
+        assertThat(tree.overlapping(at(119), at(180))).containsExactly(1L);
+        assertThat(tree.overlapping(at(0), at(61))).containsExactly(1L);
+        assertThat(tree.overlapping(at(90), at(90))).isEmpty();
+    }
+
+    @Test
+    void put_SameId_ReplacesInterval() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1, at(0), at(60));
+        tree.put(1, at(300), at(360));
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.overlapping(at(0), at(60))).isEmpty();
+        assertThat(tree.overlapping(at(300), at(310))).containsExactly(1L);
+    }
+
+    @Test
+    void put_EmptyInterval_IsRejected() {
+        IntervalTree tree = new IntervalTree();
+
+        assertThatThrownBy(() -> tree.put(1, at(60), at(60))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void remove_UnknownId_ReturnsFalse() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1, at(0), at(60));
+
+        assertThat(tree.remove(2)).isFalse();
+        assertThat(tree.remove(1)).isTrue();
+        assertThat(tree.overlapping(at(0), at(60))).isEmpty();
+    }
+
+    @Test
+    void overlapping_SameStart_OrdersById() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(3, at(0), at(30));
+        tree.put(1, at(0), at(90));
+        tree.put(2, at(0), at(60));
+
+        assertThat(tree.overlapping(at(10), at(20))).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void randomPutsAndRemoves_MatchLinearScan() {
+        Random random = new Random(11);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, int[]> expected = new HashMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            long id = random.nextInt(400);
+            if (random.nextInt(3) == 0) {
+                assertThat(tree.remove(id)).isEqualTo(expected.remove(id) != null);
+            } else {
+                int start = random.nextInt(10_000);
+                int end = start + 1 + random.nextInt(240);
+                tree.put(id, at(start), at(end));
+                expected.put(id, new int[]{start, end});
+            }
+
+            int from = random.nextInt(10_000);
+            int to = from + random.nextInt(300);
+            assertThat(tree.overlapping(at(from), at(to)))
+                    .as("window %d-%d at step %d", from, to, step)
+                    .containsExactlyElementsOf(scan(expected, from, to));
+            assertThat(tree.size()).isEqualTo(expected.size());
+        }
+    }
+
+    private static List<Long> scan(Map<Long, int[]> intervals, int from, int to) {
+        List<Map.Entry<Long, int[]>> hits = new ArrayList<>();
+        if (from < to) {
+            for (Map.Entry<Long, int[]> interval : intervals.entrySet()) {
+                if (interval.getValue()[0] < to && interval.getValue()[1] > from) {
+                    hits.add(interval);
+                }
+            }
+        }
+        hits.sort(Comparator.<Map.Entry<Long, int[]>>comparingInt(entry -> entry.getValue()[0])
+                .thenComparing(Map.Entry::getKey));
+        return hits.stream().map(Map.Entry::getKey).toList();
+    }
+
+    private static LocalDateTime at(int minutes) {
+        return BASE.plusMinutes(minutes);
+    }
+}
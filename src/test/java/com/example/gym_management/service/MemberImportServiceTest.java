@@ -0,0 +1,193 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.config.MembershipProperties;
+import com.example.gym_management.dto.MemberImportResponse;
+import com.example.gym_management.dto.MemberImportResponse.RowError;
+import com.example.gym_management.dto.SearchEntry;
+import com.example.gym_management.entity.BatchJobRun;
+import com.example.gym_management.entity.BatchJobStep;
+import com.example.gym_management.repository.MemberBatchRepository;
+import com.example.gym_management.repository.MemberBatchRepository.NewMember;
+import com.example.gym_management.repository.MemberRepository;
+import com.example.gym_management.repository.MembershipPlanRepository;
+import com.example.gym_management.service.BatchJobService.ChunkHandler;
+import com.example.gym_management.service.BatchJobService.ChunkResult;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberImportServiceTest {
+
+    private static final String CSV = """
+            email,firstName,lastName,membershipPlanId
+            ann@example.com,Ann,Adams,1
+            taken@example.com,Tom,Taken,
+            bob@example.com,Bob,Brown,
+            not-an-email,Cat,Clark,
+            ann@example.com,Ann,Again,
+            dan@example.com,Dan,Davis,9
+            eve@example.com,Eve,Evans,1
+            """;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private MembershipPlanRepository membershipPlanRepository;
+
+    @Mock
+    private MemberBatchRepository memberBatchRepository;
+
+    @Mock
+    private BatchJobService batchJobService;
+
+    @Mock
+    private AuditorAware<String> auditorAware;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MemberImportService memberImportService;
+
+    private BatchJobRun run;
+    private long checkpoint;
+
+    @BeforeEach
+    void setUp() {
+        MembershipProperties membershipProperties = new MembershipProperties();
+        membershipProperties.setImportBatchSize(2);
+        memberImportService = new MemberImportService(memberRepository, membershipPlanRepository,
+                memberBatchRepository, batchJobService, membershipProperties,
+                Validation.buildDefaultValidatorFactory().getValidator(), auditorAware, eventPublisher);
+
+        run = new BatchJobRun(MemberImportService.JOB_NAME, "job-1", "owner");
+        run.setId(1L);
+    }
+
+    @Test
+    void importCsv_InsertsValidRowsInBatchesAndReportsTheRest() {
+        stubUpload(0);
+        when(batchJobService.claim(eq(MemberImportService.JOB_NAME), any(), any(), any()))
+                .thenReturn(Optional.of(run));
+        List<List<NewMember>> batches = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<NewMember> batch = invocation.getArgument(0);
+            return batches.add(List.copyOf(batch));
+        }).when(memberBatchRepository).insertAll(any(), eq("admin"));
+        when(memberRepository.findSearchEntriesByEmailIn(List.of("ann@example.com", "bob@example.com")))
+                .thenReturn(List.of(new SearchEntry(11L, null, "Ann", "Adams", "ann@example.com"),
+                        new SearchEntry(12L, null, "Bob", "Brown", "bob@example.com")));
+        when(memberRepository.findSearchEntriesByEmailIn(List.of("eve@example.com")))
+                .thenReturn(List.of(new SearchEntry(13L, null, "Eve", "Evans", "eve@example.com")));
+
+        MemberImportResponse response = memberImportService.importCsv(new StringReader(CSV), null);
+
+        assertThat(response.jobId()).isEqualTo("job-1");
+        assertThat(response.imported()).isEqualTo(3);
+        assertThat(response.duplicates()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(2);
+        assertThat(response.errors()).extracting(RowError::line, RowError::message).containsExactly(
+                tuple(3, "A member with this email already exists"),
+                tuple(5, "Email must be a valid email address"),
+                tuple(6, "A member with this email already exists"),
+                tuple(7, "Membership plan not found with id: 9"));
+        assertThat(batches).extracting(batch -> batch.stream().map(NewMember::email).toList()).containsExactly(
+                List.of("ann@example.com", "bob@example.com"), List.of("eve@example.com"));
+        assertThat(checkpoint).isEqualTo(7);
+        verify(eventPublisher, times(3)).publishEvent(any(SearchEntryChangedEvent.class));
+        verify(batchJobService).complete(1L);
+    }
+
+    @Test
+    void importCsv_ResumedJob_SkipsRowsUpToTheCheckpoint() {
+        stubUpload(6);
+        when(batchJobService.findRun(MemberImportService.JOB_NAME, "job-1")).thenReturn(Optional.of(run));
+        when(batchJobService.takeOver(eq(run), any())).thenReturn(Optional.of(run));
+        when(memberRepository.findSearchEntriesByEmailIn(List.of("eve@example.com"))).thenReturn(List.of());
+
+        MemberImportResponse response = memberImportService.importCsv(new StringReader(CSV), "job-1");
+
+        assertThat(response.resumedAfterRow()).isEqualTo(6);
+        assertThat(response.imported()).isEqualTo(1);
+        assertThat(response.errors()).isEmpty();
+        verify(memberBatchRepository).insertAll(
+                List.of(new NewMember("Eve", "Evans", "eve@example.com", 1L)), "admin");
+    }
+
+    @Test
+    void importCsv_FailedBatch_MarksJobFailedAndNamesIt() {
+        stubUpload(0);
+        when(batchJobService.claim(any(), any(), any(), any())).thenReturn(Optional.of(run));
+        doThrow(new IllegalStateException("connection reset")).when(memberBatchRepository).insertAll(any(), any());
+
+        assertThatThrownBy(() -> memberImportService.importCsv(new StringReader(CSV), null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Rows up to 0 were imported")
+                .hasMessageContaining("jobId job-1");
+
+        verify(batchJobService).fail(eq(1L), any(IllegalStateException.class));
+        verify(batchJobService, never()).complete(anyLong());
+    }
+
+    @Test
+    void importCsv_FailureLoadingExistingEmails_MarksJobFailed() {
+        BatchJobStep step = new BatchJobStep(MemberImportService.STEP_NAME, 0, 0, Long.MAX_VALUE);
+        step.setId(10L);
+        when(batchJobService.claim(any(), any(), any(), any())).thenReturn(Optional.of(run));
+        when(batchJobService.findSteps(1L)).thenReturn(List.of(step));
+        when(memberRepository.findAllEmails()).thenThrow(new IllegalStateException("connection reset"));
+
+        assertThatThrownBy(() -> memberImportService.importCsv(new StringReader(CSV), null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("connection reset")
+                .hasMessageContaining("jobId job-1");
+
+        verify(batchJobService).fail(eq(1L), any(IllegalStateException.class));
+        verify(batchJobService, never()).runChunk(anyLong(), any());
+        verify(batchJobService, never()).complete(anyLong());
+    }
+
+    @Test
+    void importCsv_MissingRequiredColumn_StartsNoJob() {
+        assertThatThrownBy(() -> memberImportService.importCsv(new StringReader("email,firstName\n"), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Column 'lastName' is required");
+
+        verifyNoInteractions(batchJobService, memberBatchRepository);
+    }
+
+    private void stubUpload(long lastRow) {
+        checkpoint = lastRow;
+        BatchJobStep step = new BatchJobStep(MemberImportService.STEP_NAME, 0, lastRow, Long.MAX_VALUE);
+        step.setId(10L);
+        when(batchJobService.findSteps(1L)).thenReturn(List.of(step));
+        when(memberRepository.findAllEmails()).thenReturn(List.of("taken@example.com"));
+        when(membershipPlanRepository.findAllIds()).thenReturn(List.of(1L));
+        when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+        when(batchJobService.runChunk(eq(10L), any())).thenAnswer(invocation -> {
+            ChunkHandler handler = invocation.getArgument(1);
+            ChunkResult result = handler.process(checkpoint, Long.MAX_VALUE);
+            checkpoint = result.lastId();
+            return result;
+        });
+    }
+}
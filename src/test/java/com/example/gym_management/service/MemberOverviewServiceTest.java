@@ -0,0 +1,100 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.BookingDTOs.BookingView;
+import com.example.gym_management.dto.BookingResponse;
+import com.example.gym_management.dto.MemberOverviewResponse;
+import com.example.gym_management.dto.MemberResponse;
+import com.example.gym_management.dto.WaitlistResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberOverviewServiceTest {
+
+    @Mock
+    private MemberService memberService;
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private MemberOverviewService memberOverviewService;
+
+    private MemberResponse member;
+    private BookingResponse booking;
+    private WaitlistResponse waitlist;
+
+    @BeforeEach
+    void setUp() {
+        member = new MemberResponse();
+        member.setId(1L);
+        member.setFirstName("John");
+        booking = new BookingResponse();
+        booking.setId(10L);
+        waitlist = new WaitlistResponse();
+        waitlist.setId(20L);
+    }
+
+    @Test
+    void getOverview_CombinesEverySection() {
+        when(memberService.getMemberById(1L)).thenReturn(member);
+        when(bookingService.getUpcomingBookingsByMember(1L, BookingView.COMPACT)).thenReturn(List.of(booking));
+        when(paymentService.getMemberTotalPaid(1L)).thenReturn(new BigDecimal("150.00"));
+        when(waitlistService.getMemberWaitlists(1L)).thenReturn(List.of(waitlist));
+
+        MemberOverviewResponse overview = memberOverviewService.getOverview(1L);
+
+        assertThat(overview.getMember()).isSameAs(member);
+        assertThat(overview.getUpcomingBookings()).containsExactly(booking);
+        assertThat(overview.getTotalPaid()).isEqualByComparingTo("150.00");
+        assertThat(overview.getActiveWaitlists()).containsExactly(waitlist);
+        assertThat(overview.getUnavailable()).isEmpty();
+        verify(transactionManager, times(4)).getTransaction(any());
+    }
+
+    @Test
+    void getOverview_FailedSection_IsLeftOutAndNamed() {
+        when(memberService.getMemberById(1L)).thenReturn(member);
+        when(bookingService.getUpcomingBookingsByMember(1L, BookingView.COMPACT)).thenReturn(List.of(booking));
+        when(paymentService.getMemberTotalPaid(1L)).thenThrow(new IllegalStateException("database unavailable"));
+        when(waitlistService.getMemberWaitlists(1L)).thenReturn(List.of());
+
+        MemberOverviewResponse overview = memberOverviewService.getOverview(1L);
+
+        assertThat(overview.getMember()).isSameAs(member);
+        assertThat(overview.getUpcomingBookings()).containsExactly(booking);
+        assertThat(overview.getTotalPaid()).isNull();
+        assertThat(overview.getUnavailable()).containsExactly("totalPaid");
+    }
+
+    @Test
+    void getOverview_MemberNotFound_ThrowsException() {
+        when(memberService.getMemberById(99L))
+                .thenThrow(new IllegalArgumentException("Member not found with id: 99"));
+
+        assertThatThrownBy(() -> memberOverviewService.getOverview(99L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Member not found with id: 99");
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.config.MembershipProperties;
+import com.example.gym_management.dto.MemberBookingCount;
+import com.example.gym_management.dto.MemberResponse;
+import com.example.gym_management.entity.Booking.BookingStatus;
+import com.example.gym_management.entity.Member;
+import com.example.gym_management.mapper.MemberMapper;
+import com.example.gym_management.repository.BookingRepository;
+import com.example.gym_management.repository.MemberRepository;
+import com.example.gym_management.repository.MembershipPlanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberServiceTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private MembershipPlanRepository membershipPlanRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private MemberMapper memberMapper;
+
+    @Spy
+    private MembershipProperties membershipProperties = new MembershipProperties();
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private MemberService memberService;
+
+    private Member member;
+
+    @BeforeEach
+    void setUp() {
+        member = member(1L);
+    }
+
+    @Test
+    void getMemberById_CountsEnrolledBookingsWithoutLoadingThem() {
+        MemberResponse response = new MemberResponse();
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(bookingRepository.countByMemberIdAndStatus(1L, BookingStatus.ENROLLED)).thenReturn(3L);
+        when(memberMapper.toResponse(member, 3)).thenReturn(response);
+
+        MemberResponse result = memberService.getMemberById(1L);
+
+        assertThat(result).isSameAs(response);
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void getMemberById_NotFound_ThrowsException() {
+        when(memberRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> memberService.getMemberById(9L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Member not found with id: 9");
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void deleteMember_WithActiveBookings_ThrowsException() {
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(bookingRepository.countByMemberIdAndStatus(1L, BookingStatus.ENROLLED)).thenReturn(2L);
+
+        assertThatThrownBy(() -> memberService.deleteMember(1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("2 active booking(s)");
+        verify(memberRepository, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deleteMember_NoActiveBookings_DeletesAndRemovesSearchEntry() {
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(bookingRepository.countByMemberIdAndStatus(1L, BookingStatus.ENROLLED)).thenReturn(0L);
+
+        memberService.deleteMember(1L);
+
+        verify(memberRepository).delete(member);
+        verify(eventPublisher).publishEvent(
+                SearchEntryChangedEvent.removed(SearchEntryChangedEvent.Kind.MEMBER, 1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getMembersByStatus_MoreMembersThanOneChunk_CountsEachChunkOnce() {
+        int total = MemberService.COUNT_CHUNK_SIZE + 5;
+        List<Member> members = new ArrayList<>();
+        for (long id = 1; id <= total; id++) {
+            members.add(member(id));
+        }
+        long lastId = total;
+        when(memberRepository.findByMembershipStatus(Member.MembershipStatus.ACTIVE)).thenReturn(members);
+        when(bookingRepository.countByMemberIdsAndStatus(anyCollection(), eq(BookingStatus.ENROLLED)))
+                .thenAnswer(invocation -> {
+                    Collection<Long> ids = invocation.getArgument(0);
+                    List<MemberBookingCount> counts = new ArrayList<>();
+                    if (ids.contains(1L)) {
+                        counts.add(new MemberBookingCount(1L, 2L));
+                    }
+                    if (ids.contains(lastId)) {
+                        counts.add(new MemberBookingCount(lastId, 1L));
+                    }
+                    return counts;
+                });
+        when(memberMapper.toResponseList(eq(members), any())).thenReturn(List.of());
+
+        memberService.getMembersByStatus(Member.MembershipStatus.ACTIVE);
+
+        ArgumentCaptor<Collection<Long>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(bookingRepository, times(2)).countByMemberIdsAndStatus(chunks.capture(), eq(BookingStatus.ENROLLED));
+        assertThat(chunks.getAllValues()).extracting(Collection::size)
+                .containsExactly(MemberService.COUNT_CHUNK_SIZE, 5);
+        verify(memberMapper).toResponseList(members, Map.of(1L, 2, lastId, 1));
+    }
+
+    private Member member(Long id) {
+        Member member = new Member("Ann", "Adams", "member" + id + "@example.com", null);
+        member.setId(id);
+        return member;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.DueTransition;
+import com.example.gym_management.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipTransitionSchedulerTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private MembershipTransitionService membershipTransitionService;
+
+    @InjectMocks
+    private MembershipTransitionScheduler scheduler;
+
+    @Test
+    void tick_AppliesOnlyTransitionsAlreadyDue() {
+        LocalDateTime now = LocalDateTime.now();
+        when(memberRepository.findDueTransitions(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(
+                new DueTransition(1L, now.minusMinutes(1)),
+                new DueTransition(2L, now.plusMinutes(5))));
+
+        scheduler.refill();
+        scheduler.tick();
+
+        verify(membershipTransitionService).applyDue(eq(List.of(1L)), any(LocalDateTime.class));
+        assertThat(scheduler.queued()).isEqualTo(1);
+    }
+
+    @Test
+    void onTransitionScheduled_MovedBeyondWindow_DropsMember() {
+        when(memberRepository.findDueTransitions(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(new DueTransition(1L, LocalDateTime.now().minusMinutes(1))));
+        scheduler.refill();
+
+        scheduler.onTransitionScheduled(new MembershipTransitionScheduledEvent(1L, LocalDateTime.now().plusDays(30)));
+        scheduler.tick();
+
+        assertThat(scheduler.queued()).isZero();
+        verifyNoInteractions(membershipTransitionService);
+    }
+
+    @Test
+    void onTransitionScheduled_DueWithinWindow_IsAppliedOnNextTick() {
+        when(memberRepository.findDueTransitions(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+        scheduler.refill();
+
+        scheduler.onTransitionScheduled(
+                new MembershipTransitionScheduledEvent(3L, LocalDateTime.now().minusSeconds(1)));
+        scheduler.tick();
+
+        verify(membershipTransitionService).applyDue(eq(List.of(3L)), any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.config.MembershipProperties;
+import com.example.gym_management.entity.Member;
+import com.example.gym_management.entity.Member.MembershipStatus;
+import com.example.gym_management.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipTransitionServiceTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MembershipTransitionService membershipTransitionService;
+
+    private LocalDate today;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        MembershipProperties membershipProperties = new MembershipProperties();
+        membershipProperties.setGracePeriodDays(7);
+        membershipTransitionService = new MembershipTransitionService(memberRepository, membershipProperties,
+                eventPublisher);
+        today = LocalDate.now();
+        now = today.atTime(0, 0, 2);
+    }
+
+    @Test
+    void applyDue_MovesMembersSharingATransitionWithOneUpdate() {
+        LocalDate endedYesterday = today.minusDays(1);
+        LocalDate endedLongAgo = today.minusDays(30);
+        Member first = member(1L, MembershipStatus.ACTIVE, endedYesterday);
+        Member second = member(2L, MembershipStatus.ACTIVE, endedYesterday);
+        Member lapsed = member(3L, MembershipStatus.ACTIVE, endedLongAgo);
+        when(memberRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(first, second, lapsed));
+        when(memberRepository.applyTransition(List.of(1L, 2L), MembershipStatus.ACTIVE, endedYesterday,
+                today.atStartOfDay(), MembershipStatus.GRACE_PERIOD, today.plusDays(7).atStartOfDay(), now))
+                .thenReturn(2);
+        when(memberRepository.applyTransition(List.of(3L), MembershipStatus.ACTIVE, endedLongAgo,
+                endedLongAgo.plusDays(1).atStartOfDay(), MembershipStatus.EXPIRED, null, now)).thenReturn(1);
+
+        int moved = membershipTransitionService.applyDue(List.of(1L, 2L, 3L), now);
+
+        assertThat(moved).isEqualTo(3);
+        verify(eventPublisher).publishEvent(
+                new MembershipTransitionScheduledEvent(1L, today.plusDays(7).atStartOfDay()));
+        verify(eventPublisher).publishEvent(new MembershipTransitionScheduledEvent(3L, null));
+    }
+
+    @Test
+    void applyDue_MemberRenewedSinceQueued_IsOnlyRescheduled() {
+        Member renewed = member(1L, MembershipStatus.ACTIVE, today.plusDays(30));
+        when(memberRepository.findAllById(List.of(1L))).thenReturn(List.of(renewed));
+
+        int moved = membershipTransitionService.applyDue(List.of(1L), now);
+
+        assertThat(moved).isZero();
+        verify(memberRepository, never()).applyTransition(any(), any(), any(), any(), any(), any(), any());
+        verify(eventPublisher).publishEvent(
+                new MembershipTransitionScheduledEvent(1L, today.plusDays(31).atStartOfDay()));
+    }
+
+    private Member member(Long id, MembershipStatus status, LocalDate endDate) {
+        Member member = new Member("John", "Doe", id + "@example.com", null);
+        member.setId(id);
+        member.setMembershipStatus(status);
+        member.setMembershipEndDate(endDate);
+        member.scheduleNextTransition(7);
+        return member;
+    }
+}
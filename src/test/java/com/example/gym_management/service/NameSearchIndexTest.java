@@ -0,0 +1,77 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.SearchEntry;
+import com.example.gym_management.repository.MemberRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NameSearchIndexTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @InjectMocks
+    private NameSearchIndex index;
+
+    @Test
+    void searchMembers_MatchesSubstringsPrefixesAndEmails() {
+        when(memberRepository.findSearchEntriesAfter(eq(0L), any())).thenReturn(List.of(
+                member(1L, "Johanna", "Berg", "jo.berg@example.com"),
+                member(2L, "John", "Doe", "jdoe@example.com"),
+                member(3L, "Maria", "Johnson", "maria@example.com"),
+                member(4L, "Anne", "Smith", "anne.smith@example.com")));
+
+        assertThat(index.searchMembers("john", 10)).containsExactly(2L, 3L);
+        assertThat(index.searchMembers("oh", 10)).isEmpty();
+        assertThat(index.searchMembers("jo", 10)).containsExactly(1L, 2L, 3L);
+        assertThat(index.searchMembers("ohn", 10)).containsExactly(2L, 3L);
+        assertThat(index.searchMembers("smith@exa", 10)).containsExactly(4L);
+        assertThat(index.searchMembers("JO b", 10)).containsExactly(1L);
+        assertThat(index.searchMembers("jo", 2)).containsExactly(1L, 2L);
+        verify(memberRepository, times(1)).findSearchEntriesAfter(any(), any());
+    }
+
+    @Test
+    void searchTrainers_FollowsCommittedChangesAndFiltersByGym() {
+        when(trainerRepository.findSearchEntriesAfter(eq(0L), any())).thenReturn(List.of(
+                new SearchEntry(1L, 1L, "Jane", "Smith", null),
+                new SearchEntry(2L, 2L, "Janet", "Smithers", null)));
+
+        assertThat(index.searchTrainers("smith", null, 10)).containsExactly(1L, 2L);
+        assertThat(index.searchTrainers("smith", 2L, 10)).containsExactly(2L);
+
+        index.onSearchEntryChanged(SearchEntryChangedEvent.trainer(1L, 1L, "Jane", "Doe"));
+        index.onSearchEntryChanged(SearchEntryChangedEvent.trainer(3L, 1L, "Sam", "Smith"));
+        index.onSearchEntryChanged(SearchEntryChangedEvent.removed(SearchEntryChangedEvent.Kind.TRAINER, 2L));
+
+        assertThat(index.searchTrainers("smith", null, 10)).containsExactly(3L);
+        assertThat(index.searchTrainers("doe", 1L, 10)).containsExactly(1L);
+        verifyNoInteractions(memberRepository);
+    }
+
+    @Test
+    void onSearchEntryChanged_IndexNotLoaded_IsIgnored() {
+        index.onSearchEntryChanged(SearchEntryChangedEvent.member(1L, "Jane", "Smith", "jane@example.com"));
+
+        verifyNoInteractions(memberRepository, trainerRepository);
+    }
+
+    private SearchEntry member(Long id, String firstName, String lastName, String email) {
+        return new SearchEntry(id, null, firstName, lastName, email);
+    }
+}
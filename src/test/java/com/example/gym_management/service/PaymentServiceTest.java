@@ -1,6 +1,7 @@
 package com.example.gym_management.service;
 
 import com.example.gym_management.dto.MemberDTO;
+import com.example.gym_management.dto.CursorPage;
 import com.example.gym_management.dto.PaymentRequest;
 import com.example.gym_management.dto.PaymentResponse;
 import com.example.gym_management.entity.Member;
@@ -15,6 +16,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -24,6 +29,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -100,15 +106,15 @@ class PaymentServiceTest {
 
     @Test
     void getAllPayments_Success() {
-        List<Payment> payments = List.of(payment);
-        List<PaymentResponse> responses = List.of(paymentResponse);
+        Slice<Payment> slice = new SliceImpl<>(List.of(payment), PageRequest.of(0, 50), false);
 
-        when(paymentRepository.findAll()).thenReturn(payments);
-        when(paymentMapper.toResponseList(payments)).thenReturn(responses);
+        when(paymentRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(slice);
+        when(paymentMapper.toResponse(payment)).thenReturn(paymentResponse);
 
-        List<PaymentResponse> result = paymentService.getAllPayments();
+        CursorPage<PaymentResponse> result = paymentService.getAllPayments(null, null);
 
-        assertThat(result).hasSize(1);
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
     }
 
     @Test
@@ -0,0 +1,131 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.ScheduleSlot;
+import com.example.gym_management.entity.Room;
+import com.example.gym_management.entity.Trainer;
+import com.example.gym_management.repository.RoomRepository;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleKey;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleConflictIndexTest {
+
+    @Mock
+    private ScheduledClassRepository scheduledClassRepository;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ScheduleConflictIndex scheduleConflictIndex;
+    private LocalDateTime nine;
+
+    @BeforeEach
+    void setUp() {
+        scheduleConflictIndex = new ScheduleConflictIndex(scheduledClassRepository, trainerRepository, roomRepository,
+                eventPublisher);
+        nine = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    void findConflicts_ClassStartedEarlierAndStillRunning_IsAConflict() {
+        when(scheduledClassRepository.findTrainerSlotsSince(eq(List.of(1L)), any()))
+                .thenReturn(List.of(new ScheduleSlot(10L, 1L, 7L, nine, 90)));
+        ScheduleLock lock = new ScheduleLock(Map.of(ScheduleKey.trainer(1L), 4L));
+
+        assertThat(scheduleConflictIndex.findConflicts(lock, ScheduleKey.trainer(1L),
+                nine.plusMinutes(30), nine.plusMinutes(90), null)).containsExactly(10L);
+        assertThat(scheduleConflictIndex.findConflicts(lock, ScheduleKey.trainer(1L),
+                nine.plusMinutes(90), nine.plusMinutes(150), null)).isEmpty();
+        assertThat(scheduleConflictIndex.findConflicts(lock, ScheduleKey.trainer(1L),
+                nine.plusMinutes(30), nine.plusMinutes(90), 10L)).isEmpty();
+        verify(scheduledClassRepository, times(1)).findTrainerSlotsSince(any(), any());
+    }
+
+    @Test
+    void onScheduleChanged_NextVersion_IsAppliedWithoutReload() {
+        when(scheduledClassRepository.findTrainerSlotsSince(eq(List.of(1L)), any()))
+                .thenReturn(List.of(new ScheduleSlot(10L, 1L, 7L, nine, 60)));
+        scheduleConflictIndex.findConflicts(new ScheduleLock(Map.of(ScheduleKey.trainer(1L), 4L)),
+                ScheduleKey.trainer(1L), nine, nine.plusHours(1), null);
+
+        // Class 10 moves to another trainer, class 11 is added at 11:00.
+        scheduleConflictIndex.onScheduleChanged(new ScheduleChangedEvent(Map.of(ScheduleKey.trainer(1L), 4L),
+                List.of(10L), List.of(new ScheduleSlot(10L, 2L, 7L, nine, 60),
+                        new ScheduleSlot(11L, 1L, 7L, nine.plusHours(2), 60))));
+
+        ScheduleLock next = new ScheduleLock(Map.of(ScheduleKey.trainer(1L), 5L));
+        assertThat(scheduleConflictIndex.findConflicts(next, ScheduleKey.trainer(1L),
+                nine, nine.plusHours(3), null)).containsExactly(11L);
+        verify(scheduledClassRepository, times(1)).findTrainerSlotsSince(any(), any());
+    }
+
+    @Test
+    void findConflicts_ChangedOnAnotherInstance_ReloadsUnderLock() {
+        when(scheduledClassRepository.findTrainerSlotsSince(eq(List.of(1L)), any()))
+                .thenReturn(List.of(), List.of(new ScheduleSlot(12L, 1L, 7L, nine, 60)));
+        scheduleConflictIndex.findConflicts(new ScheduleLock(Map.of(ScheduleKey.trainer(1L), 4L)),
+                ScheduleKey.trainer(1L), nine, nine.plusHours(1), null);
+
+        ScheduleLock later = new ScheduleLock(Map.of(ScheduleKey.trainer(1L), 9L));
+        assertThat(scheduleConflictIndex.findConflicts(later, ScheduleKey.trainer(1L),
+                nine, nine.plusHours(1), null)).containsExactly(12L);
+    }
+
+    @Test
+    void lock_BumpsTrainersBeforeRoomsInIdOrder() {
+        when(trainerRepository.findScheduleVersion(any())).thenReturn(Optional.of(3L));
+        when(roomRepository.findScheduleVersion(7L)).thenReturn(Optional.of(6L));
+
+        ScheduleLock lock = scheduleConflictIndex.lock(List.of(2L, 1L, 2L), List.of(7L));
+
+        var order = inOrder(trainerRepository, roomRepository);
+        order.verify(trainerRepository).incrementScheduleVersion(1L);
+        order.verify(trainerRepository).incrementScheduleVersion(2L);
+        order.verify(roomRepository).incrementScheduleVersion(7L);
+        assertThat(lock.versions()).containsEntry(ScheduleKey.room(7L), 6L).hasSize(3);
+    }
+
+    @Test
+    void findOverlapping_LoadsStaleSchedulesInOneQueryPerResource() {
+        Trainer trainer = new Trainer("Jane", "Smith");
+        trainer.setId(1L);
+        Room room = new Room("Studio A", 20, true);
+        room.setId(7L);
+        when(trainerRepository.findAllById(List.of(1L))).thenReturn(List.of(trainer));
+        when(roomRepository.findAllById(List.of(7L))).thenReturn(List.of(room));
+        when(scheduledClassRepository.findTrainerSlotsSince(eq(List.of(1L)), any()))
+                .thenReturn(List.of(new ScheduleSlot(10L, 1L, 8L, nine, 60)));
+        when(scheduledClassRepository.findRoomSlotsSince(eq(List.of(7L)), any()))
+                .thenReturn(List.of(new ScheduleSlot(20L, 3L, 7L, nine.plusMinutes(45), 60)));
+
+        Map<ScheduleKey, List<Long>> overlapping = scheduleConflictIndex.findOverlapping(
+                List.of(ScheduleKey.trainer(1L), ScheduleKey.room(7L)), nine.plusMinutes(50), nine.plusHours(2));
+
+        assertThat(overlapping).containsEntry(ScheduleKey.trainer(1L), List.of(10L))
+                .containsEntry(ScheduleKey.room(7L), List.of(20L));
+    }
+}
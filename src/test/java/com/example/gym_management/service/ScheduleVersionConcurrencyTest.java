@@ -0,0 +1,75 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.Gym;
+import com.example.gym_management.entity.Room;
+import com.example.gym_management.entity.Trainer;
+import com.example.gym_management.repository.GymRepository;
+import com.example.gym_management.repository.RoomRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ScheduleVersionConcurrencyTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GymRepository gymRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    private TransactionTemplate outer;
+    private TransactionTemplate concurrent;
+    private Gym gym;
+
+    @BeforeEach
+    void setUp() {
+        outer = new TransactionTemplate(transactionManager);
+        concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        gym = gymRepository.save(new Gym("Version Test Gym", "2 Test St", "555-0001"));
+    }
+
+    @Test
+    void trainerUpdate_InterleavedWithScheduleChange_KeepsBumpedVersion() {
+        Long trainerId = trainerRepository.save(new Trainer(gym, "Sam", "Coach")).getId();
+
+        outer.executeWithoutResult(status -> {
+            Trainer stale = trainerRepository.findById(trainerId).orElseThrow();
+            concurrent.executeWithoutResult(inner -> trainerRepository.incrementScheduleVersion(trainerId));
+            stale.setFirstName("Samantha");
+            trainerRepository.save(stale);
+        });
+
+        assertThat(trainerRepository.findScheduleVersion(trainerId)).contains(1L);
+        assertThat(trainerRepository.findById(trainerId).orElseThrow().getFirstName()).isEqualTo("Samantha");
+    }
+
+    @Test
+    void roomUpdate_InterleavedWithScheduleChange_KeepsBumpedVersion() {
+        Long roomId = roomRepository.save(new Room(gym, "Studio B", 20, true)).getId();
+
+        outer.executeWithoutResult(status -> {
+            Room stale = roomRepository.findById(roomId).orElseThrow();
+            concurrent.executeWithoutResult(inner -> roomRepository.incrementScheduleVersion(roomId));
+            stale.setCapacity(25);
+            roomRepository.save(stale);
+        });
+
+        assertThat(roomRepository.findScheduleVersion(roomId)).contains(1L);
+        assertThat(roomRepository.findById(roomId).orElseThrow().getCapacity()).isEqualTo(25);
+    }
+}
@@ -8,22 +8,31 @@ import com.example.gym_management.repository.GymRepository;
 import com.example.gym_management.repository.RoomRepository;
 import com.example.gym_management.repository.ScheduledClassRepository;
 import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleKey;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleLock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +59,9 @@ class ScheduledClassServiceTest {
     @Mock
     private TrainerAvailabilityService trainerAvailabilityService;
 
+    @Mock
+    private ScheduleConflictIndex scheduleConflictIndex;
+
     @InjectMocks
     private ScheduledClassService scheduledClassService;
 
@@ -62,6 +74,7 @@ class ScheduledClassServiceTest {
     private Trainer trainer;
     private Room room;
     private LocalDateTime futureTime;
+    private ScheduleLock lock;
 
     @BeforeEach
     void setUp() {
@@ -86,12 +99,13 @@ class ScheduledClassServiceTest {
         scheduledClass.setId(1L);
         scheduledClass.setBookings(new ArrayList<>());
 
-        request = new ScheduledClassRequest(1L, 1L, 1L, 1L, futureTime);
+        request = new ScheduledClassRequest(1L, 1L, 1L, 1L, futureTime, null);
+        lock = new ScheduleLock(Map.of(ScheduleKey.trainer(1L), 5L, ScheduleKey.room(1L), 8L));
 
         ClassTypeDTO classTypeDTO = new ClassTypeDTO(1L, "Yoga", "Relaxing yoga class");
         TrainerDTO trainerDTO = new TrainerDTO(1L, "Jane", "Smith");
         RoomDTO roomDTO = new RoomDTO(1L, 1L, "Studio A", 20, true);
-        response = new ScheduledClassResponse(1L, gymDTO, classTypeDTO, trainerDTO, roomDTO, futureTime, 0, 20);
+        response = new ScheduledClassResponse(1L, gymDTO, classTypeDTO, trainerDTO, roomDTO, futureTime, 60, futureTime.plusHours(1), 0, 20, 0);
     }
 
     @Test
@@ -99,8 +113,10 @@ class ScheduledClassServiceTest {
         when(gymRepository.findById(1L)).thenReturn(Optional.of(gym));
         when(trainerRepository.findById(1L)).thenReturn(Optional.of(trainer));
         when(roomRepository.findById(1L)).thenReturn(Optional.of(room));
-        when(scheduledClassRepository.findByTrainerIdAndTimeRange(eq(1L), any(), any())).thenReturn(List.of());
-        when(scheduledClassRepository.findByRoomIdAndTimeRange(eq(1L), any(), any())).thenReturn(List.of());
+        when(classTypeRepository.findById(1L)).thenReturn(Optional.of(classType));
+        when(scheduleConflictIndex.lock(List.of(1L), List.of(1L))).thenReturn(lock);
+        when(scheduleConflictIndex.findConflicts(eq(lock), any(), eq(futureTime), eq(futureTime.plusHours(1)), isNull()))
+                .thenReturn(List.of());
         when(scheduledClassMapper.toEntityWithGym(request, gym)).thenReturn(scheduledClass);
         when(scheduledClassRepository.save(scheduledClass)).thenReturn(scheduledClass);
         when(scheduledClassMapper.toResponse(scheduledClass)).thenReturn(response);
@@ -109,8 +125,10 @@ class ScheduledClassServiceTest {
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
-        verify(trainerAvailabilityService).validateTrainerAvailabilityForClass(1L, futureTime);
+        verify(trainerAvailabilityService).validateTrainerAvailabilityForClass(1L, futureTime, 60);
         verify(scheduledClassRepository).save(scheduledClass);
+        verify(scheduleConflictIndex).recordChanges(lock, List.of(),
+                List.of(new ScheduleSlot(1L, 1L, 1L, futureTime, 60)));
     }
 
     @Test
@@ -118,8 +136,10 @@ class ScheduledClassServiceTest {
         when(gymRepository.findById(1L)).thenReturn(Optional.of(gym));
         when(trainerRepository.findById(1L)).thenReturn(Optional.of(trainer));
         when(roomRepository.findById(1L)).thenReturn(Optional.of(room));
-        when(scheduledClassRepository.findByTrainerIdAndTimeRange(eq(1L), any(), any()))
-                .thenReturn(List.of(scheduledClass));
+        when(classTypeRepository.findById(1L)).thenReturn(Optional.of(classType));
+        when(scheduleConflictIndex.lock(List.of(1L), List.of(1L))).thenReturn(lock);
+        when(scheduleConflictIndex.findConflicts(lock, ScheduleKey.trainer(1L), futureTime, futureTime.plusHours(1), null))
+                .thenReturn(List.of(2L));
 
         assertThatThrownBy(() -> scheduledClassService.createScheduledClass(request))
                 .isInstanceOf(IllegalStateException.class)
@@ -131,9 +151,12 @@ class ScheduledClassServiceTest {
         when(gymRepository.findById(1L)).thenReturn(Optional.of(gym));
         when(trainerRepository.findById(1L)).thenReturn(Optional.of(trainer));
         when(roomRepository.findById(1L)).thenReturn(Optional.of(room));
-        when(scheduledClassRepository.findByTrainerIdAndTimeRange(eq(1L), any(), any())).thenReturn(List.of());
-        when(scheduledClassRepository.findByRoomIdAndTimeRange(eq(1L), any(), any()))
-                .thenReturn(List.of(scheduledClass));
+        when(classTypeRepository.findById(1L)).thenReturn(Optional.of(classType));
+        when(scheduleConflictIndex.lock(List.of(1L), List.of(1L))).thenReturn(lock);
+        when(scheduleConflictIndex.findConflicts(lock, ScheduleKey.trainer(1L), futureTime, futureTime.plusHours(1), null))
+                .thenReturn(List.of());
+        when(scheduleConflictIndex.findConflicts(lock, ScheduleKey.room(1L), futureTime, futureTime.plusHours(1), null))
+                .thenReturn(List.of(2L));
 
         assertThatThrownBy(() -> scheduledClassService.createScheduledClass(request))
                 .isInstanceOf(IllegalStateException.class)
@@ -162,28 +185,30 @@ class ScheduledClassServiceTest {
 
     @Test
     void getAllScheduledClasses_Success() {
-        List<ScheduledClass> classes = List.of(scheduledClass);
-        List<ScheduledClassResponse> responses = List.of(response);
+        Slice<ScheduledClass> slice = new SliceImpl<>(List.of(scheduledClass), PageRequest.of(0, 50), false);
 
-        when(scheduledClassRepository.findAll()).thenReturn(classes);
-        when(scheduledClassMapper.toResponseList(classes)).thenReturn(responses);
+        when(scheduledClassRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(slice);
+        when(scheduledClassMapper.toResponse(scheduledClass)).thenReturn(response);
 
-        List<ScheduledClassResponse> result = scheduledClassService.getAllScheduledClasses();
+        CursorPage<ScheduledClassResponse> result = scheduledClassService.getAllScheduledClasses(null, null);
 
-        assertThat(result).hasSize(1);
+        assertThat(result.getItems()).hasSize(1);
     }
 
     @Test
     void getUpcomingClasses_Success() {
-        List<ScheduledClass> classes = List.of(scheduledClass);
-        List<ScheduledClassResponse> responses = List.of(response);
+        Slice<ScheduledClass> slice = new SliceImpl<>(List.of(scheduledClass), PageRequest.of(0, 50), true);
 
-        when(scheduledClassRepository.findUpcomingClasses(any(LocalDateTime.class))).thenReturn(classes);
-        when(scheduledClassMapper.toResponseList(classes)).thenReturn(responses);
+        when(scheduledClassRepository.findUpcomingPageAfter(isNull(), any(LocalDateTime.class), eq(0L),
+                any(Pageable.class))).thenReturn(slice);
+        when(scheduledClassMapper.toResponse(scheduledClass)).thenReturn(response);
 
-        List<ScheduledClassResponse> result = scheduledClassService.getUpcomingClasses();
+        CursorPage<ScheduledClassResponse> result = scheduledClassService.getUpcomingClasses(null, null);
 
-        assertThat(result).hasSize(1);
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.isHasMore()).isTrue();
+        assertThat(PageCursor.decode(result.getNextCursor(), LocalDateTime.MIN))
+                .isEqualTo(new PageCursor(scheduledClass.getStartTime(), scheduledClass.getId()));
     }
 
     @Test
@@ -216,27 +241,29 @@ class ScheduledClassServiceTest {
 
     @Test
     void getAvailableClasses_Success() {
-        List<ScheduledClass> classes = List.of(scheduledClass);
+        Slice<ScheduledClass> slice = new SliceImpl<>(List.of(scheduledClass), PageRequest.of(0, 50), false);
 
-        when(scheduledClassRepository.findUpcomingClasses(any(LocalDateTime.class))).thenReturn(classes);
+        when(scheduledClassRepository.findAvailablePageAfter(isNull(), any(LocalDateTime.class), eq(0L),
+                any(Pageable.class))).thenReturn(slice);
         when(scheduledClassMapper.toResponse(scheduledClass)).thenReturn(response);
 
-        List<ScheduledClassResponse> result = scheduledClassService.getAvailableClasses();
+        CursorPage<ScheduledClassResponse> result = scheduledClassService.getAvailableClasses(null, null);
 
-        assertThat(result).hasSize(1);
+        assertThat(result.getItems()).hasSize(1);
     }
 
     @Test
     void updateScheduledClass_Success() {
-        ScheduledClassRequest updateRequest = new ScheduledClassRequest(1L, 1L, 1L, 1L, futureTime.plusHours(2));
+        ScheduledClassRequest updateRequest = new ScheduledClassRequest(1L, 1L, 1L, 1L, futureTime.plusHours(2), 45);
         ScheduledClassResponse updatedResponse = new ScheduledClassResponse(1L, gymDTO, null, null, null,
-                futureTime.plusHours(2), 0, 20);
+                futureTime.plusHours(2), 45, futureTime.plusHours(2).plusMinutes(45), 0, 20, 0);
 
         when(scheduledClassRepository.findById(1L)).thenReturn(Optional.of(scheduledClass));
         when(trainerRepository.findById(1L)).thenReturn(Optional.of(trainer));
         when(roomRepository.findById(1L)).thenReturn(Optional.of(room));
-        when(scheduledClassRepository.findByTrainerIdAndTimeRange(eq(1L), any(), any())).thenReturn(List.of());
-        when(scheduledClassRepository.findByRoomIdAndTimeRange(eq(1L), any(), any())).thenReturn(List.of());
+        when(scheduleConflictIndex.lock(List.of(1L, 1L), List.of(1L, 1L))).thenReturn(lock);
+        when(scheduleConflictIndex.findConflicts(eq(lock), any(), eq(futureTime.plusHours(2)),
+                eq(futureTime.plusHours(2).plusMinutes(45)), eq(1L))).thenReturn(List.of());
         when(scheduledClassRepository.save(scheduledClass)).thenReturn(scheduledClass);
         when(scheduledClassMapper.toResponse(scheduledClass)).thenReturn(updatedResponse);
 
@@ -245,6 +272,8 @@ class ScheduledClassServiceTest {
         assertThat(result).isNotNull();
         verify(scheduledClassMapper).updateEntity(updateRequest, scheduledClass);
         verify(scheduledClassRepository).save(scheduledClass);
+        verify(scheduleConflictIndex).recordChanges(lock, List.of(1L),
+                List.of(new ScheduleSlot(1L, 1L, 1L, futureTime.plusHours(2), 45)));
     }
 
     @Test
@@ -256,13 +285,47 @@ class ScheduledClassServiceTest {
                 .hasMessageContaining("Scheduled class not found");
     }
 
+    @Test
+    void createScheduledClass_ChecksOverlapForWholeClassTypeDuration() {
+        classType.setDurationMinutes(90);
+        when(gymRepository.findById(1L)).thenReturn(Optional.of(gym));
+        when(trainerRepository.findById(1L)).thenReturn(Optional.of(trainer));
+        when(roomRepository.findById(1L)).thenReturn(Optional.of(room));
+        when(classTypeRepository.findById(1L)).thenReturn(Optional.of(classType));
+        when(scheduleConflictIndex.lock(List.of(1L), List.of(1L))).thenReturn(lock);
+        when(scheduleConflictIndex.findConflicts(lock, ScheduleKey.trainer(1L), futureTime,
+                futureTime.plusMinutes(90), null)).thenReturn(List.of(2L));
+
+        assertThatThrownBy(() -> scheduledClassService.createScheduledClass(request))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Trainer is already scheduled");
+        verify(scheduledClassRepository, never()).save(any());
+    }
+
+    @Test
+    void findConflicts_LoadsOverlappingClassesOfAllSchedulesAtOnce() {
+        LocalDateTime to = futureTime.plusHours(3);
+        when(scheduleConflictIndex.findOverlapping(List.of(ScheduleKey.trainer(1L), ScheduleKey.room(1L)),
+                futureTime, to))
+                .thenReturn(Map.of(ScheduleKey.trainer(1L), List.of(1L), ScheduleKey.room(1L), List.of(1L)));
+        when(scheduledClassRepository.findAllWithDetailsByIdIn(Set.of(1L))).thenReturn(List.of(scheduledClass));
+        when(scheduledClassMapper.toResponseList(List.of(scheduledClass))).thenReturn(List.of(response));
+
+        List<ScheduledClassResponse> result = scheduledClassService.findConflicts(futureTime, to, List.of(1L), List.of(1L));
+
+        assertThat(result).containsExactly(response);
+    }
+
     @Test
     void deleteScheduledClass_Success() {
         when(scheduledClassRepository.findById(1L)).thenReturn(Optional.of(scheduledClass));
 
+        when(scheduleConflictIndex.lock(List.of(1L), List.of(1L))).thenReturn(lock);
+
         scheduledClassService.deleteScheduledClass(1L);
 
         verify(scheduledClassRepository).delete(scheduledClass);
+        verify(scheduleConflictIndex).recordChanges(lock, List.of(1L), List.of());
     }
 
     @Test
@@ -306,15 +369,16 @@ class ScheduledClassServiceTest {
     void getClassesByDateRange_Success() {
         LocalDateTime startDate = LocalDateTime.now().minusDays(7);
         LocalDateTime endDate = LocalDateTime.now();
-        List<ScheduledClass> classes = List.of(scheduledClass);
-        List<ScheduledClassResponse> responses = List.of(response);
+        Slice<ScheduledClass> slice = new SliceImpl<>(List.of(scheduledClass), PageRequest.of(0, 50), false);
 
-        when(scheduledClassRepository.findByStartTimeBetween(startDate, endDate)).thenReturn(classes);
-        when(scheduledClassMapper.toResponseList(classes)).thenReturn(responses);
+        when(scheduledClassRepository.findDateRangePageAfter(isNull(), eq(startDate), eq(0L), eq(endDate),
+                any(Pageable.class))).thenReturn(slice);
+        when(scheduledClassMapper.toResponse(scheduledClass)).thenReturn(response);
 
-        List<ScheduledClassResponse> result = scheduledClassService.getClassesByDateRange(startDate, endDate);
+        CursorPage<ScheduledClassResponse> result = scheduledClassService.getClassesByDateRange(startDate, endDate,
+                null, null);
 
-        assertThat(result).hasSize(1);
+        assertThat(result.getItems()).hasSize(1);
     }
 
     @Test
@@ -322,7 +386,7 @@ class ScheduledClassServiceTest {
         LocalDateTime startDate = LocalDateTime.now();
         LocalDateTime endDate = LocalDateTime.now().minusDays(7);
 
-        assertThatThrownBy(() -> scheduledClassService.getClassesByDateRange(startDate, endDate))
+        assertThatThrownBy(() -> scheduledClassService.getClassesByDateRange(startDate, endDate, null, null))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Start date must be before end date");
     }
@@ -0,0 +1,63 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.repository.TrigramSearchRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private TrigramSearchRepository trigramSearchRepository;
+
+    @Mock
+    private NameSearchIndex nameSearchIndex;
+
+    @InjectMocks
+    private SearchService searchService;
+
+    @Test
+    void searchMembers_OnPostgreSql_UsesTrigramIndexes() {
+        when(trigramSearchRepository.isPostgreSql()).thenReturn(true);
+        when(trigramSearchRepository.searchMembers(List.of("jane", "sm"), 20)).thenReturn(List.of(4L));
+
+        searchService.setUpTrigramIndexes();
+
+        assertThat(searchService.searchMembers("  Jane   SM ", null)).containsExactly(4L);
+        verify(trigramSearchRepository).createIndexes();
+        verifyNoInteractions(nameSearchIndex);
+    }
+
+    @Test
+    void searchTrainers_TrigramIndexesUnavailable_UsesInMemoryIndex() {
+        when(trigramSearchRepository.isPostgreSql()).thenReturn(true);
+        doThrow(new DataAccessResourceFailureException("permission denied to create extension"))
+                .when(trigramSearchRepository).createIndexes();
+        when(nameSearchIndex.searchTrainers("jane", 1L, 5)).thenReturn(List.of(2L));
+
+        searchService.setUpTrigramIndexes();
+
+        assertThat(searchService.searchTrainers("Jane", 1L, 5)).containsExactly(2L);
+        verify(trigramSearchRepository, never()).searchTrainers(any(), any(), anyInt());
+    }
+
+    @Test
+    void search_BlankQueryOrLimitOutOfRange_ThrowsException() {
+        assertThatThrownBy(() -> searchService.searchTrainers("  ", null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cannot be empty");
+        assertThatThrownBy(() -> searchService.searchMembers("jane", SearchService.MAX_LIMIT + 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Limit must be between 1 and 100");
+    }
+}
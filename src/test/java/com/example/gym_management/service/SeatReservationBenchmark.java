@@ -0,0 +1,90 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.GymManagementApplication;
+import com.example.gym_management.entity.ClassType;
+import com.example.gym_management.entity.Gym;
+import com.example.gym_management.entity.Room;
+import com.example.gym_management.entity.ScheduledClass;
+import com.example.gym_management.entity.Trainer;
+import com.example.gym_management.repository.ClassTypeRepository;
+import com.example.gym_management.repository.GymRepository;
+import com.example.gym_management.repository.RoomRepository;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seats per second {@link SeatReservationService#tryReserveSeat} hands out
+ * from eight threads against the test database. With {@code classes} 1 every
+ * thread competes for the same scheduled_classes row, which is the contention
+ * SeatReservationConcurrencyTest checks for correctness; 8 spreads the
+ * threads over separate rows for comparison. The room is large enough that
+ * no class fills during a run, so every call takes the reserving path.
+ *
+ * <p>Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.gym_management.service.SeatReservationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class SeatReservationBenchmark {
+
+    @Param({"1", "8"})
+    public int classes;
+
+    private ConfigurableApplicationContext context;
+    private SeatReservationService seatReservationService;
+    private List<ScheduledClass> scheduledClasses;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(GymManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        seatReservationService = context.getBean(SeatReservationService.class);
+
+        Gym gym = context.getBean(GymRepository.class).save(new Gym("Benchmark Gym", "1 Bench St", "555-0000"));
+        Room room = context.getBean(RoomRepository.class).save(new Room(gym, "Hall", Integer.MAX_VALUE, false));
+        ClassType classType = context.getBean(ClassTypeRepository.class).save(new ClassType("Spin", "Indoor cycling"));
+        Trainer trainer = context.getBean(TrainerRepository.class).save(new Trainer(gym, "Sam", "Coach"));
+        ScheduledClassRepository scheduledClassRepository = context.getBean(ScheduledClassRepository.class);
+        scheduledClasses = new ArrayList<>();
+        for (int i = 0; i < classes; i++) {
+            scheduledClasses.add(scheduledClassRepository.save(
+                    new ScheduledClass(gym, classType, trainer, room, LocalDateTime.now().plusDays(2).plusHours(i))));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean tryReserveSeat() {
+        ScheduledClass scheduledClass = scheduledClasses.get(ThreadLocalRandom.current().nextInt(classes));
+        return seatReservationService.tryReserveSeat(scheduledClass);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SeatReservationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.BookingRequest;
+import com.example.gym_management.entity.*;
+import com.example.gym_management.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SeatReservationConcurrencyTest {
+
+    private static final int CAPACITY = 25;
+    private static final int ATTEMPTS = 400;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ScheduledClassRepository scheduledClassRepository;
+
+    @Autowired
+    private GymRepository gymRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ClassTypeRepository classTypeRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private MembershipPlanRepository membershipPlanRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Test
+    void concurrentBookings_NeverExceedRoomCapacity() throws Exception {
+        Gym gym = gymRepository.save(new Gym("Seat Test Gym", "1 Test St", "555-0000"));
+        Room room = roomRepository.save(new Room(gym, "Spin Studio", CAPACITY, true));
+        ClassType classType = classTypeRepository.save(new ClassType("Spin", "Indoor cycling"));
+        Trainer trainer = trainerRepository.save(new Trainer(gym, "Sam", "Coach"));
+        ScheduledClass scheduledClass = scheduledClassRepository.save(
+                new ScheduledClass(gym, classType, trainer, room, LocalDateTime.now().plusDays(2)));
+        MembershipPlan plan = membershipPlanRepository.save(
+                new MembershipPlan("Seat Test", new BigDecimal("49.99"), 30));
+
+        String runId = Long.toString(System.nanoTime());
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            Member member = new Member("Member", "No" + i, "seat-" + runId + "-" + i + "@example.com", plan);
+            member.setMembershipStatus(Member.MembershipStatus.ACTIVE);
+            member.setMembershipStartDate(LocalDate.now());
+            member.setMembershipEndDate(LocalDate.now().plusDays(30));
+            members.add(member);
+        }
+        members = memberRepository.saveAll(members);
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejectedAsFull = new AtomicInteger();
+        AtomicInteger otherFailures = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        Long classId = scheduledClass.getId();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Member member : members) {
+                Long memberId = member.getId();
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    try {
+                        bookingService.createBooking(new BookingRequest(memberId, classId));
+                        booked.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        if (e.getMessage() != null && e.getMessage().contains("fully booked")) {
+                            rejectedAsFull.incrementAndGet();
+                        } else {
+                            otherFailures.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        otherFailures.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            startGate.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(otherFailures.get()).isZero();
+        assertThat(booked.get()).isEqualTo(CAPACITY);
+        assertThat(rejectedAsFull.get()).isEqualTo(ATTEMPTS - CAPACITY);
+        assertThat(bookingRepository.countEnrolledByScheduledClassId(classId)).isEqualTo(CAPACITY);
+        assertThat(scheduledClassRepository.findById(classId).orElseThrow().getEnrolledCount())
+                .isEqualTo(CAPACITY);
+    }
+}
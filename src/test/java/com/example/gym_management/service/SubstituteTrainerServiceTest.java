@@ -0,0 +1,198 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.AffectedClass;
+import com.example.gym_management.dto.ScheduleSlot;
+import com.example.gym_management.dto.SubstituteCandidate;
+import com.example.gym_management.dto.TimeOffImpactResponse;
+import com.example.gym_management.dto.TrainerReassignmentRequest;
+import com.example.gym_management.dto.TrainerReassignmentRequest.Assignment;
+import com.example.gym_management.dto.TrainerReassignmentResponse;
+import com.example.gym_management.entity.ClassType;
+import com.example.gym_management.entity.Gym;
+import com.example.gym_management.entity.Room;
+import com.example.gym_management.entity.ScheduledClass;
+import com.example.gym_management.entity.Trainer;
+import com.example.gym_management.entity.TrainerAvailability;
+import com.example.gym_management.repository.ScheduledClassBatchRepository;
+import com.example.gym_management.repository.ScheduledClassBatchRepository.TrainerChange;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleKey;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleLock;
+import com.example.gym_management.service.TrainerAvailabilityIndex.TrainerCalendar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubstituteTrainerServiceTest {
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @Mock
+    private ScheduledClassRepository scheduledClassRepository;
+
+    @Mock
+    private ScheduledClassBatchRepository scheduledClassBatchRepository;
+
+    @Mock
+    private TrainerAvailabilityIndex trainerAvailabilityIndex;
+
+    @Mock
+    private ScheduleConflictIndex scheduleConflictIndex;
+
+    @InjectMocks
+    private SubstituteTrainerService substituteTrainerService;
+
+    private Gym gym;
+    private ClassType yoga;
+    private ClassType boxing;
+    private Room room;
+    private Trainer absent;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        gym = new Gym("Main Gym", "123 Main St", "555-1234");
+        gym.setId(1L);
+        yoga = new ClassType("Yoga", "Relaxing yoga class");
+        yoga.setId(1L);
+        boxing = new ClassType("Boxing", "Boxing basics");
+        boxing.setId(2L);
+        room = new Room(gym, "Studio A", 20, true);
+        room.setId(1L);
+        absent = trainer(1L, "Jane", "Smith", yoga);
+        monday = LocalDate.now().plusDays(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+    }
+
+    @Test
+    void analyzeTimeOff_RanksQualifiedFreeTrainersLeastBusyFirst() {
+        ScheduledClass affected = scheduledClass(10L, absent, monday.atTime(10, 0));
+        Trainer free = trainer(2L, "Zoe", "Young", yoga);
+        Trainer busyAtTheTime = trainer(3L, "Ann", "Adams", yoga);
+        Trainer unqualified = trainer(4L, "Bob", "Brown", boxing);
+        Trainer busyLater = trainer(5L, "Cat", "Clark", yoga, boxing);
+        List<Long> candidateIds = List.of(2L, 3L, 4L, 5L);
+        when(trainerRepository.existsById(1L)).thenReturn(true);
+        when(scheduledClassRepository.findTrainerClassesStartingBetween(
+                1L, monday.atStartOfDay(), monday.plusDays(1).atStartOfDay())).thenReturn(List.of(affected));
+        when(trainerRepository.findByGymIdInWithClassTypes(Set.of(1L)))
+                .thenReturn(List.of(absent, free, busyAtTheTime, unqualified, busyLater));
+        when(trainerAvailabilityIndex.calendars(candidateIds)).thenReturn(Map.of(
+                2L, mondays(), 3L, mondays(), 4L, mondays(), 5L, mondays()));
+        when(scheduledClassRepository.findTrainerSlotsBetween(candidateIds,
+                monday.minusDays(1).atStartOfDay(), monday.plusDays(1).atStartOfDay())).thenReturn(List.of(
+                new ScheduleSlot(20L, 3L, 2L, monday.atTime(10, 30), 60),
+                new ScheduleSlot(21L, 5L, 2L, monday.atTime(9, 0), 60),
+                new ScheduleSlot(22L, 5L, 2L, monday.minusDays(1).atTime(9, 0), 60)));
+
+        TimeOffImpactResponse impact = substituteTrainerService.analyzeTimeOff(1L, monday, monday);
+
+        assertThat(impact.getAffectedClasses()).extracting(AffectedClass::scheduledClassId).containsExactly(10L);
+        assertThat(impact.getAffectedClasses().getFirst().substitutes())
+                .extracting(SubstituteCandidate::trainerId, SubstituteCandidate::classesInPeriod)
+                .containsExactly(tuple(2L, 0), tuple(5L, 1));
+    }
+
+    @Test
+    void analyzeTimeOff_NoUpcomingClasses_ReturnsEmptyImpact() {
+        when(trainerRepository.existsById(1L)).thenReturn(true);
+        when(scheduledClassRepository.findTrainerClassesStartingBetween(eq(1L), any(), any())).thenReturn(List.of());
+
+        TimeOffImpactResponse impact = substituteTrainerService.analyzeTimeOff(1L, monday, monday.plusDays(2));
+
+        assertThat(impact.getAffectedClasses()).isEmpty();
+        verifyNoInteractions(trainerAvailabilityIndex);
+    }
+
+    @Test
+    void reassignTrainers_MovesEveryClassInOneBatch() {
+        Trainer substitute = trainer(2L, "Zoe", "Young", yoga);
+        ScheduledClass morning = scheduledClass(10L, absent, monday.atTime(10, 0));
+        ScheduledClass evening = scheduledClass(11L, absent, monday.atTime(16, 0));
+        ScheduleLock lock = new ScheduleLock(Map.of(ScheduleKey.trainer(1L), 4L, ScheduleKey.trainer(2L), 6L));
+        stubReassignment(List.of(morning, evening), substitute, lock);
+        when(scheduleConflictIndex.findConflicts(eq(lock), eq(ScheduleKey.trainer(2L)), any(), any(), any()))
+                .thenReturn(List.of());
+        when(scheduledClassBatchRepository.reassignTrainers(any())).thenReturn(List.of());
+
+        TrainerReassignmentResponse response = substituteTrainerService.reassignTrainers(
+                request(new Assignment(10L, 2L), new Assignment(11L, 2L)));
+
+        assertThat(response.scheduledClassIds()).containsExactly(10L, 11L);
+        verify(scheduledClassBatchRepository).reassignTrainers(List.of(
+                new TrainerChange(10L, 1L, 2L), new TrainerChange(11L, 1L, 2L)));
+        verify(scheduleConflictIndex).recordChanges(lock, List.of(10L, 11L), List.of(
+                new ScheduleSlot(10L, 2L, 1L, monday.atTime(10, 0), 60),
+                new ScheduleSlot(11L, 2L, 1L, monday.atTime(16, 0), 60)));
+    }
+
+    @Test
+    void reassignTrainers_OneInvalidMove_ChangesNothing() {
+        Trainer substitute = trainer(2L, "Zoe", "Young", yoga);
+        ScheduledClass first = scheduledClass(10L, absent, monday.atTime(10, 0));
+        ScheduledClass overlapping = scheduledClass(11L, absent, monday.atTime(10, 30));
+        ScheduleLock lock = new ScheduleLock(Map.of(ScheduleKey.trainer(1L), 4L, ScheduleKey.trainer(2L), 6L));
+        stubReassignment(List.of(first, overlapping), substitute, lock);
+        when(scheduleConflictIndex.findConflicts(eq(lock), eq(ScheduleKey.trainer(2L)), any(), any(), any()))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(() -> substituteTrainerService.reassignTrainers(
+                request(new Assignment(10L, 2L), new Assignment(11L, 2L))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Class 11: trainer is given overlapping classes [10]");
+
+        verifyNoInteractions(scheduledClassBatchRepository);
+        verify(scheduleConflictIndex, never()).recordChanges(any(), any(), any());
+    }
+
+    private void stubReassignment(List<ScheduledClass> classes, Trainer substitute, ScheduleLock lock) {
+        when(scheduledClassRepository.findAllWithDetailsByIdIn(any())).thenReturn(classes);
+        when(trainerRepository.findByIdInWithClassTypes(Set.of(2L))).thenReturn(List.of(substitute));
+        when(scheduleConflictIndex.lock(Set.of(1L, 2L), List.of())).thenReturn(lock);
+        when(trainerAvailabilityIndex.calendars(Set.of(2L))).thenReturn(Map.of(2L, mondays()));
+    }
+
+    private TrainerReassignmentRequest request(Assignment... assignments) {
+        return new TrainerReassignmentRequest(Arrays.asList(assignments));
+    }
+
+    private TrainerCalendar mondays() {
+        return new TrainerCalendar(List.of(new TrainerAvailability(absent, DayOfWeek.MONDAY,
+                LocalTime.of(8, 0), LocalTime.of(20, 0))), List.of(), System.nanoTime());
+    }
+
+    private Trainer trainer(Long id, String firstName, String lastName, ClassType... classTypes) {
+        Trainer trainer = new Trainer(gym, firstName, lastName);
+        trainer.setId(id);
+        trainer.getClassTypes().addAll(List.of(classTypes));
+        return trainer;
+    }
+
+    private ScheduledClass scheduledClass(Long id, Trainer trainer, LocalDateTime startTime) {
+        ScheduledClass scheduledClass = new ScheduledClass(gym, yoga, trainer, room, startTime);
+        scheduledClass.setId(id);
+        return scheduledClass;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.TimeOffImportEntry;
+import com.example.gym_management.dto.TimeOffImportRequest;
+import com.example.gym_management.dto.TimeOffImportResponse;
+import com.example.gym_management.entity.Gym;
+import com.example.gym_management.entity.Trainer;
+import com.example.gym_management.entity.TrainerTimeOff;
+import com.example.gym_management.repository.GymRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.repository.TrainerTimeOffBatchRepository;
+import com.example.gym_management.repository.TrainerTimeOffBatchRepository.NewTimeOff;
+import com.example.gym_management.repository.TrainerTimeOffRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimeOffImportServiceTest {
+
+    private static final LocalDate CHRISTMAS = LocalDate.of(2024, 12, 25);
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @Mock
+    private GymRepository gymRepository;
+
+    @Mock
+    private TrainerTimeOffRepository timeOffRepository;
+
+    @Mock
+    private TrainerTimeOffBatchRepository timeOffBatchRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TimeOffImportService timeOffImportService;
+
+    private Gym gym;
+
+    @BeforeEach
+    void setUp() {
+        gym = new Gym("Main Gym", "123 Main St", "555-1234");
+        gym.setId(1L);
+    }
+
+    @Test
+    void importTimeOff_GymClosureCoversEveryTrainerAndSkipsStoredDuplicates() {
+        Trainer jane = new Trainer(gym, "Jane", "Smith");
+        jane.setId(1L);
+        TimeOffImportRequest request = new TimeOffImportRequest(List.of(
+                new TimeOffImportEntry(null, 1L, CHRISTMAS, CHRISTMAS.plusDays(1), false, false, "Christmas"),
+                new TimeOffImportEntry(2L, null, CHRISTMAS.minusDays(1), null, true, false, "Christmas Eve")));
+        when(gymRepository.findAllById(Set.of(1L))).thenReturn(List.of(gym));
+        when(trainerRepository.findIdsByGymId(1L)).thenReturn(List.of(1L, 2L));
+        when(trainerRepository.findExistingIds(Set.of(2L))).thenReturn(List.of(2L));
+        when(timeOffRepository.findByTrainerIdInAndDateRange(Set.of(1L, 2L), CHRISTMAS.minusDays(1),
+                CHRISTMAS.plusDays(1))).thenReturn(List.of(
+                new TrainerTimeOff(jane, CHRISTMAS, CHRISTMAS.plusDays(1), false, false, "Christmas")));
+
+        TimeOffImportResponse response = timeOffImportService.importTimeOff(request);
+
+        assertThat(response).isEqualTo(new TimeOffImportResponse(2, 1, 1));
+        verify(timeOffBatchRepository).insertAll(List.of(
+                new NewTimeOff(2L, CHRISTMAS, CHRISTMAS.plusDays(1), false, false, "Christmas"),
+                new NewTimeOff(2L, CHRISTMAS.minusDays(1), CHRISTMAS.minusDays(1), true, false, "Christmas Eve")));
+        verify(eventPublisher).publishEvent(new TrainerAvailabilityChangedEvent(2L));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void importCsv_ReadsQuotedFieldsInAnyColumnOrder() {
+        String csv = """
+                startDate,endDate,trainerId,reason,endsAtNoon
+                2024-12-24,2024-12-26,3,"Holidays, family",true
+                """;
+        when(trainerRepository.findExistingIds(Set.of(3L))).thenReturn(List.of(3L));
+        when(timeOffRepository.findByTrainerIdInAndDateRange(Set.of(3L), CHRISTMAS.minusDays(1),
+                CHRISTMAS.plusDays(1))).thenReturn(List.of());
+
+        TimeOffImportResponse response = timeOffImportService.importCsv(new StringReader(csv));
+
+        assertThat(response.imported()).isEqualTo(1);
+        verify(timeOffBatchRepository).insertAll(List.of(new NewTimeOff(
+                3L, CHRISTMAS.minusDays(1), CHRISTMAS.plusDays(1), false, true, "Holidays, family")));
+    }
+
+    @Test
+    void importCsv_InvalidRows_RejectsTheWholeFile() {
+        String csv = """
+                trainerId,gymId,startDate,endDate
+                1,,2024-12-24,
+                1,1,2024-12-25,
+                2,,2024-12-31,2024-12-30
+                x,,2024-12-31,
+                """;
+
+        assertThatThrownBy(() -> timeOffImportService.importCsv(new StringReader(csv)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Nothing was imported. Line 5: trainerId must be a number; "
+                        + "Line 3: exactly one of trainerId and gymId is required; "
+                        + "Line 4: end date cannot be before start date");
+
+        verifyNoInteractions(timeOffBatchRepository, eventPublisher);
+    }
+
+    @Test
+    void importTimeOff_UnknownTrainer_ImportsNothing() {
+        TimeOffImportRequest request = new TimeOffImportRequest(List.of(
+                new TimeOffImportEntry(1L, null, CHRISTMAS, null, false, false, null),
+                new TimeOffImportEntry(9L, null, CHRISTMAS, null, false, false, null)));
+        when(trainerRepository.findExistingIds(Set.of(1L, 9L))).thenReturn(List.of(1L));
+
+        assertThatThrownBy(() -> timeOffImportService.importTimeOff(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Entry 2: trainer not found with ID: 9");
+
+        verify(timeOffBatchRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void importTimeOff_OverlapsStoredTimeOff_ImportsNothing() {
+        Trainer sam = new Trainer(gym, "Sam", "Coach");
+        sam.setId(3L);
+        TimeOffImportRequest request = new TimeOffImportRequest(List.of(
+                new TimeOffImportEntry(3L, null, CHRISTMAS, null, false, false, "Christmas")));
+        when(trainerRepository.findExistingIds(Set.of(3L))).thenReturn(List.of(3L));
+        when(timeOffRepository.findByTrainerIdInAndDateRange(Set.of(3L), CHRISTMAS, CHRISTMAS)).thenReturn(List.of(
+                new TrainerTimeOff(sam, CHRISTMAS.minusDays(1), CHRISTMAS.plusDays(1), false, false, "Holidays")));
+
+        assertThatThrownBy(() -> timeOffImportService.importTimeOff(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Nothing was imported. Entry 1: trainer 3 already has time off from 2024-12-24 to 2024-12-26");
+
+        verify(trainerRepository).lockAllByIdIn(List.of(3L));
+        verifyNoInteractions(timeOffBatchRepository, eventPublisher);
+    }
+
+    @Test
+    void importTimeOff_EntriesOverlappingEachOther_ImportsNothing() {
+        TimeOffImportRequest request = new TimeOffImportRequest(List.of(
+                new TimeOffImportEntry(3L, null, CHRISTMAS.minusDays(1), CHRISTMAS.plusDays(1), false, false, null),
+                new TimeOffImportEntry(3L, null, CHRISTMAS.plusDays(1), null, true, false, null)));
+        when(trainerRepository.findExistingIds(Set.of(3L))).thenReturn(List.of(3L));
+        when(timeOffRepository.findByTrainerIdInAndDateRange(Set.of(3L), CHRISTMAS.minusDays(1),
+                CHRISTMAS.plusDays(1))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> timeOffImportService.importTimeOff(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Nothing was imported. Entry 2: overlaps Entry 1 for trainer 3");
+
+        verifyNoInteractions(timeOffBatchRepository, eventPublisher);
+    }
+}
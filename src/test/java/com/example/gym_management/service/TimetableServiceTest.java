@@ -0,0 +1,199 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.RecurrenceRuleRequest;
+import com.example.gym_management.dto.ScheduleSlot;
+import com.example.gym_management.dto.TimetableConflict;
+import com.example.gym_management.dto.TimetableRequest;
+import com.example.gym_management.dto.TimetableResponse;
+import com.example.gym_management.entity.ClassType;
+import com.example.gym_management.entity.Gym;
+import com.example.gym_management.entity.Room;
+import com.example.gym_management.entity.Trainer;
+import com.example.gym_management.entity.TrainerAvailability;
+import com.example.gym_management.entity.TrainerTimeOff;
+import com.example.gym_management.repository.ClassTypeRepository;
+import com.example.gym_management.repository.GymRepository;
+import com.example.gym_management.repository.RoomRepository;
+import com.example.gym_management.repository.ScheduledClassBatchRepository;
+import com.example.gym_management.repository.ScheduledClassBatchRepository.NewScheduledClass;
+import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleKey;
+import com.example.gym_management.service.ScheduleConflictIndex.ScheduleLock;
+import com.example.gym_management.service.TrainerAvailabilityIndex.TrainerCalendar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimetableServiceTest {
+
+    @Mock
+    private GymRepository gymRepository;
+
+    @Mock
+    private ClassTypeRepository classTypeRepository;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private TrainerAvailabilityIndex trainerAvailabilityIndex;
+
+    @Mock
+    private ScheduledClassBatchRepository scheduledClassBatchRepository;
+
+    @Mock
+    private ScheduleConflictIndex scheduleConflictIndex;
+
+    @InjectMocks
+    private TimetableService timetableService;
+
+    private Gym gym;
+    private ClassType classType;
+    private Trainer trainer;
+    private Room studio;
+    private Room hall;
+    private LocalDate firstMonday;
+    private ScheduleLock lock;
+
+    @BeforeEach
+    void setUp() {
+        gym = new Gym("Main Gym", "123 Main St", "555-1234");
+        gym.setId(1L);
+
+        classType = new ClassType("Yoga", "Relaxing yoga class");
+        classType.setId(1L);
+
+        trainer = new Trainer(gym, "Jane", "Smith");
+        trainer.setId(1L);
+
+        studio = new Room(gym, "Studio A", 20, true);
+        studio.setId(1L);
+        hall = new Room(gym, "Hall", 40, true);
+        hall.setId(2L);
+
+        firstMonday = LocalDate.now().plusDays(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        lock = new ScheduleLock(Map.of(ScheduleKey.trainer(1L), 3L, ScheduleKey.room(1L), 5L,
+                ScheduleKey.room(2L), 7L));
+    }
+
+    @Test
+    void publishTimetable_CreatesAcceptedOccurrencesAndReportsEveryConflict() {
+        RecurrenceRuleRequest weekly = rule(1L, LocalTime.of(9, 0), firstMonday, firstMonday.plusWeeks(2));
+        RecurrenceRuleRequest clashing = rule(2L, LocalTime.of(9, 30), firstMonday, firstMonday);
+        stubResources(List.of(studio, hall));
+        when(trainerAvailabilityIndex.calendars(Set.of(1L))).thenReturn(Map.of(1L, mondayMornings(List.of())));
+        when(scheduleConflictIndex.lock(Set.of(1L), Set.of(1L, 2L))).thenReturn(lock);
+        when(scheduleConflictIndex.findConflicts(eq(lock), any(), any(), any(), isNull())).thenReturn(List.of());
+        LocalDateTime secondWeek = firstMonday.plusWeeks(1).atTime(9, 0);
+        when(scheduleConflictIndex.findConflicts(lock, ScheduleKey.trainer(1L), secondWeek,
+                secondWeek.plusHours(1), null)).thenReturn(List.of(99L));
+        when(scheduledClassBatchRepository.insertAll(anyList())).thenReturn(List.of(100L, 101L));
+
+        TimetableResponse response = timetableService.publishTimetable(
+                new TimetableRequest(1L, List.of(weekly, clashing), false));
+
+        LocalDateTime firstWeek = firstMonday.atTime(9, 0);
+        LocalDateTime thirdWeek = firstMonday.plusWeeks(2).atTime(9, 0);
+        assertThat(response.getOccurrences()).isEqualTo(4);
+        assertThat(response.getCreatedClassIds()).containsExactly(100L, 101L);
+        assertThat(response.getConflicts()).extracting(TimetableConflict::ruleIndex, TimetableConflict::startTime)
+                .containsExactly(tuple(0, secondWeek), tuple(1, firstWeek.plusMinutes(30)));
+        assertThat(response.getConflicts().get(1).reasons())
+                .containsExactly("Trainer is already taken at this time by rule 0 of this timetable");
+        verify(scheduledClassBatchRepository).insertAll(List.of(
+                new NewScheduledClass(1L, 1L, 1L, 1L, firstWeek, 60),
+                new NewScheduledClass(1L, 1L, 1L, 1L, thirdWeek, 60)));
+        verify(scheduleConflictIndex).recordChanges(lock, List.of(), List.of(
+                new ScheduleSlot(100L, 1L, 1L, firstWeek, 60),
+                new ScheduleSlot(101L, 1L, 1L, thirdWeek, 60)));
+    }
+
+    @Test
+    void publishTimetable_DryRun_ReportsAvailabilityWithoutInserting() {
+        RecurrenceRuleRequest weekly = rule(1L, LocalTime.of(18, 0), firstMonday, firstMonday.plusWeeks(1));
+        stubResources(List.of(studio));
+        when(trainerAvailabilityIndex.calendars(Set.of(1L)))
+                .thenReturn(Map.of(1L, mondayMornings(List.of(firstMonday))));
+        when(scheduleConflictIndex.lock(Set.of(1L), Set.of(1L))).thenReturn(lock);
+        when(scheduleConflictIndex.findConflicts(eq(lock), any(), any(), any(), isNull())).thenReturn(List.of());
+
+        TimetableResponse response = timetableService.publishTimetable(
+                new TimetableRequest(1L, List.of(weekly), true));
+
+        assertThat(response.getCreated()).isZero();
+        assertThat(response.getConflicts()).extracting(TimetableConflict::reasons).containsExactly(
+                List.of("Trainer has time off on " + firstMonday),
+                List.of("Trainer is not available on MONDAY from 18:00 to 19:00"));
+        verifyNoInteractions(scheduledClassBatchRepository);
+        verify(scheduleConflictIndex).recordChanges(lock, List.of(), List.of());
+    }
+
+    @Test
+    void publishTimetable_TrainerOfAnotherGym_ThrowsException() {
+        Gym otherGym = new Gym("Other Gym", "1 Side St", "555-0000");
+        otherGym.setId(2L);
+        trainer.setGym(otherGym);
+        when(gymRepository.existsById(1L)).thenReturn(true);
+        when(classTypeRepository.findAllById(Set.of(1L))).thenReturn(List.of(classType));
+        when(trainerRepository.findAllById(Set.of(1L))).thenReturn(List.of(trainer));
+
+        assertThatThrownBy(() -> timetableService.publishTimetable(new TimetableRequest(1L,
+                List.of(rule(1L, LocalTime.of(9, 0), firstMonday, firstMonday)), false)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not belong to the specified gym");
+
+        verifyNoInteractions(scheduleConflictIndex, scheduledClassBatchRepository);
+    }
+
+    @Test
+    void publishTimetable_EndDateBeforeStartDate_ThrowsException() {
+        stubResources(List.of(studio));
+
+        assertThatThrownBy(() -> timetableService.publishTimetable(new TimetableRequest(1L,
+                List.of(rule(1L, LocalTime.of(9, 0), firstMonday, firstMonday.minusDays(1))), false)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("end date must not be before start date");
+    }
+
+    private void stubResources(List<Room> rooms) {
+        when(gymRepository.existsById(1L)).thenReturn(true);
+        when(classTypeRepository.findAllById(Set.of(1L))).thenReturn(List.of(classType));
+        when(trainerRepository.findAllById(Set.of(1L))).thenReturn(List.of(trainer));
+        when(roomRepository.findAllById(any())).thenReturn(rooms);
+    }
+
+    private TrainerCalendar mondayMornings(List<LocalDate> timeOff) {
+        return new TrainerCalendar(List.of(
+                new TrainerAvailability(trainer, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(12, 0))),
+                timeOff.stream().map(date -> new TrainerTimeOff(trainer, date, null)).toList(), System.nanoTime());
+    }
+
+    private RecurrenceRuleRequest rule(Long roomId, LocalTime startTime, LocalDate startDate, LocalDate endDate) {
+        return new RecurrenceRuleRequest(1L, 1L, roomId, DayOfWeek.MONDAY, startTime, null, startDate, endDate);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.service.TimetableSolver.GymProblem;
+import com.example.gym_management.service.TimetableSolver.GymSolution;
+import com.example.gym_management.service.TimetableSolver.RoomSpec;
+import com.example.gym_management.service.TimetableSolver.SessionSpec;
+import com.example.gym_management.service.TimetableSolver.TrainerSpec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for {@link TimetableSolver} to place 50 gyms × 500 weekly classes:
+ * 30 trainers with four qualifications and five working days each, 8 rooms
+ * open 06:00-22:00, 50 demands of 10 sessions of 45 to 90 minutes per gym.
+ * Every gym of the fixture can be completed well within the budget, so the
+ * score is the time to a full timetable; {@code parallelism} 1 is the
+ * sequential baseline and 0 uses every core.
+ *
+ * <p>Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.gym_management.service.TimetableSolverBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TimetableSolverBenchmark {
+
+    private static final long BUDGET_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private TimetableSolver solver;
+    private List<GymProblem> problems;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        solver = new TimetableSolver(pool);
+        problems = fixture(50, 30, 8, 50, 10, 42L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public List<GymSolution> solve() {
+        return solver.solve(problems, BUDGET_NANOS, 7L);
+    }
+
+    static List<GymProblem> fixture(int gyms, int trainersPerGym, int roomsPerGym, int demandsPerGym,
+                                    int sessionsPerDemand, long seed) {
+        Random random = new Random(seed);
+        int slotsPerDay = WeeklySlotMask.SLOTS_PER_DAY;
+        List<GymProblem> problems = new ArrayList<>();
+        for (int g = 0; g < gyms; g++) {
+            WeeklySlotMask open = new WeeklySlotMask();
+            for (int day = 0; day < 7; day++) {
+                open.set(day * slotsPerDay + 24, day * slotsPerDay + 88);
+            }
+            List<TrainerSpec> trainers = new ArrayList<>();
+            for (int t = 0; t < trainersPerGym; t++) {
+                Set<Long> classTypeIds = new HashSet<>();
+                while (classTypeIds.size() < 4) {
+                    classTypeIds.add((long) random.nextInt(10));
+                }
+                WeeklySlotMask free = new WeeklySlotMask();
+                for (int day = 0; day < 7; day++) {
+                    if (random.nextInt(7) < 5) {
+                        int start = day * slotsPerDay + 24 + random.nextInt(30);
+                        free.set(start, start + 32);
+                    }
+                }
+                trainers.add(new TrainerSpec(g * 1000L + t, classTypeIds, free.and(open)));
+            }
+            List<RoomSpec> rooms = new ArrayList<>();
+            for (int r = 0; r < roomsPerGym; r++) {
+                rooms.add(new RoomSpec(g * 1000L + r, 10 + random.nextInt(30), open.copy()));
+            }
+            List<SessionSpec> sessions = new ArrayList<>();
+            for (int d = 0; d < demandsPerGym; d++) {
+                SessionSpec session = new SessionSpec(d, random.nextInt(10), 5 + random.nextInt(20),
+                        3 + random.nextInt(4));
+                for (int i = 0; i < sessionsPerDemand; i++) {
+                    sessions.add(session);
+                }
+            }
+            problems.add(new GymProblem(g, trainers, rooms, sessions));
+        }
+        return problems;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TimetableSolverBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.service.TimetableSolver.GymProblem;
+import com.example.gym_management.service.TimetableSolver.GymSolution;
+import com.example.gym_management.service.TimetableSolver.Placement;
+import com.example.gym_management.service.TimetableSolver.RoomSpec;
+import com.example.gym_management.service.TimetableSolver.SessionSpec;
+import com.example.gym_management.service.TimetableSolver.TrainerSpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimetableSolverTest {
+
+    private static final int DAY = WeeklySlotMask.SLOTS_PER_DAY;
+    private static final long BUDGET = TimeUnit.SECONDS.toNanos(5);
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private final TimetableSolver solver = new TimetableSolver(pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void solve_RespectsQualificationsCapacityAndFreeSlots() {
+        // Monday 09:00-12:00 only; the yoga trainer and the big room are the
+        // only fits for yoga, so spin has to use the other pair.
+        WeeklySlotMask morning = new WeeklySlotMask().set(36, 48);
+        GymProblem problem = new GymProblem(1L,
+                List.of(new TrainerSpec(10L, Set.of(1L), morning.copy()),
+                        new TrainerSpec(11L, Set.of(2L), morning.copy())),
+                List.of(new RoomSpec(20L, 30, morning.copy()), new RoomSpec(21L, 8, morning.copy())),
+                List.of(new SessionSpec(0, 1L, 20, 4), new SessionSpec(0, 1L, 20, 4), new SessionSpec(1, 2L, 5, 8)));
+
+        GymSolution solution = solver.solve(List.of(problem), BUDGET, 1L).getFirst();
+
+        assertThat(solution.unplacedSessions()).isEmpty();
+        assertValid(problem, solution);
+        assertThat(solution.placements()).filteredOn(placement -> placement.session() < 2)
+                .allSatisfy(placement -> assertThat(placement.trainerId()).isEqualTo(10L));
+    }
+
+    @Test
+    void solve_SessionWithoutQualifiedTrainer_IsReportedUnplaced() {
+        WeeklySlotMask open = new WeeklySlotMask().set(36, 72);
+        GymProblem problem = new GymProblem(1L,
+                List.of(new TrainerSpec(10L, Set.of(1L), open.copy())),
+                List.of(new RoomSpec(20L, 30, open.copy())),
+                List.of(new SessionSpec(0, 1L, 1, 4), new SessionSpec(1, 3L, 1, 4)));
+
+        GymSolution solution = solver.solve(List.of(problem), TimeUnit.MILLISECONDS.toNanos(50), 1L).getFirst();
+
+        assertThat(solution.placements()).extracting(Placement::session).containsExactly(0);
+        assertThat(solution.unplacedSessions()).containsExactly(1);
+    }
+
+    @Test
+    void solve_SpreadsSessionsOfADemandOverDays() {
+        WeeklySlotMask weekdays = new WeeklySlotMask();
+        for (int day = 0; day < 5; day++) {
+            weekdays.set(day * DAY + 36, day * DAY + 72);
+        }
+        GymProblem problem = new GymProblem(1L,
+                List.of(new TrainerSpec(10L, Set.of(1L), weekdays.copy())),
+                List.of(new RoomSpec(20L, 30, weekdays.copy())),
+                List.of(new SessionSpec(0, 1L, 1, 4), new SessionSpec(0, 1L, 1, 4), new SessionSpec(0, 1L, 1, 4)));
+
+        GymSolution solution = solver.solve(List.of(problem), BUDGET, 1L).getFirst();
+
+        assertThat(solution.placements()).extracting(placement -> placement.startSlot() / DAY)
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void solve_BenchmarkFixture_PlacesEverySessionOfEveryGym() {
+        List<GymProblem> problems = TimetableSolverBenchmark.fixture(8, 30, 8, 50, 10, 42L);
+
+        List<GymSolution> solutions = solver.solve(problems, BUDGET, 7L);
+
+        assertThat(solutions).extracting(GymSolution::gymId).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        for (int g = 0; g < problems.size(); g++) {
+            assertThat(solutions.get(g).unplacedSessions()).isEmpty();
+            assertValid(problems.get(g), solutions.get(g));
+        }
+    }
+
+    private static void assertValid(GymProblem problem, GymSolution solution) {
+        Map<Long, BitSet> trainerUse = new HashMap<>();
+        Map<Long, BitSet> roomUse = new HashMap<>();
+        for (Placement placement : solution.placements()) {
+            SessionSpec session = problem.sessions().get(placement.session());
+            TrainerSpec trainer = problem.trainers().stream()
+                    .filter(t -> t.id() == placement.trainerId()).findFirst().orElseThrow();
+            RoomSpec room = problem.rooms().stream()
+                    .filter(r -> r.id() == placement.roomId()).findFirst().orElseThrow();
+            int start = placement.startSlot();
+            int end = start + session.slots();
+
+            assertThat(trainer.classTypeIds()).contains(session.classTypeId());
+            assertThat(room.capacity()).isGreaterThanOrEqualTo(session.minCapacity());
+            assertThat(trainer.free().allSet(start, end)).isTrue();
+            assertThat(room.free().allSet(start, end)).isTrue();
+            assertThat((end - 1) / DAY).isEqualTo(start / DAY);
+            BitSet trainerSlots = trainerUse.computeIfAbsent(trainer.id(), k -> new BitSet());
+            BitSet roomSlots = roomUse.computeIfAbsent(room.id(), k -> new BitSet());
+            assertThat(trainerSlots.get(start, end).isEmpty()).isTrue();
+            assertThat(roomSlots.get(start, end).isEmpty()).isTrue();
+            trainerSlots.set(start, end);
+            roomSlots.set(start, end);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.gym_management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int WHEEL_SIZE = 4;
+
+    @Test
+    void advanceTo_FiresOnceTheDeadlineTickHasPassed() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0);
+        wheel.add(25, "a");
+
+        assertThat(wheel.advanceTo(29)).isEmpty();
+        assertThat(wheel.advanceTo(30)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void add_DeadlineInPastTick_IsRejected() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0);
+        wheel.advanceTo(100);
+
+        assertThat(wheel.add(95, "late")).isFalse();
+        assertThat(wheel.add(100, "now")).isTrue();
+    }
+
+    @Test
+    void advanceTo_DeadlinesOnOverflowLevels_CascadeDownAndFireOnTime() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0);
+        // One span is 40 ms, so these land on levels 0, 1, 2 and 3.
+        wheel.add(15, "level0");
+        wheel.add(75, "level1");
+        wheel.add(400, "level2");
+        wheel.add(2_000, "level3");
+        assertThat(wheel.size()).isEqualTo(4);
+
+        Map<String, Long> firedAt = new HashMap<>();
+        for (long now = 0; now <= 2_100; now++) {
+            for (String item : wheel.advanceTo(now)) {
+                firedAt.put(item, now);
+            }
+        }
+
+        assertThat(firedAt).containsEntry("level0", 20L)
+                .containsEntry("level1", 80L)
+                .containsEntry("level2", 410L)
+                .containsEntry("level3", 2_010L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancel_RemovesTimerOnAnyLevel() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0);
+        wheel.add(15, "near");
+        wheel.add(500, "far");
+        wheel.add(500, "kept");
+
+        assertThat(wheel.cancel(15, "near")).isTrue();
+        assertThat(wheel.cancel(500, "far")).isTrue();
+        assertThat(wheel.cancel(500, "far")).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(wheel.advanceTo(1_000)).containsExactly("kept");
+    }
+
+    @Test
+    void cancel_AfterCascade_StillFindsTimer() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0);
+        wheel.add(170, "moved");
+        wheel.advanceTo(160);
+
+        assertThat(wheel.cancel(170, "moved")).isTrue();
+        assertThat(wheel.advanceTo(200)).isEmpty();
+    }
+
+    @Test
+    void cancel_FiredTimer_ReturnsFalse() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0);
+        wheel.add(15, "a");
+        wheel.advanceTo(20);
+
+        assertThat(wheel.cancel(15, "a")).isFalse();
+    }
+
+    @Test
+    void randomTimers_FireExactlyOnceInTheFirstAdvancePastTheirTick() {
+        Random random = new Random(42);
+        long start = 1_234;
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, start);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        Set<Integer> cancelled = new HashSet<>();
+        Map<Integer, long[]> firedBetween = new HashMap<>();
+
+        long now = start;
+        for (int item = 0; now < start + 20_000; item++) {
+            long deadline = now + random.nextInt(5_000);
+            assertThat(wheel.add(deadline, item)).isTrue();
+            deadlines.put(item, deadline);
+
+            if (random.nextInt(4) == 0) {
+                int victim = random.nextInt(item + 1);
+                if (!firedBetween.containsKey(victim) && cancelled.add(victim)) {
+                    assertThat(wheel.cancel(deadlines.get(victim), victim)).isTrue();
+                }
+            }
+
+            long previous = now;
+            now += random.nextInt(40);
+            for (Integer fired : wheel.advanceTo(now)) {
+                assertThat(firedBetween.put(fired, new long[]{previous, now})).isNull();
+            }
+        }
+        long previous = now;
+        now += 10_000;
+        for (Integer fired : wheel.advanceTo(now)) {
+            assertThat(firedBetween.put(fired, new long[]{previous, now})).isNull();
+        }
+
+        for (Map.Entry<Integer, Long> timer : deadlines.entrySet()) {
+            Integer item = timer.getKey();
+            if (cancelled.contains(item)) {
+                assertThat(firedBetween).doesNotContainKey(item);
+                continue;
+            }
+            long tickEnd = timer.getValue() - Math.floorMod(timer.getValue(), TICK) + TICK;
+            long[] window = firedBetween.get(item);
+            assertThat(window).as("timer %d", item).isNotNull();
+            assertThat(tickEnd).as("timer %d", item).isGreaterThan(window[0]).isLessThanOrEqualTo(window[1]);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+}
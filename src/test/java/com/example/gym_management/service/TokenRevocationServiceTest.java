@@ -0,0 +1,106 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.RevokedToken;
+import com.example.gym_management.entity.RevokedToken.RevocationKind;
+import com.example.gym_management.entity.RevokedToken.RevocationReason;
+import com.example.gym_management.repository.RevokedTokenRepository;
+import com.example.gym_management.security.JwtClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtClaims accessClaims;
+    private JwtClaims refreshClaims;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationService(revokedTokenRepository, 1000);
+
+        Date expiry = new Date(System.currentTimeMillis() + 3_600_000L);
+        accessClaims = new JwtClaims("access-1", "family-1", "admin", JwtClaims.ACCESS, new Date(), expiry,
+                1L, null, null, 0);
+        refreshClaims = new JwtClaims("refresh-1", "family-1", "admin", JwtClaims.REFRESH, new Date(), expiry,
+                null, null, null, null);
+    }
+
+    @Test
+    void isRevoked_UnknownToken_ReturnsFalse() {
+        assertThat(tokenRevocationService.isRevoked(accessClaims)).isFalse();
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void revokeToken_PersistsAndRevokesOnlyThatToken() {
+        tokenRevocationService.revokeToken(accessClaims, RevocationReason.LOGOUT);
+
+        assertThat(tokenRevocationService.isRevoked(accessClaims)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(refreshClaims)).isFalse();
+        verify(revokedTokenRepository).saveAndFlush(argThat(token ->
+                token.getTokenId().equals("access-1") && token.getKind() == RevocationKind.TOKEN));
+    }
+
+    @Test
+    void revokeFamily_RevokesEveryTokenOfTheFamily() {
+        tokenRevocationService.revokeFamily("family-1", RevocationReason.LOGOUT, LocalDateTime.now().plusDays(7));
+
+        assertThat(tokenRevocationService.isRevoked(accessClaims)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(refreshClaims)).isTrue();
+    }
+
+    @Test
+    void consumeRefreshToken_SecondUse_RevokesFamilyAndThrows() {
+        LocalDateTime familyExpiry = LocalDateTime.now().plusDays(7);
+        tokenRevocationService.consumeRefreshToken(refreshClaims, familyExpiry);
+
+        assertThatThrownBy(() -> tokenRevocationService.consumeRefreshToken(refreshClaims, familyExpiry))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already been used");
+        assertThat(tokenRevocationService.isRevoked(accessClaims)).isTrue();
+        verify(revokedTokenRepository).saveAndFlush(argThat(token ->
+                token.getKind() == RevocationKind.FAMILY && token.getReason() == RevocationReason.REUSE_DETECTED));
+    }
+
+    @Test
+    void consumeRefreshToken_ConcurrentUseOnAnotherInstance_RevokesFamilyAndThrows() {
+        when(revokedTokenRepository.saveAndFlush(argThat(token -> token.getKind() == RevocationKind.TOKEN)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThatThrownBy(() -> tokenRevocationService.consumeRefreshToken(refreshClaims,
+                LocalDateTime.now().plusDays(7)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(tokenRevocationService.isRevoked(accessClaims)).isTrue();
+    }
+
+    @Test
+    void syncAndPrune_LoadsPersistedRevocationsAndDeletesExpired() {
+        RevokedToken persisted = new RevokedToken("access-1", RevocationKind.TOKEN, RevocationReason.LOGOUT,
+                "family-1", LocalDateTime.now().plusHours(1));
+        when(revokedTokenRepository.findActive(any(LocalDateTime.class))).thenReturn(List.of(persisted));
+
+        tokenRevocationService.syncAndPrune();
+
+        assertThat(tokenRevocationService.isRevoked(accessClaims)).isTrue();
+        verify(revokedTokenRepository).deleteExpired(any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.Trainer;
+import com.example.gym_management.entity.TrainerAvailability;
+import com.example.gym_management.entity.TrainerTimeOff;
+import com.example.gym_management.repository.TrainerAvailabilityRepository;
+import com.example.gym_management.repository.TrainerRepository;
+import com.example.gym_management.repository.TrainerTimeOffRepository;
+import com.example.gym_management.service.TrainerAvailabilityIndex.TrainerCalendar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainerAvailabilityIndexTest {
+
+    // 2024-01-15 is a Monday.
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 15);
+
+    @Mock
+    private TrainerAvailabilityRepository availabilityRepository;
+
+    @Mock
+    private TrainerTimeOffRepository timeOffRepository;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    @InjectMocks
+    private TrainerAvailabilityIndex index;
+
+    private Trainer trainer;
+
+    @BeforeEach
+    void setUp() {
+        trainer = new Trainer("Jane", "Smith");
+        trainer.setId(1L);
+    }
+
+    @Test
+    void calendar_IsCachedUntilAvailabilityChanges() {
+        when(trainerRepository.existsById(1L)).thenReturn(true);
+        when(availabilityRepository.findByTrainerId(1L)).thenReturn(List.of(slot(DayOfWeek.MONDAY, 9, 17)));
+        when(timeOffRepository.findByTrainerId(1L)).thenReturn(List.of());
+
+        TrainerCalendar first = index.calendar(1L);
+        assertThat(index.calendar(1L)).isSameAs(first);
+        verify(availabilityRepository, times(1)).findByTrainerId(1L);
+
+        index.onAvailabilityChanged(new TrainerAvailabilityChangedEvent(1L));
+
+        assertThat(index.calendar(1L)).isNotSameAs(first);
+        verify(availabilityRepository, times(2)).findByTrainerId(1L);
+    }
+
+    @Test
+    void calendar_UnknownTrainer_ReturnsNull() {
+        when(trainerRepository.existsById(99L)).thenReturn(false);
+
+        assertThat(index.calendar(99L)).isNull();
+        verifyNoInteractions(availabilityRepository, timeOffRepository);
+    }
+
+    @Test
+    void calendars_LoadsStaleTrainersInOneQueryEach() {
+        Trainer other = new Trainer("John", "Doe");
+        other.setId(2L);
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(availabilityRepository.findByTrainerIdIn(ids)).thenReturn(List.of(
+                slot(DayOfWeek.MONDAY, 9, 17),
+                new TrainerAvailability(other, DayOfWeek.TUESDAY, LocalTime.of(9, 0), LocalTime.of(12, 0))));
+        when(timeOffRepository.findByTrainerIdIn(ids))
+                .thenReturn(List.of(new TrainerTimeOff(other, MONDAY.plusDays(1), "Sick")));
+
+        Map<Long, TrainerCalendar> calendars = index.calendars(ids);
+
+        assertThat(calendars).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(calendars.get(1L).isAvailableFor(MONDAY.atTime(10, 0), 60)).isTrue();
+        assertThat(calendars.get(2L).isAvailableFor(MONDAY.plusDays(1).atTime(10, 0), 60)).isFalse();
+        assertThat(calendars.get(2L).covers(MONDAY.plusDays(1).atTime(10, 0), 60)).isTrue();
+        assertThat(calendars.get(3L).isAvailableAt(MONDAY.atTime(10, 0))).isFalse();
+
+        assertThat(index.calendars(List.of(1L, 2L))).isEqualTo(Map.of(1L, calendars.get(1L), 2L, calendars.get(2L)));
+        verify(availabilityRepository, times(1)).findByTrainerIdIn(any());
+    }
+
+    @Test
+    void trainerCalendar_RoundsAvailabilityInwardAndClassesOutward() {
+        TrainerAvailability slot = new TrainerAvailability(trainer, DayOfWeek.MONDAY,
+                LocalTime.of(9, 10), LocalTime.of(16, 50));
+        TrainerCalendar calendar = new TrainerCalendar(List.of(slot), List.of(), System.nanoTime());
+
+        assertThat(calendar.covers(MONDAY.atTime(9, 15), 60)).isTrue();
+        assertThat(calendar.covers(MONDAY.atTime(9, 10), 60)).isFalse();
+        assertThat(calendar.covers(MONDAY.atTime(15, 45), 60)).isTrue();
+        assertThat(calendar.covers(MONDAY.atTime(15, 50), 60)).isFalse();
+    }
+
+    @Test
+    void trainerCalendar_ClassPastSundayMidnight_NeedsMondayToo() {
+        TrainerAvailability sundayNight = new TrainerAvailability(trainer, DayOfWeek.SUNDAY,
+                LocalTime.of(22, 0), LocalTime.MAX);
+        LocalDateTime start = MONDAY.plusDays(6).atTime(23, 30);
+        LocalDate nextMonday = MONDAY.plusWeeks(1);
+
+        TrainerCalendar sundayOnly = new TrainerCalendar(List.of(sundayNight), List.of(), System.nanoTime());
+        TrainerCalendar overnight = new TrainerCalendar(List.of(sundayNight, slot(DayOfWeek.MONDAY, 0, 6)),
+                List.of(new TrainerTimeOff(trainer, nextMonday, "Holiday")), System.nanoTime());
+
+        assertThat(sundayOnly.covers(start, 30)).isTrue();
+        assertThat(sundayOnly.covers(start, 60)).isFalse();
+        assertThat(overnight.covers(start, 60)).isTrue();
+        assertThat(overnight.isAvailableFor(start, 30)).isTrue();
+        assertThat(overnight.isAvailableFor(start, 60)).isFalse();
+        assertThat(overnight.firstTimeOff(MONDAY.atStartOfDay(), nextMonday.atTime(1, 0)))
+                .isEqualTo(nextMonday.atStartOfDay());
+    }
+
+    @Test
+    void trainerCalendar_MergesRangesAndHalfDays() {
+        TrainerTimeOff sickMorning = new TrainerTimeOff(trainer, MONDAY, MONDAY, false, true, "Sick");
+        TrainerTimeOff leave = new TrainerTimeOff(trainer, MONDAY.plusDays(1), MONDAY.plusDays(2), false, true,
+                "Leave");
+        TrainerTimeOff afternoon = new TrainerTimeOff(trainer, MONDAY.plusDays(2), MONDAY.plusDays(2), true, false,
+                "Appointment");
+        TrainerTimeOff legacy = new TrainerTimeOff(trainer, MONDAY.plusDays(4), null, false, false, "Holiday");
+        TrainerCalendar calendar = new TrainerCalendar(List.of(), List.of(afternoon, legacy, leave, sickMorning),
+                System.nanoTime());
+
+        assertThat(calendar.isOffAt(MONDAY.atTime(11, 59))).isTrue();
+        assertThat(calendar.isOffAt(MONDAY.atTime(12, 0))).isFalse();
+        assertThat(calendar.timeOffEnd(MONDAY.plusDays(1).atTime(9, 0))).isEqualTo(MONDAY.plusDays(3).atStartOfDay());
+        assertThat(calendar.timeOffEnd(MONDAY.atTime(13, 0))).isNull();
+        assertThat(calendar.firstTimeOff(MONDAY.atTime(12, 0), MONDAY.plusDays(1).atStartOfDay())).isNull();
+        assertThat(calendar.firstTimeOff(MONDAY.plusDays(3).atTime(8, 0), MONDAY.plusDays(5).atStartOfDay()))
+                .isEqualTo(MONDAY.plusDays(4).atStartOfDay());
+        assertThat(calendar.isOffAt(MONDAY.plusDays(5).atStartOfDay())).isFalse();
+    }
+
+    private TrainerAvailability slot(DayOfWeek day, int fromHour, int toHour) {
+        return new TrainerAvailability(trainer, day, LocalTime.of(fromHour, 0), LocalTime.of(toHour, 0));
+    }
+}
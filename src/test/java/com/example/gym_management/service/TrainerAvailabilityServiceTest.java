@@ -1,30 +1,40 @@
 package com.example.gym_management.service;
 
 import com.example.gym_management.dto.*;
+import com.example.gym_management.entity.ClassType;
 import com.example.gym_management.entity.Trainer;
 import com.example.gym_management.entity.TrainerAvailability;
 import com.example.gym_management.entity.TrainerTimeOff;
 import com.example.gym_management.mapper.TrainerAvailabilityMapper;
+import com.example.gym_management.repository.ClassTypeRepository;
+import com.example.gym_management.repository.GymRepository;
+import com.example.gym_management.repository.ScheduledClassRepository;
 import com.example.gym_management.repository.TrainerAvailabilityRepository;
 import com.example.gym_management.repository.TrainerRepository;
 import com.example.gym_management.repository.TrainerTimeOffRepository;
+import com.example.gym_management.service.TrainerAvailabilityIndex.TrainerCalendar;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -40,9 +50,24 @@ class TrainerAvailabilityServiceTest {
     @Mock
     private TrainerRepository trainerRepository;
 
+    @Mock
+    private GymRepository gymRepository;
+
+    @Mock
+    private ClassTypeRepository classTypeRepository;
+
+    @Mock
+    private ScheduledClassRepository scheduledClassRepository;
+
     @Mock
     private TrainerAvailabilityMapper availabilityMapper;
 
+    @Mock
+    private TrainerAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TrainerAvailabilityService trainerAvailabilityService;
 
@@ -70,9 +95,10 @@ class TrainerAvailabilityServiceTest {
         timeOff = new TrainerTimeOff(trainer, LocalDate.now().plusDays(7), "Vacation");
         timeOff.setId(1L);
 
-        timeOffRequest = new TrainerTimeOffRequest(LocalDate.now().plusDays(7), "Vacation");
+        timeOffRequest = new TrainerTimeOffRequest(LocalDate.now().plusDays(7), null, false, false, "Vacation");
 
-        timeOffResponse = new TrainerTimeOffResponse(1L, 1L, "Jane Smith", LocalDate.now().plusDays(7), "Vacation");
+        timeOffResponse = new TrainerTimeOffResponse(1L, 1L, "Jane Smith", LocalDate.now().plusDays(7),
+                LocalDate.now().plusDays(7), false, false, "Vacation");
     }
 
     @Test
@@ -89,6 +115,7 @@ class TrainerAvailabilityServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getDayOfWeek()).isEqualTo(DayOfWeek.MONDAY);
         verify(availabilityRepository).save(availability);
+        verify(eventPublisher).publishEvent(new TrainerAvailabilityChangedEvent(1L));
     }
 
     @Test
@@ -177,9 +204,10 @@ class TrainerAvailabilityServiceTest {
 
     @Test
     void createTimeOff_Success() {
-        when(trainerRepository.existsById(1L)).thenReturn(true);
-        when(timeOffRepository.existsByTrainerIdAndDate(1L, timeOffRequest.getDate())).thenReturn(false);
+        when(trainerRepository.lockAllByIdIn(List.of(1L))).thenReturn(List.of(trainer));
         when(availabilityMapper.toTimeOffEntity(timeOffRequest, 1L)).thenReturn(timeOff);
+        when(timeOffRepository.findByTrainerIdAndDateRange(1L, timeOff.getStartDate(), timeOff.getEndDate()))
+                .thenReturn(List.of());
         when(timeOffRepository.save(timeOff)).thenReturn(timeOff);
         when(availabilityMapper.toTimeOffResponse(timeOff)).thenReturn(timeOffResponse);
 
@@ -192,14 +220,47 @@ class TrainerAvailabilityServiceTest {
 
     @Test
     void createTimeOff_AlreadyExists_ThrowsException() {
-        when(trainerRepository.existsById(1L)).thenReturn(true);
-        when(timeOffRepository.existsByTrainerIdAndDate(1L, timeOffRequest.getDate())).thenReturn(true);
+        when(trainerRepository.lockAllByIdIn(List.of(1L))).thenReturn(List.of(trainer));
+        when(availabilityMapper.toTimeOffEntity(timeOffRequest, 1L)).thenReturn(timeOff);
+        when(timeOffRepository.findByTrainerIdAndDateRange(1L, timeOff.getStartDate(), timeOff.getEndDate()))
+                .thenReturn(List.of(timeOff));
 
         assertThatThrownBy(() -> trainerAvailabilityService.createTimeOff(1L, timeOffRequest))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("already exists");
     }
 
+    @Test
+    void createTimeOff_HalfDaysMeetingAtNoon_DoNotOverlap() {
+        LocalDate date = timeOff.getStartDate();
+        TrainerTimeOff morning = new TrainerTimeOff(trainer, date, date, false, true, "Dentist");
+        TrainerTimeOff afternoon = new TrainerTimeOff(trainer, date, date.plusDays(2), true, false, "Vacation");
+        TrainerTimeOffRequest request = new TrainerTimeOffRequest(date, date.plusDays(2), true, false, "Vacation");
+        when(trainerRepository.lockAllByIdIn(List.of(1L))).thenReturn(List.of(trainer));
+        when(availabilityMapper.toTimeOffEntity(request, 1L)).thenReturn(afternoon);
+        when(timeOffRepository.findByTrainerIdAndDateRange(1L, date, date.plusDays(2))).thenReturn(List.of(morning));
+        when(timeOffRepository.save(afternoon)).thenReturn(afternoon);
+
+        trainerAvailabilityService.createTimeOff(1L, request);
+
+        verify(timeOffRepository).save(afternoon);
+        verify(eventPublisher).publishEvent(new TrainerAvailabilityChangedEvent(1L));
+    }
+
+    @Test
+    void createTimeOff_EndBeforeStart_ThrowsException() {
+        LocalDate date = timeOff.getStartDate();
+        TrainerTimeOffRequest request = new TrainerTimeOffRequest(date, date.minusDays(1), false, false, null);
+        when(trainerRepository.lockAllByIdIn(List.of(1L))).thenReturn(List.of(trainer));
+        when(availabilityMapper.toTimeOffEntity(request, 1L))
+                .thenReturn(new TrainerTimeOff(trainer, date, date.minusDays(1), false, false, null));
+
+        assertThatThrownBy(() -> trainerAvailabilityService.createTimeOff(1L, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("End date cannot be before start date");
+        verify(timeOffRepository, never()).save(any());
+    }
+
     @Test
     void getTrainerTimeOff_Success() {
         List<TrainerTimeOff> timeOffs = List.of(timeOff);
@@ -221,19 +282,13 @@ class TrainerAvailabilityServiceTest {
         trainerAvailabilityService.deleteTimeOff(1L, 1L);
 
         verify(timeOffRepository).delete(timeOff);
+        verify(eventPublisher).publishEvent(new TrainerAvailabilityChangedEvent(1L));
     }
 
     @Test
     void isTrainerAvailable_Available_ReturnsTrue() {
         LocalDateTime dateTime = LocalDateTime.of(2024, 1, 15, 10, 0);
-        DayOfWeek dayOfWeek = dateTime.getDayOfWeek();
-        LocalTime time = dateTime.toLocalTime();
-        LocalDate date = dateTime.toLocalDate();
-
-        when(trainerRepository.existsById(1L)).thenReturn(true);
-        when(timeOffRepository.existsByTrainerIdAndDate(1L, date)).thenReturn(false);
-        when(availabilityRepository.findByTrainerIdAndDayOfWeekAndTimeWithin(1L, dayOfWeek, time))
-                .thenReturn(Optional.of(availability));
+        when(availabilityIndex.calendar(1L)).thenReturn(calendar(List.of()));
 
         boolean result = trainerAvailabilityService.isTrainerAvailable(1L, dateTime);
 
@@ -243,16 +298,32 @@ class TrainerAvailabilityServiceTest {
     @Test
     void isTrainerAvailable_HasTimeOff_ReturnsFalse() {
         LocalDateTime dateTime = LocalDateTime.of(2024, 1, 15, 10, 0);
-        LocalDate date = dateTime.toLocalDate();
-
-        when(trainerRepository.existsById(1L)).thenReturn(true);
-        when(timeOffRepository.existsByTrainerIdAndDate(1L, date)).thenReturn(true);
+        when(availabilityIndex.calendar(1L)).thenReturn(calendar(List.of(dateTime.toLocalDate())));
 
         boolean result = trainerAvailabilityService.isTrainerAvailable(1L, dateTime);
 
         assertThat(result).isFalse();
     }
 
+    @Test
+    void isTrainerAvailable_ClassRunsPastEndOfShift_ReturnsFalse() {
+        when(availabilityIndex.calendar(1L)).thenReturn(calendar(List.of()));
+
+        assertThat(trainerAvailabilityService.isTrainerAvailable(1L, LocalDateTime.of(2024, 1, 15, 16, 0), 60))
+                .isTrue();
+        assertThat(trainerAvailabilityService.isTrainerAvailable(1L, LocalDateTime.of(2024, 1, 15, 16, 30), 60))
+                .isFalse();
+    }
+
+    @Test
+    void isTrainerAvailable_TrainerNotFound_ThrowsException() {
+        when(availabilityIndex.calendar(99L)).thenReturn(null);
+
+        assertThatThrownBy(() -> trainerAvailabilityService.isTrainerAvailable(99L, LocalDateTime.now()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Trainer not found");
+    }
+
     @Test
     void findAvailableTrainers_Success() {
         LocalDate date = LocalDate.of(2024, 1, 15);
@@ -261,10 +332,10 @@ class TrainerAvailabilityServiceTest {
         AvailableTrainerDTO availableTrainerDTO = new AvailableTrainerDTO(1L, "Jane", "Smith",
                 LocalTime.of(9, 0), LocalTime.of(17, 0), List.of());
 
-        when(timeOffRepository.findTrainerIdsWithTimeOffOnDate(date)).thenReturn(List.of());
         when(availabilityRepository.findAvailableTrainersByDayAndTime(dayOfWeek, time))
                 .thenReturn(List.of(availability));
-        when(trainerRepository.findByIdWithClassTypes(1L)).thenReturn(Optional.of(trainer));
+        when(availabilityIndex.calendars(Set.of(1L))).thenReturn(Map.of(1L, calendar(List.of())));
+        when(trainerRepository.findByIdInWithClassTypes(Set.of(1L))).thenReturn(List.of(trainer));
         when(availabilityMapper.toAvailableTrainerDTO(trainer, availability)).thenReturn(availableTrainerDTO);
 
         List<AvailableTrainerDTO> result = trainerAvailabilityService.findAvailableTrainers(date, time);
@@ -273,50 +344,90 @@ class TrainerAvailabilityServiceTest {
         assertThat(result.get(0).getFirstName()).isEqualTo("Jane");
     }
 
+    @Test
+    void findAvailableTrainersForWindow_RanksFreeTrainersByEarliestStartThenLoad() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 15, 9, 0);
+        LocalDateTime to = from.plusHours(3);
+        Trainer busy = trainer;
+        Trainer free = new Trainer("John", "Doe");
+        free.setId(2L);
+        Trainer onLeave = new Trainer("Ann", "Lee");
+        onLeave.setId(3L);
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(gymRepository.existsById(1L)).thenReturn(true);
+        when(classTypeRepository.findById(1L)).thenReturn(Optional.of(new ClassType("Yoga", "Relaxing yoga class")));
+        when(trainerRepository.findQualifiedByGymIdWithClassTypes(1L, 1L)).thenReturn(List.of(busy, free, onLeave));
+        when(availabilityIndex.calendars(ids)).thenReturn(Map.of(
+                1L, calendar(List.of()), 2L, calendar(List.of()), 3L, calendar(List.of(from.toLocalDate()))));
+        when(scheduledClassRepository.findTrainerSlotsBetween(ids, from.minusHours(24), to)).thenReturn(List.of(
+                new ScheduleSlot(10L, 1L, 1L, from.minusMinutes(30), 60),
+                new ScheduleSlot(11L, 1L, 1L, from.minusHours(3), 60)));
+        when(availabilityMapper.toTrainerMatch(any(), any(), anyInt())).thenAnswer(invocation -> {
+            Trainer t = invocation.getArgument(0);
+            return new TrainerMatch(t.getId(), t.getFirstName(), t.getLastName(),
+                    invocation.getArgument(1), invocation.getArgument(2), List.of());
+        });
+
+        List<TrainerMatch> result = trainerAvailabilityService.findAvailableTrainers(1L, 1L, from, to, null);
+
+        assertThat(result).extracting(TrainerMatch::getId, TrainerMatch::getEarliestStart, TrainerMatch::getClassesInWindow)
+                .containsExactly(tuple(2L, from, 0), tuple(1L, from.plusMinutes(30), 1));
+    }
+
+    @Test
+    void findAvailableTrainersForWindow_DurationLongerThanWindow_ThrowsException() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 15, 9, 0);
+        when(gymRepository.existsById(1L)).thenReturn(true);
+        when(classTypeRepository.findById(1L)).thenReturn(Optional.of(new ClassType("Yoga", "Relaxing yoga class")));
+
+        assertThatThrownBy(() -> trainerAvailabilityService.findAvailableTrainers(1L, 1L, from, from.plusMinutes(45), 60))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("fit in the search window");
+        verifyNoInteractions(availabilityIndex, scheduledClassRepository);
+    }
+
     @Test
     void validateTrainerAvailabilityForClass_Available_Success() {
         LocalDateTime startTime = LocalDateTime.of(2024, 1, 15, 10, 0);
-        DayOfWeek dayOfWeek = startTime.getDayOfWeek();
-        LocalTime time = startTime.toLocalTime();
-        LocalDate date = startTime.toLocalDate();
+        when(availabilityIndex.calendar(1L)).thenReturn(calendar(List.of(startTime.toLocalDate().plusDays(1))));
 
-        when(trainerRepository.existsById(1L)).thenReturn(true);
-        when(timeOffRepository.existsByTrainerIdAndDate(1L, date)).thenReturn(false);
-        when(availabilityRepository.findByTrainerIdAndDayOfWeekAndTimeWithin(1L, dayOfWeek, time))
-                .thenReturn(Optional.of(availability));
-
-        trainerAvailabilityService.validateTrainerAvailabilityForClass(1L, startTime);
+        trainerAvailabilityService.validateTrainerAvailabilityForClass(1L, startTime, 60);
 
-        verify(availabilityRepository).findByTrainerIdAndDayOfWeekAndTimeWithin(1L, dayOfWeek, time);
+        verify(availabilityIndex).calendar(1L);
     }
 
     @Test
     void validateTrainerAvailabilityForClass_HasTimeOff_ThrowsException() {
         LocalDateTime startTime = LocalDateTime.of(2024, 1, 15, 10, 0);
-        LocalDate date = startTime.toLocalDate();
-
-        when(trainerRepository.existsById(1L)).thenReturn(true);
-        when(timeOffRepository.existsByTrainerIdAndDate(1L, date)).thenReturn(true);
+        when(availabilityIndex.calendar(1L)).thenReturn(calendar(List.of(startTime.toLocalDate())));
 
-        assertThatThrownBy(() -> trainerAvailabilityService.validateTrainerAvailabilityForClass(1L, startTime))
+        assertThatThrownBy(() -> trainerAvailabilityService.validateTrainerAvailabilityForClass(1L, startTime, 60))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("time off");
     }
 
     @Test
     void validateTrainerAvailabilityForClass_NotAvailable_ThrowsException() {
-        LocalDateTime startTime = LocalDateTime.of(2024, 1, 15, 10, 0);
-        DayOfWeek dayOfWeek = startTime.getDayOfWeek();
-        LocalTime time = startTime.toLocalTime();
-        LocalDate date = startTime.toLocalDate();
-
-        when(trainerRepository.existsById(1L)).thenReturn(true);
-        when(timeOffRepository.existsByTrainerIdAndDate(1L, date)).thenReturn(false);
-        when(availabilityRepository.findByTrainerIdAndDayOfWeekAndTimeWithin(1L, dayOfWeek, time))
-                .thenReturn(Optional.empty());
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 16, 10, 0);
+        when(availabilityIndex.calendar(1L)).thenReturn(calendar(List.of()));
 
-        assertThatThrownBy(() -> trainerAvailabilityService.validateTrainerAvailabilityForClass(1L, startTime))
+        assertThatThrownBy(() -> trainerAvailabilityService.validateTrainerAvailabilityForClass(1L, startTime, 60))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("not available");
     }
+
+    @Test
+    void validateTrainerAvailabilityForClass_EndsAfterShift_ThrowsException() {
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 15, 16, 30);
+        when(availabilityIndex.calendar(1L)).thenReturn(calendar(List.of()));
+
+        assertThatThrownBy(() -> trainerAvailabilityService.validateTrainerAvailabilityForClass(1L, startTime, 60))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Trainer is not available on MONDAY from 16:30 to 17:30");
+    }
+
+    private TrainerCalendar calendar(List<LocalDate> timeOff) {
+        return new TrainerCalendar(List.of(availability),
+                timeOff.stream().map(date -> new TrainerTimeOff(trainer, date, null)).toList(), System.nanoTime());
+    }
 }
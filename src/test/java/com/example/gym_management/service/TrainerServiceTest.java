@@ -18,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
@@ -41,6 +42,12 @@ class TrainerServiceTest {
     @Mock
     private TrainerMapper trainerMapper;
 
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TrainerService trainerService;
 
@@ -84,6 +91,7 @@ class TrainerServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         verify(trainerRepository).save(trainer);
+        verify(eventPublisher).publishEvent(SearchEntryChangedEvent.trainer(1L, 1L, "John", "Smith"));
     }
 
     @Test
@@ -124,10 +132,11 @@ class TrainerServiceTest {
         List<Trainer> trainers = List.of(trainer);
         List<TrainerResponse> responses = List.of(trainerResponse);
 
-        when(trainerRepository.searchByName("John")).thenReturn(trainers);
+        when(searchService.searchTrainers("John", null, null)).thenReturn(List.of(1L));
+        when(trainerRepository.findAllById(List.of(1L))).thenReturn(trainers);
         when(trainerMapper.toResponseListWithoutCount(trainers)).thenReturn(responses);
 
-        List<TrainerResponse> result = trainerService.searchTrainersByName("John");
+        List<TrainerResponse> result = trainerService.searchTrainersByName("John", null);
 
         assertThat(result).hasSize(1);
     }
@@ -165,6 +174,8 @@ class TrainerServiceTest {
         trainerService.deleteTrainer(1L);
 
         verify(trainerRepository).delete(trainer);
+        verify(eventPublisher).publishEvent(
+                SearchEntryChangedEvent.removed(SearchEntryChangedEvent.Kind.TRAINER, 1L));
     }
 
     @Test
@@ -258,9 +269,11 @@ class TrainerServiceTest {
     }
 
     @Test
-    void searchTrainersByName_EmptyName_ThrowsException() {
-        assertThatThrownBy(() -> trainerService.searchTrainersByName(""))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("cannot be empty");
+    void searchTrainersByNameAndGymId_NoMatches_SkipsLoading() {
+        when(gymRepository.existsById(1L)).thenReturn(true);
+        when(searchService.searchTrainers("zz", 1L, 5)).thenReturn(List.of());
+
+        assertThat(trainerService.searchTrainersByNameAndGymId("zz", 1L, 5)).isEmpty();
+        verify(trainerRepository, never()).findAllById(any());
     }
 }
@@ -0,0 +1,96 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.dto.WaitlistExpiryStatsResponse;
+import com.example.gym_management.entity.ScheduledClass;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.repository.WaitlistRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistExpirySchedulerTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private ScheduledClassRepository scheduledClassRepository;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @InjectMocks
+    private WaitlistExpiryScheduler waitlistExpiryScheduler;
+
+    @Test
+    void rebuild_ClassAlreadyStarted_ExpiresItsWaitlistImmediately() {
+        LocalDateTime startTime = LocalDateTime.now().minusMinutes(5);
+        when(waitlistRepository.findClassesWithWaitingEntries()).thenReturn(List.of(scheduledClass(1L, startTime)));
+        when(scheduledClassRepository.findStartTime(1L)).thenReturn(Optional.of(startTime));
+        when(waitlistService.expireStartedClass(eq(1L), any(LocalDateTime.class))).thenReturn(3);
+
+        waitlistExpiryScheduler.rebuild();
+
+        WaitlistExpiryStatsResponse stats = waitlistExpiryScheduler.getStats();
+        assertThat(stats.getExpiredByTimer()).isEqualTo(3L);
+        assertThat(stats.getArmedClasses()).isZero();
+    }
+
+    @Test
+    void rebuild_FutureClass_ArmsTimerWithoutExpiring() {
+        when(waitlistRepository.findClassesWithWaitingEntries())
+                .thenReturn(List.of(scheduledClass(1L, LocalDateTime.now().plusHours(3))));
+
+        waitlistExpiryScheduler.rebuild();
+        waitlistExpiryScheduler.tick();
+
+        assertThat(waitlistExpiryScheduler.getStats().getArmedClasses()).isEqualTo(1);
+        verifyNoInteractions(waitlistService);
+    }
+
+    @Test
+    void onWaitlistChanged_FirstJoin_ArmsClassOnce() {
+        LocalDateTime startTime = LocalDateTime.now().plusDays(1);
+
+        waitlistExpiryScheduler.onWaitlistChanged(WaitlistChangedEvent.joined(1L, startTime, 1L));
+        waitlistExpiryScheduler.onWaitlistChanged(WaitlistChangedEvent.joined(1L, startTime, 2L));
+        waitlistExpiryScheduler.onWaitlistChanged(WaitlistChangedEvent.left(1L, List.of(1L)));
+
+        assertThat(waitlistExpiryScheduler.getStats().getArmedClasses()).isEqualTo(1);
+    }
+
+    @Test
+    void sweep_MissedClass_ExpiresAndReportsLag() {
+        LocalDateTime startTime = LocalDateTime.now().minusMinutes(10);
+        when(waitlistRepository.findStartedClassesWithWaitingEntries(any(LocalDateTime.class)))
+                .thenReturn(List.of(scheduledClass(1L, startTime)));
+        when(waitlistService.expireStartedClass(eq(1L), any(LocalDateTime.class))).thenReturn(2);
+
+        int expired = waitlistExpiryScheduler.sweep();
+
+        WaitlistExpiryStatsResponse stats = waitlistExpiryScheduler.getStats();
+        assertThat(expired).isEqualTo(2);
+        assertThat(stats.getExpiredBySweep()).isEqualTo(2L);
+        assertThat(stats.getLastSweepMissedClasses()).isEqualTo(1);
+        assertThat(stats.getLastSweepMaxLagSeconds()).isGreaterThanOrEqualTo(600L);
+    }
+
+    private ScheduledClass scheduledClass(Long id, LocalDateTime startTime) {
+        ScheduledClass scheduledClass = new ScheduledClass();
+        scheduledClass.setId(id);
+        scheduledClass.setStartTime(startTime);
+        return scheduledClass;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.entity.ScheduledClass;
+import com.example.gym_management.entity.Waitlist;
+import com.example.gym_management.entity.Waitlist.WaitlistStatus;
+import com.example.gym_management.repository.WaitlistRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistOfferExpirySchedulerTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @InjectMocks
+    private WaitlistOfferExpiryScheduler waitlistOfferExpiryScheduler;
+
+    @AfterEach
+    void tearDown() {
+        waitlistOfferExpiryScheduler.stop();
+    }
+
+    @Test
+    void start_LoadedHoldAlreadyDue_ExpiresItWithoutPolling() {
+        when(waitlistRepository.findByStatus(WaitlistStatus.OFFERED))
+                .thenReturn(List.of(offered(11L, 1L, LocalDateTime.now().minusSeconds(1))));
+
+        waitlistOfferExpiryScheduler.start();
+
+        verify(waitlistService, timeout(1000)).expireOffers(eq(1L), eq(List.of(11L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void onOffered_HoldNotYetDue_IsNotExpired() throws InterruptedException {
+        when(waitlistRepository.findByStatus(WaitlistStatus.OFFERED)).thenReturn(List.of());
+        waitlistOfferExpiryScheduler.start();
+
+        waitlistOfferExpiryScheduler.onOffered(
+                new WaitlistOfferedEvent(1L, List.of(11L), LocalDateTime.now().plusMinutes(30)));
+        waitlistOfferExpiryScheduler.onOffered(
+                new WaitlistOfferedEvent(2L, List.of(21L), LocalDateTime.now().minusSeconds(1)));
+
+        verify(waitlistService, timeout(1000)).expireOffers(eq(2L), eq(List.of(21L)), any(LocalDateTime.class));
+        Thread.sleep(100);
+        verify(waitlistService, never()).expireOffers(eq(1L), any(), any());
+    }
+
+    @Test
+    void sweep_ExpiresMissedHoldsOnePassPerClass() {
+        LocalDateTime expiredAt = LocalDateTime.now().minusMinutes(10);
+        when(waitlistRepository.findByStatusAndOfferExpiresAtBefore(eq(WaitlistStatus.OFFERED),
+                any(LocalDateTime.class)))
+                .thenReturn(List.of(offered(11L, 1L, expiredAt), offered(12L, 1L, expiredAt),
+                        offered(21L, 2L, expiredAt)));
+        when(waitlistService.expireOffers(eq(1L), eq(List.of(11L, 12L)), any(LocalDateTime.class))).thenReturn(2);
+        when(waitlistService.expireOffers(eq(2L), eq(List.of(21L)), any(LocalDateTime.class))).thenReturn(1);
+
+        int expired = waitlistOfferExpiryScheduler.sweep();
+
+        assertThat(expired).isEqualTo(3);
+    }
+
+    @Test
+    void hold_SubMillisecondDeadline_IsRoundedUp() {
+        LocalDateTime whole = LocalDateTime.of(2026, 10, 17, 18, 0, 0, 5_000_000);
+        long wholeMillis = whole.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        assertThat(WaitlistOfferExpiryScheduler.Hold.deadlineMillis(whole)).isEqualTo(wholeMillis);
+        assertThat(WaitlistOfferExpiryScheduler.Hold.deadlineMillis(whole.plusNanos(1))).isEqualTo(wholeMillis + 1);
+        assertThat(WaitlistOfferExpiryScheduler.Hold.deadlineMillis(whole.plusNanos(999_999)))
+                .isEqualTo(wholeMillis + 1);
+    }
+
+    private Waitlist offered(Long id, Long scheduledClassId, LocalDateTime expiresAt) {
+        ScheduledClass scheduledClass = new ScheduledClass();
+        scheduledClass.setId(scheduledClassId);
+        Waitlist waitlist = new Waitlist();
+        waitlist.setId(id);
+        waitlist.setScheduledClass(scheduledClass);
+        waitlist.setStatus(WaitlistStatus.OFFERED);
+        waitlist.setOfferExpiresAt(expiresAt);
+        return waitlist;
+    }
+}
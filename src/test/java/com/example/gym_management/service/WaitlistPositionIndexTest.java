@@ -0,0 +1,56 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistPositionIndexTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    private WaitlistPositionIndex waitlistPositionIndex;
+
+    @BeforeEach
+    void setUp() {
+        waitlistPositionIndex = new WaitlistPositionIndex(waitlistRepository);
+    }
+
+    @Test
+    void positionOf_CountsWaitingEntriesAhead() {
+        when(waitlistRepository.findWaitingSequences(1L)).thenReturn(List.of(3L, 5L, 8L));
+
+        assertThat(waitlistPositionIndex.positionOf(1L, 3L)).isEqualTo(new WaitlistPositionIndex.Position(1, 3));
+        assertThat(waitlistPositionIndex.positionOf(1L, 8L)).isEqualTo(new WaitlistPositionIndex.Position(3, 3));
+        verify(waitlistRepository, times(1)).findWaitingSequences(1L);
+    }
+
+    @Test
+    void onWaitlistChanged_FollowsJoinsAndLeaves() {
+        when(waitlistRepository.findWaitingSequences(1L)).thenReturn(List.of(1L, 2L, 3L));
+        waitlistPositionIndex.positionOf(1L, 3L);
+
+        waitlistPositionIndex.onWaitlistChanged(WaitlistChangedEvent.left(1L, List.of(1L, 2L)));
+        waitlistPositionIndex.onWaitlistChanged(WaitlistChangedEvent.joined(1L, LocalDateTime.now().plusDays(1), 100L));
+
+        assertThat(waitlistPositionIndex.positionOf(1L, 3L)).isEqualTo(new WaitlistPositionIndex.Position(1, 2));
+        assertThat(waitlistPositionIndex.positionOf(1L, 100L)).isEqualTo(new WaitlistPositionIndex.Position(2, 2));
+    }
+
+    @Test
+    void positionOf_EntryJoinedOnAnotherInstance_IsAddedOnLookup() {
+        when(waitlistRepository.findWaitingSequences(1L)).thenReturn(List.of(1L, 2L));
+
+        assertThat(waitlistPositionIndex.positionOf(1L, 4L)).isEqualTo(new WaitlistPositionIndex.Position(3, 3));
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.gym_management.service;
+
+import com.example.gym_management.config.MembershipProperties;
+import com.example.gym_management.dto.WaitlistPositionResponse;
+import com.example.gym_management.dto.WaitlistResponse;
+import com.example.gym_management.entity.Booking.BookingStatus;
+import com.example.gym_management.entity.Member;
+import com.example.gym_management.entity.ScheduledClass;
+import com.example.gym_management.entity.Waitlist;
+import com.example.gym_management.entity.Waitlist.WaitlistStatus;
+import com.example.gym_management.mapper.WaitlistMapper;
+import com.example.gym_management.repository.BookingRepository;
+import com.example.gym_management.repository.MemberRepository;
+import com.example.gym_management.repository.ScheduledClassRepository;
+import com.example.gym_management.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private ScheduledClassRepository scheduledClassRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private SeatReservationService seatReservationService;
+
+    @Mock
+    private WaitlistMapper waitlistMapper;
+
+    @Spy
+    private MembershipProperties membershipProperties = new MembershipProperties();
+
+    @Mock
+    private WaitlistPositionIndex waitlistPositionIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private ScheduledClass scheduledClass;
+
+    @BeforeEach
+    void setUp() {
+        scheduledClass = new ScheduledClass();
+        scheduledClass.setId(1L);
+        scheduledClass.setStartTime(LocalDateTime.now().plusDays(1));
+    }
+
+    @Test
+    void offerFreeSeats_OffersAllFreeSeatsInOneBatch() {
+        Waitlist first = waitlist(11L, 101L);
+        Waitlist second = waitlist(12L, 102L);
+
+        when(scheduledClassRepository.findStartTime(1L)).thenReturn(Optional.of(scheduledClass.getStartTime()));
+        when(scheduledClassRepository.findFreeSeats(1L)).thenReturn(Optional.of(2), Optional.of(0));
+        when(waitlistRepository.lockNextWaiting(eq(1L), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(bookingRepository.findEnrolledMemberIds(1L, List.of(101L, 102L))).thenReturn(List.of());
+        when(seatReservationService.tryReserveSeats(1L, 2)).thenReturn(true);
+
+        int offered = waitlistService.offerFreeSeats(1L);
+
+        assertThat(offered).isEqualTo(2);
+        verify(waitlistRepository).offerWaiting(eq(List.of(11L, 12L)), eq(WaitlistStatus.OFFERED),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(bookingRepository, never()).insertFromWaitlist(anyList(), any());
+        verify(scheduledClassRepository).adjustWaitlistCount(1L, -2);
+        verify(eventPublisher).publishEvent(any(WaitlistOfferedEvent.class));
+    }
+
+    @Test
+    void offerFreeSeats_HoldEndsAtClassStartAtTheLatest() {
+        LocalDateTime startTime = LocalDateTime.now().plusMinutes(10);
+        Waitlist first = waitlist(11L, 101L);
+
+        when(scheduledClassRepository.findStartTime(1L)).thenReturn(Optional.of(startTime));
+        when(scheduledClassRepository.findFreeSeats(1L)).thenReturn(Optional.of(1), Optional.of(0));
+        when(waitlistRepository.lockNextWaiting(eq(1L), any(Pageable.class))).thenReturn(List.of(first));
+        when(bookingRepository.findEnrolledMemberIds(1L, List.of(101L))).thenReturn(List.of());
+        when(seatReservationService.tryReserveSeats(1L, 1)).thenReturn(true);
+
+        waitlistService.offerFreeSeats(1L);
+
+        verify(waitlistRepository).offerWaiting(eq(List.of(11L)), eq(WaitlistStatus.OFFERED),
+                any(LocalDateTime.class), eq(startTime));
+        verify(eventPublisher).publishEvent(new WaitlistOfferedEvent(1L, List.of(11L), startTime));
+    }
+
+    @Test
+    void offerFreeSeats_MemberAlreadyEnrolled_ExpiresEntryAndOffersSeatNextRound() {
+        Waitlist enrolled = waitlist(11L, 101L);
+        Waitlist next = waitlist(12L, 102L);
+
+        when(scheduledClassRepository.findStartTime(1L)).thenReturn(Optional.of(scheduledClass.getStartTime()));
+        when(scheduledClassRepository.findFreeSeats(1L)).thenReturn(Optional.of(1), Optional.of(1), Optional.of(0));
+        when(waitlistRepository.lockNextWaiting(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(enrolled), List.of(next));
+        when(bookingRepository.findEnrolledMemberIds(1L, List.of(101L))).thenReturn(List.of(101L));
+        when(bookingRepository.findEnrolledMemberIds(1L, List.of(102L))).thenReturn(List.of());
+        when(seatReservationService.tryReserveSeats(1L, 1)).thenReturn(true);
+
+        int offered = waitlistService.offerFreeSeats(1L);
+
+        assertThat(offered).isEqualTo(1);
+        verify(waitlistRepository).updateWaitingStatus(eq(List.of(11L)), eq(WaitlistStatus.EXPIRED), isNull());
+        verify(waitlistRepository).offerWaiting(eq(List.of(12L)), eq(WaitlistStatus.OFFERED),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void offerFreeSeats_NoFreeSeats_ClaimsNothing() {
+        when(scheduledClassRepository.findStartTime(1L)).thenReturn(Optional.of(scheduledClass.getStartTime()));
+        when(scheduledClassRepository.findFreeSeats(1L)).thenReturn(Optional.of(0));
+
+        int offered = waitlistService.offerFreeSeats(1L);
+
+        assertThat(offered).isZero();
+        verify(waitlistRepository, never()).lockNextWaiting(any(), any());
+    }
+
+    @Test
+    void offerFreeSeats_ClassStarted_OffersNothing() {
+        when(scheduledClassRepository.findStartTime(1L)).thenReturn(Optional.of(LocalDateTime.now().minusMinutes(1)));
+
+        int offered = waitlistService.offerFreeSeats(1L);
+
+        assertThat(offered).isZero();
+        verify(scheduledClassRepository, never()).findFreeSeats(any());
+    }
+
+    @Test
+    void offerFreeSeats_SeatsTakenConcurrently_StopsAfterBoundedRounds() {
+        Waitlist first = waitlist(11L, 101L);
+
+        when(scheduledClassRepository.findStartTime(1L)).thenReturn(Optional.of(scheduledClass.getStartTime()));
+        when(scheduledClassRepository.findFreeSeats(1L)).thenReturn(Optional.of(1));
+        when(waitlistRepository.lockNextWaiting(eq(1L), any(Pageable.class))).thenReturn(List.of(first));
+        when(bookingRepository.findEnrolledMemberIds(1L, List.of(101L))).thenReturn(List.of());
+        when(seatReservationService.tryReserveSeats(1L, 1)).thenReturn(false);
+
+        int offered = waitlistService.offerFreeSeats(1L);
+
+        assertThat(offered).isZero();
+        verify(waitlistRepository, never()).offerWaiting(anyList(), any(), any(), any());
+        verify(scheduledClassRepository, never()).adjustWaitlistCount(any(), anyInt());
+    }
+
+    @Test
+    void acceptOffer_OpenOffer_CreatesBookingOnHeldSeat() {
+        Waitlist waitlist = offered(11L, 101L);
+
+        when(waitlistRepository.findById(11L)).thenReturn(Optional.of(waitlist));
+        when(waitlistRepository.closeOpenOffer(eq(11L), eq(WaitlistStatus.PROMOTED), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(waitlistMapper.toResponse(waitlist)).thenReturn(new WaitlistResponse());
+
+        WaitlistResponse response = waitlistService.acceptOffer(11L);
+
+        assertThat(response.getStatus()).isEqualTo(WaitlistStatus.PROMOTED);
+        verify(bookingRepository).insertFromWaitlist(List.of(11L), BookingStatus.ENROLLED);
+        verify(seatReservationService, never()).tryReserveSeats(any(), anyInt());
+    }
+
+    @Test
+    void acceptOffer_HoldExpired_ThrowsAndBooksNothing() {
+        Waitlist waitlist = offered(11L, 101L);
+
+        when(waitlistRepository.findById(11L)).thenReturn(Optional.of(waitlist));
+        when(waitlistRepository.closeOpenOffer(eq(11L), eq(WaitlistStatus.PROMOTED), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        assertThatThrownBy(() -> waitlistService.acceptOffer(11L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("expired");
+        verify(bookingRepository, never()).insertFromWaitlist(anyList(), any());
+    }
+
+    @Test
+    void acceptOffer_EntryStillWaiting_Throws() {
+        Waitlist waitlist = waitlist(11L, 101L);
+
+        when(waitlistRepository.findById(11L)).thenReturn(Optional.of(waitlist));
+
+        assertThatThrownBy(() -> waitlistService.acceptOffer(11L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("no open offer");
+    }
+
+    @Test
+    void declineOffer_ReleasesSeatAndOffersItToNextEntry() {
+        Waitlist waitlist = offered(11L, 101L);
+        Waitlist next = waitlist(12L, 102L);
+
+        when(waitlistRepository.findById(11L)).thenReturn(Optional.of(waitlist));
+        when(waitlistRepository.closeOffer(11L, WaitlistStatus.DECLINED)).thenReturn(1);
+        when(scheduledClassRepository.findStartTime(1L)).thenReturn(Optional.of(scheduledClass.getStartTime()));
+        when(scheduledClassRepository.findFreeSeats(1L)).thenReturn(Optional.of(1), Optional.of(0));
+        when(waitlistRepository.lockNextWaiting(eq(1L), any(Pageable.class))).thenReturn(List.of(next));
+        when(bookingRepository.findEnrolledMemberIds(1L, List.of(102L))).thenReturn(List.of());
+        when(seatReservationService.tryReserveSeats(1L, 1)).thenReturn(true);
+        when(waitlistMapper.toResponse(waitlist)).thenReturn(new WaitlistResponse());
+
+        WaitlistResponse response = waitlistService.declineOffer(11L);
+
+        assertThat(response.getStatus()).isEqualTo(WaitlistStatus.DECLINED);
+        verify(seatReservationService).releaseSeats(1L, 1);
+        verify(waitlistRepository).offerWaiting(eq(List.of(12L)), eq(WaitlistStatus.OFFERED),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void expireOffers_NothingDue_LeavesSeatsAlone() {
+        LocalDateTime now = LocalDateTime.now();
+        when(waitlistRepository.expireOffers(List.of(11L), now, WaitlistStatus.EXPIRED)).thenReturn(0);
+
+        int expired = waitlistService.expireOffers(1L, List.of(11L), now);
+
+        assertThat(expired).isZero();
+        verify(seatReservationService, never()).releaseSeats(any(), anyInt());
+        verify(scheduledClassRepository, never()).findStartTime(any());
+    }
+
+    @Test
+    void getWaitlistPosition_SequencedEntry_UsesPositionIndex() {
+        Waitlist waitlist = waitlist(11L, 101L);
+        waitlist.setQueueSequence(7L);
+
+        when(waitlistRepository.findById(11L)).thenReturn(Optional.of(waitlist));
+        when(waitlistPositionIndex.positionOf(1L, 7L)).thenReturn(new WaitlistPositionIndex.Position(3, 5));
+
+        WaitlistPositionResponse response = waitlistService.getWaitlistPosition(11L);
+
+        assertThat(response.getPosition()).isEqualTo(3L);
+        assertThat(response.getTotalWaiting()).isEqualTo(5L);
+        verify(waitlistRepository, never()).getPositionInWaitlist(any(), any(), any());
+        verify(waitlistRepository, never()).countActiveWaitlistByScheduledClassId(any());
+    }
+
+    @Test
+    void getMemberWaitlistPositions_ReturnsPositionOfEveryWaitingEntry() {
+        Waitlist first = waitlist(11L, 101L);
+        first.setQueueSequence(2L);
+        Waitlist second = waitlist(12L, 101L);
+        second.setQueueSequence(9L);
+
+        when(memberRepository.existsById(101L)).thenReturn(true);
+        when(waitlistRepository.findByMemberIdAndStatus(101L, WaitlistStatus.WAITING))
+                .thenReturn(List.of(first, second));
+        when(waitlistPositionIndex.positionOf(1L, 2L)).thenReturn(new WaitlistPositionIndex.Position(1, 4));
+        when(waitlistPositionIndex.positionOf(1L, 9L)).thenReturn(new WaitlistPositionIndex.Position(4, 4));
+
+        List<WaitlistPositionResponse> positions = waitlistService.getMemberWaitlistPositions(101L);
+
+        assertThat(positions).extracting(WaitlistPositionResponse::getPosition).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void removeFromWaitlist_PublishesLeftSequence() {
+        Waitlist waitlist = waitlist(11L, 101L);
+        waitlist.setQueueSequence(7L);
+
+        when(waitlistRepository.findById(11L)).thenReturn(Optional.of(waitlist));
+        when(waitlistRepository.save(waitlist)).thenReturn(waitlist);
+
+        waitlistService.removeFromWaitlist(11L);
+
+        verify(scheduledClassRepository).adjustWaitlistCount(1L, -1);
+        verify(eventPublisher).publishEvent(WaitlistChangedEvent.left(1L, List.of(7L)));
+    }
+
+    @Test
+    void expireStartedClass_PublishesExpiredSequences() {
+        LocalDateTime now = LocalDateTime.now();
+        when(waitlistRepository.findWaitingSequences(1L)).thenReturn(List.of(3L, 4L));
+        when(waitlistRepository.expireWaitingOfStartedClass(1L, now, WaitlistStatus.EXPIRED)).thenReturn(2);
+
+        int expired = waitlistService.expireStartedClass(1L, now);
+
+        assertThat(expired).isEqualTo(2);
+        verify(scheduledClassRepository).adjustWaitlistCount(1L, -2);
+        verify(eventPublisher).publishEvent(WaitlistChangedEvent.left(1L, List.of(3L, 4L)));
+    }
+
+    @Test
+    void expireStartedClass_ClassMovedLater_PublishesNothing() {
+        LocalDateTime now = LocalDateTime.now();
+        when(waitlistRepository.findWaitingSequences(1L)).thenReturn(List.of(3L));
+        when(waitlistRepository.expireWaitingOfStartedClass(1L, now, WaitlistStatus.EXPIRED)).thenReturn(0);
+
+        assertThat(waitlistService.expireStartedClass(1L, now)).isZero();
+
+        verify(scheduledClassRepository, never()).adjustWaitlistCount(anyLong(), anyInt());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private Waitlist offered(Long id, Long memberId) {
+        Waitlist waitlist = waitlist(id, memberId);
+        waitlist.setStatus(WaitlistStatus.OFFERED);
+        waitlist.setOfferExpiresAt(LocalDateTime.now().plusMinutes(30));
+        return waitlist;
+    }
+
+    private Waitlist waitlist(Long id, Long memberId) {
+        Member member = new Member();
+        member.setId(memberId);
+        Waitlist waitlist = new Waitlist(member, scheduledClass);
+        waitlist.setId(id);
+        return waitlist;
+    }
+}